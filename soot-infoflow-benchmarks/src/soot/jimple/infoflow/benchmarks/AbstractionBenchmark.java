@@ -0,0 +1,82 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.benchmarks.RecordedTaints.NormalFlow;
+import soot.jimple.infoflow.data.Abstraction;
+
+/**
+ * Benchmarks for creating and comparing taint abstractions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class AbstractionBenchmark {
+
+	private List<NormalFlow> flows;
+	private List<Abstraction> copies;
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		flows = RecordedTaints.record(SecuriBench.RECORDED_TEST_CASE).getNormalFlows();
+
+		// Equal, but not identical objects, so that equals() needs to compare the
+		// contents
+		copies = new ArrayList<>(flows.size());
+		for (NormalFlow flow : flows)
+			copies.add(flow.source.clone());
+	}
+
+	private int nextIndex() {
+		int idx = index;
+		index = (idx + 1) % flows.size();
+		return idx;
+	}
+
+	@Benchmark
+	public Abstraction deriveNewAbstraction() {
+		NormalFlow flow = flows.get(nextIndex());
+		return flow.source.deriveNewAbstraction(flow.source.getAccessPath(), flow.destStmt);
+	}
+
+	@Benchmark
+	public boolean equalsEqualObject() {
+		int idx = nextIndex();
+		return flows.get(idx).source.equals(copies.get(idx));
+	}
+
+	@Benchmark
+	public boolean equalsOtherObject() {
+		int idx = nextIndex();
+		return flows.get(idx).source.equals(copies.get((idx + 1) % copies.size()));
+	}
+
+	@Benchmark
+	public int hashCodeCached() {
+		return flows.get(nextIndex()).source.hashCode();
+	}
+
+	@Benchmark
+	public int hashCodeFresh() {
+		// Abstractions cache their hash code, so we need a new object for every call
+		return flows.get(nextIndex()).source.clone().hashCode();
+	}
+
+}
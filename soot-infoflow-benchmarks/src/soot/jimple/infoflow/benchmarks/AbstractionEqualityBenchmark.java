@@ -0,0 +1,112 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.benchmarks.RecordedTaints.NormalFlow;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.Abstraction.EqualityTier;
+
+/**
+ * Benchmarks for comparing and hashing taint abstractions with the different
+ * equality tiers
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class AbstractionEqualityBenchmark {
+
+	@Param({ "Full", "NoImplicitFlows", "AccessPathAndSource" })
+	public EqualityTier tier;
+
+	private List<Abstraction> abstractions;
+	private List<Abstraction> copies;
+	private Set<Abstraction> jumpFunctions;
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		List<NormalFlow> flows = RecordedTaints.record(SecuriBench.RECORDED_TEST_CASE).getNormalFlows();
+
+		// Select the tier through the configuration, just like the data flow
+		// analysis does
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		switch (tier) {
+		case Full:
+			config.setSpecializedAbstractionEquality(false);
+			break;
+		case AccessPathAndSource:
+			config.setFlowSensitiveAliasing(false);
+			config.setEnableExceptionTracking(false);
+			break;
+		default:
+			break;
+		}
+		EqualityTier configuredTier = config.getSpecializedAbstractionEquality() ? Abstraction.getEqualityTier(config)
+				: EqualityTier.Full;
+		if (configuredTier != tier)
+			throw new RuntimeException(String.format("Could not configure equality tier %s", tier));
+		Abstraction.initialize(config);
+
+		// The recorded abstractions have cached the hash codes of the analysis run,
+		// so we compare fresh copies
+		abstractions = new ArrayList<>(flows.size());
+		copies = new ArrayList<>(flows.size());
+		jumpFunctions = new HashSet<>();
+		for (NormalFlow flow : flows) {
+			abstractions.add(flow.source.clone());
+			copies.add(flow.source.clone());
+			jumpFunctions.add(flow.source.clone());
+		}
+	}
+
+	private int nextIndex() {
+		int idx = index;
+		index = (idx + 1) % abstractions.size();
+		return idx;
+	}
+
+	@Benchmark
+	public boolean equalsEqualObject() {
+		int idx = nextIndex();
+		return abstractions.get(idx).equals(copies.get(idx));
+	}
+
+	@Benchmark
+	public boolean equalsOtherObject() {
+		int idx = nextIndex();
+		return abstractions.get(idx).equals(copies.get((idx + 1) % copies.size()));
+	}
+
+	@Benchmark
+	public int hashCodeFresh() {
+		// Abstractions cache their hash code, so we need a new object for every call
+		return abstractions.get(nextIndex()).clone().hashCode();
+	}
+
+	@Benchmark
+	public boolean jumpFunctionLookup() {
+		// A new fact that the solver checks against the facts it has already seen
+		return jumpFunctions.contains(abstractions.get(nextIndex()).clone());
+	}
+
+}
@@ -0,0 +1,52 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.benchmarks.RecordedTaints.NormalFlow;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+/**
+ * Benchmark for creating access paths. The access paths that were seen during
+ * a real analysis run are re-created from their components.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class AccessPathFactoryBenchmark {
+
+	private List<NormalFlow> flows;
+	private AccessPathFactory factory;
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		RecordedTaints taints = RecordedTaints.record(SecuriBench.RECORDED_TEST_CASE);
+		flows = taints.getNormalFlows();
+		factory = taints.getManager().getAccessPathFactory();
+	}
+
+	@Benchmark
+	public AccessPath createAccessPath() {
+		AccessPath ap = flows.get(index).source.getAccessPath();
+		index = (index + 1) % flows.size();
+		return factory.createAccessPath(ap.getPlainValue(), ap.getBaseType(), ap.getFragments(),
+				ap.getTaintSubFields(), false, true, ap.getArrayTaintType(), ap.getCanHaveImmutableAliases());
+	}
+
+}
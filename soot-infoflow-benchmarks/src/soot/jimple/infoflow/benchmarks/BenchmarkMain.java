@@ -0,0 +1,24 @@
+package soot.jimple.infoflow.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for running the benchmarks from the command line. Accepts the
+ * same arguments as the JMH runner, but always enables the GC profiler, so that
+ * the allocation rate is reported next to the throughput of every benchmark.
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		Options options = new OptionsBuilder().parent(cmdOptions).addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+
+}
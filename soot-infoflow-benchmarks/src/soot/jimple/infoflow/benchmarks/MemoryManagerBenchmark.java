@@ -0,0 +1,59 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.benchmarks.RecordedTaints.NormalFlow;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.FlowDroidMemoryManager;
+import soot.jimple.infoflow.data.FlowDroidMemoryManager.PathDataErasureMode;
+
+/**
+ * Benchmark for the memory manager that de-duplicates the abstractions which
+ * are generated by the flow functions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class MemoryManagerBenchmark {
+
+	@Param({ "EraseNothing", "KeepOnlyContextData", "EraseAll" })
+	public PathDataErasureMode erasePathData;
+
+	private List<NormalFlow> flows;
+	private FlowDroidMemoryManager memoryManager;
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		flows = RecordedTaints.record(SecuriBench.RECORDED_TEST_CASE).getNormalFlows();
+		memoryManager = new FlowDroidMemoryManager(false, erasePathData);
+	}
+
+	@Benchmark
+	public Abstraction handleGeneratedMemoryObject() {
+		NormalFlow flow = flows.get(index);
+		index = (index + 1) % flows.size();
+
+		// The memory manager modifies the generated abstraction, so we need a new one
+		// for every call
+		Abstraction output = flow.source.deriveNewAbstraction(flow.source.getAccessPath(), flow.destStmt);
+		return memoryManager.handleGeneratedMemoryObject(flow.source, output);
+	}
+
+}
@@ -0,0 +1,52 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.benchmarks.RecordedTaints.NormalFlow;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.problems.rules.PropagationRuleManager;
+
+/**
+ * Benchmark for applying the chain of propagation rules to the normal flow
+ * function
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class PropagationRuleBenchmark {
+
+	private List<NormalFlow> flows;
+	private PropagationRuleManager propagationRules;
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		RecordedTaints taints = RecordedTaints.record(SecuriBench.RECORDED_TEST_CASE);
+		flows = taints.getNormalFlows();
+		propagationRules = taints.getPropagationRules();
+	}
+
+	@Benchmark
+	public Set<Abstraction> applyNormalFlowFunction() {
+		NormalFlow flow = flows.get(index);
+		index = (index + 1) % flows.size();
+		return propagationRules.applyNormalFlowFunction(flow.d1, flow.source, flow.stmt, flow.destStmt);
+	}
+
+}
@@ -0,0 +1,137 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.aliasing.Aliasing;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler;
+import soot.jimple.infoflow.problems.rules.PropagationRuleManager;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+
+/**
+ * Data flow facts that have been recorded during a real analysis run. The
+ * microbenchmarks operate on these facts instead of synthetic ones, so that the
+ * access path lengths, source contexts and predecessor chains are realistic.
+ */
+class RecordedTaints {
+
+	/**
+	 * A single application of the normal flow function
+	 */
+	public static class NormalFlow {
+
+		public final Abstraction d1;
+		public final Abstraction source;
+		public final Stmt stmt;
+		public final Stmt destStmt;
+
+		NormalFlow(Abstraction d1, Abstraction source, Stmt stmt, Stmt destStmt) {
+			this.d1 = d1;
+			this.source = source;
+			this.stmt = stmt;
+			this.destStmt = destStmt;
+		}
+
+	}
+
+	private static final int MAX_SAMPLES = 4096;
+
+	private final List<NormalFlow> normalFlows = new ArrayList<>();
+	private InfoflowManager manager;
+	private IInfoflowSolver forwardSolver;
+	private Aliasing aliasing;
+	private PropagationRuleManager propagationRules;
+
+	private RecordedTaints() {
+	}
+
+	/**
+	 * Runs the data flow analysis on the given SecuriBench test case and records
+	 * the facts that are propagated over normal flow functions
+	 *
+	 * @param testCase The test case to analyze
+	 * @return The recorded facts
+	 */
+	public static RecordedTaints record(String testCase) {
+		RecordedTaints taints = new RecordedTaints();
+		Infoflow infoflow = SecuriBench.createInfoflow();
+		infoflow.setTaintPropagationHandler(taints.new Recorder());
+		SecuriBench.run(infoflow, testCase);
+		if (taints.normalFlows.isEmpty())
+			throw new RuntimeException(String.format("No data flow facts recorded for test case %s", testCase));
+
+		// The analysis releases the solver and the aliasing strategy once it is done,
+		// but the propagation rules still need them
+		taints.manager.setForwardSolver(taints.forwardSolver);
+		taints.manager.setAliasing(taints.aliasing);
+		return taints;
+	}
+
+	/**
+	 * Gets the recorded applications of normal flow functions
+	 *
+	 * @return The recorded normal flows
+	 */
+	public List<NormalFlow> getNormalFlows() {
+		return normalFlows;
+	}
+
+	/**
+	 * Gets the manager of the analysis run in which the facts were recorded
+	 *
+	 * @return The data flow manager
+	 */
+	public InfoflowManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Gets the propagation rules of the forward solver of the analysis run in which
+	 * the facts were recorded
+	 *
+	 * @return The propagation rules
+	 */
+	public PropagationRuleManager getPropagationRules() {
+		return propagationRules;
+	}
+
+	/**
+	 * Handler that captures the facts while the solver is running
+	 */
+	private class Recorder implements TaintPropagationHandler {
+
+		@Override
+		public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+			// nothing to do here
+		}
+
+		@Override
+		public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+				Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+			if (type == FlowFunctionType.NormalFlowFunction && stmt instanceof Stmt) {
+				List<Unit> succs = manager.getICFG().getSuccsOf(stmt);
+				if (!succs.isEmpty()) {
+					synchronized (normalFlows) {
+						if (RecordedTaints.this.manager == null) {
+							RecordedTaints.this.manager = manager;
+							forwardSolver = manager.getForwardSolver();
+							aliasing = manager.getAliasing();
+							propagationRules = forwardSolver.getTabulationProblem().getPropagationRules();
+						}
+						if (normalFlows.size() < MAX_SAMPLES)
+							normalFlows.add(new NormalFlow(d1, incoming, (Stmt) stmt, (Stmt) succs.get(0)));
+					}
+				}
+			}
+			return outgoing;
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import securibench.micro.BasicTestCase;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.config.IInfoflowConfig;
+import soot.jimple.infoflow.entryPointCreators.DefaultEntryPointCreator;
+import soot.options.Options;
+
+/**
+ * Fixed analysis inputs for the benchmarks. The SecuriBench Micro test cases
+ * are compiled into this module, so that all benchmark runs analyze exactly the
+ * same code.
+ */
+class SecuriBench {
+
+	/**
+	 * The test case from which the microbenchmarks take their data flow facts
+	 */
+	public static final String RECORDED_TEST_CASE = "inter.Inter4";
+
+	private static final List<String> SOURCES = Arrays.asList(
+			"<javax.servlet.ServletRequest: java.lang.String getParameter(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: java.lang.String getParameter(java.lang.String)>",
+			"<javax.servlet.ServletRequest: java.lang.String[] getParameterValues(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: java.lang.String[] getParameterValues(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: javax.servlet.http.Cookie[] getCookies()>",
+			"<javax.servlet.http.HttpServletRequest: java.lang.String getHeader(java.lang.String)>");
+
+	private static final List<String> SINKS = Arrays.asList("<java.io.PrintWriter: void println(java.lang.String)>",
+			"<java.io.PrintWriter: void println(java.lang.Object)>",
+			"<java.sql.Statement: boolean execute(java.lang.String)>",
+			"<java.sql.Statement: java.sql.ResultSet executeQuery(java.lang.String)>",
+			"<javax.servlet.http.HttpServletResponse: void sendRedirect(java.lang.String)>");
+
+	private static final IInfoflowConfig SOOT_CONFIG = (options, config) -> {
+		options.set_include(Arrays.asList("java.lang.*", "java.util.*", "java.io.*", "securibench.*",
+				"javax.servlet.*"));
+		options.set_output_format(Options.output_format_none);
+	};
+
+	private SecuriBench() {
+	}
+
+	/**
+	 * Creates a data flow analysis that is configured for the SecuriBench test
+	 * cases
+	 *
+	 * @return The new data flow analysis
+	 */
+	public static Infoflow createInfoflow() {
+		Infoflow infoflow = new Infoflow("", false, null);
+		infoflow.setSootConfig(SOOT_CONFIG);
+		infoflow.getConfig().setInspectSinks(false);
+		return infoflow;
+	}
+
+	/**
+	 * Runs the given data flow analysis on the given SecuriBench test case
+	 *
+	 * @param infoflow The data flow analysis to run
+	 * @param testCase The test case, relative to the
+	 *                 <code>securibench.micro</code> package, e.g.,
+	 *                 "basic.Basic1"
+	 */
+	public static void run(IInfoflow infoflow, String testCase) {
+		String entryPoint = "<securibench.micro." + testCase
+				+ ": void doGet(javax.servlet.http.HttpServletRequest,javax.servlet.http.HttpServletResponse)>";
+		DefaultEntryPointCreator entryPointCreator = new DefaultEntryPointCreator(
+				Collections.singletonList(entryPoint));
+		entryPointCreator.setSubstituteCallParams(false);
+		infoflow.computeInfoflow(getAppPath(), getLibPath(), entryPointCreator, SOURCES, SINKS);
+	}
+
+	/**
+	 * Gets the path from which the SecuriBench classes are loaded
+	 *
+	 * @return The application path for the data flow analysis
+	 */
+	private static String getAppPath() {
+		return getLocation(BasicTestCase.class);
+	}
+
+	/**
+	 * Gets the path from which Soot shall load the Java runtime and the servlet
+	 * API
+	 *
+	 * @return The library path for the data flow analysis
+	 */
+	private static String getLibPath() {
+		return System.getProperty("java.home") + File.separator + "lib" + File.separator + "rt.jar"
+				+ File.pathSeparator + getLocation(HttpServletRequest.class);
+	}
+
+	private static String getLocation(Class<?> clazz) {
+		try {
+			return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+		} catch (URISyntaxException e) {
+			throw new RuntimeException(String.format("Could not find the location of class %s", clazz.getName()), e);
+		}
+	}
+
+}
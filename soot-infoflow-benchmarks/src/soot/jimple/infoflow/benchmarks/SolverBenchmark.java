@@ -0,0 +1,59 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
+import soot.jimple.infoflow.results.InfoflowResults;
+
+/**
+ * Benchmark for a complete data flow analysis on fixed SecuriBench test cases.
+ * The callgraph is only built once per trial, so that the benchmark measures
+ * the data flow solvers and the path reconstruction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class SolverBenchmark {
+
+	@Param({ "basic.Basic1", "aliasing.Aliasing4", "collections.Collections3", "inter.Inter4" })
+	public String testCase;
+
+	@Param({ "ContextFlowSensitive", "GarbageCollecting" })
+	public DataFlowSolver dataFlowSolver;
+
+	private Infoflow infoflow;
+
+	@Setup
+	public void setup() {
+		infoflow = SecuriBench.createInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(dataFlowSolver);
+
+		// The first run builds the callgraph, all later runs re-use it
+		SecuriBench.run(infoflow, testCase);
+		infoflow.getConfig().setSootIntegrationMode(SootIntegrationMode.UseExistingCallgraph);
+	}
+
+	@Benchmark
+	public InfoflowResults solve() {
+		SecuriBench.run(infoflow, testCase);
+		return infoflow.getResults();
+	}
+
+}
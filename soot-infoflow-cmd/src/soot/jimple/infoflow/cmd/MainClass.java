@@ -27,6 +27,7 @@ import soot.jimple.infoflow.InfoflowConfiguration.CallbackSourceMode;
 import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
 import soot.jimple.infoflow.InfoflowConfiguration.ImplicitFlowMode;
 import soot.jimple.infoflow.InfoflowConfiguration.LayoutMatchingMode;
 import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
@@ -72,6 +73,7 @@ public class MainClass {
 	private static final String OPTION_PLATFORMS_DIR = "p";
 	private static final String OPTION_SOURCES_SINKS_FILE = "s";
 	private static final String OPTION_OUTPUT_FILE = "o";
+	private static final String OPTION_RESULT_STREAM = "rs";
 	private static final String OPTION_ADDITIONAL_CLASSPATH = "ac";
 	private static final String OPTION_SKIP_APK_FILE = "si";
 	private static final String OPTION_WRITE_JIMPLE_FILES = "wj";
@@ -120,6 +122,13 @@ public class MainClass {
 	private static final String OPTION_PATH_RECONSTRUCTION_ALGO = "pa";
 	private static final String OPTION_CALLBACK_ANALYZER = "ca";
 	private static final String OPTION_DATA_FLOW_SOLVER = "ds";
+	private static final String OPTION_SOLVER_EXECUTOR = "ex";
+	private static final String OPTION_SUMMARY_CACHE = "sc";
+	private static final String OPTION_INCREMENTAL = "inc";
+	private static final String OPTION_GC_SPILL_DIR = "gcs";
+	private static final String OPTION_METRICS_INTERVAL = "mint";
+	private static final String OPTION_METRICS_PORT = "mhttp";
+	private static final String OPTION_METRICS_JMX = "mjmx";
 	private static final String OPTION_ALIAS_ALGO = "aa";
 	private static final String OPTION_CODE_ELIMINATION_MODE = "ce";
 	private static final String OPTION_CALLBACK_SOURCE_MODE = "cs";
@@ -152,6 +161,8 @@ public class MainClass {
 				"Path to the platforms directory from the Android SDK");
 		options.addOption(OPTION_SOURCES_SINKS_FILE, "sourcessinksfile", true, "Definition file for sources and sinks");
 		options.addOption(OPTION_OUTPUT_FILE, "outputfile", true, "Output XML file for the discovered data flows");
+		options.addOption(OPTION_RESULT_STREAM, "resultstream", true,
+				"Stream the discovered data flows as newline-delimited JSON, or in binary format for .fdrb files, to the given file (- for stdout) while the analysis is running");
 		options.addOption(OPTION_ADDITIONAL_CLASSPATH, "additionalclasspath", true,
 				"Additional JAR file that shal be put on the classpath");
 		options.addOption(OPTION_SKIP_APK_FILE, "skipapkfile", true,
@@ -227,9 +238,22 @@ public class MainClass {
 		options.addOption(OPTION_CALLBACK_ANALYZER, "callbackanalyzer", true,
 				"Use the specified callback analyzer (DEFAULT, FAST)");
 		options.addOption(OPTION_DATA_FLOW_SOLVER, "dataflowsolver", true,
-				"Use the specified data flow solver (CONTEXTFLOWSENSITIVE, FLOWINSENSITIVE)");
+				"Use the specified data flow solver (CONTEXTFLOWSENSITIVE, FLOWINSENSITIVE, GC, SHARDED)");
+		options.addOption(OPTION_SOLVER_EXECUTOR, "solverexecutor", true,
+				"Use the specified executor for scheduling the data flow solver's edges (THREADPOOL, WORKSTEALING, DETERMINISTIC)");
+		options.addOption(OPTION_SUMMARY_CACHE, "summarycache", true,
+				"Persist the summaries of library methods in the given directory and re-use them in later runs");
+		options.addOption(OPTION_INCREMENTAL, "incremental", false,
+				"Only re-analyze the methods that have changed since the last run with the same summary cache");
+		options.addOption(OPTION_GC_SPILL_DIR, "gcspilldir", true,
+				"Move the jump functions evicted by the GC solver to a file in the given directory instead of discarding them");
+		options.addOption(OPTION_METRICS_INTERVAL, "metricsinterval", true,
+				"Interval in seconds in which the live solver metrics are updated");
+		options.addOption(OPTION_METRICS_PORT, "metricsport", true,
+				"Serve the live solver metrics as JSON on the given local port (0 for any free port)");
+		options.addOption(OPTION_METRICS_JMX, "metricsjmx", false, "Publish the live solver metrics as a JMX bean");
 		options.addOption(OPTION_ALIAS_ALGO, "aliasalgo", true,
-				"Use the specified aliasing algorithm (NONE, FLOWSENSITIVE, PTSBASED, LAZY)");
+				"Use the specified aliasing algorithm (NONE, FLOWSENSITIVE, PTSBASED, LAZY, SUMMARY)");
 		options.addOption(OPTION_CODE_ELIMINATION_MODE, "codeelimination", true,
 				"Use the specified code elimination algorithm (NONE, PROPAGATECONSTS, REMOVECODE)");
 		options.addOption(OPTION_CALLBACK_SOURCE_MODE, "callbacksourcemode", true,
@@ -646,12 +670,27 @@ public class MainClass {
 			return DataFlowSolver.FlowInsensitive;
 		else if (solver.equalsIgnoreCase("GC"))
 			return DataFlowSolver.GarbageCollecting;
+		else if (solver.equalsIgnoreCase("SHARDED"))
+			return DataFlowSolver.MethodSharded;
 		else {
 			System.err.println(String.format("Invalid data flow solver: %s", solver));
 			throw new AbortAnalysisException();
 		}
 	}
 
+	private static ExecutorType parseExecutorType(String executor) {
+		if (executor.equalsIgnoreCase("THREADPOOL"))
+			return ExecutorType.ThreadPool;
+		else if (executor.equalsIgnoreCase("WORKSTEALING"))
+			return ExecutorType.WorkStealing;
+		else if (executor.equalsIgnoreCase("DETERMINISTIC"))
+			return ExecutorType.Deterministic;
+		else {
+			System.err.println(String.format("Invalid solver executor: %s", executor));
+			throw new AbortAnalysisException();
+		}
+	}
+
 	private static AliasingAlgorithm parseAliasAlgorithm(String aliasAlgo) {
 		if (aliasAlgo.equalsIgnoreCase("NONE"))
 			return AliasingAlgorithm.None;
@@ -661,6 +700,8 @@ public class MainClass {
 			return AliasingAlgorithm.PtsBased;
 		else if (aliasAlgo.equalsIgnoreCase("LAZY"))
 			return AliasingAlgorithm.Lazy;
+		else if (aliasAlgo.equalsIgnoreCase("SUMMARY"))
+			return AliasingAlgorithm.Summary;
 		else {
 			System.err.println(String.format("Invalid aliasing algorithm: %s", aliasAlgo));
 			throw new AbortAnalysisException();
@@ -772,6 +813,17 @@ public class MainClass {
 			if (outputFile != null && !outputFile.isEmpty())
 				config.getAnalysisFileConfig().setOutputFile(outputFile);
 		}
+		{
+			String resultStream = cmd.getOptionValue(OPTION_RESULT_STREAM);
+			if (resultStream != null && !resultStream.isEmpty()) {
+				config.getOutputConfiguration().setResultStreamTarget(resultStream);
+
+				// The output file is only written at the end and needs all results
+				String outputFile = config.getAnalysisFileConfig().getOutputFile();
+				if (outputFile != null && !outputFile.isEmpty())
+					config.getOutputConfiguration().setRetainStreamedResults(true);
+			}
+		}
 		{
 			String additionalClasspath = cmd.getOptionValue(OPTION_ADDITIONAL_CLASSPATH);
 			if (additionalClasspath != null && !additionalClasspath.isEmpty())
@@ -884,6 +936,35 @@ public class MainClass {
 			if (solver != null && !solver.isEmpty())
 				config.getSolverConfiguration().setDataFlowSolver(parseDataFlowSolver(solver));
 		}
+		{
+			String executor = cmd.getOptionValue(OPTION_SOLVER_EXECUTOR);
+			if (executor != null && !executor.isEmpty())
+				config.getSolverConfiguration().setExecutorType(parseExecutorType(executor));
+		}
+		{
+			String summaryCache = cmd.getOptionValue(OPTION_SUMMARY_CACHE);
+			if (summaryCache != null && !summaryCache.isEmpty())
+				config.getSolverConfiguration().setSummaryCacheDirectory(summaryCache);
+		}
+		if (cmd.hasOption(OPTION_INCREMENTAL))
+			config.getSolverConfiguration().setIncrementalAnalysis(true);
+		{
+			String spillDir = cmd.getOptionValue(OPTION_GC_SPILL_DIR);
+			if (spillDir != null && !spillDir.isEmpty())
+				config.getSolverConfiguration().setJumpFunctionSpillDirectory(spillDir);
+		}
+		{
+			Integer interval = getIntOption(cmd, OPTION_METRICS_INTERVAL);
+			if (interval != null)
+				config.setMetricsInterval(interval);
+		}
+		{
+			Integer port = getIntOption(cmd, OPTION_METRICS_PORT);
+			if (port != null)
+				config.setMetricsHttpPort(port);
+		}
+		if (cmd.hasOption(OPTION_METRICS_JMX))
+			config.setMetricsJmxEnabled(true);
 		{
 			String aliasAlgo = cmd.getOptionValue(OPTION_ALIAS_ALGO);
 			if (aliasAlgo != null && !aliasAlgo.isEmpty())
@@ -29,6 +29,7 @@ import soot.jimple.ReturnStmt;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.collect.ConsList;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.data.AccessPathFragment;
@@ -37,7 +38,6 @@ import soot.jimple.infoflow.methodSummary.util.AliasUtils;
 import soot.jimple.infoflow.taintWrappers.IReversibleTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.util.BaseSelector;
-import soot.jimple.infoflow.util.extensiblelist.ExtensibleList;
 
 /**
  * Path tracking item adapted for reconstructing source access paths
@@ -91,11 +91,9 @@ class SummarySourceContextAndPath extends SourceContextAndPath {
 
 		// Extend the call stack
 		if (abs.getCorrespondingCallSite() != null && abs.getCorrespondingCallSite() != abs.getCurrentStmt()) {
-			if (scap.callStack == null)
-				scap.callStack = new ExtensibleList<Stmt>();
-			else if (!scap.callStack.isEmpty() && scap.callStack.getFirstSlow() == abs.getCorrespondingCallSite())
+			if (scap.callStack != null && scap.callStack.last() == abs.getCorrespondingCallSite())
 				return null;
-			scap.callStack = scap.callStack.add(abs.getCorrespondingCallSite());
+			scap.callStack = ConsList.push(scap.callStack, abs.getCorrespondingCallSite(), callStackInterner);
 		}
 
 		// Compute the next access path
@@ -568,10 +566,8 @@ class SummarySourceContextAndPath extends SourceContextAndPath {
 	public synchronized SummarySourceContextAndPath clone() {
 		final SummarySourceContextAndPath scap = new SummarySourceContextAndPath(manager, getAccessPath(), getStmt(),
 				curAP, isAlias, depth, new ArrayList<>(callees), getUserData(), context);
-		if (callStack != null)
-			scap.callStack = new ExtensibleList<Stmt>(callStack);
-		if (path != null)
-			scap.path = new ExtensibleList<Abstraction>(path);
+		scap.callStack = callStack;
+		scap.path = path;
 		return scap;
 	}
 
@@ -6,10 +6,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.ArrayType;
@@ -54,6 +59,7 @@ import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryResolve
 import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryResponse;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.IFollowReturnsPastSeedsHandler;
+import soot.jimple.infoflow.taintWrappers.ICacheableTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.IReversibleTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
@@ -70,7 +76,7 @@ import soot.util.MultiMap;
  * @author Steven Arzt
  *
  */
-public class SummaryTaintWrapper implements IReversibleTaintWrapper {
+public class SummaryTaintWrapper implements IReversibleTaintWrapper, ICacheableTaintWrapper {
 
 	private InfoflowManager manager;
 	private AtomicInteger wrapperHits = new AtomicInteger();
@@ -1795,4 +1801,45 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		return resAbs;
 	}
 
+	@Override
+	public String getConfigurationKey() {
+		// The fallback wrapper is part of the configuration
+		String fallbackKey = "none";
+		if (fallbackWrapper != null) {
+			if (!(fallbackWrapper instanceof ICacheableTaintWrapper))
+				return null;
+			String key = ((ICacheableTaintWrapper) fallbackWrapper).getConfigurationKey();
+			if (key == null)
+				return null;
+			fallbackKey = fallbackWrapper.getClass().getName() + "{" + key + "}";
+		}
+
+		// Hash all summaries in a stable order
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (String className : new TreeSet<>(flows.getAllClassesWithSummaries())) {
+			ClassMethodSummaries classSummaries = flows.getClassFlows(className);
+			if (classSummaries == null)
+				continue;
+
+			List<String> entries = new ArrayList<>();
+			for (MethodFlow flow : classSummaries.getMethodSummaries())
+				entries.add(String.format("%s %s -> %s alias=%s typeChecking=%s cutSubFields=%s", flow.methodSig(),
+						new TreeMap<>(flow.source().xmlAttributes()), new TreeMap<>(flow.sink().xmlAttributes()),
+						flow.isAlias(), flow.getTypeChecking(), flow.getCutSubFields()));
+			for (MethodClear clear : classSummaries.getAllClears())
+				entries.add(String.format("%s clears %s", clear.methodSig(),
+						new TreeMap<>(clear.getClearDefinition().xmlAttributes())));
+			Collections.sort(entries);
+
+			hasher.putUnencodedChars(className);
+			hasher.putUnencodedChars(String.valueOf(classSummaries.getSuperClass()));
+			hasher.putUnencodedChars(new TreeSet<>(classSummaries.getInterfaces()).toString());
+			hasher.putBoolean(classSummaries.isExclusiveForClass());
+			for (String entry : entries)
+				hasher.putUnencodedChars(entry);
+		}
+		return String.format("summaries=%s;reportMissing=%s;fallback=%s", hasher.hash(), reportMissingSummaries,
+				fallbackKey);
+	}
+
 }
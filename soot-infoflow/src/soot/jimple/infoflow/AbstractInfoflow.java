@@ -1,6 +1,7 @@
 package soot.jimple.infoflow;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -14,6 +15,9 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.JMException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +37,7 @@ import soot.jimple.infoflow.InfoflowConfiguration.AccessPathConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.OutputConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
@@ -67,9 +72,15 @@ import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
 import soot.jimple.infoflow.memory.FlowDroidTimeoutWatcher;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.memory.reasons.AbortRequestedReason;
 import soot.jimple.infoflow.memory.reasons.OutOfMemoryReason;
 import soot.jimple.infoflow.memory.reasons.TimeoutReason;
+import soot.jimple.infoflow.metrics.HttpMetricsEndpoint;
+import soot.jimple.infoflow.metrics.ISolverMetricsListener;
+import soot.jimple.infoflow.metrics.JmxMetricsEndpoint;
+import soot.jimple.infoflow.metrics.SolverMetrics;
+import soot.jimple.infoflow.metrics.SolverMetricsReporter;
 import soot.jimple.infoflow.nativeCallHandler.INativeCallHandler;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
@@ -79,15 +90,21 @@ import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.results.ResultSinkInfo;
 import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.stream.IResultStreamWriter;
+import soot.jimple.infoflow.results.stream.NDJsonResultWriter;
+import soot.jimple.infoflow.results.stream.StreamingResultsHandler;
+import soot.jimple.infoflow.results.xml.BinaryResultsWriter;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.SolverPeerGroup;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.gcSolver.GCSolverPeerGroup;
 import soot.jimple.infoflow.solver.memory.DefaultMemoryManagerFactory;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.infoflow.solver.memory.IMemoryManagerFactory;
+import soot.jimple.infoflow.solver.summaryCache.PersistentSummaryCache;
 import soot.jimple.infoflow.sourcesSinks.manager.DefaultSourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.IOneSourceAtATimeManager;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
@@ -142,8 +159,11 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	protected boolean throwExceptions;
 
 	protected Set<ResultsAvailableHandler> onResultsAvailable = new HashSet<>();
+	protected StreamingResultsHandler resultStream = null;
 	protected TaintPropagationHandler taintPropagationHandler = null;
 	protected TaintPropagationHandler aliasPropagationHandler = null;
+	protected List<ISolverMetricsListener> metricsListeners = new ArrayList<>();
+	protected List<ISolverMetricsListener> serviceMetricsListeners = null;
 
 	protected FlowDroidMemoryWatcher memoryWatcher = null;
 
@@ -569,6 +589,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				memoryWatcher = null;
 			}
 			memoryWatcher = new FlowDroidMemoryWatcher(results, config.getMemoryThreshold());
+			if (config.getMemoryBackPressure())
+				memoryWatcher.enableBackPressure();
 
 			// Initialize the abstraction configuration
 			Abstraction.initialize(config);
@@ -629,9 +651,56 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			logger.error("Exception during data flow analysis", ex);
 			if (throwExceptions)
 				throw ex;
+		} finally {
+			closeResultStream();
+		}
+	}
+
+	/**
+	 * Creates the handler that streams the results to the target from the output
+	 * configuration, and registers it with this data flow analysis
+	 * 
+	 * @param iCfg The interprocedural control flow graph
+	 */
+	protected void createResultStream(IInfoflowCFG iCfg) {
+		closeResultStream();
+
+		OutputConfiguration outputConfig = config.getOutputConfiguration();
+		String target = outputConfig.getResultStreamTarget();
+		if (target == null || target.isEmpty())
+			return;
+		try {
+			IResultStreamWriter writer;
+			if (target.endsWith(BinaryResultsWriter.FILE_EXTENSION))
+				writer = new BinaryResultsWriter(target, iCfg);
+			else {
+				NDJsonResultWriter jsonWriter = NDJsonResultWriter.forTarget(target, iCfg);
+				jsonWriter.setWritePaths(config.getPathConfiguration().getPathReconstructionMode().reconstructPaths());
+				writer = jsonWriter;
+			}
+			resultStream = new StreamingResultsHandler(writer, outputConfig.getResultStreamCapacity());
+			onResultsAvailable.add(resultStream);
+			logger.info("Streaming the data flow results to {}", target);
+		} catch (IOException e) {
+			logger.error("Could not open the result stream", e);
 		}
 	}
 
+	/**
+	 * Writes out the pending results of the result stream and closes it
+	 */
+	protected void closeResultStream() {
+		if (resultStream == null)
+			return;
+		onResultsAvailable.remove(resultStream);
+		try {
+			resultStream.close();
+		} catch (IOException e) {
+			logger.error("Could not close the result stream", e);
+		}
+		resultStream = null;
+	}
+
 	private void runTaintAnalysis(final ISourceSinkManager sourcesSinks, final Set<String> additionalSeeds,
 			IInfoflowCFG iCfg, InfoflowPerformanceData performanceData) {
 		logger.info("Starting Taint Analysis");
@@ -644,6 +713,10 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		IOneSourceAtATimeManager oneSourceAtATime = config.getOneSourceAtATime() && sourcesSinks != null
 				&& sourcesSinks instanceof IOneSourceAtATimeManager ? (IOneSourceAtATimeManager) sourcesSinks : null;
 
+		// Stream the results while the analysis is running if requested
+		createResultStream(iCfg);
+		final boolean incrementalResultReporting = config.getIncrementalResultReporting() || resultStream != null;
+
 		// Reset the current source
 		if (oneSourceAtATime != null)
 			oneSourceAtATime.resetCurrentSource();
@@ -669,8 +742,10 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 			});
 
-			// Initialize the memory manager
+			// Initialize the memory manager. Its caches age with the phases of the solver.
 			IMemoryManager<Abstraction, Unit> memoryManager = createMemoryManager();
+			if (memoryManager != null && executor instanceof DeterministicExecutor)
+				((DeterministicExecutor) executor).addEpochListener(memoryManager::startNewGeneration);
 
 			// Initialize our infrastructure for global taints
 			final Set<IInfoflowSolver> solvers = new HashSet<>();
@@ -696,6 +771,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			if (dummyMainMethod != null)
 				aliasing.excludeMethodFromMustAlias(dummyMainMethod);
 			manager.setAliasing(aliasing);
+			if (config.getPrecomputeMustAliases())
+				aliasing.precomputeMustAliasAnalyses(numThreads);
 
 			// Initialize the data flow problem
 			AbstractInfoflowProblem forwardProblem = createInfoflowProblem(zeroValue);
@@ -710,6 +787,10 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			solvers.add(forwardSolver);
 
 			memoryWatcher.addSolver((IMemoryBoundedSolver) forwardSolver);
+			memoryWatcher.setMemoryManager(memoryManager);
+
+			// Re-use the summaries of library methods from earlier runs
+			PersistentSummaryCache summaryCache = createSummaryCache(forwardSolver);
 
 			forwardSolver.setMemoryManager(memoryManager);
 			// forwardSolver.setEnableMergePointChecking(true);
@@ -723,6 +804,10 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				aliasingStrategy.getSolver().getTabulationProblem().setActivationUnitsToCallSites(forwardProblem);
 			}
 
+			// Collect live metrics about the data flow solver
+			SolverMetricsReporter metricsReporter = createMetricsReporter(forwardSolver, forwardProblem,
+					memoryManager);
+
 			// Start a thread for enforcing the timeout
 			FlowDroidTimeoutWatcher timeoutWatcher = null;
 			FlowDroidTimeoutWatcher pathTimeoutWatcher = null;
@@ -733,6 +818,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					timeoutWatcher.addSolver((IMemoryBoundedSolver) aliasingStrategy.getSolver());
 				timeoutWatcher.start();
 			}
+			if (metricsReporter != null)
+				metricsReporter.start();
 
 			InterruptableExecutor resultExecutor = null;
 			long beforePathReconstruction = 0;
@@ -808,7 +895,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 				// If we want incremental result reporting, we have to
 				// initialize it before we start the taint tracking
-				if (config.getIncrementalResultReporting())
+				if (incrementalResultReporting)
 					initializeIncrementalResultReporting(propagationResults, builder);
 
 				// Initialize the performance data
@@ -862,6 +949,14 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				Set<AbstractionAtSink> res = propagationResults.getResults();
 				propagationResults = null;
 
+				// Persist the summaries of library methods for later runs. If the solver was
+				// aborted, the summaries may be incomplete. If the solver had to save memory,
+				// the summaries do not match the configuration under which they are stored.
+				if (summaryCache != null && !((IMemoryBoundedSolver) forwardSolver).isKilled()
+						&& performanceData.getMemoryPressureSteps().isEmpty())
+					summaryCache.storeSummaries((soot.jimple.infoflow.solver.fastSolver.InfoflowSolver) forwardSolver,
+							backwardSolver, res);
+
 				// We need to prune access paths that are entailed by
 				// another one
 				removeEntailedAbstractions(res);
@@ -897,14 +992,28 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 				if (timeoutWatcher != null)
 					timeoutWatcher.stop();
+				if (metricsReporter != null)
+					metricsReporter.stop();
 				memoryWatcher.removeSolver((IMemoryBoundedSolver) forwardSolver);
+				memoryWatcher.setMemoryManager(null);
 				forwardSolver.cleanup();
+
+				// The cached objects of the memory manager are of no use after the taint
+				// propagation
+				if (memoryManager instanceof FlowDroidMemoryManager) {
+					FlowDroidMemoryManager fdmm = (FlowDroidMemoryManager) memoryManager;
+					fdmm.clearCaches();
+					logger.info("Memory manager caches: {}", fdmm.getStatistics());
+				}
 				forwardSolver = null;
 				forwardProblem = null;
 
 				solverPeerGroup = null;
 
 				// Remove the alias analysis from memory
+				if (aliasing.getQueryCacheStats() != null)
+					logger.info("Alias query cache hit rate: {}%",
+							Math.round(aliasing.getQueryCacheStats().hitRate() * 100));
 				aliasing = null;
 				if (aliasingStrategy.getSolver() != null) {
 					aliasingStrategy.getSolver().terminate();
@@ -913,7 +1022,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				aliasingStrategy.cleanup();
 				aliasingStrategy = null;
 
-				if (config.getIncrementalResultReporting())
+				if (incrementalResultReporting)
 					res = null;
 				iCfg.purge();
 
@@ -939,7 +1048,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 				// Do the normal result computation in the end unless we
 				// have used incremental path building
-				if (config.getIncrementalResultReporting()) {
+				if (incrementalResultReporting) {
 					// After the last intermediate result has been computed,
 					// we need to re-process those abstractions that
 					// received new neighbors in the meantime
@@ -951,7 +1060,11 @@ public abstract class AbstractInfoflow implements IInfoflow {
 						logger.error("Could not wait for executor termination", e);
 					}
 				} else {
+					// The path builder only joins the memory watcher now, so it has not seen the
+					// neighbors being dropped
 					memoryWatcher.addSolver(builder);
+					if (performanceData.getMemoryPressureSteps().contains(MemoryPressureStep.DropNeighbors))
+						builder.relieveMemoryPressure(MemoryPressureStep.DropNeighbors);
 					builder.computeTaintPaths(res);
 					res = null;
 
@@ -1000,6 +1113,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					timeoutWatcher.stop();
 				if (pathTimeoutWatcher != null)
 					pathTimeoutWatcher.stop();
+				if (metricsReporter != null)
+					metricsReporter.stop();
 
 				if (aliasingStrategy != null) {
 					IInfoflowSolver solver = aliasingStrategy.getSolver();
@@ -1079,16 +1194,26 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		switch (solverConfig.getDataFlowSolver()) {
 		case ContextFlowSensitive:
 			logger.info("Using context- and flow-sensitive solver");
-			return new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(problem, executor);
+			soot.jimple.infoflow.solver.fastSolver.InfoflowSolver fastSolver = new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(
+					problem, executor);
+			fastSolver.setUseIndexedTables(solverConfig.getIndexedSolverTables());
+			return fastSolver;
 		case FlowInsensitive:
 			logger.info("Using context-sensitive, but flow-insensitive solver");
 			return new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(problem, executor);
 		case GarbageCollecting:
 			logger.info("Using garbage-collecting solver");
-			IInfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(problem, executor);
+			soot.jimple.infoflow.solver.gcSolver.InfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(
+					problem, executor);
+			String spillDir = solverConfig.getJumpFunctionSpillDirectory();
+			if (spillDir != null && !spillDir.isEmpty())
+				solver.setSpillDirectory(new File(spillDir));
 			solverPeerGroup.addSolver(solver);
 			solver.setPeerGroup(solverPeerGroup);
 			return solver;
+		case MethodSharded:
+			logger.info("Using method-sharded context- and flow-sensitive solver");
+			return new soot.jimple.infoflow.solver.shardedSolver.InfoflowSolver(problem, executor);
 		default:
 			throw new RuntimeException("Unsupported data flow solver");
 		}
@@ -1317,6 +1442,52 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		return solver;
 	}
 
+	/**
+	 * Creates the persistent cache for the end summaries of library methods if
+	 * such a cache has been configured. In incremental mode, the cache also covers
+	 * application methods.
+	 *
+	 * @param forwardSolver The solver that shall use the summary cache
+	 * @return The summary cache, or <code>null</code> if no summary cache shall be
+	 *         used
+	 */
+	protected PersistentSummaryCache createSummaryCache(IInfoflowSolver forwardSolver) {
+		final SolverConfiguration solverConfig = config.getSolverConfiguration();
+		final String cacheDir = solverConfig.getSummaryCacheDirectory();
+		if (cacheDir == null || cacheDir.isEmpty()) {
+			if (solverConfig.isIncrementalAnalysis())
+				logger.warn("Incremental analysis requires a summary cache directory");
+			return null;
+		}
+		if (!(forwardSolver instanceof soot.jimple.infoflow.solver.fastSolver.InfoflowSolver)) {
+			logger.warn("The persistent summary cache is only supported by the context- and flow-sensitive solvers");
+			return null;
+		}
+
+		// Static fields are tracked outside of the summaries in this mode
+		if (config.getStaticFieldTrackingMode() == StaticFieldTrackingMode.ContextFlowInsensitive) {
+			logger.warn("The persistent summary cache does not support context-insensitive static field tracking");
+			return null;
+		}
+
+		// Without a description of the taint wrapper rules, we cannot tell whether a
+		// cached summary is still valid
+		if (!PersistentSummaryCache.isSupported(manager)) {
+			logger.warn("The persistent summary cache is not supported by the taint wrapper {}",
+					manager.getTaintWrapper().getClass().getName());
+			return null;
+		}
+
+		logger.info("Using persistent summary cache in {}", cacheDir);
+		PersistentSummaryCache summaryCache = new PersistentSummaryCache(new File(cacheDir), manager);
+		if (solverConfig.isIncrementalAnalysis()) {
+			summaryCache.setIncludeApplicationMethods(true);
+			summaryCache.updateSnapshot();
+		}
+		((soot.jimple.infoflow.solver.fastSolver.InfoflowSolver) forwardSolver).setSummaryCache(summaryCache);
+		return summaryCache;
+	}
+
 	/**
 	 * Gets the path shortening mode that shall be applied given a certain path
 	 * reconstruction configuration. This method computes the most aggressive path
@@ -1361,10 +1532,94 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			erasureMode = FlowDroidMemoryManager.PathDataErasureMode.KeepOnlyContextData;
 		else
 			erasureMode = FlowDroidMemoryManager.PathDataErasureMode.EraseAll;
-		IMemoryManager<Abstraction, Unit> memoryManager = memoryManagerFactory.getMemoryManager(false, erasureMode);
+		IMemoryManager<Abstraction, Unit> memoryManager = memoryManagerFactory.getMemoryManager(isMetricsEnabled(),
+				erasureMode);
+		if (memoryManager instanceof FlowDroidMemoryManager)
+			((FlowDroidMemoryManager) memoryManager)
+					.setMaxCacheHeapFraction(config.getSolverConfiguration().getMemoryManagerCacheFraction());
 		return memoryManager;
 	}
 
+	/**
+	 * Checks whether live metrics shall be collected about the data flow solver,
+	 * i.e., whether there is at least one listener or endpoint for the metrics
+	 * 
+	 * @return True if solver metrics shall be collected, otherwise false
+	 */
+	protected boolean isMetricsEnabled() {
+		return !metricsListeners.isEmpty() || !getServiceMetricsListeners().isEmpty()
+				|| config.getMetricsHttpPort() >= 0 || config.getMetricsJmxEnabled();
+	}
+
+	/**
+	 * Gets the metrics listeners that are registered through the Java service
+	 * loader. The listeners are only loaded once.
+	 * 
+	 * @return The metrics listeners that are registered through the Java service
+	 *         loader
+	 */
+	protected List<ISolverMetricsListener> getServiceMetricsListeners() {
+		if (serviceMetricsListeners == null)
+			serviceMetricsListeners = SolverMetricsReporter.loadServiceListeners();
+		return serviceMetricsListeners;
+	}
+
+	/**
+	 * Creates the reporter that periodically hands the live metrics of the data
+	 * flow solver to the registered listeners and endpoints
+	 * 
+	 * @param forwardSolver  The data flow solver to instrument
+	 * @param forwardProblem The data flow problem to instrument
+	 * @param memoryManager  The memory manager used by the data flow solver
+	 * @return The metrics reporter, or <code>null</code> if no metrics shall be
+	 *         collected
+	 */
+	protected SolverMetricsReporter createMetricsReporter(IInfoflowSolver forwardSolver,
+			AbstractInfoflowProblem forwardProblem, IMemoryManager<Abstraction, Unit> memoryManager) {
+		if (!isMetricsEnabled())
+			return null;
+
+		SolverMetrics metrics = new SolverMetrics();
+		forwardSolver.setSolverMetrics(metrics);
+		forwardProblem.setSolverMetrics(metrics);
+		if (memoryManager instanceof FlowDroidMemoryManager)
+			metrics.setMemoryManagerReuseSource(((FlowDroidMemoryManager) memoryManager)::getReuseCount);
+
+		SolverMetricsReporter reporter = new SolverMetricsReporter(metrics, config.getMetricsInterval());
+		for (ISolverMetricsListener listener : getServiceMetricsListeners())
+			reporter.addListener(listener);
+		for (ISolverMetricsListener listener : metricsListeners)
+			reporter.addListener(listener);
+		if (config.getMetricsHttpPort() >= 0) {
+			try {
+				HttpMetricsEndpoint endpoint = new HttpMetricsEndpoint(config.getMetricsHttpPort());
+				reporter.addEndpoint(endpoint);
+				logger.info("Serving solver metrics on http://localhost:{}{}", endpoint.getPort(),
+						HttpMetricsEndpoint.CONTEXT_PATH);
+			} catch (IOException e) {
+				logger.error("Could not start the HTTP metrics endpoint", e);
+			}
+		}
+		if (config.getMetricsJmxEnabled()) {
+			try {
+				reporter.addEndpoint(new JmxMetricsEndpoint());
+			} catch (JMException e) {
+				logger.error("Could not register the JMX metrics endpoint", e);
+			}
+		}
+		return reporter;
+	}
+
+	/**
+	 * Adds a listener that periodically receives the live metrics of the data flow
+	 * solver while the analysis is running
+	 * 
+	 * @param listener The listener to add
+	 */
+	public void addMetricsListener(ISolverMetricsListener listener) {
+		this.metricsListeners.add(listener);
+	}
+
 	/**
 	 * Releases the callgraph and all intermediate objects associated with it
 	 */
@@ -1445,29 +1700,40 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		// Create the path builder
 		memoryWatcher.addSolver(builder);
 		this.results = createResultsObject();
-		propagationResults.addResultAvailableHandler(new OnTaintPropagationResultAdded() {
 
-			@Override
-			public boolean onResultAvailable(AbstractionAtSink abs) {
-				builder.addResultAvailableHandler(new OnPathBuilderResultAvailable() {
+		// Results that go to the result stream are not kept in memory unless
+		// requested
+		final boolean retainResults = resultStream == null
+				|| config.getOutputConfiguration().getRetainStreamedResults();
 
-					@Override
-					public void onResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
-						// Notify our external handlers
-						for (ResultsAvailableHandler handler : onResultsAvailable) {
-							if (handler instanceof ResultsAvailableHandler2) {
-								ResultsAvailableHandler2 handler2 = (ResultsAvailableHandler2) handler;
-								handler2.onSingleResultAvailable(source, sink);
-							}
-						}
-						results.addResult(sink, source);
+		// The external handlers may block to slow down the analysis, or ask us to
+		// stop it
+		final AtomicBoolean continueAnalysis = new AtomicBoolean(true);
+		builder.addResultAvailableHandler(new OnPathBuilderResultAvailable() {
+
+			@Override
+			public void onResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+				// Notify our external handlers
+				for (ResultsAvailableHandler handler : onResultsAvailable) {
+					if (handler instanceof ResultsAvailableHandler2) {
+						ResultsAvailableHandler2 handler2 = (ResultsAvailableHandler2) handler;
+						if (!handler2.onSingleResultAvailable(source, sink))
+							continueAnalysis.set(false);
 					}
+				}
+				if (retainResults)
+					results.addResult(sink, source);
+			}
 
-				});
+		});
+
+		propagationResults.addResultAvailableHandler(new OnTaintPropagationResultAdded() {
 
+			@Override
+			public boolean onResultAvailable(AbstractionAtSink abs) {
 				// Compute the result paths
 				builder.computeTaintPaths(Collections.singleton(abs));
-				return true;
+				return continueAnalysis.get();
 			}
 
 		});
@@ -17,6 +17,7 @@ import soot.jimple.infoflow.aliasing.IAliasingStrategy;
 import soot.jimple.infoflow.aliasing.LazyAliasingStrategy;
 import soot.jimple.infoflow.aliasing.NullAliasStrategy;
 import soot.jimple.infoflow.aliasing.PtsBasedAliasStrategy;
+import soot.jimple.infoflow.aliasing.SummaryBasedAliasStrategy;
 import soot.jimple.infoflow.cfg.BiDirICFGFactory;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPathFactory;
@@ -30,6 +31,7 @@ import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.cfg.BackwardsInfoflowCFG;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
@@ -121,7 +123,10 @@ public class Infoflow extends AbstractInfoflow {
 
 			memoryWatcher.addSolver((IMemoryBoundedSolver) backSolver);
 
-			aliasingStrategy = new FlowSensitiveAliasStrategy(manager, backSolver);
+			// Batched alias requests are flushed in an arbitrary order, which would
+			// defeat the canonical task order of the deterministic executor
+			aliasingStrategy = new FlowSensitiveAliasStrategy(manager, backSolver,
+					executor instanceof DeterministicExecutor ? null : executor);
 			break;
 		case PtsBased:
 			backProblem = null;
@@ -138,6 +143,13 @@ public class Infoflow extends AbstractInfoflow {
 			backSolver = null;
 			aliasingStrategy = new LazyAliasingStrategy(manager);
 			break;
+		case Summary:
+			backProblem = null;
+			backSolver = null;
+			SummaryBasedAliasStrategy summaryStrategy = new SummaryBasedAliasStrategy(manager);
+			summaryStrategy.computeSummaries(Runtime.getRuntime().availableProcessors());
+			aliasingStrategy = summaryStrategy;
+			break;
 		default:
 			throw new RuntimeException("Unsupported aliasing algorithm");
 		}
@@ -91,7 +91,12 @@ public class InfoflowConfiguration {
 		 * Perform lazy aliasing. Propagate every taint everywhere to on-demand check
 		 * whether it aliases with any value access
 		 */
-		Lazy
+		Lazy,
+		/**
+		 * A flow-insensitive algorithm based on per-method alias summaries that are
+		 * computed bottom-up over the callgraph before the taint analysis starts
+		 */
+		Summary
 	}
 
 	/**
@@ -133,7 +138,37 @@ public class InfoflowConfiguration {
 		/**
 		 * Use the garbage-collecting solver
 		 */
-		GarbageCollecting
+		GarbageCollecting,
+
+		/**
+		 * Use a flow- and context-sensitive solver that keeps its incoming edges and
+		 * end summaries in per-method shards
+		 */
+		MethodSharded
+	}
+
+	/**
+	 * Enumeration containing the supported executors for scheduling the edges of
+	 * the data flow solver
+	 */
+	public static enum ExecutorType {
+		/**
+		 * Use a thread pool with a single shared work queue
+		 */
+		ThreadPool,
+
+		/**
+		 * Use per-worker work deques with work stealing
+		 */
+		WorkStealing,
+
+		/**
+		 * Process the edges in epochs and apply the updates of each epoch in a
+		 * canonical order, so that every run produces the same results and paths.
+		 * Only supported by the context- and flow-sensitive solvers and the
+		 * context-sensitive path builder.
+		 */
+		Deterministic
 	}
 
 	public static enum DataFlowDirection {
@@ -555,6 +590,7 @@ public class InfoflowConfiguration {
 		private int maxPathsPerAbstraction = 15;
 		private long pathReconstructionTimeout = 0;
 		private int pathReconstructionBatchSize = 5;
+		private boolean scheduledPathReconstruction = false;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -570,6 +606,7 @@ public class InfoflowConfiguration {
 			this.maxPathsPerAbstraction = pathConfig.maxPathsPerAbstraction;
 			this.pathReconstructionTimeout = pathConfig.pathReconstructionTimeout;
 			this.pathReconstructionBatchSize = pathConfig.pathReconstructionBatchSize;
+			this.scheduledPathReconstruction = pathConfig.scheduledPathReconstruction;
 		}
 
 		/**
@@ -758,6 +795,35 @@ public class InfoflowConfiguration {
 			this.pathReconstructionBatchSize = pathReconstructionBatchSize;
 		}
 
+		/**
+		 * Gets whether the path reconstruction shall be scheduled across all sinks.
+		 * If this option is enabled, the sinks are processed in the order of their
+		 * estimated reconstruction cost, and all batches share the path
+		 * reconstruction timeout. Every source-to-sink connection is reported, even
+		 * if its path could not be reconstructed within the budget.
+		 * 
+		 * @return True if the path reconstruction shall be scheduled across all
+		 *         sinks, false to process the sinks in fixed batches
+		 */
+		public boolean getScheduledPathReconstruction() {
+			return scheduledPathReconstruction;
+		}
+
+		/**
+		 * Sets whether the path reconstruction shall be scheduled across all sinks.
+		 * If this option is enabled, the sinks are processed in the order of their
+		 * estimated reconstruction cost, and all batches share the path
+		 * reconstruction timeout. Every source-to-sink connection is reported, even
+		 * if its path could not be reconstructed within the budget.
+		 * 
+		 * @param scheduledPathReconstruction True if the path reconstruction shall
+		 *                                    be scheduled across all sinks, false to
+		 *                                    process the sinks in fixed batches
+		 */
+		public void setScheduledPathReconstruction(boolean scheduledPathReconstruction) {
+			this.scheduledPathReconstruction = scheduledPathReconstruction;
+		}
+
 		/**
 		 * Gets whether the analysis must keep statements along the path
 		 * 
@@ -780,6 +846,7 @@ public class InfoflowConfiguration {
 			result = prime * result + pathReconstructionBatchSize;
 			result = prime * result + ((pathReconstructionMode == null) ? 0 : pathReconstructionMode.hashCode());
 			result = prime * result + (int) (pathReconstructionTimeout ^ (pathReconstructionTimeout >>> 32));
+			result = prime * result + (scheduledPathReconstruction ? 1231 : 1237);
 			result = prime * result + (sequentialPathProcessing ? 1231 : 1237);
 			return result;
 		}
@@ -807,6 +874,8 @@ public class InfoflowConfiguration {
 				return false;
 			if (pathReconstructionTimeout != other.pathReconstructionTimeout)
 				return false;
+			if (scheduledPathReconstruction != other.scheduledPathReconstruction)
+				return false;
 			if (sequentialPathProcessing != other.sequentialPathProcessing)
 				return false;
 			return true;
@@ -826,6 +895,9 @@ public class InfoflowConfiguration {
 		private boolean noCallGraphFraction = false;
 		private int maxCallersInOutputFile = 5;
 		private long resultSerializationTimeout = 0;
+		private String resultStreamTarget = null;
+		private int resultStreamCapacity = 1024;
+		private boolean retainStreamedResults = false;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -837,6 +909,9 @@ public class InfoflowConfiguration {
 			this.noCallGraphFraction = outputConfig.noCallGraphFraction;
 			this.maxCallersInOutputFile = outputConfig.maxCallersInOutputFile;
 			this.resultSerializationTimeout = outputConfig.resultSerializationTimeout;
+			this.resultStreamTarget = outputConfig.resultStreamTarget;
+			this.resultStreamCapacity = outputConfig.resultStreamCapacity;
+			this.retainStreamedResults = outputConfig.retainStreamedResults;
 		}
 
 		/**
@@ -926,6 +1001,82 @@ public class InfoflowConfiguration {
 			this.noPassedValues = noPassedValues;
 		}
 
+		/**
+		 * Gets the target to which the data flow results are streamed while the
+		 * analysis is still running
+		 * 
+		 * @return The name of the file to which the results are streamed as
+		 *         newline-delimited JSON or, if the name ends with ".fdrb", in the
+		 *         binary result format, "-" for the standard output, or
+		 *         <code>null</code> if the results are not streamed
+		 */
+		public String getResultStreamTarget() {
+			return this.resultStreamTarget;
+		}
+
+		/**
+		 * Sets the target to which the data flow results are streamed while the
+		 * analysis is still running. Every result is written out as a single line of
+		 * JSON as soon as its path has been reconstructed. If the file name ends with
+		 * ".fdrb", the results are written in the binary result format instead.
+		 * Streaming implies incremental result reporting.
+		 * 
+		 * @param resultStreamTarget The name of the file to which to stream the
+		 *                           results, "-" for the standard output, or
+		 *                           <code>null</code> to not stream the results
+		 */
+		public void setResultStreamTarget(String resultStreamTarget) {
+			this.resultStreamTarget = resultStreamTarget;
+		}
+
+		/**
+		 * Gets the maximum number of streamed results that may wait for being written
+		 * out. If more results are pending, the analysis is blocked until the
+		 * target has caught up.
+		 * 
+		 * @return The maximum number of pending results
+		 */
+		public int getResultStreamCapacity() {
+			return this.resultStreamCapacity;
+		}
+
+		/**
+		 * Sets the maximum number of streamed results that may wait for being written
+		 * out. If more results are pending, the analysis is blocked until the
+		 * target has caught up.
+		 * 
+		 * @param resultStreamCapacity The maximum number of pending results
+		 */
+		public void setResultStreamCapacity(int resultStreamCapacity) {
+			this.resultStreamCapacity = resultStreamCapacity;
+		}
+
+		/**
+		 * Gets whether the results that are streamed to the result stream target
+		 * shall also be kept in the result object of the data flow analysis
+		 * 
+		 * @return True if the streamed results are also kept in memory, otherwise
+		 *         false
+		 */
+		public boolean getRetainStreamedResults() {
+			return this.retainStreamedResults;
+		}
+
+		/**
+		 * Sets whether the results that are streamed to the result stream target
+		 * shall also be kept in the result object of the data flow analysis. By
+		 * default, streamed results are only written out, so that their memory can
+		 * be reclaimed while the analysis is still running. The result object that
+		 * is passed to the end-of-run handlers then does not contain the streamed
+		 * data flows.
+		 * 
+		 * @param retainStreamedResults True to also keep the streamed results in
+		 *                              memory, otherwise false
+		 */
+		public void setRetainStreamedResults(boolean retainStreamedResults) {
+			this.retainStreamedResults = retainStreamedResults;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -934,6 +1085,9 @@ public class InfoflowConfiguration {
 			result = prime * result + (noCallGraphFraction ? 1231 : 1237);
 			result = prime * result + (noPassedValues ? 1231 : 1237);
 			result = prime * result + (int) (resultSerializationTimeout ^ (resultSerializationTimeout >>> 32));
+			result = prime * result + ((resultStreamTarget == null) ? 0 : resultStreamTarget.hashCode());
+			result = prime * result + resultStreamCapacity;
+			result = prime * result + (retainStreamedResults ? 1231 : 1237);
 			return result;
 		}
 
@@ -954,6 +1108,15 @@ public class InfoflowConfiguration {
 				return false;
 			if (resultSerializationTimeout != other.resultSerializationTimeout)
 				return false;
+			if (resultStreamTarget == null) {
+				if (other.resultStreamTarget != null)
+					return false;
+			} else if (!resultStreamTarget.equals(other.resultStreamTarget))
+				return false;
+			if (resultStreamCapacity != other.resultStreamCapacity)
+				return false;
+			if (retainStreamedResults != other.retainStreamedResults)
+				return false;
 			return true;
 		}
 
@@ -968,9 +1131,15 @@ public class InfoflowConfiguration {
 	public static class SolverConfiguration {
 
 		private DataFlowSolver dataFlowSolver = DataFlowSolver.ContextFlowSensitive;
+		private ExecutorType executorType = ExecutorType.ThreadPool;
 		private int maxJoinPointAbstractions = 10;
 		private int maxCalleesPerCallSite = 75;
 		private int maxAbstractionPathLength = 100;
+		private boolean indexedSolverTables = false;
+		private String summaryCacheDirectory = null;
+		private boolean incrementalAnalysis = false;
+		private String jumpFunctionSpillDirectory = null;
+		private double memoryManagerCacheFraction = 0;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -979,9 +1148,15 @@ public class InfoflowConfiguration {
 		 */
 		public void merge(SolverConfiguration solverConfig) {
 			this.dataFlowSolver = solverConfig.dataFlowSolver;
+			this.executorType = solverConfig.executorType;
 			this.maxJoinPointAbstractions = solverConfig.maxJoinPointAbstractions;
 			this.maxCalleesPerCallSite = solverConfig.maxCalleesPerCallSite;
 			this.maxAbstractionPathLength = solverConfig.maxAbstractionPathLength;
+			this.indexedSolverTables = solverConfig.indexedSolverTables;
+			this.summaryCacheDirectory = solverConfig.summaryCacheDirectory;
+			this.incrementalAnalysis = solverConfig.incrementalAnalysis;
+			this.jumpFunctionSpillDirectory = solverConfig.jumpFunctionSpillDirectory;
+			this.memoryManagerCacheFraction = solverConfig.memoryManagerCacheFraction;
 		}
 
 		/**
@@ -1002,6 +1177,26 @@ public class InfoflowConfiguration {
 			this.dataFlowSolver = solver;
 		}
 
+		/**
+		 * Gets the type of executor that is used for scheduling the edges of the data
+		 * flow solver
+		 * 
+		 * @return The type of executor for the data flow solver
+		 */
+		public ExecutorType getExecutorType() {
+			return this.executorType;
+		}
+
+		/**
+		 * Sets the type of executor that is used for scheduling the edges of the data
+		 * flow solver
+		 * 
+		 * @param executorType The type of executor for the data flow solver
+		 */
+		public void setExecutorType(ExecutorType executorType) {
+			this.executorType = executorType;
+		}
+
 		/**
 		 * Gets the maximum number of abstractions that shall be recorded per join
 		 * point. In other words, enabling this option disables the recording of
@@ -1084,14 +1279,156 @@ public class InfoflowConfiguration {
 			this.maxAbstractionPathLength = maxAbstractionPathLength;
 		}
 
+		/**
+		 * Gets whether the data flow solver shall store its jump functions, end
+		 * summaries, and incoming edges in tables that are indexed by dense integer IDs
+		 * instead of in maps keyed by edge objects. This option is only supported by
+		 * the context- and flow-sensitive solver.
+		 * 
+		 * @return True if the solver shall use indexed tables, otherwise false
+		 */
+		public boolean getIndexedSolverTables() {
+			return indexedSolverTables;
+		}
+
+		/**
+		 * Sets whether the data flow solver shall store its jump functions, end
+		 * summaries, and incoming edges in tables that are indexed by dense integer IDs
+		 * instead of in maps keyed by edge objects. This option is only supported by
+		 * the context- and flow-sensitive solver.
+		 * 
+		 * @param indexedSolverTables True if the solver shall use indexed tables,
+		 *                            otherwise false
+		 */
+		public void setIndexedSolverTables(boolean indexedSolverTables) {
+			this.indexedSolverTables = indexedSolverTables;
+		}
+
+		/**
+		 * Gets the directory in which the end summaries of library methods are
+		 * persisted across analysis runs. This option is only supported by the
+		 * context- and flow-sensitive solvers.
+		 * 
+		 * @return The directory of the persistent summary cache, or <code>null</code>
+		 *         if summaries shall not be persisted
+		 */
+		public String getSummaryCacheDirectory() {
+			return summaryCacheDirectory;
+		}
+
+		/**
+		 * Sets the directory in which the end summaries of library methods are
+		 * persisted across analysis runs. Summaries that have been written to this
+		 * directory by an earlier run are re-used instead of analyzing the respective
+		 * library method again. This option is only supported by the context- and
+		 * flow-sensitive solvers.
+		 * 
+		 * @param summaryCacheDirectory The directory of the persistent summary cache,
+		 *                              or <code>null</code> to not persist summaries
+		 */
+		public void setSummaryCacheDirectory(String summaryCacheDirectory) {
+			this.summaryCacheDirectory = summaryCacheDirectory;
+		}
+
+		/**
+		 * Gets whether the data flow analysis shall re-use the results of an earlier
+		 * run on a previous version of the same code base
+		 * 
+		 * @return True if incremental analysis is enabled, otherwise false
+		 */
+		public boolean isIncrementalAnalysis() {
+			return incrementalAnalysis;
+		}
+
+		/**
+		 * Sets whether the data flow analysis shall re-use the results of an earlier
+		 * run on a previous version of the same code base. If this option is enabled,
+		 * the summary cache also persists the summaries of application methods, and
+		 * records the body hashes of all application methods in a snapshot. On the
+		 * next run, only the methods that have changed since the snapshot and their
+		 * transitive callers are analyzed again. This option requires a summary cache
+		 * directory.
+		 * 
+		 * @param incrementalAnalysis True to enable incremental analysis, otherwise
+		 *                            false
+		 */
+		public void setIncrementalAnalysis(boolean incrementalAnalysis) {
+			this.incrementalAnalysis = incrementalAnalysis;
+		}
+
+		/**
+		 * Gets the directory in which the garbage-collecting solver stores the jump
+		 * functions that it evicts from memory
+		 * 
+		 * @return The directory for evicted jump functions, or <code>null</code> if
+		 *         evicted jump functions are discarded
+		 */
+		public String getJumpFunctionSpillDirectory() {
+			return jumpFunctionSpillDirectory;
+		}
+
+		/**
+		 * Sets the directory in which the garbage-collecting solver stores the jump
+		 * functions that it evicts from memory. If this option is set, the jump
+		 * functions of methods without active dependencies are moved to a
+		 * memory-mapped file in this directory and are restored when the solver
+		 * accesses the method again. Otherwise, the solver discards these jump
+		 * functions and may need to re-propagate them later on. This option is only
+		 * supported by the garbage-collecting solver.
+		 * 
+		 * @param jumpFunctionSpillDirectory The directory for evicted jump functions,
+		 *                                   or <code>null</code> to discard evicted
+		 *                                   jump functions
+		 */
+		public void setJumpFunctionSpillDirectory(String jumpFunctionSpillDirectory) {
+			this.jumpFunctionSpillDirectory = jumpFunctionSpillDirectory;
+		}
+
+		/**
+		 * Gets the fraction of the maximum heap size that the caches of the memory
+		 * manager may occupy
+		 * 
+		 * @return The fraction of the maximum heap size for the memory manager
+		 *         caches, or a value less than or equal to zero if the caches are
+		 *         unbounded, which is the default
+		 */
+		public double getMemoryManagerCacheFraction() {
+			return memoryManagerCacheFraction;
+		}
+
+		/**
+		 * Sets the fraction of the maximum heap size that the caches of the memory
+		 * manager may occupy. The caches are generational. When the current
+		 * generation is full, it becomes the old generation, and entries that were
+		 * not reused since the previous generation change are evicted. A new
+		 * generation is also started on every epoch of the deterministic executor
+		 * and on every step of memory back-pressure. By default, the caches are
+		 * unbounded and never evict anything.
+		 * 
+		 * @param memoryManagerCacheFraction The fraction of the maximum heap size for
+		 *                                   the memory manager caches, or a value
+		 *                                   less than or equal to zero for unbounded
+		 *                                   caches
+		 */
+		public void setMemoryManagerCacheFraction(double memoryManagerCacheFraction) {
+			this.memoryManagerCacheFraction = memoryManagerCacheFraction;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + ((dataFlowSolver == null) ? 0 : dataFlowSolver.hashCode());
+			result = prime * result + ((executorType == null) ? 0 : executorType.hashCode());
 			result = prime * result + maxCalleesPerCallSite;
 			result = prime * result + maxJoinPointAbstractions;
 			result = prime * result + maxAbstractionPathLength;
+			result = prime * result + (indexedSolverTables ? 1231 : 1237);
+			result = prime * result + ((summaryCacheDirectory == null) ? 0 : summaryCacheDirectory.hashCode());
+			result = prime * result + (incrementalAnalysis ? 1231 : 1237);
+			result = prime * result + ((jumpFunctionSpillDirectory == null) ? 0 : jumpFunctionSpillDirectory.hashCode());
+			long temp = Double.doubleToLongBits(memoryManagerCacheFraction);
+			result = prime * result + (int) (temp ^ (temp >>> 32));
 			return result;
 		}
 
@@ -1106,12 +1443,31 @@ public class InfoflowConfiguration {
 			SolverConfiguration other = (SolverConfiguration) obj;
 			if (dataFlowSolver != other.dataFlowSolver)
 				return false;
+			if (executorType != other.executorType)
+				return false;
 			if (maxCalleesPerCallSite != other.maxCalleesPerCallSite)
 				return false;
 			if (maxJoinPointAbstractions != other.maxJoinPointAbstractions)
 				return false;
 			if (maxAbstractionPathLength != other.maxAbstractionPathLength)
 				return false;
+			if (indexedSolverTables != other.indexedSolverTables)
+				return false;
+			if (summaryCacheDirectory == null) {
+				if (other.summaryCacheDirectory != null)
+					return false;
+			} else if (!summaryCacheDirectory.equals(other.summaryCacheDirectory))
+				return false;
+			if (incrementalAnalysis != other.incrementalAnalysis)
+				return false;
+			if (jumpFunctionSpillDirectory == null) {
+				if (other.jumpFunctionSpillDirectory != null)
+					return false;
+			} else if (!jumpFunctionSpillDirectory.equals(other.jumpFunctionSpillDirectory))
+				return false;
+			if (Double.doubleToLongBits(memoryManagerCacheFraction) != Double
+					.doubleToLongBits(other.memoryManagerCacheFraction))
+				return false;
 			return true;
 		}
 
@@ -1130,6 +1486,7 @@ public class InfoflowConfiguration {
 		private boolean useRecursiveAccessPaths = true;
 		private boolean useThisChainReduction = true;
 		private boolean useSameFieldReduction = true;
+		private boolean useAccessPathInterning = true;
 
 		/**
 		 * Merges the given configuration options into this configuration object
@@ -1141,6 +1498,7 @@ public class InfoflowConfiguration {
 			this.useRecursiveAccessPaths = config.useRecursiveAccessPaths;
 			this.useThisChainReduction = config.useThisChainReduction;
 			this.useSameFieldReduction = config.useSameFieldReduction;
+			this.useAccessPathInterning = config.useAccessPathInterning;
 		}
 
 		/**
@@ -1231,6 +1589,29 @@ public class InfoflowConfiguration {
 			this.useSameFieldReduction = useSameFieldReduction;
 		}
 
+		/**
+		 * Gets whether access paths and their fragments shall be interned when they
+		 * are created. Structurally equal access paths then share a single instance,
+		 * and derived access paths are cached per parent access path.
+		 * 
+		 * @return True if access paths shall be interned, otherwise false
+		 */
+		public boolean getUseAccessPathInterning() {
+			return useAccessPathInterning;
+		}
+
+		/**
+		 * Sets whether access paths and their fragments shall be interned when they
+		 * are created. Structurally equal access paths then share a single instance,
+		 * and derived access paths are cached per parent access path.
+		 * 
+		 * @param useAccessPathInterning True if access paths shall be interned,
+		 *                               otherwise false
+		 */
+		public void setUseAccessPathInterning(boolean useAccessPathInterning) {
+			this.useAccessPathInterning = useAccessPathInterning;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -1239,6 +1620,7 @@ public class InfoflowConfiguration {
 			result = prime * result + (useRecursiveAccessPaths ? 1231 : 1237);
 			result = prime * result + (useSameFieldReduction ? 1231 : 1237);
 			result = prime * result + (useThisChainReduction ? 1231 : 1237);
+			result = prime * result + (useAccessPathInterning ? 1231 : 1237);
 			return result;
 		}
 
@@ -1259,6 +1641,8 @@ public class InfoflowConfiguration {
 				return false;
 			if (useThisChainReduction != other.useThisChainReduction)
 				return false;
+			if (useAccessPathInterning != other.useAccessPathInterning)
+				return false;
 			return true;
 		}
 
@@ -1303,6 +1687,15 @@ public class InfoflowConfiguration {
 	private boolean incrementalResultReporting = false;
 	private long dataFlowTimeout = 0;
 	private double memoryThreshold = 0.9d;
+	private boolean memoryBackPressure = true;
+	private int metricsInterval = 5;
+	private int metricsHttpPort = -1;
+	private boolean metricsJmxEnabled = false;
+	private boolean precomputeMustAliases = false;
+	private int aliasQueryCacheSize = 0;
+	private int maxAliasBatchSize = 64;
+	private boolean lazyAbstractionDerivation = false;
+	private boolean specializedAbstractionEquality = true;
 	private boolean oneSourceAtATime = false;
 
 	private static String baseDirectory = "";
@@ -1348,6 +1741,15 @@ public class InfoflowConfiguration {
 		this.incrementalResultReporting = config.incrementalResultReporting;
 		this.dataFlowTimeout = config.dataFlowTimeout;
 		this.memoryThreshold = config.memoryThreshold;
+		this.memoryBackPressure = config.memoryBackPressure;
+		this.metricsInterval = config.metricsInterval;
+		this.metricsHttpPort = config.metricsHttpPort;
+		this.metricsJmxEnabled = config.metricsJmxEnabled;
+		this.precomputeMustAliases = config.precomputeMustAliases;
+		this.aliasQueryCacheSize = config.aliasQueryCacheSize;
+		this.maxAliasBatchSize = config.maxAliasBatchSize;
+		this.lazyAbstractionDerivation = config.lazyAbstractionDerivation;
+		this.specializedAbstractionEquality = config.specializedAbstractionEquality;
 		this.oneSourceAtATime = config.oneSourceAtATime;
 
 		this.baseDirectory = config.baseDirectory;
@@ -1987,6 +2389,224 @@ public class InfoflowConfiguration {
 		this.memoryThreshold = memoryThreshold;
 	}
 
+	/**
+	 * Gets whether the data flow solvers shall trade precision for memory before
+	 * they are terminated when the memory threshold is reached
+	 * 
+	 * @return True if the solvers shall reduce their memory consumption when
+	 *         approaching the memory threshold, otherwise false
+	 */
+	public boolean getMemoryBackPressure() {
+		return memoryBackPressure;
+	}
+
+	/**
+	 * Sets whether the data flow solvers shall trade precision for memory before
+	 * they are terminated when the memory threshold is reached. If this option is
+	 * enabled, the solvers first shorten the predecessor chains of the
+	 * abstractions, then drop the neighbors at join points, and then reduce the
+	 * access path length for new abstractions as the memory consumption approaches
+	 * the threshold. The solvers are only terminated if all of these steps were
+	 * not sufficient.
+	 * 
+	 * @param memoryBackPressure True if the solvers shall reduce their memory
+	 *                           consumption when approaching the memory threshold,
+	 *                           otherwise false
+	 */
+	public void setMemoryBackPressure(boolean memoryBackPressure) {
+		this.memoryBackPressure = memoryBackPressure;
+	}
+
+	/**
+	 * Gets the interval in which snapshots of the solver metrics are handed to the
+	 * metrics listeners and endpoints
+	 * 
+	 * @return The metrics reporting interval in seconds
+	 */
+	public int getMetricsInterval() {
+		return metricsInterval;
+	}
+
+	/**
+	 * Sets the interval in which snapshots of the solver metrics are handed to the
+	 * metrics listeners and endpoints
+	 * 
+	 * @param metricsInterval The metrics reporting interval in seconds
+	 */
+	public void setMetricsInterval(int metricsInterval) {
+		this.metricsInterval = metricsInterval;
+	}
+
+	/**
+	 * Gets the local port on which the solver metrics are served as JSON while the
+	 * data flow analysis is running
+	 * 
+	 * @return The port of the metrics endpoint, 0 for an arbitrary free port, or -1
+	 *         if the HTTP endpoint is disabled
+	 */
+	public int getMetricsHttpPort() {
+		return metricsHttpPort;
+	}
+
+	/**
+	 * Sets the local port on which the solver metrics shall be served as JSON
+	 * while the data flow analysis is running. The endpoint only binds to the
+	 * loopback interface.
+	 * 
+	 * @param metricsHttpPort The port of the metrics endpoint, 0 for an arbitrary
+	 *                        free port, or -1 to disable the HTTP endpoint
+	 */
+	public void setMetricsHttpPort(int metricsHttpPort) {
+		this.metricsHttpPort = metricsHttpPort;
+	}
+
+	/**
+	 * Gets whether the solver metrics shall be published as a JMX bean while the
+	 * data flow analysis is running
+	 * 
+	 * @return True if the solver metrics shall be published via JMX, otherwise
+	 *         false
+	 */
+	public boolean getMetricsJmxEnabled() {
+		return metricsJmxEnabled;
+	}
+
+	/**
+	 * Sets whether the solver metrics shall be published as a JMX bean while the
+	 * data flow analysis is running
+	 * 
+	 * @param metricsJmxEnabled True if the solver metrics shall be published via
+	 *                          JMX, otherwise false
+	 */
+	public void setMetricsJmxEnabled(boolean metricsJmxEnabled) {
+		this.metricsJmxEnabled = metricsJmxEnabled;
+	}
+
+	/**
+	 * Gets whether the local must-alias analyses of all reachable methods shall be
+	 * computed in parallel before the taint analysis starts
+	 * 
+	 * @return True if the must-alias analyses shall be precomputed, otherwise
+	 *         false
+	 */
+	public boolean getPrecomputeMustAliases() {
+		return precomputeMustAliases;
+	}
+
+	/**
+	 * Sets whether the local must-alias analyses of all reachable methods shall be
+	 * computed in parallel before the taint analysis starts. Precomputed analyses
+	 * are kept until the end of the taint analysis and are never rebuilt, at the
+	 * cost of memory for methods that are never queried.
+	 * 
+	 * @param precomputeMustAliases True if the must-alias analyses shall be
+	 *                              precomputed, otherwise false
+	 */
+	public void setPrecomputeMustAliases(boolean precomputeMustAliases) {
+		this.precomputeMustAliases = precomputeMustAliases;
+	}
+
+	/**
+	 * Gets the maximum number of alias queries whose answers are memoized. Alias
+	 * queries are not memoized by default.
+	 * 
+	 * @return The maximum number of memoized alias queries, or a value less than
+	 *         or equal to zero if alias queries are not memoized
+	 */
+	public int getAliasQueryCacheSize() {
+		return aliasQueryCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of alias queries whose answers are memoized
+	 * 
+	 * @param aliasQueryCacheSize The maximum number of memoized alias queries, or
+	 *                            a value less than or equal to zero to disable
+	 *                            memoization
+	 */
+	public void setAliasQueryCacheSize(int aliasQueryCacheSize) {
+		this.aliasQueryCacheSize = aliasQueryCacheSize;
+	}
+
+	/**
+	 * Gets the maximum number of alias requests that the flow-sensitive alias
+	 * analysis coalesces into a single batch before handing them to the backward
+	 * solver
+	 * 
+	 * @return The maximum number of alias requests per batch, or a value less than
+	 *         or equal to zero if alias requests are not batched
+	 */
+	public int getMaxAliasBatchSize() {
+		return maxAliasBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of alias requests that the flow-sensitive alias
+	 * analysis coalesces into a single batch before handing them to the backward
+	 * solver. Requests are batched per method and context. Identical requests in
+	 * the same batch are only sent once.
+	 * 
+	 * @param maxAliasBatchSize The maximum number of alias requests per batch, or
+	 *                          a value less than or equal to zero to send every
+	 *                          request to the backward solver immediately
+	 */
+	public void setMaxAliasBatchSize(int maxAliasBatchSize) {
+		this.maxAliasBatchSize = maxAliasBatchSize;
+	}
+
+	/**
+	 * Gets whether taint abstractions shall be derived lazily, i.e., without the
+	 * statements that are only required for path reconstruction
+	 * 
+	 * @return True if taint abstractions shall be derived lazily, otherwise false
+	 */
+	public boolean getLazyAbstractionDerivation() {
+		return lazyAbstractionDerivation;
+	}
+
+	/**
+	 * Sets whether taint abstractions shall be derived lazily. In this mode, the
+	 * propagation rules do not record the current statement in new abstractions,
+	 * and a rule that keeps the access path of an abstraction reuses the existing
+	 * object instead of allocating a copy. The sources are still recorded, so the
+	 * data flow results are the same. This option only takes effect for forward
+	 * analyses that do not reconstruct paths and that do not use the
+	 * context-sensitive path builder.
+	 * 
+	 * @param lazyAbstractionDerivation True to derive taint abstractions lazily,
+	 *                                  otherwise false
+	 */
+	public void setLazyAbstractionDerivation(boolean lazyAbstractionDerivation) {
+		this.lazyAbstractionDerivation = lazyAbstractionDerivation;
+	}
+
+	/**
+	 * Gets whether taint abstractions shall be compared and hashed with the
+	 * cheapest equality that is correct for this configuration
+	 * 
+	 * @return True if the equality of taint abstractions shall be specialized for
+	 *         this configuration, false if all data shall always be compared
+	 */
+	public boolean getSpecializedAbstractionEquality() {
+		return specializedAbstractionEquality;
+	}
+
+	/**
+	 * Sets whether taint abstractions shall be compared and hashed with the
+	 * cheapest equality that is correct for this configuration. For example, if
+	 * neither implicit flows, nor exceptions, nor flow-sensitive aliasing are
+	 * tracked, only the access paths and the sources are compared. Disable this
+	 * option if custom propagation rules set data that the default rules only set
+	 * in other configurations.
+	 * 
+	 * @param specializedAbstractionEquality True to specialize the equality of
+	 *                                       taint abstractions, false to always
+	 *                                       compare all data
+	 */
+	public void setSpecializedAbstractionEquality(boolean specializedAbstractionEquality) {
+		this.specializedAbstractionEquality = specializedAbstractionEquality;
+	}
+
 	/**
 	 * Gets whether one source shall be analyzed at a time instead of all sources
 	 * together
@@ -2132,6 +2752,15 @@ public class InfoflowConfiguration {
 		long temp;
 		temp = Double.doubleToLongBits(memoryThreshold);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + (memoryBackPressure ? 1231 : 1237);
+		result = prime * result + metricsInterval;
+		result = prime * result + metricsHttpPort;
+		result = prime * result + (metricsJmxEnabled ? 1231 : 1237);
+		result = prime * result + (precomputeMustAliases ? 1231 : 1237);
+		result = prime * result + aliasQueryCacheSize;
+		result = prime * result + maxAliasBatchSize;
+		result = prime * result + (lazyAbstractionDerivation ? 1231 : 1237);
+		result = prime * result + (specializedAbstractionEquality ? 1231 : 1237);
 		result = prime * result + (oneSourceAtATime ? 1231 : 1237);
 		result = prime * result + ((outputConfiguration == null) ? 0 : outputConfiguration.hashCode());
 		result = prime * result + ((pathConfiguration == null) ? 0 : pathConfiguration.hashCode());
@@ -2202,6 +2831,24 @@ public class InfoflowConfiguration {
 			return false;
 		if (Double.doubleToLongBits(memoryThreshold) != Double.doubleToLongBits(other.memoryThreshold))
 			return false;
+		if (memoryBackPressure != other.memoryBackPressure)
+			return false;
+		if (metricsInterval != other.metricsInterval)
+			return false;
+		if (metricsHttpPort != other.metricsHttpPort)
+			return false;
+		if (metricsJmxEnabled != other.metricsJmxEnabled)
+			return false;
+		if (precomputeMustAliases != other.precomputeMustAliases)
+			return false;
+		if (aliasQueryCacheSize != other.aliasQueryCacheSize)
+			return false;
+		if (maxAliasBatchSize != other.maxAliasBatchSize)
+			return false;
+		if (lazyAbstractionDerivation != other.lazyAbstractionDerivation)
+			return false;
+		if (specializedAbstractionEquality != other.specializedAbstractionEquality)
+			return false;
 		if (oneSourceAtATime != other.oneSourceAtATime)
 			return false;
 		if (outputConfiguration == null) {
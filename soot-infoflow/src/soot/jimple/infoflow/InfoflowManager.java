@@ -2,6 +2,7 @@ package soot.jimple.infoflow;
 
 import soot.FastHierarchy;
 import soot.jimple.infoflow.aliasing.Aliasing;
+import soot.jimple.infoflow.data.CanonicalOrder;
 import soot.jimple.infoflow.data.AccessPathFactory;
 import soot.jimple.infoflow.globalTaints.GlobalTaintManager;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
@@ -31,6 +32,7 @@ public class InfoflowManager {
 	private final AccessPathFactory accessPathFactory;
 	private final GlobalTaintManager globalTaintManager;
 	private Aliasing aliasing;
+	private volatile CanonicalOrder canonicalOrder;
 
 	protected InfoflowManager(InfoflowConfiguration config, IInfoflowSolver forwardSolver, IInfoflowCFG icfg,
 			ISourceSinkManager sourceSinkManager, ITaintPropagationWrapper taintWrapper, FastHierarchy hierarchy,
@@ -147,6 +149,26 @@ public class InfoflowManager {
 		return this.accessPathFactory;
 	}
 
+	/**
+	 * Gets the object that computes run-independent fingerprints of the data flow
+	 * objects in this analysis
+	 * 
+	 * @return The object that computes run-independent fingerprints
+	 */
+	public CanonicalOrder getCanonicalOrder() {
+		CanonicalOrder order = this.canonicalOrder;
+		if (order == null) {
+			synchronized (this) {
+				order = this.canonicalOrder;
+				if (order == null) {
+					order = new CanonicalOrder(icfg);
+					this.canonicalOrder = order;
+				}
+			}
+		}
+		return order;
+	}
+
 	/**
 	 * Checks whether the analysis has been aborted
 	 * 
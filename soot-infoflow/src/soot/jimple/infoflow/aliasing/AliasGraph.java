@@ -0,0 +1,197 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unification-based alias graph in the style of Steensgaard's analysis. Every
+ * node stands for a set of heap locations that may alias. Roots such as local
+ * variables, static fields or formal parameters point to nodes, and every node
+ * has at most one successor per field. When two nodes are unified, the
+ * successors for the same field are unified as well.
+ *
+ * This class is not thread-safe. Once a graph has been built, it is converted
+ * into immutable {@link MethodAliasSummary} objects.
+ */
+class AliasGraph {
+
+	/**
+	 * Pseudo field that stands for the elements of an array
+	 */
+	static final Object ARRAY_ELEMENT = new Object() {
+
+		@Override
+		public String toString() {
+			return "[]";
+		}
+
+	};
+
+	/**
+	 * A set of heap locations that may alias
+	 */
+	static class Node {
+
+		private Node parent = this;
+		private int rank = 0;
+		private Map<Object, Node> fields = null;
+
+	}
+
+	private final Map<Object, Node> roots = new HashMap<>();
+
+	/**
+	 * Gets the representative node of the given node
+	 *
+	 * @param node The node
+	 * @return The representative node of the set that contains the given node
+	 */
+	Node find(Node node) {
+		while (node.parent != node) {
+			node.parent = node.parent.parent;
+			node = node.parent;
+		}
+		return node;
+	}
+
+	/**
+	 * Gets the node to which the given root points, and creates it if necessary
+	 *
+	 * @param root The root, e.g., a local or a static field
+	 * @return The representative node of the given root
+	 */
+	Node getRoot(Object root) {
+		Node node = roots.get(root);
+		if (node == null) {
+			node = new Node();
+			roots.put(root, node);
+		}
+		return find(node);
+	}
+
+	/**
+	 * Gets the node to which the given root points
+	 *
+	 * @param root The root, e.g., a local or a static field
+	 * @return The representative node of the given root, or <code>null</code> if
+	 *         the root is not part of this graph
+	 */
+	Node getExistingRoot(Object root) {
+		Node node = roots.get(root);
+		return node == null ? null : find(node);
+	}
+
+	/**
+	 * Gets all roots in this graph
+	 *
+	 * @return The roots in this graph
+	 */
+	Iterable<Object> getRoots() {
+		return roots.keySet();
+	}
+
+	/**
+	 * Gets the successor of the given node for the given field, and creates it if
+	 * necessary
+	 *
+	 * @param node  The node
+	 * @param field The field or {@link #ARRAY_ELEMENT}
+	 * @return The representative node of the successor
+	 */
+	Node getField(Node node, Object field) {
+		node = find(node);
+		if (node.fields == null)
+			node.fields = new HashMap<>();
+		Node child = node.fields.get(field);
+		if (child == null) {
+			child = new Node();
+			node.fields.put(field, child);
+		}
+		return find(child);
+	}
+
+	/**
+	 * Gets the fields through which successors of the given node are reachable
+	 *
+	 * @param node The node
+	 * @return The successors of the given node. The nodes in the map are not
+	 *         necessarily representatives.
+	 */
+	Map<Object, Node> getFields(Node node) {
+		node = find(node);
+		return node.fields;
+	}
+
+	/**
+	 * Unifies the two given nodes and, recursively, their successors
+	 *
+	 * @param n1 The first node
+	 * @param n2 The second node
+	 */
+	void union(Node n1, Node n2) {
+		Deque<Node> worklist = new ArrayDeque<>();
+		worklist.push(n1);
+		worklist.push(n2);
+		while (!worklist.isEmpty()) {
+			Node x = find(worklist.pop());
+			Node y = find(worklist.pop());
+			if (x == y)
+				continue;
+
+			// Union by rank
+			if (x.rank < y.rank) {
+				Node tmp = x;
+				x = y;
+				y = tmp;
+			}
+			y.parent = x;
+			if (x.rank == y.rank)
+				x.rank++;
+
+			// The successors must be unified as well
+			if (y.fields != null) {
+				if (x.fields == null)
+					x.fields = y.fields;
+				else {
+					for (Map.Entry<Object, Node> entry : y.fields.entrySet()) {
+						Node existing = x.fields.putIfAbsent(entry.getKey(), entry.getValue());
+						if (existing != null) {
+							worklist.push(existing);
+							worklist.push(entry.getValue());
+						}
+					}
+				}
+				y.fields = null;
+			}
+		}
+	}
+
+	/**
+	 * Creates a fresh copy of the given class of a method summary in this graph
+	 *
+	 * @param summary The method summary
+	 * @param classId The class inside the method summary to copy
+	 * @param copies  The nodes that have already been copied from the same
+	 *                summary, indexed by their class
+	 * @return The node that corresponds to the given class
+	 */
+	Node instantiate(MethodAliasSummary summary, int classId, Map<Integer, Node> copies) {
+		Node node = copies.get(classId);
+		if (node != null)
+			return find(node);
+
+		node = new Node();
+		copies.put(classId, node);
+		Map<Object, Integer> fields = summary.getFieldClasses(classId);
+		if (fields != null) {
+			for (Map.Entry<Object, Integer> entry : fields.entrySet()) {
+				Node child = instantiate(summary, entry.getValue(), copies);
+				union(getField(node, entry.getKey()), child);
+			}
+		}
+		return find(node);
+	}
+
+}
@@ -0,0 +1,183 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import soot.Local;
+import soot.SootField;
+import soot.Value;
+import soot.jimple.ArrayRef;
+import soot.jimple.InstanceFieldRef;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.infoflow.data.AccessPath;
+
+/**
+ * Bounded, concurrent cache for the answers to may-alias queries. Since Soot
+ * locals are unique per method body, a query is keyed by the access path and
+ * the local (and field) of the queried value, which implicitly identifies the
+ * method as well. Queries for the same local and field at different statements
+ * therefore share one cache entry. Callers must only memoize answers that do
+ * not change while the analysis runs.
+ */
+public class AliasQueryCache {
+
+	/**
+	 * Key for a query whether an access path may alias a value
+	 */
+	private static class AccessPathQuery {
+
+		private final AccessPath ap;
+		private final Class<?> valueKind;
+		private final Local base;
+		private final SootField field;
+		private final int hashCode;
+
+		private AccessPathQuery(AccessPath ap, Class<?> valueKind, Local base, SootField field) {
+			this.ap = ap;
+			this.valueKind = valueKind;
+			this.base = base;
+			this.field = field;
+
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ap.hashCode();
+			result = prime * result + valueKind.hashCode();
+			result = prime * result + ((base == null) ? 0 : base.hashCode());
+			result = prime * result + ((field == null) ? 0 : field.hashCode());
+			this.hashCode = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			AccessPathQuery other = (AccessPathQuery) obj;
+			return hashCode == other.hashCode && valueKind == other.valueKind && base == other.base
+					&& field == other.field && ap.equals(other.ap);
+		}
+
+	}
+
+	/**
+	 * Key for a query whether two values may alias
+	 */
+	private static class ValueQuery {
+
+		private final Value val1;
+		private final Value val2;
+
+		private ValueQuery(Value val1, Value val2) {
+			this.val1 = val1;
+			this.val2 = val2;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(val1) + System.identityHashCode(val2);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			ValueQuery other = (ValueQuery) obj;
+			return val1 == other.val1 && val2 == other.val2;
+		}
+
+	}
+
+	private final Cache<AccessPathQuery, Optional<AccessPath>> accessPathQueries;
+	private final Cache<ValueQuery, Boolean> valueQueries;
+
+	/**
+	 * Creates a new alias query cache
+	 *
+	 * @param maximumSize The maximum number of answers to keep per query type
+	 */
+	public AliasQueryCache(long maximumSize) {
+		this.accessPathQueries = CacheBuilder.newBuilder().maximumSize(maximumSize)
+				.concurrencyLevel(Runtime.getRuntime().availableProcessors()).recordStats().build();
+		this.valueQueries = CacheBuilder.newBuilder().maximumSize(maximumSize)
+				.concurrencyLevel(Runtime.getRuntime().availableProcessors()).recordStats().build();
+	}
+
+	/**
+	 * Gets the memoized answer to the query whether the given access path may
+	 * alias the given value, or computes it if there is none yet
+	 *
+	 * @param ap     The access path
+	 * @param val    The value
+	 * @param answer The function that computes the answer if it is not cached
+	 * @return The access path that actually matched, or <code>null</code> if the
+	 *         access path and the value do not alias
+	 */
+	public AccessPath mayAlias(AccessPath ap, Value val, Supplier<AccessPath> answer) {
+		final AccessPathQuery query;
+		if (val instanceof Local)
+			query = new AccessPathQuery(ap, Local.class, (Local) val, null);
+		else if (val instanceof InstanceFieldRef) {
+			InstanceFieldRef ifr = (InstanceFieldRef) val;
+			query = new AccessPathQuery(ap, InstanceFieldRef.class, (Local) ifr.getBase(), ifr.getField());
+		} else if (val instanceof ArrayRef)
+			query = new AccessPathQuery(ap, ArrayRef.class, (Local) ((ArrayRef) val).getBase(), null);
+		else if (val instanceof StaticFieldRef)
+			query = new AccessPathQuery(ap, StaticFieldRef.class, null, ((StaticFieldRef) val).getField());
+		else
+			return answer.get();
+
+		try {
+			return accessPathQueries.get(query, () -> Optional.ofNullable(answer.get())).orElse(null);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Could not compute alias query", e.getCause());
+		}
+	}
+
+	/**
+	 * Gets the memoized answer to the query whether the two given values may alias,
+	 * or computes it if there is none yet
+	 *
+	 * @param val1   The first value
+	 * @param val2   The second value
+	 * @param answer The function that computes the answer if it is not cached
+	 * @return True if the two values may alias, otherwise false
+	 */
+	public boolean mayAlias(Value val1, Value val2, Supplier<Boolean> answer) {
+		try {
+			return valueQueries.get(new ValueQuery(val1, val2), answer::get);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Could not compute alias query", e.getCause());
+		}
+	}
+
+	/**
+	 * Removes all memoized answers from this cache
+	 */
+	public void invalidateAll() {
+		accessPathQueries.invalidateAll();
+		valueQueries.invalidateAll();
+	}
+
+	/**
+	 * Gets the statistics about the hits and misses of this cache
+	 *
+	 * @return The combined statistics of all query types
+	 */
+	public CacheStats getStats() {
+		return accessPathQueries.stats().plus(valueQueries.stats());
+	}
+
+}
@@ -0,0 +1,214 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Coalesces the alias requests that the forward solver issues for the same
+ * method and context into batches. Identical requests that are part of a batch
+ * which has not yet been handed to the backward solver are only sent once. A
+ * batch is flushed to the backward solver either by a task on the shared
+ * executor, or as soon as it reaches its maximum size.
+ *
+ * Since the flush task runs on the same executor as the solvers, the analysis
+ * does not terminate before all pending batches have been processed.
+ */
+public class AliasRequestBatcher {
+
+	/**
+	 * Key of a batch, i.e., the method and the context in which alias requests
+	 * are issued
+	 */
+	private static class BatchKey {
+
+		private final SootMethod method;
+		private final Abstraction d1;
+
+		private BatchKey(SootMethod method, Abstraction d1) {
+			this.method = method;
+			this.d1 = d1;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * method.hashCode() + System.identityHashCode(d1);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			BatchKey other = (BatchKey) obj;
+			return method == other.method && d1 == other.d1;
+		}
+
+	}
+
+	/**
+	 * A single request to compute the aliases of the given abstraction starting
+	 * at the given statement
+	 */
+	private static class AliasRequest {
+
+		private final Stmt src;
+		private final Abstraction bwAbs;
+
+		private AliasRequest(Stmt src, Abstraction bwAbs) {
+			this.src = src;
+			this.bwAbs = bwAbs;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(src) + bwAbs.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			AliasRequest other = (AliasRequest) obj;
+			return src == other.src && bwAbs.equals(other.bwAbs);
+		}
+
+	}
+
+	private final IInfoflowSolver bSolver;
+	private final IInfoflowCFG icfg;
+	private final Executor executor;
+	private final int maxBatchSize;
+
+	private final ConcurrentMap<BatchKey, Set<AliasRequest>> pendingBatches = new ConcurrentHashMap<>();
+
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder duplicateCount = new LongAdder();
+	private final LongAdder batchCount = new LongAdder();
+
+	/**
+	 * Creates a new batcher for alias requests
+	 *
+	 * @param bSolver      The backward solver that computes the aliases
+	 * @param icfg         The interprocedural control flow graph of the forward
+	 *                     analysis
+	 * @param executor     The executor on which to schedule the flush tasks. This
+	 *                     must be the executor of the solvers.
+	 * @param maxBatchSize The maximum number of distinct requests per batch
+	 */
+	public AliasRequestBatcher(IInfoflowSolver bSolver, IInfoflowCFG icfg, Executor executor, int maxBatchSize) {
+		this.bSolver = bSolver;
+		this.icfg = icfg;
+		this.executor = executor;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Adds a request to compute the aliases of the given abstraction to the batch
+	 * of the given method and context
+	 *
+	 * @param d1     The context in which the request is issued
+	 * @param method The method in which the request is issued
+	 * @param src    The statement at which the backward analysis shall start
+	 * @param bwAbs  The inactive abstraction for which to compute the aliases
+	 */
+	public void addRequest(Abstraction d1, SootMethod method, Stmt src, Abstraction bwAbs) {
+		requestCount.increment();
+
+		final BatchKey key = new BatchKey(method, d1);
+		final AliasRequest request = new AliasRequest(src, bwAbs);
+		final boolean[] created = new boolean[1];
+		final boolean[] duplicate = new boolean[1];
+
+		// The batch is only ever modified inside the atomic compute operation
+		Set<AliasRequest> batch = pendingBatches.compute(key, (k, b) -> {
+			if (b == null) {
+				b = new LinkedHashSet<>();
+				created[0] = true;
+			}
+			duplicate[0] = !b.add(request);
+			return b;
+		});
+		if (duplicate[0])
+			duplicateCount.increment();
+
+		if (maxBatchSize > 0 && batch.size() >= maxBatchSize)
+			flush(key, batch);
+		else if (created[0])
+			executor.execute(() -> flush(key, batch));
+	}
+
+	/**
+	 * Sends all requests from the given batch to the backward solver unless the
+	 * batch has already been flushed
+	 *
+	 * @param key   The method and context of the batch
+	 * @param batch The batch to flush
+	 */
+	private void flush(BatchKey key, Set<AliasRequest> batch) {
+		// Once the batch has been removed, no other thread can add to it anymore
+		if (!pendingBatches.remove(key, batch))
+			return;
+
+		batchCount.increment();
+		for (AliasRequest request : batch)
+			for (Unit predUnit : icfg.getPredsOf(request.src))
+				bSolver.processEdge(new PathEdge<Unit, Abstraction>(key.d1, predUnit, request.bwAbs));
+	}
+
+	/**
+	 * Discards all batches that have not yet been sent to the backward solver
+	 */
+	public void clear() {
+		pendingBatches.clear();
+	}
+
+	/**
+	 * Gets the number of alias requests that have been issued
+	 *
+	 * @return The number of alias requests
+	 */
+	public long getRequestCount() {
+		return requestCount.sum();
+	}
+
+	/**
+	 * Gets the number of alias requests that were dropped because an identical
+	 * request was already pending
+	 *
+	 * @return The number of duplicate alias requests
+	 */
+	public long getDuplicateCount() {
+		return duplicateCount.sum();
+	}
+
+	/**
+	 * Gets the number of batches that have been sent to the backward solver
+	 *
+	 * @return The number of flushed batches
+	 */
+	public long getBatchCount() {
+		return batchCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d alias requests, %d duplicates, %d batches", getRequestCount(), getDuplicateCount(),
+				getBatchCount());
+	}
+
+}
@@ -1,18 +1,28 @@
 package soot.jimple.infoflow.aliasing;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 
 import heros.solver.IDESolver;
 import soot.ArrayType;
 import soot.Local;
+import soot.MethodOrMethodContext;
 import soot.PrimType;
 import soot.RefLikeType;
 import soot.Scene;
@@ -32,6 +42,7 @@ import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.data.AccessPathFragment;
 import soot.jimple.infoflow.util.TypeUtils;
+import soot.jimple.toolkits.callgraph.ReachableMethods;
 import soot.jimple.toolkits.pointer.LocalMustAliasAnalysis;
 import soot.jimple.toolkits.pointer.StrongLocalMustAliasAnalysis;
 import soot.toolkits.graph.UnitGraph;
@@ -59,10 +70,72 @@ public class Aliasing {
 				}
 			});
 
+	/**
+	 * Must-alias analyses that were computed before the taint analysis. Other than
+	 * the lazily computed ones, these are never evicted.
+	 */
+	protected final ConcurrentMap<SootMethod, LocalMustAliasAnalysis> precomputedAliasAnalyses = new ConcurrentHashMap<>();
+
+	/**
+	 * Memoized answers to may-alias queries, or <code>null</code> if queries are
+	 * not memoized
+	 */
+	protected final AliasQueryCache queryCache;
+
 	public Aliasing(IAliasingStrategy aliasingStrategy, InfoflowManager manager) {
 		this.aliasingStrategy = aliasingStrategy;
 		this.implicitFlowAliasingStrategy = new ImplicitFlowAliasStrategy(manager);
 		this.manager = manager;
+
+		int cacheSize = manager.getConfig().getAliasQueryCacheSize();
+		this.queryCache = cacheSize > 0 ? new AliasQueryCache(cacheSize) : null;
+	}
+
+	/**
+	 * Computes the local must-alias analyses for all reachable methods in parallel,
+	 * so that the taint analysis does not need to compute them on demand
+	 * 
+	 * @param numThreads The number of threads to use
+	 */
+	public void precomputeMustAliasAnalyses(int numThreads) {
+		List<SootMethod> methods = new ArrayList<>();
+		ReachableMethods reachableMethods = Scene.v().getReachableMethods();
+		reachableMethods.update();
+		for (Iterator<MethodOrMethodContext> iter = reachableMethods.listener(); iter.hasNext();) {
+			SootMethod sm = iter.next().method();
+			if (sm.isConcrete() && sm.hasActiveBody() && !excludedFromMustAliasAnalysis.contains(sm))
+				methods.add(sm);
+		}
+
+		long beforePrecomputation = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads), r -> {
+			Thread thrAlias = new Thread(r);
+			thrAlias.setDaemon(true);
+			thrAlias.setName("FlowDroid Must-Alias Precomputation");
+			return thrAlias;
+		});
+		for (SootMethod sm : methods) {
+			executor.execute(() -> {
+				if (manager.isAnalysisAborted())
+					return;
+				try {
+					precomputedAliasAnalyses.put(sm,
+							new StrongLocalMustAliasAnalysis((UnitGraph) manager.getICFG().getOrCreateUnitGraph(sm)));
+				} catch (Exception ex) {
+					// We fall back to the on-demand analysis, which reports the error
+					logger.debug("Could not precompute must-alias analysis for {}", sm, ex);
+				}
+			});
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			logger.error("Could not wait for must-alias precomputation", e);
+			Thread.currentThread().interrupt();
+		}
+		logger.info("Precomputed must-alias analyses for {} methods in {} seconds",
+				precomputedAliasAnalyses.size(), Math.round((System.nanoTime() - beforePrecomputation) / 1E9));
 	}
 
 	/**
@@ -187,13 +260,29 @@ public class Aliasing {
 			return true;
 
 		// If we have an interactive aliasing algorithm, we check that as well
-		if (aliasingStrategy.isInteractive())
-			return aliasingStrategy.mayAlias(manager.getAccessPathFactory().createAccessPath(val1, false),
-					manager.getAccessPathFactory().createAccessPath(val2, false));
+		if (aliasingStrategy.isInteractive()) {
+			if (queryCache != null)
+				return queryCache.mayAlias(val1, val2, () -> mayAliasInteractive(val1, val2));
+			return mayAliasInteractive(val1, val2);
+		}
 
 		return false;
 	}
 
+	/**
+	 * Asks the interactive aliasing strategy whether the two values may
+	 * potentially point to the same runtime object
+	 * 
+	 * @param val1 The first value
+	 * @param val2 The second value
+	 * @return True if the two values may potentially point to the same runtime
+	 *         object, otherwise false
+	 */
+	private boolean mayAliasInteractive(Value val1, Value val2) {
+		return aliasingStrategy.mayAlias(manager.getAccessPathFactory().createAccessPath(val1, false),
+				manager.getAccessPathFactory().createAccessPath(val2, false));
+	}
+
 	/**
 	 * Gets whether a value and an access path may potentially point to the same
 	 * runtime object
@@ -215,6 +304,42 @@ public class Aliasing {
 		if (val instanceof Constant)
 			return null;
 
+		// Answers that depend on the recursive bases registered so far may change
+		// during the analysis and must not be memoized
+		if (queryCache != null && !dependsOnBaseRegister(ap, val))
+			return queryCache.mayAlias(ap, val, () -> mayAliasUncached(ap, val));
+		return mayAliasUncached(ap, val);
+	}
+
+	/**
+	 * Checks whether the answer to the query whether the given access path may
+	 * alias the given value depends on the recursive bases that the access path
+	 * factory has registered. These bases are added while the analysis runs, so
+	 * such an answer can change over time.
+	 * 
+	 * @param ap  The access path
+	 * @param val The value
+	 * @return True if the answer may depend on the registered bases, otherwise
+	 *         false
+	 */
+	private static boolean dependsOnBaseRegister(AccessPath ap, Value val) {
+		// The first field of a static access path is never matched against a
+		// base. Local and array references do not reference a field at all.
+		if (!(val instanceof InstanceFieldRef) || ap.isStaticFieldRef() || ap.getFragmentCount() == 0)
+			return false;
+		return ap.getFirstField() != ((InstanceFieldRef) val).getField();
+	}
+
+	/**
+	 * Gets whether a value and an access path may potentially point to the same
+	 * runtime object without consulting the query cache
+	 * 
+	 * @param ap  The access path
+	 * @param val The value
+	 * @return The access path that actually matched if the given value and access
+	 *         path alias, otherwise null
+	 */
+	private AccessPath mayAliasUncached(AccessPath ap, Value val) {
 		// If we have an interactive aliasing algorithm, we check that as well
 		if (aliasingStrategy.isInteractive()) {
 			if (!aliasingStrategy.mayAlias(ap, manager.getAccessPathFactory().createAccessPath(val, true)))
@@ -290,7 +415,9 @@ public class Aliasing {
 
 		// Query the must-alias analysis
 		try {
-			LocalMustAliasAnalysis lmaa = strongAliasAnalysis.getUnchecked(method);
+			LocalMustAliasAnalysis lmaa = precomputedAliasAnalyses.get(method);
+			if (lmaa == null)
+				lmaa = strongAliasAnalysis.getUnchecked(method);
 			return lmaa.mustAlias(val1, position, val2, position);
 		} catch (Exception ex) {
 			// The analysis in Soot is somewhat buggy. In that case, just resort to no alias
@@ -479,4 +606,23 @@ public class Aliasing {
 		return aliasingStrategy;
 	}
 
+	/**
+	 * Removes all memoized answers to may-alias queries, e.g., because the access
+	 * path length has been reduced
+	 */
+	public void clearQueryCache() {
+		if (queryCache != null)
+			queryCache.invalidateAll();
+	}
+
+	/**
+	 * Gets the hit and miss statistics of the may-alias query cache
+	 * 
+	 * @return The statistics of the may-alias query cache, or <code>null</code> if
+	 *         alias queries are not memoized
+	 */
+	public CacheStats getQueryCacheStats() {
+		return queryCache == null ? null : queryCache.getStats();
+	}
+
 }
@@ -1,6 +1,10 @@
 package soot.jimple.infoflow.aliasing;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import heros.solver.PathEdge;
 import soot.SootMethod;
@@ -18,11 +22,34 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
  */
 public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
 	private final IInfoflowSolver bSolver;
+	private final AliasRequestBatcher batcher;
 
 	public FlowSensitiveAliasStrategy(InfoflowManager manager, IInfoflowSolver backwardsSolver) {
+		this(manager, backwardsSolver, null);
+	}
+
+	/**
+	 * Creates a new flow-sensitive aliasing strategy
+	 * 
+	 * @param manager         The data flow manager
+	 * @param backwardsSolver The backward solver that computes the aliases
+	 * @param executor        The executor of the solvers on which batches of alias
+	 *                        requests shall be flushed, or <code>null</code> to
+	 *                        send every alias request to the backward solver
+	 *                        immediately
+	 */
+	public FlowSensitiveAliasStrategy(InfoflowManager manager, IInfoflowSolver backwardsSolver, Executor executor) {
 		super(manager);
 		this.bSolver = backwardsSolver;
+
+		int maxBatchSize = manager.getConfig().getMaxAliasBatchSize();
+		if (executor != null && maxBatchSize > 0)
+			this.batcher = new AliasRequestBatcher(backwardsSolver, manager.getICFG(), executor, maxBatchSize);
+		else
+			this.batcher = null;
 	}
 
 	@Override
@@ -30,6 +57,10 @@ public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 			Set<Abstraction> taintSet, SootMethod method, Abstraction newAbs) {
 		// Start the backwards solver
 		Abstraction bwAbs = newAbs.deriveInactiveAbstraction(src);
+		if (batcher != null) {
+			batcher.addRequest(d1, method, src, bwAbs);
+			return;
+		}
 		for (Unit predUnit : manager.getICFG().getPredsOf(src))
 			bSolver.processEdge(new PathEdge<Unit, Abstraction>(d1, predUnit, bwAbs));
 	}
@@ -55,8 +86,22 @@ public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 		return bSolver;
 	}
 
+	/**
+	 * Gets the batcher that coalesces the alias requests to the backward solver
+	 * 
+	 * @return The batcher for alias requests, or <code>null</code> if alias
+	 *         requests are not batched
+	 */
+	public AliasRequestBatcher getRequestBatcher() {
+		return batcher;
+	}
+
 	@Override
 	public void cleanup() {
+		if (batcher != null) {
+			logger.info("Alias request batching: {}", batcher);
+			batcher.clear();
+		}
 		bSolver.cleanup();
 	}
 
@@ -0,0 +1,268 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.Local;
+import soot.SootField;
+import soot.Value;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.data.AccessPathFragment;
+
+/**
+ * Immutable, flow-insensitive alias summary of a single method. The summary
+ * partitions the heap locations that are visible in the method into alias
+ * classes. Callers use the classes that are reachable from the formal
+ * parameters, the return value and the static fields. The forward analysis
+ * uses the classes of the locals to look up aliases in constant time.
+ */
+public class MethodAliasSummary {
+
+	/**
+	 * The formal index of the "this" object
+	 */
+	public static final int THIS_INDEX = -1;
+
+	/**
+	 * The formal index of the return value
+	 */
+	public static final int RETURN_INDEX = -2;
+
+	/**
+	 * A value through which an alias class can be accessed, i.e., a local or a
+	 * static field, optionally followed by a single field
+	 */
+	private static class AliasName {
+
+		private final Value base;
+		private final SootField field;
+
+		private AliasName(Value base, SootField field) {
+			this.base = base;
+			this.field = field;
+		}
+
+		private AccessPath createAccessPath(AccessPathFactory factory, AccessPathFragment[] remaining,
+				boolean taintSubFields) {
+			if (field == null)
+				return factory.createAccessPath(base, remaining, taintSubFields);
+
+			int remainingCount = remaining == null ? 0 : remaining.length;
+			AccessPathFragment[] fragments = new AccessPathFragment[remainingCount + 1];
+			fragments[0] = new AccessPathFragment(field, field.getType());
+			if (remainingCount > 0)
+				System.arraycopy(remaining, 0, fragments, 1, remainingCount);
+			return factory.createAccessPath(base, fragments, taintSubFields);
+		}
+
+	}
+
+	public static final MethodAliasSummary EMPTY = new MethodAliasSummary(Collections.emptyMap(),
+			Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+	private final Map<Object, Integer> roots;
+	private final List<Map<Object, Integer>> fieldClasses;
+	private final List<List<AliasName>> names;
+	private final List<SootField> staticFields;
+
+	private MethodAliasSummary(Map<Object, Integer> roots, List<Map<Object, Integer>> fieldClasses,
+			List<List<AliasName>> names, List<SootField> staticFields) {
+		this.roots = roots;
+		this.fieldClasses = fieldClasses;
+		this.names = names;
+		this.staticFields = staticFields;
+	}
+
+	/**
+	 * Creates a summary from the given alias graph
+	 *
+	 * @param graph    The alias graph from which to create the summary
+	 * @param roots    The roots of the summary. Integers denote formal parameters,
+	 *                 locals and static fields are taken as-is.
+	 * @param maxDepth The maximum number of fields to follow from a root, or a
+	 *                 negative value for no limit
+	 * @return The new summary
+	 */
+	static MethodAliasSummary create(AliasGraph graph, Map<Object, AliasGraph.Node> roots, int maxDepth) {
+		if (roots.isEmpty())
+			return EMPTY;
+
+		final Map<AliasGraph.Node, Integer> ids = new IdentityHashMap<>();
+		final Map<Object, Integer> rootClasses = new HashMap<>();
+		final List<Map<Object, Integer>> fieldClasses = new ArrayList<>();
+		final Deque<AliasGraph.Node> worklist = new ArrayDeque<>();
+		final Map<AliasGraph.Node, Integer> depths = new IdentityHashMap<>();
+
+		// Assign the classes in breadth-first order, so that every class is reached
+		// on the shortest path
+		for (Map.Entry<Object, AliasGraph.Node> entry : roots.entrySet()) {
+			AliasGraph.Node node = graph.find(entry.getValue());
+			rootClasses.put(entry.getKey(), getClassId(node, ids, fieldClasses, worklist, depths, 0));
+		}
+		while (!worklist.isEmpty()) {
+			AliasGraph.Node node = worklist.poll();
+			int depth = depths.get(node);
+			if (maxDepth >= 0 && depth >= maxDepth)
+				continue;
+
+			Map<Object, AliasGraph.Node> fields = graph.getFields(node);
+			if (fields == null || fields.isEmpty())
+				continue;
+			Map<Object, Integer> classFields = new HashMap<>(fields.size());
+			for (Map.Entry<Object, AliasGraph.Node> entry : fields.entrySet())
+				classFields.put(entry.getKey(), getClassId(graph.find(entry.getValue()), ids, fieldClasses, worklist,
+						depths, depth + 1));
+			fieldClasses.set(ids.get(node), classFields);
+		}
+
+		// Record the names through which the classes can be accessed
+		List<List<AliasName>> names = new ArrayList<>(fieldClasses.size());
+		List<SootField> staticFields = new ArrayList<>();
+		for (int i = 0; i < fieldClasses.size(); i++)
+			names.add(null);
+		for (Map.Entry<Object, Integer> entry : rootClasses.entrySet()) {
+			final Value base;
+			if (entry.getKey() instanceof Local)
+				base = (Local) entry.getKey();
+			else if (entry.getKey() instanceof SootField) {
+				staticFields.add((SootField) entry.getKey());
+				base = Jimple.v().newStaticFieldRef(((SootField) entry.getKey()).makeRef());
+			} else
+				continue;
+
+			int classId = entry.getValue();
+			addName(names, classId, new AliasName(base, null));
+			Map<Object, Integer> fields = fieldClasses.get(classId);
+			if (fields != null && base instanceof Local) {
+				for (Map.Entry<Object, Integer> fieldEntry : fields.entrySet())
+					if (fieldEntry.getKey() instanceof SootField)
+						addName(names, fieldEntry.getValue(), new AliasName(base, (SootField) fieldEntry.getKey()));
+			}
+		}
+
+		return new MethodAliasSummary(rootClasses, fieldClasses, names,
+				staticFields.isEmpty() ? Collections.emptyList() : staticFields);
+	}
+
+	private static int getClassId(AliasGraph.Node node, Map<AliasGraph.Node, Integer> ids,
+			List<Map<Object, Integer>> fieldClasses, Deque<AliasGraph.Node> worklist,
+			Map<AliasGraph.Node, Integer> depths, int depth) {
+		Integer id = ids.get(node);
+		if (id == null) {
+			id = fieldClasses.size();
+			ids.put(node, id);
+			fieldClasses.add(null);
+			depths.put(node, depth);
+			worklist.add(node);
+		}
+		return id;
+	}
+
+	private static void addName(List<List<AliasName>> names, int classId, AliasName name) {
+		List<AliasName> classNames = names.get(classId);
+		if (classNames == null) {
+			classNames = new ArrayList<>(2);
+			names.set(classId, classNames);
+		}
+		classNames.add(name);
+	}
+
+	/**
+	 * Gets the alias class of the given root
+	 *
+	 * @param root The root, i.e., a formal index, a local, or a static field
+	 * @return The alias class of the given root, or <code>null</code> if the root
+	 *         is not part of this summary
+	 */
+	Integer getRootClass(Object root) {
+		return roots.get(root);
+	}
+
+	/**
+	 * Gets the static fields that are part of this summary
+	 *
+	 * @return The static fields in this summary
+	 */
+	List<SootField> getStaticFields() {
+		return staticFields;
+	}
+
+	/**
+	 * Gets the alias classes that are reachable from the given class via a field
+	 *
+	 * @param classId The alias class
+	 * @return The successors of the given alias class, indexed by field, or
+	 *         <code>null</code> if there are none
+	 */
+	Map<Object, Integer> getFieldClasses(int classId) {
+		return fieldClasses.get(classId);
+	}
+
+	/**
+	 * Gets all aliases of the given access path inside the method
+	 *
+	 * @param ap      The access path for which to find aliases
+	 * @param factory The factory for creating the aliased access paths
+	 * @return The access paths that may alias the given one, excluding the given
+	 *         access path itself
+	 */
+	public List<AccessPath> getAliases(AccessPath ap, AccessPathFactory factory) {
+		final int fragmentCount = ap.getFragmentCount();
+		final AccessPathFragment[] fragments = ap.getFragments();
+
+		int idx;
+		Integer classId;
+		if (ap.isStaticFieldRef()) {
+			classId = roots.get(ap.getFirstField());
+			idx = 1;
+		} else {
+			classId = roots.get(ap.getPlainValue());
+			idx = 0;
+		}
+
+		List<AccessPath> aliases = null;
+		while (classId != null) {
+			List<AliasName> classNames = names.get(classId);
+			if (classNames != null) {
+				AccessPathFragment[] remaining = idx < fragmentCount
+						? Arrays.copyOfRange(fragments, idx, fragmentCount)
+						: null;
+				for (AliasName name : classNames) {
+					AccessPath alias = name.createAccessPath(factory, remaining, ap.getTaintSubFields());
+					if (alias != null && !alias.equals(ap)) {
+						if (aliases == null)
+							aliases = new ArrayList<>();
+						aliases.add(alias);
+					}
+				}
+			}
+
+			// Continue with the next field in the access path
+			if (idx >= fragmentCount)
+				break;
+			Map<Object, Integer> fields = fieldClasses.get(classId);
+			classId = fields == null ? null : fields.get(fragments[idx].getField());
+			idx++;
+		}
+		return aliases == null ? Collections.emptyList() : aliases;
+	}
+
+	/**
+	 * Gets the number of alias classes in this summary
+	 *
+	 * @return The number of alias classes
+	 */
+	public int getClassCount() {
+		return fieldClasses.size();
+	}
+
+}
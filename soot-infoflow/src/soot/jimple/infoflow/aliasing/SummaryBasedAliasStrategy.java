@@ -0,0 +1,509 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Local;
+import soot.MethodOrMethodContext;
+import soot.RefLikeType;
+import soot.Scene;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.ArrayRef;
+import soot.jimple.AssignStmt;
+import soot.jimple.CastExpr;
+import soot.jimple.IdentityStmt;
+import soot.jimple.InstanceFieldRef;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.ParameterRef;
+import soot.jimple.ReturnStmt;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.Stmt;
+import soot.jimple.ThisRef;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.toolkits.callgraph.ReachableMethods;
+
+/**
+ * Flow-insensitive aliasing strategy that does not require a backward solver.
+ * Before the taint analysis starts, the strategy computes a unification-based
+ * alias summary for every reachable method. The summaries are computed
+ * bottom-up over the strongly connected components of the callgraph, and
+ * independent components are processed in parallel. All methods in the same
+ * component share a single context-insensitive alias graph. Callees outside of
+ * the component contribute a fresh copy of their summary at every call site.
+ *
+ * During the taint analysis, the aliases of a tainted access path are looked up
+ * in the summary of the current method and added to the taint set directly.
+ * This is less precise than the flow-sensitive alias analysis, but avoids the
+ * additional edges of the backward solver.
+ */
+public class SummaryBasedAliasStrategy extends AbstractBulkAliasStrategy {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * Root for a formal parameter, the "this" object, or the return value of a
+	 * method in an alias graph that is shared between multiple methods
+	 */
+	private static class FormalRoot {
+
+		private final SootMethod method;
+		private final int index;
+
+		private FormalRoot(SootMethod method, int index) {
+			this.method = method;
+			this.index = index;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * method.hashCode() + index;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			FormalRoot other = (FormalRoot) obj;
+			return method == other.method && index == other.index;
+		}
+
+	}
+
+	/**
+	 * A strongly connected component of the callgraph
+	 */
+	private static class Component {
+
+		private final Set<SootMethod> methods = new LinkedHashSet<>();
+		private final Set<Component> callers = new HashSet<>();
+		private final AtomicInteger pendingCallees = new AtomicInteger();
+
+	}
+
+	private final Map<SootMethod, MethodAliasSummary> summaries = new ConcurrentHashMap<>();
+
+	public SummaryBasedAliasStrategy(InfoflowManager manager) {
+		super(manager);
+	}
+
+	/**
+	 * Computes the alias summaries of all reachable methods
+	 *
+	 * @param numThreads The number of threads to use for computing the summaries
+	 */
+	public void computeSummaries(int numThreads) {
+		long beforeSummaries = System.nanoTime();
+
+		// Collect the methods for which we need summaries
+		Set<SootMethod> methods = new LinkedHashSet<>();
+		ReachableMethods reachableMethods = Scene.v().getReachableMethods();
+		reachableMethods.update();
+		for (Iterator<MethodOrMethodContext> iter = reachableMethods.listener(); iter.hasNext();) {
+			SootMethod sm = iter.next().method();
+			if (sm.isConcrete() && sm.hasActiveBody())
+				methods.add(sm);
+		}
+
+		// Components without any unprocessed callees can be summarized right away
+		Collection<Component> components = computeComponents(methods);
+		CountDownLatch remaining = new CountDownLatch(components.size());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads), r -> {
+			Thread thrSummary = new Thread(r);
+			thrSummary.setDaemon(true);
+			thrSummary.setName("FlowDroid Alias Summaries");
+			return thrSummary;
+		});
+		for (Component component : components)
+			if (component.pendingCallees.get() == 0)
+				scheduleComponent(executor, component, remaining);
+
+		try {
+			remaining.await();
+		} catch (InterruptedException e) {
+			logger.error("Could not wait for alias summary computation", e);
+			Thread.currentThread().interrupt();
+		}
+		executor.shutdown();
+		logger.info("Computed alias summaries for {} methods in {} components in {} seconds", summaries.size(),
+				components.size(), Math.round((System.nanoTime() - beforeSummaries) / 1E9));
+	}
+
+	/**
+	 * Schedules the summary computation for the given component. Once the
+	 * component is done, all callers whose callees are done as well are scheduled.
+	 *
+	 * @param executor  The executor on which to run the summary computation
+	 * @param component The component to summarize
+	 * @param remaining The latch that counts the components that still need to be
+	 *                  summarized
+	 */
+	private void scheduleComponent(ExecutorService executor, Component component, CountDownLatch remaining) {
+		executor.execute(() -> {
+			try {
+				if (!manager.isAnalysisAborted())
+					summarizeComponent(component);
+			} catch (Exception ex) {
+				// Methods without a summary just do not have any aliases
+				logger.error("Could not compute alias summaries for {}", component.methods, ex);
+			} finally {
+				for (Component caller : component.callers)
+					if (caller.pendingCallees.decrementAndGet() == 0)
+						scheduleComponent(executor, caller, remaining);
+				remaining.countDown();
+			}
+		});
+	}
+
+	/**
+	 * Computes the strongly connected components of the callgraph between the
+	 * given methods using Tarjan's algorithm
+	 *
+	 * @param methods The methods for which to compute the components
+	 * @return The strongly connected components of the callgraph
+	 */
+	private Collection<Component> computeComponents(Set<SootMethod> methods) {
+		final Map<SootMethod, Set<SootMethod>> callees = new HashMap<>();
+		for (SootMethod sm : methods)
+			callees.put(sm, getCallees(sm, methods));
+
+		final Map<SootMethod, Integer> indices = new HashMap<>();
+		final Map<SootMethod, Integer> lowLinks = new HashMap<>();
+		final Deque<SootMethod> stack = new ArrayDeque<>();
+		final Set<SootMethod> onStack = new HashSet<>();
+		final Map<SootMethod, Component> methodToComponent = new HashMap<>();
+		final List<Component> components = new ArrayList<>();
+
+		// We use an explicit call stack, because the callgraph can be very deep
+		final Deque<SootMethod> callStack = new ArrayDeque<>();
+		final Map<SootMethod, Iterator<SootMethod>> iterators = new HashMap<>();
+		int index = 0;
+		for (SootMethod start : methods) {
+			if (indices.containsKey(start))
+				continue;
+
+			callStack.push(start);
+			while (!callStack.isEmpty()) {
+				SootMethod sm = callStack.peek();
+				if (!indices.containsKey(sm)) {
+					indices.put(sm, index);
+					lowLinks.put(sm, index);
+					index++;
+					stack.push(sm);
+					onStack.add(sm);
+					iterators.put(sm, callees.get(sm).iterator());
+				}
+
+				boolean descended = false;
+				Iterator<SootMethod> it = iterators.get(sm);
+				while (it.hasNext()) {
+					SootMethod callee = it.next();
+					if (!indices.containsKey(callee)) {
+						callStack.push(callee);
+						descended = true;
+						break;
+					} else if (onStack.contains(callee))
+						lowLinks.put(sm, Math.min(lowLinks.get(sm), indices.get(callee)));
+				}
+				if (descended)
+					continue;
+
+				// All callees are done
+				callStack.pop();
+				iterators.remove(sm);
+				if (!callStack.isEmpty()) {
+					SootMethod caller = callStack.peek();
+					lowLinks.put(caller, Math.min(lowLinks.get(caller), lowLinks.get(sm)));
+				}
+				if (lowLinks.get(sm).equals(indices.get(sm))) {
+					Component component = new Component();
+					SootMethod member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						component.methods.add(member);
+						methodToComponent.put(member, component);
+					} while (member != sm);
+					components.add(component);
+				}
+			}
+		}
+
+		// Record the dependencies between the components
+		for (Component component : components) {
+			Set<Component> calleeComponents = new HashSet<>();
+			for (SootMethod sm : component.methods)
+				for (SootMethod callee : callees.get(sm)) {
+					Component calleeComponent = methodToComponent.get(callee);
+					if (calleeComponent != component && calleeComponents.add(calleeComponent))
+						calleeComponent.callers.add(component);
+				}
+			component.pendingCallees.set(calleeComponents.size());
+		}
+		return components;
+	}
+
+	/**
+	 * Gets the callees of the given method for which summaries are computed
+	 *
+	 * @param sm      The method
+	 * @param methods The methods for which summaries are computed
+	 * @return The callees of the given method
+	 */
+	private Set<SootMethod> getCallees(SootMethod sm, Set<SootMethod> methods) {
+		Set<SootMethod> callees = new HashSet<>();
+		for (Unit u : sm.getActiveBody().getUnits()) {
+			if (((Stmt) u).containsInvokeExpr())
+				for (SootMethod callee : manager.getICFG().getCalleesOfCallAt(u))
+					if (methods.contains(callee))
+						callees.add(callee);
+		}
+		return callees;
+	}
+
+	/**
+	 * Computes the alias summaries for all methods in the given component
+	 *
+	 * @param component The strongly connected component to summarize
+	 */
+	private void summarizeComponent(Component component) {
+		final AliasGraph graph = new AliasGraph();
+		for (SootMethod sm : component.methods)
+			for (Unit u : sm.getActiveBody().getUnits())
+				processStatement(graph, sm, (Stmt) u, component);
+
+		// Extract the summaries
+		final int maxDepth = manager.getConfig().getAccessPathConfiguration().getAccessPathLength();
+		for (SootMethod sm : component.methods) {
+			Map<Object, AliasGraph.Node> roots = new HashMap<>();
+			addFormalRoot(graph, roots, sm, MethodAliasSummary.THIS_INDEX);
+			addFormalRoot(graph, roots, sm, MethodAliasSummary.RETURN_INDEX);
+			for (int i = 0; i < sm.getParameterCount(); i++)
+				addFormalRoot(graph, roots, sm, i);
+			for (Local local : sm.getActiveBody().getLocals()) {
+				AliasGraph.Node node = graph.getExistingRoot(local);
+				if (node != null)
+					roots.put(local, node);
+			}
+			for (Object root : graph.getRoots())
+				if (root instanceof SootField)
+					roots.put(root, graph.getExistingRoot(root));
+			summaries.put(sm, MethodAliasSummary.create(graph, roots, maxDepth));
+		}
+	}
+
+	private void addFormalRoot(AliasGraph graph, Map<Object, AliasGraph.Node> roots, SootMethod sm, int index) {
+		AliasGraph.Node node = graph.getExistingRoot(new FormalRoot(sm, index));
+		if (node != null)
+			roots.put(index, node);
+	}
+
+	/**
+	 * Adds the alias relationships that are established by the given statement to
+	 * the given alias graph
+	 *
+	 * @param graph     The alias graph
+	 * @param sm        The method that contains the statement
+	 * @param stmt      The statement
+	 * @param component The strongly connected component that contains the method
+	 */
+	private void processStatement(AliasGraph graph, SootMethod sm, Stmt stmt, Component component) {
+		if (stmt instanceof IdentityStmt) {
+			IdentityStmt id = (IdentityStmt) stmt;
+			Value rop = id.getRightOp();
+			if (rop instanceof ThisRef)
+				graph.union(graph.getRoot(id.getLeftOp()),
+						graph.getRoot(new FormalRoot(sm, MethodAliasSummary.THIS_INDEX)));
+			else if (rop instanceof ParameterRef && id.getLeftOp().getType() instanceof RefLikeType)
+				graph.union(graph.getRoot(id.getLeftOp()),
+						graph.getRoot(new FormalRoot(sm, ((ParameterRef) rop).getIndex())));
+		} else if (stmt instanceof AssignStmt) {
+			AssignStmt assign = (AssignStmt) stmt;
+			if (assign.containsInvokeExpr())
+				processCall(graph, stmt, assign.getLeftOp(), component);
+			else if (assign.getLeftOp().getType() instanceof RefLikeType) {
+				AliasGraph.Node left = getNode(graph, assign.getLeftOp());
+				AliasGraph.Node right = getNode(graph, assign.getRightOp());
+				if (left != null && right != null)
+					graph.union(left, right);
+			}
+		} else if (stmt.containsInvokeExpr())
+			processCall(graph, stmt, null, component);
+		else if (stmt instanceof ReturnStmt) {
+			Value op = ((ReturnStmt) stmt).getOp();
+			if (op instanceof Local && op.getType() instanceof RefLikeType)
+				graph.union(graph.getRoot(op), graph.getRoot(new FormalRoot(sm, MethodAliasSummary.RETURN_INDEX)));
+		}
+	}
+
+	/**
+	 * Adds the alias relationships that are established by the given call site to
+	 * the given alias graph
+	 *
+	 * @param graph     The alias graph
+	 * @param callSite  The call site
+	 * @param result    The local that receives the return value, or
+	 *                  <code>null</code> if there is none
+	 * @param component The strongly connected component that contains the caller
+	 */
+	private void processCall(AliasGraph graph, Stmt callSite, Value result, Component component) {
+		final InvokeExpr iexpr = callSite.getInvokeExpr();
+		for (SootMethod callee : manager.getICFG().getCalleesOfCallAt(callSite)) {
+			if (component.methods.contains(callee)) {
+				// Inside the component, we directly unify actuals and formals
+				for (int i = MethodAliasSummary.RETURN_INDEX; i < iexpr.getArgCount(); i++) {
+					AliasGraph.Node actual = getActualNode(graph, iexpr, result, i);
+					if (actual != null)
+						graph.union(actual, graph.getRoot(new FormalRoot(callee, i)));
+				}
+			} else {
+				// We use a fresh copy of the callee's summary
+				MethodAliasSummary summary = summaries.get(callee);
+				if (summary == null || summary == MethodAliasSummary.EMPTY)
+					continue;
+				Map<Integer, AliasGraph.Node> copies = new HashMap<>();
+				for (int i = MethodAliasSummary.RETURN_INDEX; i < iexpr.getArgCount(); i++) {
+					Integer classId = summary.getRootClass(i);
+					if (classId != null) {
+						AliasGraph.Node actual = getActualNode(graph, iexpr, result, i);
+						if (actual != null)
+							graph.union(actual, graph.instantiate(summary, classId, copies));
+					}
+				}
+				for (SootField field : summary.getStaticFields()) {
+					Integer classId = summary.getRootClass(field);
+					graph.union(graph.getRoot(field), graph.instantiate(summary, classId, copies));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the node for the actual argument with the given formal index
+	 *
+	 * @param graph  The alias graph
+	 * @param iexpr  The invocation expression
+	 * @param result The local that receives the return value, or
+	 *               <code>null</code> if there is none
+	 * @param index  The formal index
+	 * @return The node for the actual argument, or <code>null</code> if the
+	 *         argument cannot have aliases
+	 */
+	private AliasGraph.Node getActualNode(AliasGraph graph, InvokeExpr iexpr, Value result, int index) {
+		final Value actual;
+		if (index == MethodAliasSummary.RETURN_INDEX)
+			actual = result;
+		else if (index == MethodAliasSummary.THIS_INDEX)
+			actual = iexpr instanceof InstanceInvokeExpr ? ((InstanceInvokeExpr) iexpr).getBase() : null;
+		else
+			actual = iexpr.getArg(index);
+		if (actual == null || !(actual.getType() instanceof RefLikeType))
+			return null;
+		return getNode(graph, actual);
+	}
+
+	/**
+	 * Gets the node for the given value
+	 *
+	 * @param graph The alias graph
+	 * @param val   The value
+	 * @return The node for the given value, or <code>null</code> if the value
+	 *         cannot have aliases
+	 */
+	private AliasGraph.Node getNode(AliasGraph graph, Value val) {
+		if (val instanceof Local)
+			return graph.getRoot(val);
+		if (val instanceof InstanceFieldRef) {
+			InstanceFieldRef ifr = (InstanceFieldRef) val;
+			return graph.getField(graph.getRoot(ifr.getBase()), ifr.getField());
+		}
+		if (val instanceof StaticFieldRef)
+			return graph.getRoot(((StaticFieldRef) val).getField());
+		if (val instanceof ArrayRef)
+			return graph.getField(graph.getRoot(((ArrayRef) val).getBase()), AliasGraph.ARRAY_ELEMENT);
+		if (val instanceof CastExpr)
+			return getNode(graph, ((CastExpr) val).getOp());
+		return null;
+	}
+
+	/**
+	 * Gets the alias summary of the given method
+	 *
+	 * @param method The method
+	 * @return The alias summary of the given method, or <code>null</code> if no
+	 *         summary has been computed for the method
+	 */
+	public MethodAliasSummary getSummary(SootMethod method) {
+		return summaries.get(method);
+	}
+
+	@Override
+	public void computeAliasTaints(Abstraction d1, Stmt src, Value targetValue, Set<Abstraction> taintSet,
+			SootMethod method, Abstraction newAbs) {
+		MethodAliasSummary summary = summaries.get(method);
+		if (summary == null)
+			return;
+
+		for (AccessPath ap : summary.getAliases(newAbs.getAccessPath(), manager.getAccessPathFactory())) {
+			Abstraction aliasAbs = newAbs.deriveNewAbstraction(ap, src);
+			if (aliasAbs != null)
+				taintSet.add(aliasAbs);
+		}
+	}
+
+	@Override
+	public void injectCallingContext(Abstraction abs, IInfoflowSolver fSolver, SootMethod callee, Unit callSite,
+			Abstraction source, Abstraction d1) {
+	}
+
+	@Override
+	public boolean isFlowSensitive() {
+		return false;
+	}
+
+	@Override
+	public boolean requiresAnalysisOnReturn() {
+		return true;
+	}
+
+	@Override
+	public boolean hasProcessedMethod(SootMethod method) {
+		return summaries.containsKey(method);
+	}
+
+	@Override
+	public IInfoflowSolver getSolver() {
+		return null;
+	}
+
+	@Override
+	public void cleanup() {
+		summaries.clear();
+	}
+
+}
@@ -0,0 +1,205 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiPredicate;
+
+import gnu.trove.strategy.HashingStrategy;
+
+/**
+ * Lock-free set that only supports adding elements. The elements are stored in
+ * a linked list of chunks whose slots are filled in order using compare-and-set
+ * operations. Iterators are weakly consistent, i.e., they never throw a
+ * {@link java.util.ConcurrentModificationException} and see all elements that
+ * were added before the iterator was created, and possibly some of the
+ * elements that are added while iterating.
+ *
+ * Adding an element scans the existing elements for duplicates. This set is
+ * therefore meant for small sets that are read and written concurrently, such
+ * as the neighbors of a join-point abstraction. The hash code computed by the
+ * hashing strategy is compared before the more expensive equality check, so
+ * the strategy should cache its hash codes.
+ *
+ * @param <E> The type of the elements in this set
+ */
+public class ConcurrentAppendOnlySet<E> extends AbstractSet<E> {
+
+	private static final int INITIAL_CHUNK_SIZE = 4;
+	private static final int MAX_CHUNK_SIZE = 1024;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<ConcurrentAppendOnlySet> SIZE_UPDATER = AtomicIntegerFieldUpdater
+			.newUpdater(ConcurrentAppendOnlySet.class, "size");
+
+	/**
+	 * A chunk of slots. The slots of a chunk are filled in order, and a chunk is
+	 * only linked to its successor once all of its slots are taken.
+	 */
+	private static class Chunk<E> {
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT_UPDATER = AtomicReferenceFieldUpdater
+				.newUpdater(Chunk.class, Chunk.class, "next");
+
+		private final AtomicReferenceArray<E> slots;
+		private volatile Chunk<E> next = null;
+
+		private Chunk(int size) {
+			this.slots = new AtomicReferenceArray<>(size);
+		}
+
+		/**
+		 * Gets the successor of this chunk, and creates it if it does not exist yet
+		 *
+		 * @return The successor of this chunk
+		 */
+		@SuppressWarnings("unchecked")
+		private Chunk<E> getOrCreateNext() {
+			Chunk<E> n = next;
+			if (n == null) {
+				n = new Chunk<>(Math.min(slots.length() * 2, MAX_CHUNK_SIZE));
+				if (!NEXT_UPDATER.compareAndSet(this, null, n))
+					n = next;
+			}
+			return n;
+		}
+
+	}
+
+	private final HashingStrategy<? super E> strategy;
+	private final Chunk<E> head = new Chunk<>(INITIAL_CHUNK_SIZE);
+	private volatile int size = 0;
+
+	/**
+	 * Creates a new, empty set
+	 *
+	 * @param strategy The strategy that defines when two elements are considered
+	 *                 equal
+	 */
+	public ConcurrentAppendOnlySet(HashingStrategy<? super E> strategy) {
+		this.strategy = strategy;
+	}
+
+	@Override
+	public boolean add(E e) {
+		return add(e, null, -1);
+	}
+
+	/**
+	 * Adds the given element to this set unless it is already contained, this set
+	 * already holds the maximum number of elements, or an existing element is a
+	 * duplicate according to the given predicate. The check and the insertion are
+	 * atomic with respect to concurrent additions.
+	 *
+	 * @param e              The element to add
+	 * @param duplicateCheck An additional predicate that receives an existing
+	 *                       element and the new element, and returns true if the
+	 *                       new element shall be rejected. May be
+	 *                       <code>null</code>.
+	 * @param maxSize        The maximum number of elements in this set, or -1 for
+	 *                       an unbounded set
+	 * @return True if the element was added, otherwise false
+	 */
+	public boolean add(E e, BiPredicate<? super E, ? super E> duplicateCheck, int maxSize) {
+		if (e == null)
+			throw new NullPointerException("Cannot add null elements");
+
+		final int hashCode = strategy.computeHashCode(e);
+		Chunk<E> chunk = head;
+		int index = 0;
+		while (true) {
+			for (int i = 0; i < chunk.slots.length(); i++) {
+				E cur = chunk.slots.get(i);
+				if (cur == null) {
+					// Slots are taken in order, so this is the current size
+					if (maxSize >= 0 && index + i >= maxSize)
+						return false;
+					if (chunk.slots.compareAndSet(i, null, e)) {
+						SIZE_UPDATER.incrementAndGet(this);
+						return true;
+					}
+
+					// Another thread was faster, check its element
+					cur = chunk.slots.get(i);
+				}
+				if (isDuplicate(cur, e, hashCode, duplicateCheck))
+					return false;
+			}
+			index += chunk.slots.length();
+			chunk = chunk.getOrCreateNext();
+		}
+	}
+
+	/**
+	 * Checks whether the given new element is a duplicate of an existing element
+	 *
+	 * @param existing       The element that is already in the set
+	 * @param e              The new element
+	 * @param hashCode       The hash code of the new element
+	 * @param duplicateCheck The additional duplicate check, or <code>null</code>
+	 * @return True if the new element is a duplicate, otherwise false
+	 */
+	private boolean isDuplicate(E existing, E e, int hashCode, BiPredicate<? super E, ? super E> duplicateCheck) {
+		if (existing == e)
+			return true;
+		if (strategy.computeHashCode(existing) == hashCode && strategy.equals(existing, e))
+			return true;
+		return duplicateCheck != null && duplicateCheck.test(existing, e);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean contains(Object o) {
+		if (o == null)
+			return false;
+
+		final E e = (E) o;
+		final int hashCode = strategy.computeHashCode(e);
+		for (E cur : this) {
+			if (isDuplicate(cur, e, hashCode, null))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private Chunk<E> chunk = head;
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				if (chunk != null && index >= chunk.slots.length()) {
+					chunk = chunk.next;
+					index = 0;
+				}
+				return chunk != null && chunk.slots.get(index) != null;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return chunk.slots.get(index++);
+			}
+
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return head.slots.get(0) == null;
+	}
+
+}
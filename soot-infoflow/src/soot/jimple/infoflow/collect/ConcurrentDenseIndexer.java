@@ -0,0 +1,86 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe indexer that assigns dense integer IDs to objects. Objects that
+ * are equal according to their {@link Object#equals(Object)} method share the
+ * same ID. IDs start at zero and are never reused.
+ * 
+ * Callers that can store the ID inside the indexed object should do so
+ * together with the generation of this indexer, so that they only need to
+ * look up each object once. The generation changes whenever the indexer is
+ * cleared.
+ *
+ * @param <T> The type of objects to index
+ */
+public class ConcurrentDenseIndexer<T> {
+
+	private final ConcurrentMap<T, Integer> indices = new ConcurrentHashMap<>();
+	private final AtomicInteger nextIndex = new AtomicInteger();
+
+	private static final AtomicInteger nextGeneration = new AtomicInteger();
+	private volatile int generation = nextGeneration.incrementAndGet();
+
+	/**
+	 * Gets the ID of the given object. If the object does not have an ID yet, a
+	 * new one is created.
+	 *
+	 * @param obj The object for which to get the ID
+	 * @return The ID of the given object
+	 */
+	public int getOrCreateIndex(T obj) {
+		Integer idx = indices.get(obj);
+		if (idx != null)
+			return idx;
+
+		// We might waste an ID if another thread indexes the same object at the same
+		// time, but that does not break the uniqueness of IDs
+		Integer newIdx = nextIndex.getAndIncrement();
+		idx = indices.putIfAbsent(obj, newIdx);
+		return idx == null ? newIdx : idx;
+	}
+
+	/**
+	 * Gets the ID of the given object without creating a new one
+	 *
+	 * @param obj The object for which to get the ID
+	 * @return The ID of the given object, or -1 if the object has not been indexed
+	 *         yet
+	 */
+	public int getIndex(T obj) {
+		Integer idx = indices.get(obj);
+		return idx == null ? -1 : idx;
+	}
+
+	/**
+	 * Gets the number of objects in this indexer
+	 *
+	 * @return The number of objects in this indexer
+	 */
+	public int size() {
+		return indices.size();
+	}
+
+	/**
+	 * Gets the generation of this indexer. Two indexers never share the same
+	 * generation, and clearing an indexer starts a new generation.
+	 *
+	 * @return The generation of this indexer
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Removes all objects from this indexer. IDs that have been handed out before
+	 * are not reused.
+	 */
+	public void clear() {
+		generation = nextGeneration.incrementAndGet();
+		indices.clear();
+	}
+
+}
@@ -0,0 +1,257 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.function.Consumer;
+
+import soot.jimple.infoflow.collect.MyConcurrentHashMap.IValueFactory;
+
+/**
+ * Concurrent map that uses a pair of primitive <code>long</code> values as its
+ * key. The map is split into segments, each of which is an open-addressing hash
+ * table with its own lock. In contrast to a {@link MyConcurrentHashMap}, there
+ * are no key objects and no entry objects, which greatly reduces the memory
+ * footprint of large maps.
+ *
+ * This map does not support <code>null</code> values and does not support the
+ * removal of individual entries.
+ *
+ * @param <V> The type of values in the map
+ */
+public class ConcurrentLongPairMap<V> {
+
+	private static final int INITIAL_SEGMENT_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private final Segment<V>[] segments;
+	private final int segmentShift;
+
+	/**
+	 * Creates a new {@link ConcurrentLongPairMap} with a concurrency level that
+	 * is derived from the number of available processors
+	 */
+	public ConcurrentLongPairMap() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Creates a new {@link ConcurrentLongPairMap}
+	 *
+	 * @param concurrencyLevel The estimated number of threads that concurrently
+	 *                         modify the map
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentLongPairMap(int concurrencyLevel) {
+		int numSegments = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+		this.segments = new Segment[numSegments];
+		for (int i = 0; i < numSegments; i++)
+			this.segments[i] = new Segment<>();
+		this.segmentShift = 32 - Integer.numberOfTrailingZeros(numSegments);
+	}
+
+	/**
+	 * Packs two integer values into a single long value
+	 *
+	 * @param high The value for the upper 32 bits
+	 * @param low  The value for the lower 32 bits
+	 * @return The combined long value
+	 */
+	public static long pack(int high, int low) {
+		return ((long) high << 32) | (low & 0xFFFFFFFFL);
+	}
+
+	private static int hash(long k1, long k2) {
+		long h = k1 * 0x9E3779B97F4A7C15L + k2 * 0xC2B2AE3D27D4EB4FL;
+		h ^= h >>> 29;
+		h *= 0xBF58476D1CE4E5B9L;
+		h ^= h >>> 32;
+		return (int) h;
+	}
+
+	private Segment<V> segmentFor(int hash) {
+		return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+	}
+
+	/**
+	 * Gets the value that is associated with the given key
+	 *
+	 * @param k1 The first part of the key
+	 * @param k2 The second part of the key
+	 * @return The value associated with the given key, or <code>null</code> if no
+	 *         such value exists
+	 */
+	public V get(long k1, long k2) {
+		int h = hash(k1, k2);
+		return segmentFor(h).get(k1, k2, h);
+	}
+
+	/**
+	 * Associates the given value with the given key if there is no value for this
+	 * key yet
+	 *
+	 * @param k1    The first part of the key
+	 * @param k2    The second part of the key
+	 * @param value The value to put
+	 * @return The previous value for the given key, or <code>null</code> if there
+	 *         was none and the new value has been added
+	 */
+	public V putIfAbsent(long k1, long k2, V value) {
+		if (value == null)
+			throw new NullPointerException("Null values are not supported");
+		int h = hash(k1, k2);
+		return segmentFor(h).putIfAbsent(k1, k2, h, value);
+	}
+
+	/**
+	 * Gets the value for the given key. If there is no such value, a new one is
+	 * created and added to the map.
+	 *
+	 * @param k1           The first part of the key
+	 * @param k2           The second part of the key
+	 * @param valueFactory The factory that creates the value on demand
+	 * @return The value for the given key
+	 */
+	public V putIfAbsentElseGet(long k1, long k2, IValueFactory<V> valueFactory) {
+		int h = hash(k1, k2);
+		return segmentFor(h).putIfAbsentElseGet(k1, k2, h, valueFactory);
+	}
+
+	/**
+	 * Gets the number of entries in this map
+	 *
+	 * @return The number of entries in this map
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<V> segment : segments)
+			size += segment.size();
+		return size;
+	}
+
+	/**
+	 * Gets whether this map is empty
+	 *
+	 * @return True if this map is empty, otherwise false
+	 */
+	public boolean isEmpty() {
+		for (Segment<V> segment : segments)
+			if (segment.size() > 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Removes all entries from this map
+	 */
+	public void clear() {
+		for (Segment<V> segment : segments)
+			segment.clear();
+	}
+
+	/**
+	 * Calls the given consumer for all values in this map. The iteration is
+	 * weakly consistent, i.e., it may or may not reflect concurrent modifications.
+	 *
+	 * @param consumer The consumer to call for each value
+	 */
+	public void forEachValue(Consumer<V> consumer) {
+		for (Segment<V> segment : segments)
+			segment.forEachValue(consumer);
+	}
+
+	/**
+	 * A single segment of the map. Each key occupies two consecutive entries in
+	 * the key array. A slot is empty if its value is <code>null</code>.
+	 */
+	private static class Segment<V> {
+
+		private long[] keys = new long[2 * INITIAL_SEGMENT_CAPACITY];
+		private Object[] values = new Object[INITIAL_SEGMENT_CAPACITY];
+		private int size = 0;
+
+		private int findSlot(long k1, long k2, int hash) {
+			final int mask = values.length - 1;
+			int slot = hash & mask;
+			while (true) {
+				if (values[slot] == null)
+					return slot;
+				if (keys[2 * slot] == k1 && keys[2 * slot + 1] == k2)
+					return slot;
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		public synchronized V get(long k1, long k2, int hash) {
+			return (V) values[findSlot(k1, k2, hash)];
+		}
+
+		@SuppressWarnings("unchecked")
+		public synchronized V putIfAbsent(long k1, long k2, int hash, V value) {
+			int slot = findSlot(k1, k2, hash);
+			Object oldValue = values[slot];
+			if (oldValue != null)
+				return (V) oldValue;
+			insert(slot, k1, k2, value);
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		public synchronized V putIfAbsentElseGet(long k1, long k2, int hash, IValueFactory<V> valueFactory) {
+			int slot = findSlot(k1, k2, hash);
+			Object oldValue = values[slot];
+			if (oldValue != null)
+				return (V) oldValue;
+			V value = valueFactory.createValue();
+			insert(slot, k1, k2, value);
+			return value;
+		}
+
+		private void insert(int slot, long k1, long k2, Object value) {
+			keys[2 * slot] = k1;
+			keys[2 * slot + 1] = k2;
+			values[slot] = value;
+			size++;
+			if (size > values.length * LOAD_FACTOR)
+				grow();
+		}
+
+		private void grow() {
+			long[] oldKeys = keys;
+			Object[] oldValues = values;
+			keys = new long[oldKeys.length * 2];
+			values = new Object[oldValues.length * 2];
+			for (int i = 0; i < oldValues.length; i++) {
+				if (oldValues[i] != null) {
+					long k1 = oldKeys[2 * i];
+					long k2 = oldKeys[2 * i + 1];
+					int slot = findSlot(k1, k2, hash(k1, k2));
+					keys[2 * slot] = k1;
+					keys[2 * slot + 1] = k2;
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+
+		public synchronized int size() {
+			return size;
+		}
+
+		public synchronized void clear() {
+			keys = new long[2 * INITIAL_SEGMENT_CAPACITY];
+			values = new Object[INITIAL_SEGMENT_CAPACITY];
+			size = 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		public void forEachValue(Consumer<V> consumer) {
+			Object[] vals;
+			synchronized (this) {
+				vals = values.clone();
+			}
+			for (Object val : vals)
+				if (val != null)
+					consumer.accept((V) val);
+		}
+
+	}
+
+}
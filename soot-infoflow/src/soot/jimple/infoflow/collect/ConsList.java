@@ -0,0 +1,212 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Immutable singly-linked list in which all lists that have been derived from
+ * the same list share their common tail. Adding and removing the newest
+ * element are constant-time operations that do not copy any data. The empty
+ * list is represented as <code>null</code>, so all operations that may be
+ * applied to an empty list are static.
+ *
+ * The hash code of each node is computed once when the node is created. Two
+ * lists are compared element by element from the newest element onwards until
+ * a shared tail is reached.
+ *
+ * @param <T> The type of the elements in this list
+ */
+public final class ConsList<T> implements Iterable<T> {
+
+	private final T head;
+	private final ConsList<T> tail;
+	private final int size;
+	private final int hashCode;
+
+	private ConsList(T head, ConsList<T> tail) {
+		this.head = head;
+		this.tail = tail;
+		this.size = tail == null ? 1 : tail.size + 1;
+		this.hashCode = 31 * (tail == null ? 1 : tail.hashCode) + (head == null ? 0 : head.hashCode());
+	}
+
+	/**
+	 * Creates a new list that consists of the given element followed by the
+	 * given list
+	 *
+	 * @param list    The existing list, or <code>null</code> for the empty list.
+	 *                The existing list is not modified.
+	 * @param element The element to add
+	 * @return The new list with the given element as its newest element
+	 */
+	public static <T> ConsList<T> push(ConsList<T> list, T element) {
+		return new ConsList<>(element, list);
+	}
+
+	/**
+	 * Creates a new list that consists of the given element followed by the
+	 * given list. Structurally equal lists that are created through the same
+	 * interner are represented by the same object.
+	 *
+	 * @param list     The existing list, or <code>null</code> for the empty list.
+	 *                 The list should have been created through the same
+	 *                 interner.
+	 * @param element  The element to add
+	 * @param interner The interner that guarantees a unique representation of
+	 *                 each list
+	 * @return The new list with the given element as its newest element
+	 */
+	public static <T> ConsList<T> push(ConsList<T> list, T element, Interner<ConsList<T>> interner) {
+		return interner.intern(new ConsList<>(element, list));
+	}
+
+	/**
+	 * Creates a new interner that can be used for hash-consing lists
+	 *
+	 * @return The new interner. Lists that are no longer referenced elsewhere are
+	 *         removed from the interner automatically.
+	 */
+	public static <T> Interner<ConsList<T>> newInterner() {
+		return Interners.newWeakInterner();
+	}
+
+	/**
+	 * Gets the number of elements in the given list
+	 *
+	 * @param list The list, or <code>null</code> for the empty list
+	 * @return The number of elements in the given list
+	 */
+	public static int size(ConsList<?> list) {
+		return list == null ? 0 : list.size;
+	}
+
+	/**
+	 * Gets the newest element of this list
+	 *
+	 * @return The element that was added last
+	 */
+	public T head() {
+		return head;
+	}
+
+	/**
+	 * Gets the list without its newest element
+	 *
+	 * @return The list without its newest element, or <code>null</code> if this
+	 *         list has only one element
+	 */
+	public ConsList<T> tail() {
+		return tail;
+	}
+
+	/**
+	 * Gets the oldest element of this list. This operation takes linear time.
+	 *
+	 * @return The element that was added first
+	 */
+	public T last() {
+		ConsList<T> cur = this;
+		while (cur.tail != null)
+			cur = cur.tail;
+		return cur.head;
+	}
+
+	/**
+	 * Gets the number of elements in this list
+	 *
+	 * @return The number of elements in this list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether this list contains the given object. Objects are compared by
+	 * identity.
+	 *
+	 * @param element The object to look for
+	 * @return True if the given object is an element of this list, otherwise false
+	 */
+	public boolean containsIdentical(T element) {
+		for (ConsList<T> cur = this; cur != null; cur = cur.tail)
+			if (cur.head == element)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Iterates over the elements of this list, starting with the newest element
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+
+			private ConsList<T> cur = ConsList.this;
+
+			@Override
+			public boolean hasNext() {
+				return cur != null;
+			}
+
+			@Override
+			public T next() {
+				if (cur == null)
+					throw new NoSuchElementException();
+				T element = cur.head;
+				cur = cur.tail;
+				return element;
+			}
+
+		};
+	}
+
+	/**
+	 * Copies the elements of this list into a new mutable list
+	 *
+	 * @return A new list that starts with the newest element
+	 */
+	public List<T> toList() {
+		List<T> list = new ArrayList<>(size);
+		for (ConsList<T> cur = this; cur != null; cur = cur.tail)
+			list.add(cur.head);
+		return list;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		ConsList<?> other = (ConsList<?>) obj;
+		if (size != other.size || hashCode != other.hashCode)
+			return false;
+
+		// Walk both lists until we reach a shared tail
+		ConsList<?> cur1 = this;
+		ConsList<?> cur2 = other;
+		while (cur1 != cur2) {
+			if (cur1.head != cur2.head && (cur1.head == null || !cur1.head.equals(cur2.head)))
+				return false;
+			cur1 = cur1.tail;
+			cur2 = cur2.tail;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+
+}
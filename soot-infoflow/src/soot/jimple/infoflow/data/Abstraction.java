@@ -10,18 +10,22 @@
  ******************************************************************************/
 package soot.jimple.infoflow.data;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiPredicate;
 
-import gnu.trove.set.hash.TCustomHashSet;
 import gnu.trove.strategy.HashingStrategy;
 import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowDirection;
+import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
+import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.collect.AtomicBitSet;
+import soot.jimple.infoflow.collect.ConcurrentAppendOnlySet;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
@@ -37,27 +41,75 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 	protected static boolean flowSensitiveAliasing = true;
 
+	/**
+	 * If true, new abstractions do not record the statements at which they were
+	 * created, and derivations that keep the access path reuse the existing
+	 * abstraction. Only enabled if no paths are reconstructed.
+	 */
+	protected static boolean lazyDerivation = false;
+
+	/**
+	 * The data that is compared when checking two abstractions for equality
+	 */
+	protected static EqualityTier equalityTier = EqualityTier.Full;
+
+	/**
+	 * The tiers of abstraction equality. The cheaper tiers leave out data that
+	 * the active configuration never sets, so they are as precise as the full
+	 * comparison for that configuration.
+	 */
+	public static enum EqualityTier {
+		/**
+		 * Compare all data of the abstractions
+		 */
+		Full,
+
+		/**
+		 * Ignore the data that is only used for implicit flows, i.e., turn units,
+		 * postdominators, dominators and the implicit flag. Only valid for forward
+		 * analyses without implicit flows.
+		 */
+		NoImplicitFlows,
+
+		/**
+		 * Only compare the access paths and the source contexts. Only valid for
+		 * forward analyses without implicit flows, exception tracking and
+		 * flow-sensitive aliasing.
+		 */
+		AccessPathAndSource
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Abstraction, ConcurrentAppendOnlySet> NEIGHBORS_UPDATER = AtomicReferenceFieldUpdater
+			.newUpdater(Abstraction.class, ConcurrentAppendOnlySet.class, "neighbors");
+
+	/**
+	 * Rejects neighbors that only differ from an existing neighbor in data that is
+	 * irrelevant for path reconstruction. Only used if neighbors shall be merged.
+	 */
+	private static final BiPredicate<Abstraction, Abstraction> MERGE_NEIGHBORS_CHECK = (nb,
+			originalAbstraction) -> originalAbstraction.predecessor == nb.predecessor
+					&& originalAbstraction.currentStmt == nb.currentStmt
+					&& originalAbstraction.correspondingCallSite == nb.correspondingCallSite;
+
 	/**
 	 * the access path contains the currently tainted variable or field
 	 */
 	protected AccessPath accessPath;
 
 	protected Abstraction predecessor = null;
-	protected volatile Set<Abstraction> neighbors = null;
+	protected volatile ConcurrentAppendOnlySet<Abstraction> neighbors = null;
 	protected Stmt currentStmt = null;
 	protected Stmt correspondingCallSite = null;
 
 	protected SourceContext sourceContext = null;
 
 	/**
-	 * Unit/Stmt which activates the taint when the abstraction passes it
+	 * Rarely used data such as activation units, turn units, postdominators and
+	 * path flags. This object is only allocated if one of these fields is set.
 	 */
-	protected Unit activationUnit = null;
-	/**
-	 * Unit/Stmt which indicates it origin; tells the aliasing to turn around in
-	 * backwards analysis
-	 */
-	protected Unit turnUnit = null;
+	protected AbstractionMetadata metadata = null;
+
 	/**
 	 * taint is thrown by an exception (is set to false when it reaches the
 	 * catch-Stmt)
@@ -66,12 +118,6 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	protected int hashCode = 0;
 	protected int neighborHashCode = 0;
 
-	/**
-	 * The postdominators we need to pass in order to leave the current conditional
-	 * branch. Do not use the synchronized Stack class here to avoid deadlocks.
-	 */
-	protected List<UnitContainer> postdominators = null;
-	protected Unit dominator = null;
 	protected boolean isImplicit = false;
 
 	/**
@@ -80,9 +126,16 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 */
 	protected boolean dependsOnCutAP = false;
 
-	protected AtomicBitSet pathFlags = null;
 	protected int propagationPathLength = 0;
 
+	/**
+	 * The index that the solver tables have assigned to this abstraction. Copies
+	 * of this abstraction do not inherit the index, and changing the access path
+	 * or the source context discards it, since the abstraction then no longer
+	 * equals the indexed one.
+	 */
+	protected volatile long denseIndex = -1;
+
 	public static class NeighborHashingStrategy implements HashingStrategy<Abstraction> {
 
 		private static final long serialVersionUID = 4836518478381414909L;
@@ -102,10 +155,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 			result = prime * result + ((abs.currentStmt == null) ? 0 : abs.currentStmt.hashCode());
 
 			result = prime * result + ((abs.sourceContext == null) ? 0 : abs.sourceContext.hashCode());
-			result = prime * result + ((abs.activationUnit == null) ? 0 : abs.activationUnit.hashCode());
-			result = prime * result + ((abs.turnUnit == null) ? 0 : abs.turnUnit.hashCode());
-			result = prime * result + ((abs.postdominators == null) ? 0 : abs.postdominators.hashCode());
-			result = prime * result + ((abs.dominator == null) ? 0 : abs.dominator.hashCode());
+			result = prime * result + abs.metadataHashCode();
 
 			abs.neighborHashCode = result;
 			return result;
@@ -154,8 +204,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	Abstraction(AccessPath apToTaint, SourceContext sourceContext, boolean exceptionThrown, boolean isImplicit) {
 		this.sourceContext = sourceContext;
 		this.accessPath = apToTaint;
-		this.activationUnit = null;
-		this.turnUnit = null;
+		this.metadata = null;
 		this.exceptionThrown = exceptionThrown;
 
 		this.neighbors = null;
@@ -174,19 +223,16 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (original == null) {
 			sourceContext = null;
 			exceptionThrown = false;
-			activationUnit = null;
-			turnUnit = null;
+			metadata = null;
 			isImplicit = false;
 		} else {
 			sourceContext = original.sourceContext;
 			exceptionThrown = original.exceptionThrown;
-			activationUnit = original.activationUnit;
-			turnUnit = original.turnUnit;
-			assert activationUnit == null || flowSensitiveAliasing;
 
-			postdominators = original.postdominators == null ? null
-					: new ArrayList<UnitContainer>(original.postdominators);
-			dominator = original.dominator;
+			// Postdominators are copied by the metadata, path flags are not
+			// inherited
+			metadata = original.metadata == null ? null : original.metadata.deriveCopy();
+			assert getActivationUnit() == null || flowSensitiveAliasing;
 
 			dependsOnCutAP = original.dependsOnCutAP;
 			isImplicit = original.isImplicit;
@@ -203,6 +249,43 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 */
 	public static void initialize(InfoflowConfiguration config) {
 		flowSensitiveAliasing = config.getFlowSensitiveAliasing();
+
+		lazyDerivation = isLazyDerivationEnabled(config);
+		equalityTier = config.getSpecializedAbstractionEquality() ? getEqualityTier(config) : EqualityTier.Full;
+	}
+
+	/**
+	 * Checks whether abstractions can be derived lazily in the given
+	 * configuration. The statements are needed for path reconstruction and by
+	 * the context-sensitive and recursive path builders, which use them to match
+	 * call sites with returns. Backward analyses also use them to decide on
+	 * strong updates.
+	 * 
+	 * @param config The configuration of the data flow solver
+	 * @return True if abstractions can be derived lazily, otherwise false
+	 */
+	public static boolean isLazyDerivationEnabled(InfoflowConfiguration config) {
+		final PathConfiguration pathConfig = config.getPathConfiguration();
+		return config.getLazyAbstractionDerivation() && config.getDataFlowDirection() == DataFlowDirection.Forwards
+				&& !pathConfig.mustKeepStatements()
+				&& pathConfig.getPathBuildingAlgorithm() != PathBuildingAlgorithm.Recursive;
+	}
+
+	/**
+	 * Gets the cheapest equality tier that is correct for the given configuration
+	 * 
+	 * @param config The configuration of the data flow solver
+	 * @return The cheapest correct equality tier
+	 */
+	public static EqualityTier getEqualityTier(InfoflowConfiguration config) {
+		// The backward rules use turn units and dominators even without implicit
+		// flows
+		if (config.getDataFlowDirection() != DataFlowDirection.Forwards
+				|| config.getImplicitFlowMode().trackControlFlowDependencies())
+			return EqualityTier.Full;
+		if (config.getEnableExceptionTracking() || config.getFlowSensitiveAliasing())
+			return EqualityTier.NoImplicitFlows;
+		return EqualityTier.AccessPathAndSource;
 	}
 
 	public Abstraction deriveInactiveAbstraction(Stmt activationUnit) {
@@ -219,9 +302,9 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (a == null)
 			return null;
 
-		a.postdominators = null;
-		a.dominator = null;
-		a.activationUnit = activationUnit;
+		a.setPostdominators(null);
+		a.setDominator(null);
+		a.setActivationUnit(activationUnit);
 		a.dependsOnCutAP |= a.getAccessPath().isCutOffApproximation();
 		return a;
 	}
@@ -232,8 +315,10 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 	public Abstraction deriveNewAbstraction(AccessPath p, Stmt currentStmt, boolean isImplicit) {
 		// If the new abstraction looks exactly like the current one, there is
-		// no need to create a new object
-		if (this.accessPath.equals(p) && this.currentStmt == currentStmt && this.isImplicit == isImplicit)
+		// no need to create a new object. If we derive lazily, the statement
+		// does not matter.
+		if (this.accessPath.equals(p) && (lazyDerivation || this.currentStmt == currentStmt)
+				&& this.isImplicit == isImplicit)
 			return this;
 
 		Abstraction abs = deriveNewAbstractionMutable(p, currentStmt);
@@ -249,6 +334,9 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (p == null)
 			return null;
 
+		if (lazyDerivation)
+			currentStmt = null;
+
 		if (this.accessPath.equals(p) && this.currentStmt == currentStmt) {
 			Abstraction abs = clone();
 			abs.currentStmt = currentStmt;
@@ -261,7 +349,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		abs.propagationPathLength = propagationPathLength + 1;
 
 		if (!abs.getAccessPath().isEmpty())
-			abs.postdominators = null;
+			abs.setPostdominators(null);
 		if (!abs.isAbstractionActive())
 			abs.dependsOnCutAP = abs.dependsOnCutAP || p.isCutOffApproximation();
 
@@ -279,7 +367,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	public Abstraction deriveNewAbstractionOnThrow(Stmt throwStmt) {
 		Abstraction abs = clone();
 
-		abs.currentStmt = throwStmt;
+		abs.currentStmt = lazyDerivation ? null : throwStmt;
 		abs.sourceContext = null;
 		abs.exceptionThrown = true;
 		return abs;
@@ -303,7 +391,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public boolean isAbstractionActive() {
-		return activationUnit == null;
+		return metadata == null || metadata.activationUnit == null;
 	}
 
 	public boolean isImplicit() {
@@ -312,6 +400,8 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 	@Override
 	public String toString() {
+		Unit activationUnit = getActivationUnit();
+		Unit turnUnit = getTurnUnit();
 		return (isAbstractionActive() ? "" : "_") + accessPath.toString() + " | "
 				+ (turnUnit != null || activationUnit == null ? "" : activationUnit.toString())
 				+ (turnUnit == null ? "" : turnUnit.toString()) + ">>";
@@ -322,16 +412,57 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public Unit getActivationUnit() {
-		return this.activationUnit;
+		return metadata == null ? null : metadata.activationUnit;
+	}
+
+	/**
+	 * For internal use during abstraction construction only
+	 */
+	void setActivationUnit(Unit activationUnit) {
+		if (activationUnit != null)
+			getOrCreateMetadata().activationUnit = activationUnit;
+		else if (metadata != null) {
+			metadata.activationUnit = null;
+			compactMetadata();
+		}
 	}
 
 	public Unit getTurnUnit() {
-		return this.turnUnit;
+		return metadata == null ? null : metadata.turnUnit;
 	}
 
 	public void setTurnUnit(Unit turnUnit) {
- 		this.turnUnit = turnUnit;
- 	}
+		if (turnUnit != null)
+			getOrCreateMetadata().turnUnit = turnUnit;
+		else if (metadata != null) {
+			metadata.turnUnit = null;
+			compactMetadata();
+		}
+	}
+
+	/**
+	 * Gets the metadata object of this abstraction, and creates it if it does not
+	 * exist yet
+	 * 
+	 * @return The metadata object of this abstraction
+	 */
+	private AbstractionMetadata getOrCreateMetadata() {
+		AbstractionMetadata md = metadata;
+		if (md == null) {
+			md = new AbstractionMetadata();
+			metadata = md;
+		}
+		return md;
+	}
+
+	/**
+	 * Releases the metadata object of this abstraction if it no longer holds any
+	 * data
+	 */
+	private void compactMetadata() {
+		if (metadata != null && metadata.isEmpty())
+			metadata = null;
+	}
 
 	public Abstraction getActiveCopy() {
 		if (this.isAbstractionActive())
@@ -339,7 +470,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		Abstraction a = clone();
 		a.sourceContext = null;
-		a.activationUnit = null;
+		a.setActivationUnit(null);
 		return a;
 	}
 
@@ -355,6 +486,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	public Abstraction deriveConditionalAbstractionEnter(UnitContainer postdom, Stmt conditionalUnit) {
 		assert this.isAbstractionActive();
 
+		List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators != null && postdominators.contains(postdom))
 			return this;
 
@@ -362,10 +494,11 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (abs == null)
 			return null;
 
-		if (abs.postdominators == null)
-			abs.postdominators = Collections.singletonList(postdom);
+		List<UnitContainer> absPostdominators = abs.getPostdominators();
+		if (absPostdominators == null)
+			abs.setPostdominators(Collections.singletonList(postdom));
 		else
-			abs.postdominators.add(0, postdom);
+			absPostdominators.add(0, postdom);
 		return abs;
 	}
 
@@ -379,25 +512,50 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		// Postdominators are only kept intraprocedurally in order to not
 		// mess up the summary functions with caller-side information
-		abs.postdominators = null;
+		abs.setPostdominators(null);
 
 		return abs;
 	}
 
 	public Abstraction dropTopPostdominator() {
+		List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators == null || postdominators.isEmpty())
 			return this;
 
 		Abstraction abs = clone();
 		abs.sourceContext = null;
-		abs.postdominators.remove(0);
+		abs.getPostdominators().remove(0);
 		return abs;
 	}
 
 	public UnitContainer getTopPostdominator() {
+		List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators == null || postdominators.isEmpty())
 			return null;
-		return this.postdominators.get(0);
+		return postdominators.get(0);
+	}
+
+	/**
+	 * Gets the postdominators we need to pass in order to leave the current
+	 * conditional branch
+	 * 
+	 * @return The postdominators of this abstraction, or <code>null</code> if
+	 *         there are none
+	 */
+	List<UnitContainer> getPostdominators() {
+		return metadata == null ? null : metadata.postdominators;
+	}
+
+	/**
+	 * For internal use during abstraction construction only
+	 */
+	void setPostdominators(List<UnitContainer> postdominators) {
+		if (postdominators != null)
+			getOrCreateMetadata().postdominators = postdominators;
+		else if (metadata != null) {
+			metadata.postdominators = null;
+			compactMetadata();
+		}
 	}
 
 	public boolean isTopPostdominator(Unit u) {
@@ -415,7 +573,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public Abstraction deriveNewAbstractionWithDominator(Unit dominator, Stmt stmt) {
-		if (this.dominator != null)
+		if (getDominator() != null)
 			return this;
 
 		Abstraction abs = deriveNewAbstractionMutable(accessPath, stmt);
@@ -439,7 +597,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (abs == null)
 			return null;
 		abs.setTurnUnit(stmt);
- 		abs.setDominator(null);
+		abs.setDominator(null);
 		return abs;
 	}
 
@@ -452,14 +610,20 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public void setDominator(Unit dominator) {
-		this.dominator = dominator;
+		if (dominator != null)
+			getOrCreateMetadata().dominator = dominator;
+		else if (metadata != null) {
+			metadata.dominator = null;
+			compactMetadata();
+		}
 	}
 
 	public Unit getDominator() {
-		return this.dominator;
+		return metadata == null ? null : metadata.dominator;
 	}
 
 	public boolean isDominator(Unit u) {
+		Unit dominator = getDominator();
 		if (dominator == null)
 			return false;
 		return dominator == u;
@@ -510,40 +674,100 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 */
 	private boolean localEquals(Abstraction other) {
 		// deliberately ignore prevAbs
-		if (sourceContext == null) {
-			if (other.sourceContext != null)
+		if (sourceContext != other.sourceContext) {
+			if (sourceContext == null || !sourceContext.equals(other.sourceContext))
 				return false;
-		} else if (!sourceContext.equals(other.sourceContext))
+		}
+
+		switch (equalityTier) {
+		case AccessPathAndSource:
+			return true;
+		case NoImplicitFlows:
+			return this.exceptionThrown == other.exceptionThrown && this.dependsOnCutAP == other.dependsOnCutAP
+					&& this.getActivationUnit() == other.getActivationUnit();
+		default:
+			break;
+		}
+
+		if (this.exceptionThrown != other.exceptionThrown)
 			return false;
+		if (!metadataEquals(other))
+			return false;
+		if (this.dependsOnCutAP != other.dependsOnCutAP)
+			return false;
+		if (this.isImplicit != other.isImplicit)
+			return false;
+		return true;
+	}
+
+	/**
+	 * Checks whether the metadata of this abstraction is equal to the metadata of
+	 * the given abstraction. Path flags are deliberately ignored.
+	 * 
+	 * @param other The object to compare this object with
+	 * @return True if the activation units, turn units, postdominators and
+	 *         dominators of both abstractions are equal, otherwise false
+	 */
+	private boolean metadataEquals(Abstraction other) {
+		AbstractionMetadata md = this.metadata;
+		AbstractionMetadata otherMd = other.metadata;
+		if (md == otherMd)
+			return true;
+
+		Unit activationUnit = md == null ? null : md.activationUnit;
+		Unit otherActivationUnit = otherMd == null ? null : otherMd.activationUnit;
 		if (activationUnit == null) {
-			if (other.activationUnit != null)
+			if (otherActivationUnit != null)
 				return false;
-		} else if (!activationUnit.equals(other.activationUnit))
+		} else if (!activationUnit.equals(otherActivationUnit))
 			return false;
+
+		Unit turnUnit = md == null ? null : md.turnUnit;
+		Unit otherTurnUnit = otherMd == null ? null : otherMd.turnUnit;
 		if (turnUnit == null) {
-			if (other.turnUnit != null)
+			if (otherTurnUnit != null)
 				return false;
-		} else if (!turnUnit.equals(other.turnUnit))
-			return false;
-		if (this.exceptionThrown != other.exceptionThrown)
+		} else if (!turnUnit.equals(otherTurnUnit))
 			return false;
+
+		List<UnitContainer> postdominators = md == null ? null : md.postdominators;
+		List<UnitContainer> otherPostdominators = otherMd == null ? null : otherMd.postdominators;
 		if (postdominators == null) {
-			if (other.postdominators != null)
+			if (otherPostdominators != null)
 				return false;
-		} else if (!postdominators.equals(other.postdominators))
+		} else if (!postdominators.equals(otherPostdominators))
 			return false;
+
+		Unit dominator = md == null ? null : md.dominator;
+		Unit otherDominator = otherMd == null ? null : otherMd.dominator;
 		if (dominator == null) {
-			if (other.dominator != null)
+			if (otherDominator != null)
 				return false;
-		} else if (!dominator.equals(other.dominator))
-			return false;
-		if (this.dependsOnCutAP != other.dependsOnCutAP)
-			return false;
-		if (this.isImplicit != other.isImplicit)
+		} else if (!dominator.equals(otherDominator))
 			return false;
 		return true;
 	}
 
+	/**
+	 * Computes the hash code of the metadata of this abstraction. Path flags are
+	 * deliberately ignored.
+	 * 
+	 * @return The hash code of the metadata of this abstraction
+	 */
+	private int metadataHashCode() {
+		AbstractionMetadata md = this.metadata;
+		if (md == null)
+			return 0;
+
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((md.activationUnit == null) ? 0 : md.activationUnit.hashCode());
+		result = prime * result + ((md.turnUnit == null) ? 0 : md.turnUnit.hashCode());
+		result = prime * result + ((md.postdominators == null) ? 0 : md.postdominators.hashCode());
+		result = prime * result + ((md.dominator == null) ? 0 : md.dominator.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		if (this.hashCode != 0)
@@ -555,11 +779,25 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		// deliberately ignore prevAbs
 		result = prime * result + ((sourceContext == null) ? 0 : sourceContext.hashCode());
 		result = prime * result + ((accessPath == null) ? 0 : accessPath.hashCode());
-		result = prime * result + ((activationUnit == null) ? 0 : activationUnit.hashCode());
-		result = prime * result + ((turnUnit == null) ? 0 : turnUnit.hashCode());
+
+		// Only hash the data that the equality tier compares
+		switch (equalityTier) {
+		case AccessPathAndSource:
+			this.hashCode = result;
+			return result;
+		case NoImplicitFlows:
+			Unit activationUnit = getActivationUnit();
+			result = prime * result + (exceptionThrown ? 1231 : 1237);
+			result = prime * result + ((activationUnit == null) ? 0 : activationUnit.hashCode());
+			result = prime * result + (dependsOnCutAP ? 1231 : 1237);
+			this.hashCode = result;
+			return result;
+		default:
+			break;
+		}
+
 		result = prime * result + (exceptionThrown ? 1231 : 1237);
-		result = prime * result + ((postdominators == null) ? 0 : postdominators.hashCode());
-		result = prime * result + ((dominator == null) ? 0 : dominator.hashCode());
+		result = prime * result + metadataHashCode();
 		result = prime * result + (dependsOnCutAP ? 1231 : 1237);
 		result = prime * result + (isImplicit ? 1231 : 1237);
 		this.hashCode = result;
@@ -612,6 +850,11 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 	@Override
 	public boolean addNeighbor(Abstraction originalAbstraction) {
+		return addNeighbor(originalAbstraction, -1);
+	}
+
+	@Override
+	public boolean addNeighbor(Abstraction originalAbstraction, int maxNeighbors) {
 		// We should not register ourselves as a neighbor
 		if (originalAbstraction == this)
 			return false;
@@ -622,23 +865,18 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 				&& this.correspondingCallSite == originalAbstraction.correspondingCallSite)
 			return false;
 
-		synchronized (this) {
-			if (neighbors == null)
-				neighbors = new TCustomHashSet<Abstraction>(NeighborHashingStrategy.INSTANCE);
-			else if (InfoflowConfiguration.getMergeNeighbors()) {
-				// Check if we already have an identical neighbor
-				for (Abstraction nb : neighbors) {
-					if (nb == originalAbstraction)
-						return false;
-					if (originalAbstraction.predecessor == nb.predecessor
-							&& originalAbstraction.currentStmt == nb.currentStmt
-							&& originalAbstraction.correspondingCallSite == nb.correspondingCallSite) {
-						return false;
-					}
-				}
-			}
-			return this.neighbors.add(originalAbstraction);
+		// The neighbor set is append-only and lock-free, so the path builders can
+		// iterate over it while the solver is still adding neighbors
+		ConcurrentAppendOnlySet<Abstraction> nbs = neighbors;
+		while (nbs == null) {
+			NEIGHBORS_UPDATER.compareAndSet(this, null,
+					new ConcurrentAppendOnlySet<Abstraction>(NeighborHashingStrategy.INSTANCE));
+			nbs = neighbors;
 		}
+
+		// Check if we already have an identical neighbor
+		return nbs.add(originalAbstraction, InfoflowConfiguration.getMergeNeighbors() ? MERGE_NEIGHBORS_CHECK : null,
+				maxNeighbors);
 	}
 
 	public void setCorrespondingCallSite(Stmt callSite) {
@@ -673,6 +911,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		this.sourceContext = sourceContext;
 		this.hashCode = 0;
 		this.neighborHashCode = 0;
+		this.denseIndex = -1;
 	}
 
 	/**
@@ -684,13 +923,18 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 *         before, otherwise false
 	 */
 	public boolean registerPathFlag(int id, int maxSize) {
+		AbstractionMetadata md = metadata;
+		AtomicBitSet pathFlags = md == null ? null : md.pathFlags;
 		if (pathFlags == null || pathFlags.size() < maxSize) {
 			synchronized (this) {
+				md = getOrCreateMetadata();
+				pathFlags = md.pathFlags;
 				if (pathFlags == null) {
 					// Make sure that the field is set only after the
 					// constructor
 					// is done and the object is fully usable
 					AtomicBitSet pf = new AtomicBitSet(maxSize);
+					md.pathFlags = pf;
 					pathFlags = pf;
 				} else if (pathFlags.size() < maxSize) {
 					AtomicBitSet pf = new AtomicBitSet(maxSize);
@@ -698,6 +942,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 						if (pathFlags.get(i))
 							pf.set(i);
 					}
+					md.pathFlags = pf;
 					pathFlags = pf;
 				}
 			}
@@ -724,6 +969,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		this.accessPath = accessPath;
 		this.hashCode = 0;
 		this.neighborHashCode = 0;
+		this.denseIndex = -1;
 	}
 
 	void setCurrentStmt(Stmt currentStmt) {
@@ -735,9 +981,24 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		return neighbors == null ? 0 : neighbors.size();
 	}
 
+	@Override
+	public void clearNeighbors() {
+		this.neighbors = null;
+	}
+
 	@Override
 	public int getPathLength() {
 		return propagationPathLength;
 	}
 
+	@Override
+	public long getDenseIndex() {
+		return denseIndex;
+	}
+
+	@Override
+	public void setDenseIndex(long denseIndex) {
+		this.denseIndex = denseIndex;
+	}
+
 }
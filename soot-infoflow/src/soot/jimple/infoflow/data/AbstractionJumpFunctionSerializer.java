@@ -0,0 +1,186 @@
+package soot.jimple.infoflow.data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import heros.solver.PathEdge;
+import soot.Unit;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
+import soot.jimple.infoflow.solver.gcSolver.IJumpFunctionSerializer;
+
+/**
+ * Serializer that converts jump functions over {@link Abstraction} objects into
+ * a compact binary form. The access paths, source contexts, and units that are
+ * referenced by the abstractions are not serialized themselves. Instead, they
+ * are replaced by IDs in a table that is kept in memory. These objects are
+ * shared by many abstractions, so the table is much smaller than the
+ * abstractions and jump functions it replaces.
+ *
+ * The propagation path of an abstraction is not serialized. A restored
+ * abstraction is a copy without predecessor and neighbors, so the garbage
+ * collector must not put it into the jump functions in place of the original
+ * target fact.
+ */
+public class AbstractionJumpFunctionSerializer implements IJumpFunctionSerializer<Unit, Abstraction> {
+
+	private static final byte TAG_ZERO = 0;
+	private static final byte TAG_ABSTRACTION = 1;
+
+	private static final int FLAG_EXCEPTION_THROWN = 1;
+	private static final int FLAG_IMPLICIT = 2;
+	private static final int FLAG_DEPENDS_ON_CUT_AP = 4;
+
+	private final Abstraction zeroValue;
+
+	private final Map<Object, Integer> objectIds = new ConcurrentHashMap<>();
+	private final List<Object> objects = new ArrayList<>();
+
+	/**
+	 * Creates a new instance of the {@link AbstractionJumpFunctionSerializer} class
+	 *
+	 * @param zeroValue The zero value of the solver whose jump functions shall be
+	 *                  serialized
+	 */
+	public AbstractionJumpFunctionSerializer(Abstraction zeroValue) {
+		this.zeroValue = zeroValue;
+	}
+
+	@Override
+	public void write(PathEdge<Unit, Abstraction> edge, DataOutput out) throws IOException {
+		writeAbstraction(edge.factAtSource(), out);
+		out.writeInt(getId(edge.getTarget()));
+		writeAbstraction(edge.factAtTarget(), out);
+	}
+
+	@Override
+	public PathEdge<Unit, Abstraction> read(DataInput in) throws IOException {
+		Abstraction d1 = readAbstraction(in);
+		Unit target = (Unit) getObject(in.readInt());
+		Abstraction d2 = readAbstraction(in);
+		return new PathEdge<>(d1, target, d2);
+	}
+
+	/**
+	 * Writes the given abstraction to the given output
+	 *
+	 * @param abs The abstraction to write
+	 * @param out The output to write to
+	 * @throws IOException Thrown if the abstraction cannot be written
+	 */
+	private void writeAbstraction(Abstraction abs, DataOutput out) throws IOException {
+		if (abs == zeroValue) {
+			out.writeByte(TAG_ZERO);
+			return;
+		}
+
+		out.writeByte(TAG_ABSTRACTION);
+		out.writeInt(getId(abs.accessPath));
+		out.writeInt(getId(abs.sourceContext));
+		out.writeInt(getId(abs.getActivationUnit()));
+		out.writeInt(getId(abs.getTurnUnit()));
+		out.writeInt(getId(abs.getDominator()));
+
+		int flags = 0;
+		if (abs.exceptionThrown)
+			flags |= FLAG_EXCEPTION_THROWN;
+		if (abs.isImplicit)
+			flags |= FLAG_IMPLICIT;
+		if (abs.dependsOnCutAP)
+			flags |= FLAG_DEPENDS_ON_CUT_AP;
+		out.writeByte(flags);
+
+		List<UnitContainer> postdominators = abs.getPostdominators();
+		if (postdominators == null)
+			out.writeInt(-1);
+		else {
+			out.writeInt(postdominators.size());
+			for (UnitContainer postdom : postdominators)
+				out.writeInt(getId(postdom));
+		}
+	}
+
+	/**
+	 * Reads an abstraction from the given input
+	 *
+	 * @param in The input to read from
+	 * @return The abstraction that was read
+	 * @throws IOException Thrown if the abstraction cannot be read
+	 */
+	private Abstraction readAbstraction(DataInput in) throws IOException {
+		byte tag = in.readByte();
+		if (tag == TAG_ZERO)
+			return zeroValue;
+		if (tag != TAG_ABSTRACTION)
+			throw new IOException(String.format("Invalid abstraction tag %d", tag));
+
+		AccessPath ap = (AccessPath) getObject(in.readInt());
+		SourceContext sourceContext = (SourceContext) getObject(in.readInt());
+		Unit activationUnit = (Unit) getObject(in.readInt());
+		Unit turnUnit = (Unit) getObject(in.readInt());
+		Unit dominator = (Unit) getObject(in.readInt());
+		int flags = in.readByte();
+
+		Abstraction abs = new Abstraction(ap, sourceContext, (flags & FLAG_EXCEPTION_THROWN) != 0,
+				(flags & FLAG_IMPLICIT) != 0);
+		abs.setActivationUnit(activationUnit);
+		abs.setTurnUnit(turnUnit);
+		abs.setDominator(dominator);
+		abs.dependsOnCutAP = (flags & FLAG_DEPENDS_ON_CUT_AP) != 0;
+
+		int postdomCount = in.readInt();
+		if (postdomCount >= 0) {
+			List<UnitContainer> postdominators = new ArrayList<>(postdomCount);
+			for (int i = 0; i < postdomCount; i++)
+				postdominators.add((UnitContainer) getObject(in.readInt()));
+			abs.setPostdominators(postdominators);
+		}
+		return abs;
+	}
+
+	/**
+	 * Gets the ID of the given object in the object table, and adds the object to
+	 * the table if it is not contained yet
+	 *
+	 * @param obj The object
+	 * @return The ID of the given object, or -1 if the object is <code>null</code>
+	 */
+	private int getId(Object obj) {
+		if (obj == null)
+			return -1;
+		Integer id = objectIds.get(obj);
+		if (id != null)
+			return id;
+		synchronized (objects) {
+			id = objectIds.get(obj);
+			if (id == null) {
+				id = objects.size();
+				objects.add(obj);
+				objectIds.put(obj, id);
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * Gets the object with the given ID from the object table
+	 *
+	 * @param id The ID of the object
+	 * @return The object with the given ID, or <code>null</code> if the ID is -1
+	 * @throws IOException Thrown if the ID is not contained in the object table
+	 */
+	private Object getObject(int id) throws IOException {
+		if (id < 0)
+			return null;
+		synchronized (objects) {
+			if (id >= objects.size())
+				throw new IOException(String.format("Invalid object ID %d", id));
+			return objects.get(id);
+		}
+	}
+
+}
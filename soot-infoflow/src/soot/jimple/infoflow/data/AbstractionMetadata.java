@@ -0,0 +1,73 @@
+package soot.jimple.infoflow.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import soot.Unit;
+import soot.jimple.infoflow.collect.AtomicBitSet;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
+
+/**
+ * Side object that holds the rarely used data of an {@link Abstraction}. Most
+ * abstractions are active, have no implicit-flow context and are never visited
+ * by the path builders, so this data is only allocated when one of its fields
+ * is actually set.
+ */
+class AbstractionMetadata {
+
+	/**
+	 * Unit/Stmt which activates the taint when the abstraction passes it
+	 */
+	Unit activationUnit = null;
+
+	/**
+	 * Unit/Stmt which indicates it origin; tells the aliasing to turn around in
+	 * backwards analysis
+	 */
+	Unit turnUnit = null;
+
+	/**
+	 * The postdominators we need to pass in order to leave the current conditional
+	 * branch. Do not use the synchronized Stack class here to avoid deadlocks.
+	 */
+	List<UnitContainer> postdominators = null;
+	Unit dominator = null;
+
+	/**
+	 * The worker threads of the path builder that have already processed the
+	 * abstraction. This data belongs to a single abstraction and is never copied
+	 * into derived abstractions.
+	 */
+	AtomicBitSet pathFlags = null;
+
+	/**
+	 * Creates the metadata for an abstraction that is derived from the
+	 * abstraction that owns this metadata object
+	 *
+	 * @return The metadata for the derived abstraction, or <code>null</code> if
+	 *         there is no data to inherit
+	 */
+	AbstractionMetadata deriveCopy() {
+		if (activationUnit == null && turnUnit == null && postdominators == null && dominator == null)
+			return null;
+
+		AbstractionMetadata metadata = new AbstractionMetadata();
+		metadata.activationUnit = activationUnit;
+		metadata.turnUnit = turnUnit;
+		metadata.postdominators = postdominators == null ? null : new ArrayList<UnitContainer>(postdominators);
+		metadata.dominator = dominator;
+		return metadata;
+	}
+
+	/**
+	 * Checks whether this metadata object does not hold any data
+	 *
+	 * @return True if all fields of this metadata object are empty, otherwise
+	 *         false
+	 */
+	boolean isEmpty() {
+		return activationUnit == null && turnUnit == null && postdominators == null && dominator == null
+				&& pathFlags == null;
+	}
+
+}
@@ -45,8 +45,21 @@ public class AccessPath implements Cloneable {
 
 	private final boolean canHaveImmutableAliases;
 
+	/**
+	 * The packed encoding of this access path, see {@link AccessPathPacking}. The
+	 * head word is 0 if this access path is not packed.
+	 */
+	private final long packedHead;
+	private final long packedFields;
+
 	private int hashCode = 0;
 
+	/**
+	 * The arena in which this access path is the canonical instance, or
+	 * <code>null</code> if this access path has not been interned
+	 */
+	private AccessPathArena arena = null;
+
 	/**
 	 * The empty access path denotes a code region depending on a tainted
 	 * conditional. If a function is called inside the region, there is no tainted
@@ -63,17 +76,14 @@ public class AccessPath implements Cloneable {
 		this.cutOffApproximation = false;
 		this.arrayTaintType = ArrayTaintType.ContentsAndLength;
 		this.canHaveImmutableAliases = false;
+		this.packedHead = 0;
+		this.packedFields = AccessPathPacking.NOT_PACKED;
 	}
 
 	AccessPath(Local val, SootField[] appendingFields, Type valType, Type[] appendingFieldTypes, boolean taintSubFields,
 			boolean isCutOffApproximation, ArrayTaintType arrayTaintType, boolean canHaveImmutableAliases) {
-		this.value = val;
-		this.baseType = valType;
-		this.fragments = AccessPathFragment.createFragmentArray(appendingFields, appendingFieldTypes);
-		this.taintSubFields = taintSubFields;
-		this.cutOffApproximation = isCutOffApproximation;
-		this.arrayTaintType = arrayTaintType;
-		this.canHaveImmutableAliases = canHaveImmutableAliases;
+		this(val, valType, AccessPathFragment.createFragmentArray(appendingFields, appendingFieldTypes),
+				taintSubFields, isCutOffApproximation, arrayTaintType, canHaveImmutableAliases);
 	}
 
 	AccessPath(Local val, Type valType, AccessPathFragment[] fragments, boolean taintSubFields,
@@ -85,6 +95,11 @@ public class AccessPath implements Cloneable {
 		this.cutOffApproximation = isCutOffApproximation;
 		this.arrayTaintType = arrayTaintType;
 		this.canHaveImmutableAliases = canHaveImmutableAliases;
+
+		this.packedFields = AccessPathPacking.packFields(fragments);
+		this.packedHead = packedFields == AccessPathPacking.NOT_PACKED ? 0
+				: AccessPathPacking.packHead(val, valType, fragments, taintSubFields, isCutOffApproximation,
+						arrayTaintType, canHaveImmutableAliases);
 	}
 
 	/**
@@ -240,6 +255,36 @@ public class AccessPath implements Cloneable {
 		return hashCode;
 	}
 
+	/**
+	 * Gets whether this access path uses the packed encoding, i.e., whether
+	 * equality and entailment checks are computed on primitive values instead of
+	 * the sequence of fragments
+	 * 
+	 * @return True if this access path is packed, otherwise false
+	 */
+	public boolean isPacked() {
+		return AccessPathPacking.isPacked(packedHead);
+	}
+
+	/**
+	 * Gets the arena in which this access path is the canonical instance
+	 * 
+	 * @return The arena in which this access path is the canonical instance, or
+	 *         <code>null</code> if this access path has not been interned
+	 */
+	AccessPathArena getArena() {
+		return arena;
+	}
+
+	/**
+	 * Marks this access path as the canonical instance in the given arena
+	 * 
+	 * @param arena The arena in which this access path is the canonical instance
+	 */
+	void setArena(AccessPathArena arena) {
+		this.arena = arena;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == this || super.equals(obj))
@@ -249,9 +294,17 @@ public class AccessPath implements Cloneable {
 
 		AccessPath other = (AccessPath) obj;
 
+		// Two distinct canonical instances from the same arena cannot be equal
+		if (this.arena != null && this.arena == other.arena)
+			return false;
+
 		if (this.hashCode != 0 && other.hashCode != 0 && this.hashCode != other.hashCode)
 			return false;
 
+		// Short access paths can be compared on their packed encoding
+		if (isPacked() && other.isPacked())
+			return AccessPathPacking.equals(packedHead, packedFields, other.packedHead, other.packedFields);
+
 		if (value == null) {
 			if (other.value != null)
 				return false;
@@ -354,6 +407,8 @@ public class AccessPath implements Cloneable {
 	public boolean entails(AccessPath a2) {
 		if (this.isEmpty() || a2.isEmpty())
 			return false;
+		if (isPacked() && a2.isPacked())
+			return AccessPathPacking.entails(packedHead, packedFields, a2.packedHead, a2.packedFields);
 
 		// If one of the access paths refers to an instance object and the other
 		// one doesn't, there can't be an entailment
@@ -0,0 +1,255 @@
+package soot.jimple.infoflow.data;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import soot.Local;
+import soot.Type;
+import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
+
+/**
+ * Arena in which access paths and access path fragments are hash-consed when
+ * they are created. Structurally equal access paths share one canonical
+ * instance, so that two canonical access paths from the same arena are equal if
+ * and only if they are identical. Access paths that are derived from a
+ * canonical access path, e.g., by appending fields or by exchanging the base
+ * value, are cached per parent access path, so that the derivation only needs
+ * to be computed once.
+ *
+ * The arena only holds weak references to the canonical instances, so that
+ * access paths that are no longer used anywhere in the analysis can be garbage
+ * collected. The number of cached derivations is bounded.
+ */
+public class AccessPathArena {
+
+	/**
+	 * The default maximum number of derivations that are cached
+	 */
+	public static final int DEFAULT_MAX_DERIVATIONS = 100000;
+
+	private static final int FLAG_CUT_FIRST_FIELD = 1;
+	private static final int FLAG_REDUCE_BASES = 2;
+	private static final int FLAG_TAINT_SUB_FIELDS = 4;
+	private static final int FLAG_APPEND = 8;
+
+	private final Interner<AccessPathFragment> fragments = Interners.newWeakInterner();
+	private final Interner<AccessPath> accessPaths = Interners.newWeakInterner();
+	private final Cache<DerivationKey, AccessPath> derivations;
+
+	/**
+	 * Key for an access path that is derived from a canonical parent access path
+	 */
+	static class DerivationKey {
+
+		private final AccessPath parent;
+		private final Object edge;
+		private final Type type;
+		private final int flags;
+		private final int hashCode;
+
+		DerivationKey(AccessPath parent, Object edge, Type type, int flags) {
+			this.parent = parent;
+			this.edge = edge;
+			this.type = type;
+			this.flags = flags;
+
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + System.identityHashCode(parent);
+			result = prime * result
+					+ (edge instanceof AccessPathFragment[] ? Arrays.hashCode((AccessPathFragment[]) edge)
+							: Objects.hashCode(edge));
+			result = prime * result + Objects.hashCode(type);
+			result = prime * result + flags;
+			this.hashCode = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			DerivationKey other = (DerivationKey) obj;
+			if (parent != other.parent || flags != other.flags || hashCode != other.hashCode)
+				return false;
+			if (!Objects.equals(type, other.type))
+				return false;
+			if (edge instanceof AccessPathFragment[] && other.edge instanceof AccessPathFragment[])
+				return Arrays.equals((AccessPathFragment[]) edge, (AccessPathFragment[]) other.edge);
+			return Objects.equals(edge, other.edge);
+		}
+
+	}
+
+	/**
+	 * Creates a new instance of the {@link AccessPathArena} class
+	 */
+	public AccessPathArena() {
+		this(DEFAULT_MAX_DERIVATIONS);
+	}
+
+	/**
+	 * Creates a new instance of the {@link AccessPathArena} class
+	 *
+	 * @param maxDerivations The maximum number of derivations to cache
+	 */
+	public AccessPathArena(int maxDerivations) {
+		// The keys reference their parent access paths, so we must not let the cache
+		// keep derived access paths alive that are no longer used
+		this.derivations = CacheBuilder.newBuilder().maximumSize(maxDerivations).weakValues().build();
+	}
+
+	/**
+	 * Gets the canonical instance of the given access path fragment
+	 *
+	 * @param fragment The access path fragment
+	 * @return The canonical instance of the given access path fragment
+	 */
+	public AccessPathFragment intern(AccessPathFragment fragment) {
+		if (fragment == null)
+			return null;
+		return fragments.intern(fragment);
+	}
+
+	/**
+	 * Replaces all fragments in the given array with their canonical instances.
+	 * The array is modified in place.
+	 *
+	 * @param fragments The access path fragments
+	 */
+	void internFragments(AccessPathFragment[] fragments) {
+		if (fragments != null)
+			for (int i = 0; i < fragments.length; i++)
+				fragments[i] = intern(fragments[i]);
+	}
+
+	/**
+	 * Gets the canonical instance of the given access path. If there is no
+	 * canonical instance yet, the given access path becomes the canonical
+	 * instance.
+	 *
+	 * @param ap The access path
+	 * @return The canonical instance of the given access path
+	 */
+	public AccessPath intern(AccessPath ap) {
+		if (ap == null || ap.getArena() == this)
+			return ap;
+		AccessPath canonical = accessPaths.intern(ap);
+		if (canonical == ap)
+			ap.setArena(this);
+		return canonical;
+	}
+
+	/**
+	 * Gets whether the given access path is the canonical instance in this arena
+	 *
+	 * @param ap The access path to check
+	 * @return True if the given access path is the canonical instance in this
+	 *         arena, otherwise false
+	 */
+	public boolean isCanonical(AccessPath ap) {
+		return ap != null && ap.getArena() == this;
+	}
+
+	/**
+	 * Creates the key under which the access path is cached that results from
+	 * appending the given fragments to the given parent access path
+	 *
+	 * @param parent         The parent access path
+	 * @param toAppend       The fragments to append
+	 * @param taintSubFields True if the new access path shall taint all objects
+	 *                       reachable through it
+	 * @return The derivation key, or <code>null</code> if the derivation cannot be
+	 *         cached
+	 */
+	DerivationKey getAppendKey(AccessPath parent, AccessPathFragment[] toAppend, boolean taintSubFields) {
+		if (!isCanonical(parent))
+			return null;
+		Object edge = toAppend.length == 1 ? toAppend[0] : toAppend;
+		return new DerivationKey(parent, edge, null, FLAG_APPEND | (taintSubFields ? FLAG_TAINT_SUB_FIELDS : 0));
+	}
+
+	/**
+	 * Creates the key under which the access path is cached that results from
+	 * replacing the base value of the given parent access path
+	 *
+	 * @param parent         The parent access path
+	 * @param val            The new base value
+	 * @param newType        The new base type
+	 * @param cutFirstField  True if the first field shall be removed
+	 * @param reduceBases    True if circular types shall be reduced to bases
+	 * @param arrayTaintType The way a tainted array shall be handled
+	 * @return The derivation key, or <code>null</code> if the derivation cannot be
+	 *         cached
+	 */
+	DerivationKey getCopyKey(AccessPath parent, Local val, Type newType, boolean cutFirstField, boolean reduceBases,
+			ArrayTaintType arrayTaintType) {
+		if (!isCanonical(parent) || val == null)
+			return null;
+		int flags = (cutFirstField ? FLAG_CUT_FIRST_FIELD : 0) | (reduceBases ? FLAG_REDUCE_BASES : 0);
+		if (arrayTaintType != null)
+			flags |= (arrayTaintType.ordinal() + 1) << 4;
+		return new DerivationKey(parent, val, newType, flags);
+	}
+
+	/**
+	 * Gets the cached result of a derivation
+	 *
+	 * @param key The derivation key
+	 * @return The cached access path, or <code>null</code> if the derivation has
+	 *         not been cached yet
+	 */
+	AccessPath getDerived(DerivationKey key) {
+		return key == null ? null : derivations.getIfPresent(key);
+	}
+
+	/**
+	 * Caches the result of a derivation
+	 *
+	 * @param key     The derivation key
+	 * @param derived The derived access path
+	 * @return The access path that shall be used as the result of the derivation
+	 */
+	AccessPath putDerived(DerivationKey key, AccessPath derived) {
+		if (key == null || derived == null)
+			return derived;
+
+		// The key references the caller's array, which we must not keep
+		if (key.edge instanceof AccessPathFragment[]) {
+			AccessPathFragment[] edge = (AccessPathFragment[]) key.edge;
+			key = new DerivationKey(key.parent, Arrays.copyOf(edge, edge.length), key.type, key.flags);
+		}
+		AccessPath old = derivations.asMap().putIfAbsent(key, derived);
+		return old == null ? derived : old;
+	}
+
+	/**
+	 * Removes all cached derivations. The canonical access paths are retained.
+	 * This method must be called whenever the rules for creating access paths
+	 * change, e.g., when the maximum access path length is reduced.
+	 */
+	public void clearDerivations() {
+		derivations.invalidateAll();
+	}
+
+	/**
+	 * Gets the number of derivations that are cached in this arena
+	 *
+	 * @return The number of cached derivations
+	 */
+	public int getDerivationCount() {
+		return (int) derivations.size();
+	}
+
+}
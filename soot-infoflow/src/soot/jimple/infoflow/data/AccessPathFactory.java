@@ -21,6 +21,7 @@ import soot.jimple.InstanceFieldRef;
 import soot.jimple.StaticFieldRef;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.AccessPathConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
 import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
@@ -31,6 +32,8 @@ public class AccessPathFactory {
 	protected final static Logger logger = LoggerFactory.getLogger(AccessPathFactory.class);
 
 	private final InfoflowConfiguration config;
+	private final AccessPathArena arena;
+	private volatile int accessPathLengthLimit = -1;
 
 	/**
 	 * Specialized pair class for field bases
@@ -103,10 +106,66 @@ public class AccessPathFactory {
 	 */
 	public AccessPathFactory(InfoflowConfiguration config) {
 		this.config = config;
+		this.arena = config.getAccessPathConfiguration().getUseAccessPathInterning() ? new AccessPathArena() : null;
+	}
+
+	/**
+	 * Gets the arena in which this factory interns the access paths it creates
+	 * 
+	 * @return The arena in which the access paths are interned, or
+	 *         <code>null</code> if access path interning is disabled
+	 */
+	public AccessPathArena getArena() {
+		return arena;
 	}
 
 	private MyConcurrentHashMap<Type, Set<AccessPathFragment[]>> baseRegister = new MyConcurrentHashMap<>();
 
+	/**
+	 * Reduces the maximum length of newly created access paths to half of the
+	 * configured length in order to save memory. Access paths that have already
+	 * been created are not changed. Newly created access paths that exceed the
+	 * reduced length are truncated. If static fields are tracked, access paths
+	 * keep at least one field, because a static field taint cannot be represented
+	 * without its field.
+	 * 
+	 * @return True if the access path length was reduced, false if the configured
+	 *         length is already too short to be reduced or the length has already
+	 *         been reduced
+	 */
+	public synchronized boolean reduceAccessPathLength() {
+		if (accessPathLengthLimit >= 0)
+			return false;
+
+		int configuredLength = config.getAccessPathConfiguration().getAccessPathLength();
+		int minLength = config.getStaticFieldTrackingMode() == StaticFieldTrackingMode.None ? 0 : 1;
+		int limit = configuredLength < 0 ? 5 : Math.max(minLength, configuredLength / 2);
+		if (configuredLength >= 0 && limit >= configuredLength)
+			return false;
+		accessPathLengthLimit = limit;
+
+		// Cached derivations may be longer than the new limit
+		if (arena != null)
+			arena.clearDerivations();
+		return true;
+	}
+
+	/**
+	 * Gets the maximum length of newly created access paths, taking into account
+	 * any reduction due to memory pressure
+	 * 
+	 * @param accessPathConfig The access path configuration
+	 * @return The maximum access path length, or a negative value if access paths
+	 *         may be arbitrarily long
+	 */
+	private int getMaxAccessPathLength(AccessPathConfiguration accessPathConfig) {
+		int configuredLength = accessPathConfig.getAccessPathLength();
+		int limit = accessPathLengthLimit;
+		if (limit >= 0 && (configuredLength < 0 || limit < configuredLength))
+			return limit;
+		return configuredLength;
+	}
+
 	public AccessPath createAccessPath(Value val, boolean taintSubFields) {
 		return createAccessPath(val, null, null, taintSubFields, false, true, ArrayTaintType.ContentsAndLength);
 	}
@@ -358,13 +417,19 @@ public class AccessPathFactory {
 		// Cut the fields at the maximum access path length. If this happens,
 		// we must always add a star
 		if (fragments != null) {
-			final int maxAccessPathLength = accessPathConfig.getAccessPathLength();
+			final int maxAccessPathLength = getMaxAccessPathLength(accessPathConfig);
 			if (maxAccessPathLength >= 0) {
 				int fieldNum = Math.min(maxAccessPathLength, fragments.length);
 				if (fragments.length > fieldNum) {
 					taintSubFields = true;
 					cutOffApproximation = true;
-					return null; // Totally drop the access path if the fragments' length exceeds the limit
+
+					// Totally drop the access path if the fragments' length exceeds the
+					// configured limit. Access paths that only exceed the length to which
+					// it was reduced due to memory pressure are truncated.
+					final int configuredLength = accessPathConfig.getAccessPathLength();
+					if (configuredLength >= 0 && fragments.length > configuredLength)
+						return null;
 				} else {
 					cutOffApproximation = recursiveCutOff;
 				}
@@ -409,6 +474,13 @@ public class AccessPathFactory {
 			}
 		}
 
+		// The fragment array is always our own copy at this point, so we can
+		// safely replace its contents with the canonical fragments
+		if (arena != null) {
+			arena.internFragments(fragments);
+			return arena.intern(new AccessPath(value, baseType, fragments, taintSubFields, cutOffApproximation,
+					arrayTaintType, canHaveImmutableAliases));
+		}
 		return new AccessPath(value, baseType, fragments, taintSubFields, cutOffApproximation, arrayTaintType,
 				canHaveImmutableAliases);
 	}
@@ -477,15 +549,23 @@ public class AccessPathFactory {
 				&& original.getBaseType().equals(newType) && original.getArrayTaintType() == arrayTaintType)
 			return original;
 
+		// Check whether we have already derived the same access path before
+		AccessPathArena.DerivationKey key = null;
+		if (arena != null && val instanceof Local) {
+			key = arena.getCopyKey(original, (Local) val, newType, cutFirstField, reduceBases, arrayTaintType);
+			AccessPath derived = arena.getDerived(key);
+			if (derived != null)
+				return derived;
+		}
+
 		// Create the new access path
 		AccessPath newAP = createAccessPath(val, newType, original.getFragments(), original.getTaintSubFields(),
 				cutFirstField, reduceBases, arrayTaintType, original.getCanHaveImmutableAliases());
 
 		// Again, check whether we can do without the new object
 		if (newAP != null && newAP.equals(original))
-			return original;
-		else
-			return newAP;
+			newAP = original;
+		return arena == null ? newAP : arena.putDerived(key, newAP);
 	}
 
 	/**
@@ -513,14 +593,24 @@ public class AccessPathFactory {
 		if (toAppend == null || toAppend.length == 0)
 			return original;
 
+		// Check whether we have already appended the same fields before
+		AccessPathArena.DerivationKey key = null;
+		if (arena != null) {
+			key = arena.getAppendKey(original, toAppend, taintSubFields);
+			AccessPath derived = arena.getDerived(key);
+			if (derived != null)
+				return derived;
+		}
+
 		int offset = original.getFragmentCount();
 		AccessPathFragment[] fragments = new AccessPathFragment[offset + (toAppend == null ? 0 : toAppend.length)];
 		if (offset > 0)
 			System.arraycopy(original.getFragments(), 0, fragments, 0, offset);
 		System.arraycopy(toAppend, 0, fragments, offset, toAppend.length);
 
-		return createAccessPath(original.getPlainValue(), original.getBaseType(), fragments, taintSubFields, false,
-				true, original.getArrayTaintType());
+		AccessPath newAP = createAccessPath(original.getPlainValue(), original.getBaseType(), fragments,
+				taintSubFields, false, true, original.getArrayTaintType());
+		return arena == null ? newAP : arena.putDerived(key, newAP);
 	}
 
 }
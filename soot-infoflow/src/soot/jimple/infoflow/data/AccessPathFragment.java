@@ -18,6 +18,8 @@ public class AccessPathFragment {
 	private final Type fieldType;
 	private final ContextDefinition context;
 
+	private int hashCode = 0;
+
 	/**
 	 * Creates a new {@link AccessPathFragment} without a context
 	 * 
@@ -107,7 +109,9 @@ public class AccessPathFragment {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(context, field, fieldType);
+		if (hashCode == 0)
+			hashCode = Objects.hash(context, field, fieldType);
+		return hashCode;
 	}
 
 	@Override
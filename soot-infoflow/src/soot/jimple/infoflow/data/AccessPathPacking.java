@@ -0,0 +1,206 @@
+package soot.jimple.infoflow.data;
+
+import soot.Local;
+import soot.SootField;
+import soot.Type;
+import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
+
+/**
+ * Compact encoding of short access paths in two <code>long</code> values. An
+ * access path can be packed if it has at most {@link #MAX_PACKED_FIELDS}
+ * fields, if all of its types are the declared ones, and if none of its
+ * fragments has a context. The base local and the fields are identified by the
+ * numbers that Soot assigns to them.
+ *
+ * The head word contains the number of the base local (bits 0-31), the number
+ * of fields (bits 32-34), the flags (bits 35-41) and the fourth field (bits
+ * 42-62). The field word contains the first three fields in 21 bits each. Two
+ * packed access paths are equal if and only if their words are equal, ignoring
+ * the cut-off flag.
+ */
+final class AccessPathPacking {
+
+	/**
+	 * The maximum number of fields in a packed access path
+	 */
+	static final int MAX_PACKED_FIELDS = 4;
+
+	/**
+	 * The value of the field word for access paths that are not packed
+	 */
+	static final long NOT_PACKED = -1;
+
+	private static final int FIELD_BITS = 21;
+	private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+	private static final int COUNT_SHIFT = 32;
+	private static final long TAINT_SUB_FIELDS = 1L << 35;
+	private static final int ARRAY_TAINT_TYPE_SHIFT = 36;
+	private static final long IMMUTABLE_ALIASES = 1L << 38;
+	private static final long DECLARED_BASE_TYPE = 1L << 39;
+	private static final long CUT_OFF_APPROXIMATION = 1L << 40;
+	private static final long PACKED = 1L << 41;
+	private static final int FOURTH_FIELD_SHIFT = 42;
+
+	private static final long LOCAL_MASK = 0xFFFFFFFFL;
+
+	private AccessPathPacking() {
+	}
+
+	/**
+	 * Encodes the fields of an access path
+	 *
+	 * @param fragments The fragments of the access path
+	 * @return The field word, or {@link #NOT_PACKED} if the access path cannot be
+	 *         packed
+	 */
+	static long packFields(AccessPathFragment[] fragments) {
+		if (fragments == null)
+			return 0;
+
+		// Empty fragment arrays are not equal to missing ones
+		if (fragments.length == 0 || fragments.length > MAX_PACKED_FIELDS)
+			return NOT_PACKED;
+
+		long word = 0;
+		for (int i = 0; i < fragments.length && i < MAX_PACKED_FIELDS - 1; i++) {
+			long fieldId = getFieldId(fragments[i]);
+			if (fieldId < 0)
+				return NOT_PACKED;
+			word |= fieldId << (i * FIELD_BITS);
+		}
+		if (fragments.length == MAX_PACKED_FIELDS && getFieldId(fragments[MAX_PACKED_FIELDS - 1]) < 0)
+			return NOT_PACKED;
+		return word;
+	}
+
+	/**
+	 * Encodes the base and the flags of an access path whose fields can be packed
+	 *
+	 * @param value                   The base local, or <code>null</code> for
+	 *                                static field references
+	 * @param baseType                The type of the base local
+	 * @param fragments               The fragments of the access path
+	 * @param taintSubFields          True if the access path taints all objects
+	 *                                reachable through it
+	 * @param cutOffApproximation     True if the access path has been cut off
+	 * @param arrayTaintType          The way a tainted array is handled
+	 * @param canHaveImmutableAliases True if the tainted object can have
+	 *                                immutable aliases
+	 * @return The head word, or 0 if the access path cannot be packed
+	 */
+	static long packHead(Local value, Type baseType, AccessPathFragment[] fragments, boolean taintSubFields,
+			boolean cutOffApproximation, ArrayTaintType arrayTaintType, boolean canHaveImmutableAliases) {
+		long head = PACKED;
+		if (value != null) {
+			long localId = value.getNumber();
+			if (localId <= 0 || localId > LOCAL_MASK)
+				return 0;
+			head |= localId;
+		}
+
+		// We can only restore the declared base type
+		if (baseType != null) {
+			if (value == null || !baseType.equals(value.getType()))
+				return 0;
+			head |= DECLARED_BASE_TYPE;
+		}
+
+		int fieldCount = fragments == null ? 0 : fragments.length;
+		head |= ((long) fieldCount) << COUNT_SHIFT;
+		if (fieldCount == MAX_PACKED_FIELDS)
+			head |= getFieldId(fragments[MAX_PACKED_FIELDS - 1]) << FOURTH_FIELD_SHIFT;
+
+		if (taintSubFields)
+			head |= TAINT_SUB_FIELDS;
+		if (cutOffApproximation)
+			head |= CUT_OFF_APPROXIMATION;
+		if (arrayTaintType != null)
+			head |= ((long) arrayTaintType.ordinal() + 1) << ARRAY_TAINT_TYPE_SHIFT;
+		if (canHaveImmutableAliases)
+			head |= IMMUTABLE_ALIASES;
+		return head;
+	}
+
+	/**
+	 * Gets the number that identifies the field of the given fragment
+	 *
+	 * @param fragment The access path fragment
+	 * @return The field number, or -1 if the fragment cannot be packed
+	 */
+	private static long getFieldId(AccessPathFragment fragment) {
+		if (fragment == null || fragment.getContext() != null || !fragment.isValid())
+			return -1;
+		SootField field = fragment.getField();
+		if (!fragment.getFieldType().equals(field.getType()))
+			return -1;
+		long fieldId = field.getNumber();
+		if (fieldId <= 0 || fieldId > FIELD_MASK)
+			return -1;
+		return fieldId;
+	}
+
+	/**
+	 * Checks whether two packed access paths are equal
+	 *
+	 * @param head1   The head word of the first access path
+	 * @param fields1 The field word of the first access path
+	 * @param head2   The head word of the second access path
+	 * @param fields2 The field word of the second access path
+	 * @return True if the two access paths are equal, otherwise false
+	 */
+	static boolean equals(long head1, long fields1, long head2, long fields2) {
+		return fields1 == fields2 && (head1 & ~CUT_OFF_APPROXIMATION) == (head2 & ~CUT_OFF_APPROXIMATION);
+	}
+
+	/**
+	 * Checks whether the first packed access path entails the second one, i.e.,
+	 * both have the same base and the fields of the first one are a prefix of the
+	 * fields of the second one. Just like {@link AccessPath#entails(AccessPath)},
+	 * only the bases are compared if one of the access paths has no fields.
+	 *
+	 * @param head1   The head word of the first access path
+	 * @param fields1 The field word of the first access path
+	 * @param head2   The head word of the second access path
+	 * @param fields2 The field word of the second access path
+	 * @return True if the first access path entails the second one
+	 */
+	static boolean entails(long head1, long fields1, long head2, long fields2) {
+		if ((head1 & LOCAL_MASK) != (head2 & LOCAL_MASK))
+			return false;
+
+		int count1 = getFieldCount(head1);
+		int count2 = getFieldCount(head2);
+		if (count1 == 0 || count2 == 0)
+			return true;
+		if (count1 > count2)
+			return false;
+		if (count1 == MAX_PACKED_FIELDS)
+			return fields1 == fields2
+					&& (head1 >>> FOURTH_FIELD_SHIFT & FIELD_MASK) == (head2 >>> FOURTH_FIELD_SHIFT & FIELD_MASK);
+
+		long mask = (1L << (count1 * FIELD_BITS)) - 1;
+		return (fields1 & mask) == (fields2 & mask);
+	}
+
+	/**
+	 * Gets the number of fields of a packed access path
+	 *
+	 * @param head The head word of the access path
+	 * @return The number of fields
+	 */
+	static int getFieldCount(long head) {
+		return (int) (head >>> COUNT_SHIFT & 0x7);
+	}
+
+	/**
+	 * Checks whether the given head word belongs to a packed access path
+	 *
+	 * @param head The head word
+	 * @return True if the access path is packed, otherwise false
+	 */
+	static boolean isPacked(long head) {
+		return (head & PACKED) != 0;
+	}
+
+}
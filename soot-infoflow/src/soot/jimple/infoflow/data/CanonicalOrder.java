@@ -0,0 +1,225 @@
+package soot.jimple.infoflow.data;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import soot.Local;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Computes fingerprints of data flow objects that are the same in every
+ * analysis run. The fingerprints only depend on the program under analysis,
+ * but not on identity hash codes, object allocation order or thread
+ * scheduling. They are used to bring updates that were created concurrently
+ * into a canonical order. Statements are identified by the signature of their
+ * method and their position in the method body.
+ *
+ * Note that different objects may share the same fingerprint. Clients must not
+ * rely on fingerprints to check for equality.
+ */
+public class CanonicalOrder {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final IInfoflowCFG icfg;
+	private final ConcurrentMap<Unit, Long> unitFingerprints = new ConcurrentHashMap<>();
+	private final ConcurrentMap<AccessPath, Long> accessPathFingerprints = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance of the {@link CanonicalOrder} class
+	 *
+	 * @param icfg The interprocedural control flow graph that is used to find the
+	 *             methods of statements
+	 */
+	public CanonicalOrder(IInfoflowCFG icfg) {
+		this.icfg = icfg;
+	}
+
+	/**
+	 * Combines two fingerprints into a new one. The result depends on the order of
+	 * the arguments.
+	 *
+	 * @param h1 The first fingerprint
+	 * @param h2 The second fingerprint
+	 * @return The combined fingerprint
+	 */
+	public static long combine(long h1, long h2) {
+		long h = (h1 ^ (h2 + 0x9e3779b97f4a7c15L + (h1 << 6) + (h1 >>> 2))) * FNV_PRIME;
+		return h ^ (h >>> 29);
+	}
+
+	/**
+	 * Computes the fingerprint of a string
+	 *
+	 * @param s The string
+	 * @return The fingerprint of the given string
+	 */
+	public static long fingerprint(String s) {
+		if (s == null)
+			return 0;
+		long h = FNV_OFFSET;
+		for (int i = 0; i < s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= FNV_PRIME;
+		}
+		return h;
+	}
+
+	/**
+	 * Computes the fingerprint of a statement
+	 *
+	 * @param u The statement
+	 * @return The fingerprint of the given statement
+	 */
+	public long fingerprint(Unit u) {
+		if (u == null)
+			return 0;
+		Long fp = unitFingerprints.get(u);
+		if (fp == null) {
+			indexMethodOf(u);
+			fp = unitFingerprints.get(u);
+			if (fp == null) {
+				// We have a statement that is not part of a method body
+				fp = fingerprint(u.toString());
+				unitFingerprints.putIfAbsent(u, fp);
+			}
+		}
+		return fp;
+	}
+
+	/**
+	 * Computes the fingerprints of all statements in the method that contains the
+	 * given statement
+	 *
+	 * @param u The statement
+	 */
+	private void indexMethodOf(Unit u) {
+		SootMethod sm = icfg.getMethodOf(u);
+		if (sm == null || !sm.hasActiveBody())
+			return;
+
+		final long methodFp = fingerprint(sm.getSignature());
+		int idx = 0;
+		for (Unit cur : sm.getActiveBody().getUnits())
+			unitFingerprints.putIfAbsent(cur, combine(methodFp, idx++));
+	}
+
+	/**
+	 * Computes the fingerprint of an access path
+	 *
+	 * @param ap The access path
+	 * @return The fingerprint of the given access path
+	 */
+	public long fingerprint(AccessPath ap) {
+		if (ap == null)
+			return 0;
+		Long fp = accessPathFingerprints.get(ap);
+		if (fp == null) {
+			long h = 1;
+			Local base = ap.getPlainValue();
+			if (base != null) {
+				h = combine(h, fingerprint(base.getName()));
+				h = combine(h, fingerprint(String.valueOf(base.getType())));
+			}
+			if (ap.getBaseType() != null)
+				h = combine(h, fingerprint(ap.getBaseType().toString()));
+			AccessPathFragment[] fragments = ap.getFragments();
+			if (fragments != null) {
+				for (AccessPathFragment fragment : fragments) {
+					h = combine(h, fingerprint(fragment.getField().getSignature()));
+					h = combine(h, fingerprint(String.valueOf(fragment.getFieldType())));
+				}
+			}
+			h = combine(h, ap.getTaintSubFields() ? 1 : 2);
+			h = combine(h, ap.isCutOffApproximation() ? 1 : 2);
+			if (ap.getArrayTaintType() != null)
+				h = combine(h, ap.getArrayTaintType().ordinal() + 1);
+			fp = h;
+			accessPathFingerprints.putIfAbsent(ap, fp);
+		}
+		return fp;
+	}
+
+	/**
+	 * Computes the fingerprint of an abstraction. The fingerprint takes into
+	 * account the direct predecessor of the abstraction, but not the complete
+	 * predecessor chain.
+	 *
+	 * @param abs The abstraction
+	 * @return The fingerprint of the given abstraction
+	 */
+	public long fingerprint(Abstraction abs) {
+		if (abs == null)
+			return 0;
+		long h = shallowFingerprint(abs);
+		Abstraction pred = abs.getPredecessor();
+		if (pred != null)
+			h = combine(h, shallowFingerprint(pred));
+		return h;
+	}
+
+	/**
+	 * Computes the fingerprint of an abstraction without considering its
+	 * predecessor
+	 *
+	 * @param abs The abstraction
+	 * @return The fingerprint of the given abstraction
+	 */
+	private long shallowFingerprint(Abstraction abs) {
+		long h = fingerprint(abs.getAccessPath());
+		SourceContext sourceContext = abs.getSourceContext();
+		if (sourceContext != null) {
+			h = combine(h, fingerprint(sourceContext.getStmt()));
+			h = combine(h, fingerprint(sourceContext.getAccessPath()));
+		}
+		h = combine(h, fingerprint(abs.getActivationUnit()));
+		h = combine(h, fingerprint(abs.getTurnUnit()));
+		h = combine(h, fingerprint(abs.getCurrentStmt()));
+		h = combine(h, fingerprint(abs.getCorrespondingCallSite()));
+		h = combine(h, abs.getPathLength());
+		h = combine(h, (abs.isAbstractionActive() ? 1 : 0) | (abs.getExceptionThrown() ? 2 : 0)
+				| (abs.dependsOnCutAP() ? 4 : 0));
+		return h;
+	}
+
+	/**
+	 * Computes the fingerprint of a path edge
+	 *
+	 * @param d1     The abstraction at the start point of the method
+	 * @param target The target statement of the edge
+	 * @param d2     The abstraction at the target statement
+	 * @return The fingerprint of the given path edge
+	 */
+	public long fingerprint(Abstraction d1, Unit target, Abstraction d2) {
+		return combine(combine(fingerprint(d1), fingerprint(target)), fingerprint(d2));
+	}
+
+	/**
+	 * Computes the fingerprint of a path that is being reconstructed, including
+	 * its call stack
+	 *
+	 * @param scap The path
+	 * @return The fingerprint of the given path
+	 */
+	public long fingerprint(SourceContextAndPath scap) {
+		if (scap == null)
+			return 0;
+		long h = combine(fingerprint(scap.getStmt()), fingerprint(scap.getAccessPath()));
+		if (scap.path != null) {
+			for (Abstraction abs : scap.path) {
+				h = combine(h, fingerprint(abs.getCurrentStmt()));
+				h = combine(h, fingerprint(abs.getAccessPath()));
+			}
+		}
+		if (scap.callStack != null) {
+			for (Stmt callSite : scap.callStack)
+				h = combine(h, fingerprint(callSite));
+		}
+		return h;
+	}
+
+}
@@ -1,7 +1,5 @@
 package soot.jimple.infoflow.data;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -10,7 +8,9 @@ import org.slf4j.LoggerFactory;
 import soot.Unit;
 import soot.jimple.ReturnStmt;
 import soot.jimple.ReturnVoidStmt;
+import soot.jimple.infoflow.solver.memory.GenerationalCache;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.solver.memory.MemoryManagerStatistics;
 
 /**
  * Memory manager implementation for FlowDroid
@@ -73,8 +73,9 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 
 	}
 
-	private ConcurrentMap<AccessPath, AccessPath> apCache = new ConcurrentHashMap<>();
-	private ConcurrentHashMap<AbstractionCacheKey, Abstraction> absCache = new ConcurrentHashMap<>();
+	private final MemoryManagerStatistics statistics;
+	private GenerationalCache<AccessPath, AccessPath> apCache;
+	private GenerationalCache<AbstractionCacheKey, Abstraction> absCache;
 	private AtomicInteger reuseCounter = new AtomicInteger();
 
 	private final boolean tracingEnabled;
@@ -116,8 +117,25 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 	 *                       statement, corresponding call site) shall be erased.
 	 */
 	public FlowDroidMemoryManager(boolean tracingEnabled, PathDataErasureMode erasePathData) {
+		this(tracingEnabled, erasePathData, new MemoryManagerStatistics());
+	}
+
+	/**
+	 * Constructs a new instance of the AccessPathManager class
+	 * 
+	 * @param tracingEnabled True if performance tracing data shall be recorded
+	 * @param erasePathData  Specifies whether data for tracking paths (current
+	 *                       statement, corresponding call site) shall be erased.
+	 * @param statistics     The object in which to record cache hits, misses and
+	 *                       evictions. Multiple memory managers may share the same
+	 *                       statistics object.
+	 */
+	public FlowDroidMemoryManager(boolean tracingEnabled, PathDataErasureMode erasePathData,
+			MemoryManagerStatistics statistics) {
 		this.tracingEnabled = tracingEnabled;
 		this.erasePathData = erasePathData;
+		this.statistics = statistics;
+		setMaxCacheHeapFraction(0);
 
 		logger.info("Initializing FlowDroid memory manager...");
 		if (this.tracingEnabled)
@@ -133,6 +151,11 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 	 * @return The cached equivalent of the given access path
 	 */
 	private AccessPath getCachedAccessPath(AccessPath ap) {
+		// Access paths that were interned by the factory are already canonical. The
+		// arena only references them weakly, so they need no bound in our cache.
+		if (ap.getArena() != null)
+			return ap;
+
 		AccessPath oldAP = apCache.putIfAbsent(ap, ap);
 		if (oldAP == null)
 			return ap;
@@ -159,6 +182,50 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 		return oldAbs;
 	}
 
+	/**
+	 * Sets the fraction of the maximum heap size that the caches of this memory
+	 * manager may occupy. This method discards all cached objects.
+	 * 
+	 * @param heapFraction The fraction of the maximum heap size for the caches, or
+	 *                     a value less than or equal to zero for unbounded caches
+	 */
+	public void setMaxCacheHeapFraction(double heapFraction) {
+		// Both caches share the budget
+		int capacity = GenerationalCache.getGenerationCapacity(heapFraction);
+		if (capacity > 0)
+			capacity = Math.max(1, capacity / 2);
+		this.apCache = new GenerationalCache<>(capacity, statistics);
+		this.absCache = new GenerationalCache<>(capacity, statistics);
+	}
+
+	/**
+	 * Starts a new cache generation. Cached objects that were not reused since the
+	 * previous generation change are evicted. This has no effect if the caches are
+	 * unbounded, which is the default.
+	 */
+	@Override
+	public void startNewGeneration() {
+		apCache.startNewGeneration();
+		absCache.startNewGeneration();
+	}
+
+	/**
+	 * Removes all objects from the caches of this memory manager
+	 */
+	public void clearCaches() {
+		apCache.clear();
+		absCache.clear();
+	}
+
+	/**
+	 * Gets the statistics about the caches of this memory manager
+	 * 
+	 * @return The cache statistics
+	 */
+	public MemoryManagerStatistics getStatistics() {
+		return statistics;
+	}
+
 	/**
 	 * Gets the number of access paths that have been re-used through caching
 	 * 
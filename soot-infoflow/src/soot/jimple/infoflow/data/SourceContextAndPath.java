@@ -2,25 +2,35 @@ package soot.jimple.infoflow.data;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
+import com.google.common.collect.Interner;
+
 import heros.solver.Pair;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
+import soot.jimple.infoflow.collect.ConsList;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
-import soot.jimple.infoflow.util.extensiblelist.ExtensibleList;
 
 /**
  * Extension of {@link SourceContext} that also allows a paths from the source
- * to the current statement to be stored
+ * to the current statement to be stored. The path and the call stack are
+ * immutable lists that are shared between all paths derived from the same
+ * prefix, so extending a path does not copy any data.
  * 
  * @author Steven Arzt
  */
 public class SourceContextAndPath extends SourceContext implements Cloneable {
-	protected ExtensibleList<Abstraction> path = null;
-	protected ExtensibleList<Stmt> callStack = null;
+
+	/**
+	 * Call stacks are hash-consed, so that equal call stacks can be compared by
+	 * identity
+	 */
+	protected static final Interner<ConsList<Stmt>> callStackInterner = ConsList.newInterner();
+
+	protected ConsList<Abstraction> path = null;
+	protected ConsList<Stmt> callStack = null;
 	protected int neighborCounter = 0;
 	private int hashCode = 0;
 
@@ -36,9 +46,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 		if (path == null)
 			return Collections.<Stmt>emptyList();
 		List<Stmt> stmtPath = new ArrayList<>(this.path.size());
-		Iterator<Abstraction> it = path.reverseIterator();
-		while (it.hasNext()) {
-			Abstraction abs = it.next();
+		for (Abstraction abs : path) {
 			if (abs.getCurrentStmt() != null) {
 				stmtPath.add(abs.getCurrentStmt());
 			}
@@ -49,13 +57,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	public List<Abstraction> getAbstractionPath() {
 		if (path == null)
 			return null;
-
-		List<Abstraction> reversePath = new ArrayList<>(path.size());
-		Iterator<Abstraction> it = path.reverseIterator();
-		while (it.hasNext()) {
-			reversePath.add(it.next());
-		}
-		return reversePath;
+		return path.toList();
 	}
 
 	/**
@@ -92,20 +94,14 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 			return this;
 
 		// Do not add the very same abstraction over and over again.
-		if (this.path != null) {
-			Iterator<Abstraction> it = path.reverseIterator();
-			while (it.hasNext()) {
-				Abstraction a = it.next();
-				if (a == abs) 
-					return null;
-			}
-		}
+		if (this.path != null && this.path.containsIdentical(abs))
+			return null;
 
 		SourceContextAndPath scap = null;
 		if (trackPath && abs.getCurrentStmt() != null) {
 			if (this.path != null) {
 				// We cannot leave the same method at two different sites
-				Abstraction topAbs = path.getLast();
+				Abstraction topAbs = path.head();
 				if (topAbs.equals(abs) && topAbs.getCorrespondingCallSite() != null
 						&& topAbs.getCorrespondingCallSite() == abs.getCorrespondingCallSite()
 						&& topAbs.getCurrentStmt() != abs.getCurrentStmt())
@@ -115,9 +111,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 			scap = clone();
 
 			// Extend the propagation path
-			if (scap.path == null)
-				scap.path = new ExtensibleList<Abstraction>();
-			scap.path.add(abs);
+			scap.path = ConsList.push(scap.path, abs);
 
 			if (pathConfig != null && pathConfig.getMaxPathLength() > 0
 					&& scap.path.size() > pathConfig.getMaxPathLength()) {
@@ -129,12 +123,10 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 		if (abs.getCorrespondingCallSite() != null && abs.getCorrespondingCallSite() != abs.getCurrentStmt()) {
 			if (scap == null)
 				scap = this.clone();
-			if (scap.callStack == null)
-				scap.callStack = new ExtensibleList<Stmt>();
-			else if (pathConfig != null && pathConfig.getMaxCallStackSize() > 0
-					&& scap.callStack.size() >= pathConfig.getMaxCallStackSize())
+			if (pathConfig != null && pathConfig.getMaxCallStackSize() > 0
+					&& ConsList.size(scap.callStack) >= pathConfig.getMaxCallStackSize())
 				return null;
-			scap.callStack.add(abs.getCorrespondingCallSite());
+			scap.callStack = ConsList.push(scap.callStack, abs.getCorrespondingCallSite(), callStackInterner);
 		}
 
 		this.neighborCounter = abs.getNeighbors() == null ? 0 : abs.getNeighbors().size();
@@ -149,21 +141,12 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	 *         element. If there is no call stack, null is returned.
 	 */
 	public Pair<SourceContextAndPath, Stmt> popTopCallStackItem() {
-		if (callStack == null || callStack.isEmpty())
+		if (callStack == null)
 			return null;
 
 		SourceContextAndPath scap = clone();
-		Stmt lastStmt = null;
-		Object c = scap.callStack.removeLast();
-		if (c instanceof ExtensibleList) {
-			lastStmt = scap.callStack.getLast();
-			scap.callStack = (ExtensibleList<Stmt>) c;
-		} else
-			lastStmt = (Stmt) c;
-
-		if (scap.callStack.isEmpty())
-			scap.callStack = null;
-		return new Pair<>(scap, lastStmt);
+		scap.callStack = callStack.tail();
+		return new Pair<>(scap, callStack.head());
 	}
 
 	/**
@@ -173,7 +156,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	 * @return True if the call stack is empty, otherwise false
 	 */
 	public boolean isCallStackEmpty() {
-		return this.callStack == null || this.callStack.isEmpty();
+		return this.callStack == null;
 	}
 
 	public void setNeighborCounter(int counter) {
@@ -204,16 +187,9 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 			}
 		}
 
-		if (this.callStack == null || this.callStack.isEmpty()) {
-			if (scap.callStack != null && !scap.callStack.isEmpty())
-				return false;
-		} else {
-			if (scap.callStack == null || scap.callStack.isEmpty())
-				return false;
-
-			if (callStack.size() != scap.callStack.size() || !this.callStack.equals(scap.callStack))
-				return false;
-		}
+		// Call stacks are interned
+		if (this.callStack != scap.callStack)
+			return false;
 
 		if (mergeDifferentPaths) {
 			if (!this.path.equals(scap.path))
@@ -240,10 +216,9 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	@Override
 	public SourceContextAndPath clone() {
 		final SourceContextAndPath scap = new SourceContextAndPath(definition, accessPath, stmt, userData);
-		if (path != null)
-			scap.path = new ExtensibleList<Abstraction>(this.path);
-		if (callStack != null)
-			scap.callStack = new ExtensibleList<Stmt>(callStack);
+		// The lists are immutable and can be shared
+		scap.path = path;
+		scap.callStack = callStack;
 		return scap;
 	}
 
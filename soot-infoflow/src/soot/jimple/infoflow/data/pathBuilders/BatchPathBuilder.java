@@ -8,6 +8,7 @@ import java.util.concurrent.TimeUnit;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.AbstractionAtSink;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 
@@ -90,6 +91,11 @@ public class BatchPathBuilder extends AbstractAbstractionPathBuilder {
 		innerBuilder.forceTerminate(reason);
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		return innerBuilder.relieveMemoryPressure(step);
+	}
+
 	@Override
 	public boolean isTerminated() {
 		return innerBuilder.isTerminated();
@@ -115,6 +121,11 @@ public class BatchPathBuilder extends AbstractAbstractionPathBuilder {
 		innerBuilder.addStatusListener(listener);
 	}
 
+	@Override
+	public void addResultAvailableHandler(OnPathBuilderResultAvailable handler) {
+		innerBuilder.addResultAvailableHandler(handler);
+	}
+
 	/**
 	 * Sets the number of paths that shall be part of one batch, i.e., that shall be
 	 * forwarded to the inner path builder at the same time
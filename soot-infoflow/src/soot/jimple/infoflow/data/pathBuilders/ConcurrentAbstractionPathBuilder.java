@@ -1,15 +1,20 @@
 package soot.jimple.infoflow.data.pathBuilders;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.CanonicalOrder;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.results.BackwardsInfoflowResults;
 import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 
 public abstract class ConcurrentAbstractionPathBuilder extends AbstractAbstractionPathBuilder {
@@ -52,7 +57,7 @@ public abstract class ConcurrentAbstractionPathBuilder extends AbstractAbstracti
 
 		// Start the propagation tasks
 		int curResIdx = 0;
-		for (final AbstractionAtSink abs : res) {
+		for (final AbstractionAtSink abs : inSubmissionOrder(res)) {
 			// We need to reset the executor before we can submit new jobs
 			executor.reset();
 
@@ -71,9 +76,10 @@ public abstract class ConcurrentAbstractionPathBuilder extends AbstractAbstracti
 
 			// Also build paths for the neighbors of our result abstraction
 			if (triggerComputationForNeighbors() && abs.getAbstraction().getNeighbors() != null) {
-				for (Abstraction neighbor : abs.getAbstraction().getNeighbors()) {
-					AbstractionAtSink neighborAtSink = new AbstractionAtSink(abs.getSinkDefinition(), neighbor,
-							abs.getSinkStmt());
+				List<AbstractionAtSink> neighbors = new ArrayList<>();
+				for (Abstraction neighbor : abs.getAbstraction().getNeighbors())
+					neighbors.add(new AbstractionAtSink(abs.getSinkDefinition(), neighbor, abs.getSinkStmt()));
+				for (AbstractionAtSink neighborAtSink : inSubmissionOrder(neighbors)) {
 					task = getTaintPathTask(neighborAtSink);
 					if (task != null)
 						executor.execute(task);
@@ -97,6 +103,28 @@ public abstract class ConcurrentAbstractionPathBuilder extends AbstractAbstracti
 			listener.notifySolverTerminated(this);
 	}
 
+	/**
+	 * Gets the order in which the path reconstruction tasks for the given
+	 * abstractions shall be submitted. In deterministic mode, the abstractions are
+	 * sorted by their fingerprints, otherwise their original order is retained.
+	 * 
+	 * @param abstractions The abstractions at the sinks
+	 * @return The abstractions in the order in which they shall be processed
+	 */
+	private Collection<AbstractionAtSink> inSubmissionOrder(Collection<AbstractionAtSink> abstractions) {
+		if (!(executor instanceof DeterministicExecutor) || abstractions.size() < 2)
+			return abstractions;
+
+		final CanonicalOrder order = manager.getCanonicalOrder();
+		List<AbstractionAtSink> sorted = new ArrayList<>(abstractions);
+		sorted.sort((a1, a2) -> Long.compare(fingerprint(order, a1), fingerprint(order, a2)));
+		return sorted;
+	}
+
+	private static long fingerprint(CanonicalOrder order, AbstractionAtSink abs) {
+		return CanonicalOrder.combine(order.fingerprint(abs.getSinkStmt()), order.fingerprint(abs.getAbstraction()));
+	}
+
 	/**
 	 * Specifies whether the class shall create separate path reconstruction tasks
 	 * for the neighbors of the abstractions that arrive at the sink
@@ -8,15 +8,19 @@ import java.util.concurrent.TimeUnit;
 
 import heros.solver.Pair;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.collect.ConcurrentIdentityHashMultiMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.CanonicalOrder;
 import soot.jimple.infoflow.data.SourceContext;
 import soot.jimple.infoflow.data.SourceContextAndPath;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.results.ResultSinkInfo;
 import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 
 /**
@@ -30,6 +34,12 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 
 	protected ConcurrentIdentityHashMultiMap<Abstraction, SourceContextAndPath> pathCache = new ConcurrentIdentityHashMultiMap<>();
 
+	/**
+	 * False if the solver has dropped the neighbors of its abstractions. The only
+	 * remaining path through a callee may then belong to a different call site.
+	 */
+	protected volatile boolean matchCallSites = true;
+
 	/**
 	 * Creates a new instance of the {@link ContextSensitivePathBuilder} class
 	 * 
@@ -43,8 +53,12 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 	private static InterruptableExecutor createExecutor(InfoflowManager manager) {
 		int numThreads = Runtime.getRuntime().availableProcessors();
 		int mtn = manager.getConfig().getMaxThreadNum();
-		InterruptableExecutor executor = new InterruptableExecutor(mtn == -1 ? numThreads : Math.min(mtn, numThreads),
-				Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>());
+		InterruptableExecutor executor;
+		if (manager.getConfig().getSolverConfiguration().getExecutorType() == ExecutorType.Deterministic)
+			executor = new DeterministicExecutor(mtn == -1 ? numThreads : Math.min(mtn, numThreads));
+		else
+			executor = new InterruptableExecutor(mtn == -1 ? numThreads : Math.min(mtn, numThreads),
+					Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>());
 		executor.setThreadFactory(new ThreadFactory() {
 
 			@Override
@@ -104,9 +118,7 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 				if (extendedScap == null)
 					return false;
 
-				checkForSource(pred, extendedScap);
-				return pathCache.put(pred, extendedScap);
-
+				return registerPath(pred, extendedScap, false);
 			}
 
 			// If we enter a method, we put it on the stack
@@ -122,7 +134,7 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 				if (pathAndItem != null) {
 					Stmt topCallStackItem = pathAndItem.getO2();
 					// Make sure that we don't follow an unrealizable path
-					if (topCallStackItem != pred.getCurrentStmt())
+					if (matchCallSites && topCallStackItem != pred.getCurrentStmt())
 						return false;
 
 					// We have returned from a function
@@ -131,13 +143,41 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 			}
 
 			// Add the new path
+			return registerPath(pred, extendedScap, true);
+		}
+
+		/**
+		 * Registers a new path for the given predecessor. In deterministic mode, the
+		 * path is only registered at the end of the current epoch. The predecessor is
+		 * then scheduled at that point as well.
+		 * 
+		 * @param pred          The predecessor
+		 * @param extendedScap  The path that leads up to the predecessor
+		 * @param checkMaxPaths True to enforce the maximum number of paths per
+		 *                      abstraction, otherwise false
+		 * @return True if the path was registered and the predecessor must be
+		 *         scheduled, otherwise false
+		 */
+		private boolean registerPath(Abstraction pred, SourceContextAndPath extendedScap, boolean checkMaxPaths) {
+			if (executor instanceof DeterministicExecutor && !((DeterministicExecutor) executor).isCommitting()) {
+				CanonicalOrder order = manager.getCanonicalOrder();
+				((DeterministicExecutor) executor).defer(
+						CanonicalOrder.combine(order.fingerprint(pred), order.fingerprint(extendedScap)), () -> {
+							if (registerPath(pred, extendedScap, checkMaxPaths))
+								scheduleDependentTask(new SourceFindingTask(pred));
+						});
+				return false;
+			}
+
 			checkForSource(pred, extendedScap);
 
-			final int maxPaths = pathConfig.getMaxPathsPerAbstraction();
-			if (maxPaths > 0) {
-				Set<SourceContextAndPath> existingPaths = pathCache.get(pred);
-				if (existingPaths != null && existingPaths.size() > maxPaths)
-					return false;
+			if (checkMaxPaths) {
+				final int maxPaths = pathConfig.getMaxPathsPerAbstraction();
+				if (maxPaths > 0) {
+					Set<SourceContextAndPath> existingPaths = pathCache.get(pred);
+					if (existingPaths != null && existingPaths.size() > maxPaths)
+						return false;
+				}
 			}
 			return pathCache.put(pred, extendedScap);
 		}
@@ -169,6 +209,17 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		if (step == MemoryPressureStep.DropNeighbors) {
+			// Without the neighbors, we would lose the paths through callees that are
+			// called from more than one call site
+			matchCallSites = false;
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Checks whether the given abstraction is a source. If so, a result entry is
 	 * created.
@@ -62,6 +62,28 @@ public class DefaultPathBuilderFactory implements IPathBuilderFactory {
 
 	}
 
+	/**
+	 * Variant of the {@link ScheduledPathBuilder} that can shut down the inner
+	 * builder
+	 */
+	private static class ShutdownScheduledPathBuilder extends ScheduledPathBuilder {
+
+		public ShutdownScheduledPathBuilder(InfoflowManager manager,
+				RepeatableContextSensitivePathBuilder innerBuilder, ContextInsensitiveSourceFinder sourceFinder) {
+			super(manager, innerBuilder, sourceFinder);
+		}
+
+		@Override
+		public void computeTaintPaths(Set<AbstractionAtSink> res) {
+			try {
+				super.computeTaintPaths(res);
+			} finally {
+				((RepeatableContextSensitivePathBuilder) innerBuilder).shutdown();
+			}
+		}
+
+	}
+
 	/**
 	 * Creates a new instance of the {@link DefaultPathBuilderFactory} class
 	 * 
@@ -100,21 +122,48 @@ public class DefaultPathBuilderFactory implements IPathBuilderFactory {
 
 	@Override
 	public IAbstractionPathBuilder createPathBuilder(InfoflowManager manager, InterruptableExecutor executor) {
+		final boolean scheduled = pathConfiguration.getScheduledPathReconstruction();
 		switch (pathConfiguration.getPathBuildingAlgorithm()) {
 		case Recursive:
-			return new BatchPathBuilder(manager, new RecursivePathBuilder(manager, executor));
+			if (scheduled)
+				return configureBatchSize(new ScheduledPathBuilder(manager,
+						new RecursivePathBuilder(manager, executor), new ContextInsensitiveSourceFinder(manager, executor)));
+			return configureBatchSize(new BatchPathBuilder(manager, new RecursivePathBuilder(manager, executor)));
 		case ContextSensitive:
-			return new ShutdownBatchPathBuilder(manager, new RepeatableContextSensitivePathBuilder(manager));
+			if (scheduled)
+				return configureBatchSize(new ShutdownScheduledPathBuilder(manager,
+						new RepeatableContextSensitivePathBuilder(manager),
+						new ContextInsensitiveSourceFinder(manager, executor)));
+			return configureBatchSize(
+					new ShutdownBatchPathBuilder(manager, new RepeatableContextSensitivePathBuilder(manager)));
 		case ContextInsensitive:
-			return new BatchPathBuilder(manager, new ContextInsensitivePathBuilder(manager, executor));
+			if (scheduled)
+				return configureBatchSize(new ScheduledPathBuilder(manager,
+						new ContextInsensitivePathBuilder(manager, executor),
+						new ContextInsensitiveSourceFinder(manager, executor)));
+			return configureBatchSize(
+					new BatchPathBuilder(manager, new ContextInsensitivePathBuilder(manager, executor)));
 		case ContextInsensitiveSourceFinder:
-			return new BatchPathBuilder(manager, new ContextInsensitiveSourceFinder(manager, executor));
+			return configureBatchSize(
+					new BatchPathBuilder(manager, new ContextInsensitiveSourceFinder(manager, executor)));
 		case None:
 			return new EmptyPathBuilder();
 		}
 		throw new RuntimeException("Unsupported path building algorithm");
 	}
 
+	private BatchPathBuilder configureBatchSize(BatchPathBuilder builder) {
+		if (pathConfiguration.getPathReconstructionBatchSize() > 0)
+			builder.setBatchSize(pathConfiguration.getPathReconstructionBatchSize());
+		return builder;
+	}
+
+	private ScheduledPathBuilder configureBatchSize(ScheduledPathBuilder builder) {
+		if (pathConfiguration.getPathReconstructionBatchSize() > 0)
+			builder.setBatchSize(pathConfiguration.getPathReconstructionBatchSize());
+		return builder;
+	}
+
 	@Override
 	public boolean supportsPathReconstruction() {
 		switch (pathConfiguration.getPathBuildingAlgorithm()) {
@@ -13,6 +13,7 @@ import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
 import soot.jimple.infoflow.data.SourceContextAndPath;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.util.FastStack;
 
@@ -28,6 +29,12 @@ public class RecursivePathBuilder extends AbstractAbstractionPathBuilder {
 
 	private static int lastTaskId = 0;
 
+	/**
+	 * False if the solver has dropped the neighbors of its abstractions. The only
+	 * remaining path through a callee may then belong to a different call site.
+	 */
+	private volatile boolean matchCallSites = true;
+
 	/**
 	 * Creates a new instance of the {@link RecursivePathBuilder} class
 	 * 
@@ -99,7 +106,7 @@ public class RecursivePathBuilder extends AbstractAbstractionPathBuilder {
 				if (!newCallStack.isEmpty()) {
 					Pair<Stmt, Set<Abstraction>> newStackTop = newCallStack.isEmpty() ? null : newCallStack.peek();
 					if (newStackTop != null && newStackTop.getO1() != null) {
-						if (curAbs.getCurrentStmt() != newStackTop.getO1())
+						if (matchCallSites && curAbs.getCurrentStmt() != newStackTop.getO1())
 							scanPreds = false;
 						newCallStack.pop();
 					}
@@ -197,6 +204,17 @@ public class RecursivePathBuilder extends AbstractAbstractionPathBuilder {
 		// This path builder cannot be terminated
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		if (step == MemoryPressureStep.DropNeighbors) {
+			// Without the neighbors, we would lose the paths through callees that are
+			// called from more than one call site
+			matchCallSites = false;
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
 		// not supported
@@ -0,0 +1,315 @@
+package soot.jimple.infoflow.data.pathBuilders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import heros.solver.Pair;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.CanonicalOrder;
+import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.memory.reasons.TimeoutReason;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+
+/**
+ * Path builder that schedules the path reconstruction for all abstractions at
+ * sinks under one common time and memory budget.
+ *
+ * The builder first runs a cheap {@link ContextInsensitiveSourceFinder} over
+ * all sinks to learn which sources reach which sink. Afterwards, the
+ * abstractions at the sinks are sorted by their estimated reconstruction cost
+ * and handed to the inner path builder in batches, cheapest first, so that a
+ * single expensive sink cannot delay all others. Once the budget is exhausted,
+ * i.e., the path builder has been terminated due to a timeout or low memory,
+ * no further batches are started. For all sinks that could not be processed
+ * completely, the source-to-sink connections found in the first phase are
+ * reported without a path, so that every connection is reported at least
+ * once.
+ *
+ * The time budget is enforced by the timeout watcher that is registered for the
+ * path reconstruction, the memory budget by the memory watcher. In contrast to
+ * the {@link BatchPathBuilder}, a termination is not reset between batches.
+ */
+public class ScheduledPathBuilder extends AbstractAbstractionPathBuilder {
+
+	/**
+	 * The maximum number of predecessors to visit when estimating the cost of
+	 * reconstructing the paths for an abstraction at a sink
+	 */
+	private static final int MAX_COST_ESTIMATION_STEPS = 10000;
+
+	protected final IAbstractionPathBuilder innerBuilder;
+	protected final ContextInsensitiveSourceFinder sourceFinder;
+	protected int batchSize = 5;
+
+	private volatile ISolverTerminationReason terminationReason = null;
+
+	/**
+	 * Creates a new instance of the {@link ScheduledPathBuilder} class
+	 *
+	 * @param manager      The data flow manager that gives access to the icfg and
+	 *                     other objects
+	 * @param innerBuilder The path builder that reconstructs the actual paths
+	 * @param sourceFinder The path builder that finds the sources for the sinks
+	 *                     without reconstructing the paths
+	 */
+	public ScheduledPathBuilder(InfoflowManager manager, IAbstractionPathBuilder innerBuilder,
+			ContextInsensitiveSourceFinder sourceFinder) {
+		super(manager);
+		this.innerBuilder = innerBuilder;
+		this.sourceFinder = sourceFinder;
+	}
+
+	@Override
+	public void computeTaintPaths(Set<AbstractionAtSink> res) {
+		if (res == null || res.isEmpty())
+			return;
+
+		// Find the source-to-sink connections that we must report in any case
+		findSources(res);
+
+		// Process the cheap sinks first
+		List<AbstractionAtSink> scheduled = prioritize(res);
+		Set<Stmt> incompleteSinks = new HashSet<>();
+		int batchId = 1;
+		for (int start = 0; start < scheduled.size(); start += batchSize) {
+			List<AbstractionAtSink> batch = scheduled.subList(start, Math.min(start + batchSize, scheduled.size()));
+			if (terminationReason != null) {
+				// We are out of budget
+				for (AbstractionAtSink abs : batch)
+					incompleteSinks.add(abs.getSinkStmt());
+				continue;
+			}
+
+			logger.info("Running path reconstruction batch {} with {} elements", batchId++, batch.size());
+			innerBuilder.reset();
+			innerBuilder.computeTaintPaths(new LinkedHashSet<>(batch));
+			awaitCompletion(innerBuilder);
+
+			// If the batch was aborted, its paths may be incomplete
+			ISolverTerminationReason reason = innerBuilder.getTerminationReason();
+			if (reason != null) {
+				recordTerminationReason(reason);
+				for (AbstractionAtSink abs : batch)
+					incompleteSinks.add(abs.getSinkStmt());
+			}
+		}
+
+		if (!incompleteSinks.isEmpty()) {
+			logger.warn("Path reconstruction did not complete for {} sinks, reporting connections without paths",
+					incompleteSinks.size());
+			reportMissingConnections(incompleteSinks);
+		}
+	}
+
+	/**
+	 * Runs the source finder on the given abstractions at sinks
+	 *
+	 * @param res The abstractions at sinks for which to find the sources
+	 */
+	protected void findSources(Set<AbstractionAtSink> res) {
+		long beforeSourceFinder = System.nanoTime();
+		sourceFinder.reset();
+		sourceFinder.computeTaintPaths(res);
+		awaitCompletion(sourceFinder);
+		logger.info("Found {} source-to-sink connections in {} seconds", sourceFinder.getResults().numConnections(),
+				(System.nanoTime() - beforeSourceFinder) / 1E9);
+
+		ISolverTerminationReason reason = sourceFinder.getTerminationReason();
+		if (reason != null)
+			recordTerminationReason(reason);
+	}
+
+	/**
+	 * Sorts the given abstractions at sinks by their estimated path reconstruction
+	 * cost in ascending order
+	 *
+	 * @param res The abstractions at sinks to sort
+	 * @return The abstractions at sinks in the order in which they shall be
+	 *         processed
+	 */
+	protected List<AbstractionAtSink> prioritize(Set<AbstractionAtSink> res) {
+		final CanonicalOrder order = manager.getCanonicalOrder();
+		final Map<AbstractionAtSink, Long> costs = new HashMap<>(res.size());
+		final Map<AbstractionAtSink, Long> fingerprints = new HashMap<>(res.size());
+		for (AbstractionAtSink abs : res) {
+			costs.put(abs, estimateCost(abs.getAbstraction()));
+			fingerprints.put(abs, CanonicalOrder.combine(order.fingerprint(abs.getSinkStmt()),
+					order.fingerprint(abs.getAbstraction())));
+		}
+
+		List<AbstractionAtSink> sorted = new ArrayList<>(res);
+		sorted.sort((a1, a2) -> {
+			int c = Long.compare(costs.get(a1), costs.get(a2));
+			if (c != 0)
+				return c;
+			return Long.compare(fingerprints.get(a1), fingerprints.get(a2));
+		});
+		return sorted;
+	}
+
+	/**
+	 * Estimates the cost of reconstructing the paths for the given abstraction.
+	 * The estimate is based on the length of the predecessor chain and the number
+	 * of neighbors along that chain, since each neighbor may start another path.
+	 *
+	 * @param abs The abstraction at the sink
+	 * @return The estimated cost of reconstructing the paths for the given
+	 *         abstraction
+	 */
+	protected long estimateCost(Abstraction abs) {
+		long cost = 0;
+		int steps = 0;
+		for (Abstraction cur = abs; cur != null; cur = cur.getPredecessor()) {
+			cost += 1 + cur.getNeighborCount();
+			if (++steps >= MAX_COST_ESTIMATION_STEPS) {
+				// The path is too long, we assume that it continues similarly
+				cost += Math.max(0, abs.getPathLength() - steps);
+				break;
+			}
+		}
+		return cost;
+	}
+
+	/**
+	 * Reports the connections found by the source finder for the given sinks if
+	 * the inner path builder has not found them
+	 *
+	 * @param incompleteSinks The sink statements for which path reconstruction
+	 *                        did not complete
+	 */
+	protected void reportMissingConnections(Set<Stmt> incompleteSinks) {
+		final InfoflowResults results = innerBuilder.getResults();
+		Set<Pair<Stmt, Stmt>> knownConnections = new HashSet<>();
+		if (results.getResults() != null) {
+			for (ResultSinkInfo sink : results.getResults().keySet())
+				for (ResultSourceInfo source : results.getResults().get(sink))
+					knownConnections.add(new Pair<>(source.getStmt(), sink.getStmt()));
+		}
+
+		InfoflowResults connections = sourceFinder.getResults();
+		if (connections.getResults() == null)
+			return;
+		for (ResultSinkInfo sink : connections.getResults().keySet()) {
+			if (!incompleteSinks.contains(sink.getStmt()))
+				continue;
+			for (ResultSourceInfo source : connections.getResults().get(sink)) {
+				if (knownConnections.add(new Pair<>(source.getStmt(), sink.getStmt()))) {
+					results.addResult(sink, source);
+					if (resultAvailableHandlers != null)
+						for (OnPathBuilderResultAvailable handler : resultAvailableHandlers)
+							handler.onResultAvailable(source, sink);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until the given path builder has finished its work
+	 *
+	 * @param builder The builder to wait for
+	 */
+	private void awaitCompletion(IAbstractionPathBuilder builder) {
+		if (builder instanceof ConcurrentAbstractionPathBuilder) {
+			final InterruptableExecutor executor = ((ConcurrentAbstractionPathBuilder) builder).getExecutor();
+			try {
+				// The timeout watcher terminates the path builders when the budget is
+				// exhausted, so we do not need a timeout of our own
+				executor.awaitCompletion();
+			} catch (InterruptedException e) {
+				logger.error("Could not wait for executor termination", e);
+			}
+			executor.reset();
+		}
+	}
+
+	private synchronized void recordTerminationReason(ISolverTerminationReason reason) {
+		if (this.terminationReason == null)
+			this.terminationReason = reason;
+		else if (this.terminationReason != reason)
+			this.terminationReason = this.terminationReason.combine(reason);
+	}
+
+	@Override
+	public InfoflowResults getResults() {
+		return innerBuilder.getResults();
+	}
+
+	@Override
+	public void runIncrementalPathCompuation() {
+		innerBuilder.runIncrementalPathCompuation();
+	}
+
+	@Override
+	public void forceTerminate(ISolverTerminationReason reason) {
+		recordTerminationReason(reason);
+		innerBuilder.forceTerminate(reason);
+
+		// The source finder is cheap and guarantees that we report every connection,
+		// so we only stop it when we are running out of memory
+		if (!(reason instanceof TimeoutReason))
+			sourceFinder.forceTerminate(reason);
+	}
+
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		boolean applied = innerBuilder.relieveMemoryPressure(step);
+		applied |= sourceFinder.relieveMemoryPressure(step);
+		return applied;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return terminationReason != null || innerBuilder.isTerminated();
+	}
+
+	@Override
+	public boolean isKilled() {
+		return terminationReason != null;
+	}
+
+	@Override
+	public ISolverTerminationReason getTerminationReason() {
+		return terminationReason;
+	}
+
+	@Override
+	public void reset() {
+		innerBuilder.reset();
+		sourceFinder.reset();
+		terminationReason = null;
+	}
+
+	@Override
+	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
+		innerBuilder.addStatusListener(listener);
+	}
+
+	@Override
+	public void addResultAvailableHandler(OnPathBuilderResultAvailable handler) {
+		super.addResultAvailableHandler(handler);
+		innerBuilder.addResultAvailableHandler(handler);
+	}
+
+	/**
+	 * Sets the number of abstractions at sinks that shall be forwarded to the inner
+	 * path builder at the same time
+	 *
+	 * @param batchSize The number of abstractions in one batch
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+}
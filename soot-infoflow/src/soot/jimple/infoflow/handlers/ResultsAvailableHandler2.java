@@ -7,6 +7,12 @@ import soot.jimple.infoflow.results.ResultSourceInfo;
  * Extended handler that is used to notify clients not only when the data flow
  * analysis has finished, but also when individual results are available.
  * 
+ * Individual results are only reported if incremental result reporting is
+ * enabled. The handler is called on the thread that has reconstructed the
+ * result. A handler that cannot keep up with the analysis may block in
+ * {@link #onSingleResultAvailable(ResultSourceInfo, ResultSinkInfo)}, which
+ * slows down the analysis until the handler has caught up.
+ * 
  * @author Steven Arzt
  *
  */
@@ -16,7 +22,8 @@ public interface ResultsAvailableHandler2 extends ResultsAvailableHandler {
 	 * Notifies the handler that a new data flow result is available
 	 * @param source The source from which the data flow originated
 	 * @param sinks The sink at which the data flow ended
-	 * @return True if the data flow analysis shall continue, otherwise false
+	 * @return True if the data flow analysis shall continue, false if the data
+	 *         flow analysis shall be aborted
 	 */
 	public boolean onSingleResultAvailable(ResultSourceInfo source,
 			ResultSinkInfo sinks);
@@ -1,5 +1,7 @@
 package soot.jimple.infoflow.memory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -8,7 +10,9 @@ import org.slf4j.LoggerFactory;
 import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.memory.MemoryWarningSystem.OnMemoryThresholdReached;
 import soot.jimple.infoflow.memory.reasons.OutOfMemoryReason;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.memory.IMemoryManager;
 
 /**
  * FlowDroid's implementation of a handler for the memory warning system
@@ -18,12 +22,21 @@ import soot.jimple.infoflow.results.InfoflowResults;
  */
 public class FlowDroidMemoryWatcher {
 
+	/**
+	 * The distance between the thresholds of two consecutive back-pressure steps
+	 * as a fraction of the overall memory
+	 */
+	private static final double BACK_PRESSURE_STEP_DISTANCE = 0.05d;
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 	private final MemoryWarningSystem warningSystem = new MemoryWarningSystem();
+	private final List<MemoryWarningSystem> backPressureSystems = new ArrayList<>();
+	private final double threshold;
 
 	private final Set<IMemoryBoundedSolver> solvers = new ConcurrentHashSet<>();
 	private final InfoflowResults results;
 	private ISolversTerminatedCallback terminationCallback = null;
+	private volatile IMemoryManager<?, ?> memoryManager = null;
 
 	/**
 	 * Creates a new instance of the {@link FlowDroidMemoryWatcher} class
@@ -76,6 +89,64 @@ public class FlowDroidMemoryWatcher {
 		});
 		warningSystem.setWarningThreshold(threshold);
 		this.results = res;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Enables a graded response to memory pressure. Before the solvers are
+	 * terminated at the memory threshold, they are asked to apply the steps from
+	 * {@link MemoryPressureStep} one after another at lower thresholds in order to
+	 * reduce their memory consumption at the expense of precision.
+	 */
+	public void enableBackPressure() {
+		final MemoryPressureStep[] steps = MemoryPressureStep.values();
+		for (int i = 0; i < steps.length; i++) {
+			final double stepThreshold = threshold - (steps.length - i) * BACK_PRESSURE_STEP_DISTANCE;
+			if (stepThreshold <= 0)
+				continue;
+
+			final MemoryPressureStep step = steps[i];
+			MemoryWarningSystem stepSystem = new MemoryWarningSystem();
+			stepSystem.addListener(new OnMemoryThresholdReached() {
+
+				@Override
+				public void onThresholdReached(long usedMemory, long maxMemory) {
+					relieveMemoryPressure(step);
+				}
+
+			});
+			stepSystem.setWarningThreshold(stepThreshold);
+			backPressureSystems.add(stepSystem);
+		}
+	}
+
+	/**
+	 * Asks all registered solvers to apply the given step to reduce their memory
+	 * consumption
+	 * 
+	 * @param step The step to apply
+	 * @return True if at least one solver has applied the given step, otherwise
+	 *         false
+	 */
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		boolean applied = false;
+		for (IMemoryBoundedSolver solver : solvers)
+			applied |= solver.relieveMemoryPressure(step);
+		if (applied) {
+			logger.warn("Running low on memory, solvers applied step {}", step);
+
+			// Objects that the memory manager cached before the step are less likely to
+			// be needed again
+			IMemoryManager<?, ?> manager = memoryManager;
+			if (manager != null)
+				manager.startNewGeneration();
+			if (results != null) {
+				InfoflowPerformanceData performanceData = results.getPerformanceData();
+				if (performanceData != null)
+					performanceData.addMemoryPressureStep(step);
+			}
+		}
+		return applied;
 	}
 
 	/**
@@ -112,6 +183,9 @@ public class FlowDroidMemoryWatcher {
 	public void close() {
 		clearSolvers();
 		warningSystem.close();
+		for (MemoryWarningSystem stepSystem : backPressureSystems)
+			stepSystem.close();
+		backPressureSystems.clear();
 	}
 
 	/**
@@ -142,4 +216,16 @@ public class FlowDroidMemoryWatcher {
 		this.terminationCallback = terminationCallback;
 	}
 
+	/**
+	 * Sets the memory manager that is used by the registered solvers. The memory
+	 * manager starts a new generation of its caches whenever the solvers apply a
+	 * step of memory back-pressure.
+	 * 
+	 * @param memoryManager The memory manager of the registered solvers, or
+	 *                      <code>null</code> to not notify any memory manager
+	 */
+	public void setMemoryManager(IMemoryManager<?, ?> memoryManager) {
+		this.memoryManager = memoryManager;
+	}
+
 }
@@ -42,6 +42,20 @@ public interface IMemoryBoundedSolver {
 	 */
 	public void forceTerminate(ISolverTerminationReason reason);
 
+	/**
+	 * Asks the solver to reduce its memory consumption by applying the given
+	 * step. This is done before the solver is forcefully terminated, so that the
+	 * analysis can still produce results, albeit with less precision.
+	 * 
+	 * @param step
+	 *            The step to apply
+	 * @return True if the solver has applied the given step, false if the step
+	 *         is not supported by this solver
+	 */
+	public default boolean relieveMemoryPressure(MemoryPressureStep step) {
+		return false;
+	}
+
 	/**
 	 * Checks whether this solver is terminated, either by forced termination,
 	 * or because it has finished all of its work.
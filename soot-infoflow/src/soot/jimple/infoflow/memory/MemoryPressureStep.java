@@ -0,0 +1,28 @@
+package soot.jimple.infoflow.memory;
+
+/**
+ * Steps that a memory-bounded solver can take to reduce its memory consumption
+ * before it needs to be terminated. The steps are ordered by the amount of
+ * precision that they sacrifice, i.e., earlier steps are applied first.
+ */
+public enum MemoryPressureStep {
+
+	/**
+	 * Connect the abstractions at return sites directly to the abstractions at the
+	 * call site, so that the abstractions inside the callee can be garbage
+	 * collected. The propagation paths then skip over the callees.
+	 */
+	ShortenPredecessors,
+
+	/**
+	 * Drop the neighbors of the abstractions at join points and stop recording
+	 * new ones. Only one propagation path is then retained per abstraction.
+	 */
+	DropNeighbors,
+
+	/**
+	 * Reduce the maximum access path length for newly created abstractions
+	 */
+	ReduceAccessPathLength
+
+}
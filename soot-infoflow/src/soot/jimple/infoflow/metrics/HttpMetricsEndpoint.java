@@ -0,0 +1,77 @@
+package soot.jimple.infoflow.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal HTTP server that serves the latest metrics of a running data flow
+ * analysis as JSON under <code>/metrics</code>. The server only binds to the
+ * loopback interface.
+ */
+public class HttpMetricsEndpoint implements ISolverMetricsListener, Closeable {
+
+	/**
+	 * The path under which the metrics are served
+	 */
+	public static final String CONTEXT_PATH = "/metrics";
+
+	private final HttpServer server;
+	private volatile String json = "{}";
+
+	/**
+	 * Creates a new HTTP endpoint and starts serving requests
+	 *
+	 * @param port The port on which to listen, or 0 to pick a free port
+	 * @throws IOException If the server socket could not be opened
+	 */
+	public HttpMetricsEndpoint(int port) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext(CONTEXT_PATH, this::handle);
+		server.setExecutor(null);
+		server.start();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			byte[] body = json.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(body);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Gets the port on which this endpoint is listening
+	 *
+	 * @return The port of this endpoint
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void notifyMetrics(SolverMetricsSnapshot snapshot) {
+		this.json = snapshot.toJson();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+}
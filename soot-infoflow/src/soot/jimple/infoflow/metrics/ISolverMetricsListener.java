@@ -0,0 +1,22 @@
+package soot.jimple.infoflow.metrics;
+
+/**
+ * Interface for components that want to observe the metrics of a running data
+ * flow analysis. Implementations can either be registered programmatically or
+ * through the Java {@link java.util.ServiceLoader} mechanism, i.e., by listing
+ * them in a
+ * <code>META-INF/services/soot.jimple.infoflow.metrics.ISolverMetricsListener</code>
+ * file on the class path.
+ */
+public interface ISolverMetricsListener {
+
+	/**
+	 * Notifies the listener about the current metrics of the data flow analysis.
+	 * This method is called periodically while the solvers are running, and once
+	 * more after they have terminated.
+	 *
+	 * @param snapshot The current metrics
+	 */
+	public void notifyMetrics(SolverMetricsSnapshot snapshot);
+
+}
@@ -0,0 +1,115 @@
+package soot.jimple.infoflow.metrics;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the metrics of a running data flow analysis as a JMX bean, so that
+ * they can be inspected with tools such as JConsole or VisualVM
+ */
+public class JmxMetricsEndpoint implements ISolverMetricsListener, SolverMetricsMXBean, Closeable {
+
+	/**
+	 * The name under which the metrics bean is registered
+	 */
+	public static final String OBJECT_NAME = "soot.jimple.infoflow:type=SolverMetrics";
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final ObjectName objectName;
+	private volatile SolverMetricsSnapshot snapshot = null;
+
+	/**
+	 * Creates a new JMX endpoint and registers it with the platform bean server.
+	 * An endpoint of a previous analysis run is replaced.
+	 *
+	 * @throws JMException If the bean could not be registered
+	 */
+	public JmxMetricsEndpoint() throws JMException {
+		this.objectName = new ObjectName(OBJECT_NAME);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if (server.isRegistered(objectName))
+			server.unregisterMBean(objectName);
+		server.registerMBean(this, objectName);
+	}
+
+	@Override
+	public void notifyMetrics(SolverMetricsSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	public long getPropagatedEdges() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? 0 : s.getPropagatedEdges();
+	}
+
+	@Override
+	public double getEdgesPerSecond() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? 0 : s.getEdgesPerSecond();
+	}
+
+	@Override
+	public long getQueueDepth() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? 0 : s.getQueueDepth();
+	}
+
+	@Override
+	public long getFlowFunctionCacheHits() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? 0 : s.getFlowFunctionCacheHits();
+	}
+
+	@Override
+	public long getFlowFunctionCacheMisses() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? 0 : s.getFlowFunctionCacheMisses();
+	}
+
+	@Override
+	public double getFlowFunctionCacheHitRate() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? 0 : s.getFlowFunctionCacheHitRate();
+	}
+
+	@Override
+	public long getMemoryManagerReuseCount() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? -1 : s.getMemoryManagerReuseCount();
+	}
+
+	@Override
+	public String[] getHotMethods() {
+		SolverMetricsSnapshot s = snapshot;
+		if (s == null)
+			return new String[0];
+		return s.getHotMethods().stream().map(Object::toString).toArray(String[]::new);
+	}
+
+	@Override
+	public String getJson() {
+		SolverMetricsSnapshot s = snapshot;
+		return s == null ? "{}" : s.toJson();
+	}
+
+	@Override
+	public void close() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+		} catch (JMException e) {
+			logger.warn("Could not unregister the solver metrics bean", e);
+		}
+	}
+
+}
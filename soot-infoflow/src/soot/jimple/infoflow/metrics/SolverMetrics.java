@@ -0,0 +1,180 @@
+package soot.jimple.infoflow.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.common.cache.CacheStats;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
+import soot.jimple.infoflow.metrics.SolverMetricsSnapshot.MethodEdgeCount;
+
+/**
+ * Live metrics of a running data flow analysis. The solvers and the data flow
+ * problem record events in this object while they are running. All counters
+ * are striped, so that recording an event does not require synchronization
+ * between the worker threads. Consistent views on the metrics are obtained
+ * through {@link #createSnapshot(int)}.
+ */
+public class SolverMetrics {
+
+	private final long startTime = System.nanoTime();
+
+	private final LongAdder propagatedEdges = new LongAdder();
+	private final ConcurrentMap<SootMethod, LongAdder> methodEdges = new ConcurrentHashMap<>();
+	private final LongAdder[] flowFunctions = new LongAdder[FlowFunctionType.values().length];
+
+	private final List<LongSupplier> queueDepthSources = new CopyOnWriteArrayList<>();
+	private final List<Supplier<CacheStats>> cacheStatsSources = new CopyOnWriteArrayList<>();
+	private volatile LongSupplier reuseCountSource = null;
+
+	private long lastSnapshotTime = startTime;
+	private long lastSnapshotEdges = 0;
+
+	public SolverMetrics() {
+		for (int i = 0; i < flowFunctions.length; i++)
+			flowFunctions[i] = new LongAdder();
+	}
+
+	/**
+	 * Records that a new edge has been scheduled for propagation
+	 *
+	 * @param method The method that contains the target statement of the edge
+	 */
+	public void recordEdge(SootMethod method) {
+		propagatedEdges.increment();
+		if (method != null) {
+			LongAdder counter = methodEdges.get(method);
+			if (counter == null)
+				counter = methodEdges.computeIfAbsent(method, m -> new LongAdder());
+			counter.increment();
+		}
+	}
+
+	/**
+	 * Records that a flow function of the given type has been applied
+	 *
+	 * @param type The type of flow function
+	 */
+	public void recordFlowFunction(FlowFunctionType type) {
+		flowFunctions[type.ordinal()].increment();
+	}
+
+	/**
+	 * Adds a source for the number of edges that are waiting to be processed, e.g.,
+	 * the executor of a solver
+	 *
+	 * @param source The source that reports the current queue depth
+	 */
+	public void addQueueDepthSource(LongSupplier source) {
+		queueDepthSources.add(source);
+	}
+
+	/**
+	 * Adds a source for the statistics of a flow function cache
+	 *
+	 * @param source The source that reports the cache statistics
+	 */
+	public void addFlowFunctionCacheSource(Supplier<CacheStats> source) {
+		cacheStatsSources.add(source);
+	}
+
+	/**
+	 * Sets the source for the number of objects that the memory manager has
+	 * re-used instead of keeping a duplicate
+	 *
+	 * @param source The source that reports the reuse count of the memory manager
+	 */
+	public void setMemoryManagerReuseSource(LongSupplier source) {
+		this.reuseCountSource = source;
+	}
+
+	/**
+	 * Gets the total number of edges that have been scheduled for propagation so
+	 * far
+	 *
+	 * @return The total number of propagated edges
+	 */
+	public long getPropagatedEdges() {
+		return propagatedEdges.sum();
+	}
+
+	/**
+	 * Creates a snapshot of the current metrics. The edge rate in the snapshot is
+	 * computed relative to the previous snapshot.
+	 *
+	 * @param hotMethodCount The maximum number of hot methods to include in the
+	 *                       snapshot
+	 * @return The snapshot of the current metrics
+	 */
+	public synchronized SolverMetricsSnapshot createSnapshot(int hotMethodCount) {
+		final long now = System.nanoTime();
+		final long edges = propagatedEdges.sum();
+		double edgesPerSecond = now > lastSnapshotTime ? (edges - lastSnapshotEdges) / ((now - lastSnapshotTime) / 1E9)
+				: 0;
+		lastSnapshotTime = now;
+		lastSnapshotEdges = edges;
+
+		long queueDepth = 0;
+		for (LongSupplier source : queueDepthSources)
+			queueDepth += source.getAsLong();
+
+		long cacheHits = 0;
+		long cacheMisses = 0;
+		for (Supplier<CacheStats> source : cacheStatsSources) {
+			CacheStats stats = source.get();
+			if (stats != null) {
+				cacheHits += stats.hitCount();
+				cacheMisses += stats.missCount();
+			}
+		}
+
+		Map<FlowFunctionType, Long> flowFunctionCounts = new EnumMap<>(FlowFunctionType.class);
+		for (FlowFunctionType type : FlowFunctionType.values())
+			flowFunctionCounts.put(type, flowFunctions[type.ordinal()].sum());
+
+		LongSupplier reuseSource = reuseCountSource;
+		long reuseCount = reuseSource == null ? -1 : reuseSource.getAsLong();
+
+		return new SolverMetricsSnapshot(System.currentTimeMillis(), (now - startTime) / 1000000, edges,
+				edgesPerSecond, queueDepth, flowFunctionCounts, cacheHits, cacheMisses, reuseCount,
+				getHotMethods(hotMethodCount));
+	}
+
+	/**
+	 * Gets the methods in which the most edges have been propagated
+	 *
+	 * @param count The maximum number of methods to return
+	 * @return The hot methods, ordered by decreasing number of edges
+	 */
+	private List<MethodEdgeCount> getHotMethods(int count) {
+		if (count <= 0)
+			return Collections.emptyList();
+
+		PriorityQueue<MethodEdgeCount> topMethods = new PriorityQueue<>(count + 1,
+				(m1, m2) -> Long.compare(m1.getEdges(), m2.getEdges()));
+		for (Map.Entry<SootMethod, LongAdder> entry : methodEdges.entrySet()) {
+			long edges = entry.getValue().sum();
+			if (topMethods.size() < count || topMethods.peek().getEdges() < edges) {
+				topMethods.add(new MethodEdgeCount(entry.getKey().getSignature(), edges));
+				if (topMethods.size() > count)
+					topMethods.poll();
+			}
+		}
+
+		List<MethodEdgeCount> hotMethods = new ArrayList<>(topMethods);
+		hotMethods.sort((m1, m2) -> Long.compare(m2.getEdges(), m1.getEdges()));
+		return hotMethods;
+	}
+
+}
@@ -0,0 +1,32 @@
+package soot.jimple.infoflow.metrics;
+
+/**
+ * Management interface through which the metrics of a running data flow
+ * analysis are exposed via JMX
+ */
+public interface SolverMetricsMXBean {
+
+	public long getPropagatedEdges();
+
+	public double getEdgesPerSecond();
+
+	public long getQueueDepth();
+
+	public long getFlowFunctionCacheHits();
+
+	public long getFlowFunctionCacheMisses();
+
+	public double getFlowFunctionCacheHitRate();
+
+	public long getMemoryManagerReuseCount();
+
+	public String[] getHotMethods();
+
+	/**
+	 * Gets the complete current metrics as a JSON object
+	 *
+	 * @return The current metrics in JSON format
+	 */
+	public String getJson();
+
+}
@@ -0,0 +1,166 @@
+package soot.jimple.infoflow.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.util.ThreadUtils;
+
+/**
+ * Periodically takes snapshots of the {@link SolverMetrics} of a running data
+ * flow analysis and hands them to the registered listeners
+ */
+public class SolverMetricsReporter {
+
+	/**
+	 * The number of hot methods that are included in each snapshot
+	 */
+	public static final int DEFAULT_HOT_METHOD_COUNT = 10;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final SolverMetrics metrics;
+	private final long interval;
+	private final List<ISolverMetricsListener> listeners = new CopyOnWriteArrayList<>();
+	private final List<Closeable> endpoints = new CopyOnWriteArrayList<>();
+	private int hotMethodCount = DEFAULT_HOT_METHOD_COUNT;
+
+	private volatile boolean stopped = false;
+	private Thread reporterThread = null;
+	private SolverMetricsSnapshot lastSnapshot = null;
+
+	/**
+	 * Creates a new instance of the {@link SolverMetricsReporter} class
+	 *
+	 * @param metrics  The metrics to report
+	 * @param interval The interval between two snapshots in seconds
+	 */
+	public SolverMetricsReporter(SolverMetrics metrics, long interval) {
+		this.metrics = metrics;
+		this.interval = Math.max(1, interval);
+	}
+
+	/**
+	 * Adds a listener that shall receive the metrics snapshots
+	 *
+	 * @param listener The listener to add
+	 */
+	public void addListener(ISolverMetricsListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Loads all listeners that are registered through the Java service loader
+	 *
+	 * @return The listeners that are registered through the Java service loader
+	 */
+	public static List<ISolverMetricsListener> loadServiceListeners() {
+		List<ISolverMetricsListener> serviceListeners = new ArrayList<>();
+		for (ISolverMetricsListener listener : ServiceLoader.load(ISolverMetricsListener.class))
+			serviceListeners.add(listener);
+		return serviceListeners;
+	}
+
+	/**
+	 * Adds an endpoint that receives the metrics snapshots and that is owned by
+	 * this reporter, i.e., that is closed when the reporter is stopped
+	 *
+	 * @param endpoint The endpoint to add
+	 */
+	public <T extends ISolverMetricsListener & Closeable> void addEndpoint(T endpoint) {
+		listeners.add(endpoint);
+		endpoints.add(endpoint);
+	}
+
+	/**
+	 * Sets the number of hot methods that are included in each snapshot
+	 *
+	 * @param hotMethodCount The number of hot methods per snapshot
+	 */
+	public void setHotMethodCount(int hotMethodCount) {
+		this.hotMethodCount = hotMethodCount;
+	}
+
+	/**
+	 * Starts the reporter thread
+	 */
+	public void start() {
+		this.stopped = false;
+		reporterThread = ThreadUtils.createGenericThread(new Runnable() {
+
+			@Override
+			public void run() {
+				long intervalMillis = TimeUnit.SECONDS.toMillis(interval);
+				while (!stopped) {
+					try {
+						Thread.sleep(intervalMillis);
+					} catch (InterruptedException e) {
+						// We have been woken up to terminate
+					}
+					if (!stopped)
+						report();
+				}
+			}
+
+		}, "FlowDroid Metrics Reporter", true);
+		reporterThread.start();
+	}
+
+	/**
+	 * Stops the reporter thread, hands a final snapshot to the listeners, and
+	 * closes all endpoints owned by this reporter
+	 */
+	public void stop() {
+		if (stopped)
+			return;
+		this.stopped = true;
+		if (reporterThread != null) {
+			reporterThread.interrupt();
+			reporterThread = null;
+		}
+		report();
+
+		for (Closeable endpoint : endpoints) {
+			try {
+				endpoint.close();
+			} catch (IOException e) {
+				logger.warn("Could not close metrics endpoint", e);
+			}
+		}
+		endpoints.clear();
+	}
+
+	/**
+	 * Takes a snapshot of the current metrics and hands it to all listeners
+	 */
+	private synchronized void report() {
+		SolverMetricsSnapshot snapshot = metrics.createSnapshot(hotMethodCount);
+		lastSnapshot = snapshot;
+		logger.debug("Solver metrics: {}", snapshot);
+		for (ISolverMetricsListener listener : listeners) {
+			try {
+				listener.notifyMetrics(snapshot);
+			} catch (RuntimeException e) {
+				logger.warn("Metrics listener failed", e);
+			}
+		}
+	}
+
+	/**
+	 * Gets the snapshot that has most recently been handed to the listeners
+	 *
+	 * @return The most recent snapshot, or <code>null</code> if no snapshot has
+	 *         been taken yet
+	 */
+	public synchronized SolverMetricsSnapshot getLastSnapshot() {
+		return lastSnapshot;
+	}
+
+}
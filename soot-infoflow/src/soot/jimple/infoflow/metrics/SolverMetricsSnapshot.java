@@ -0,0 +1,242 @@
+package soot.jimple.infoflow.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
+
+/**
+ * Immutable view on the metrics of a data flow analysis at a given point in
+ * time
+ */
+public class SolverMetricsSnapshot {
+
+	/**
+	 * The number of edges that have been propagated in a single method
+	 */
+	public static class MethodEdgeCount {
+
+		private final String signature;
+		private final long edges;
+
+		public MethodEdgeCount(String signature, long edges) {
+			this.signature = signature;
+			this.edges = edges;
+		}
+
+		public String getSignature() {
+			return signature;
+		}
+
+		public long getEdges() {
+			return edges;
+		}
+
+		@Override
+		public String toString() {
+			return signature + ": " + edges;
+		}
+
+	}
+
+	private final long timestamp;
+	private final long elapsedMillis;
+	private final long propagatedEdges;
+	private final double edgesPerSecond;
+	private final long queueDepth;
+	private final Map<FlowFunctionType, Long> flowFunctionCounts;
+	private final long flowFunctionCacheHits;
+	private final long flowFunctionCacheMisses;
+	private final long memoryManagerReuseCount;
+	private final List<MethodEdgeCount> hotMethods;
+
+	SolverMetricsSnapshot(long timestamp, long elapsedMillis, long propagatedEdges, double edgesPerSecond,
+			long queueDepth, Map<FlowFunctionType, Long> flowFunctionCounts, long flowFunctionCacheHits,
+			long flowFunctionCacheMisses, long memoryManagerReuseCount, List<MethodEdgeCount> hotMethods) {
+		this.timestamp = timestamp;
+		this.elapsedMillis = elapsedMillis;
+		this.propagatedEdges = propagatedEdges;
+		this.edgesPerSecond = edgesPerSecond;
+		this.queueDepth = queueDepth;
+		this.flowFunctionCounts = Collections.unmodifiableMap(flowFunctionCounts);
+		this.flowFunctionCacheHits = flowFunctionCacheHits;
+		this.flowFunctionCacheMisses = flowFunctionCacheMisses;
+		this.memoryManagerReuseCount = memoryManagerReuseCount;
+		this.hotMethods = Collections.unmodifiableList(hotMethods);
+	}
+
+	/**
+	 * Gets the wall clock time at which this snapshot was taken
+	 *
+	 * @return The time at which this snapshot was taken, in milliseconds since the
+	 *         epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the time that has passed since the metrics collection was started
+	 *
+	 * @return The elapsed time in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * Gets the total number of edges that have been scheduled for propagation
+	 *
+	 * @return The total number of propagated edges
+	 */
+	public long getPropagatedEdges() {
+		return propagatedEdges;
+	}
+
+	/**
+	 * Gets the number of edges per second that have been propagated since the
+	 * previous snapshot
+	 *
+	 * @return The current edge rate
+	 */
+	public double getEdgesPerSecond() {
+		return edgesPerSecond;
+	}
+
+	/**
+	 * Gets the number of edges that are waiting to be processed by the solvers
+	 *
+	 * @return The current queue depth
+	 */
+	public long getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * Gets how often each type of flow function has been applied
+	 *
+	 * @return The number of flow function applications per type
+	 */
+	public Map<FlowFunctionType, Long> getFlowFunctionCounts() {
+		return flowFunctionCounts;
+	}
+
+	/**
+	 * Gets the number of flow function lookups that were answered from the flow
+	 * function caches
+	 *
+	 * @return The number of cache hits
+	 */
+	public long getFlowFunctionCacheHits() {
+		return flowFunctionCacheHits;
+	}
+
+	/**
+	 * Gets the number of flow function lookups that required a new flow function
+	 * to be created
+	 *
+	 * @return The number of cache misses
+	 */
+	public long getFlowFunctionCacheMisses() {
+		return flowFunctionCacheMisses;
+	}
+
+	/**
+	 * Gets the ratio of flow function lookups that were answered from the caches
+	 *
+	 * @return The cache hit rate between 0 and 1, or 0 if no lookups have happened
+	 *         yet
+	 */
+	public double getFlowFunctionCacheHitRate() {
+		long total = flowFunctionCacheHits + flowFunctionCacheMisses;
+		return total == 0 ? 0 : (double) flowFunctionCacheHits / total;
+	}
+
+	/**
+	 * Gets the number of abstractions that the memory manager has replaced with an
+	 * equivalent existing one
+	 *
+	 * @return The reuse count of the memory manager, or -1 if the memory manager
+	 *         does not track this information
+	 */
+	public long getMemoryManagerReuseCount() {
+		return memoryManagerReuseCount;
+	}
+
+	/**
+	 * Gets the methods in which the most edges have been propagated
+	 *
+	 * @return The hot methods, ordered by decreasing number of edges
+	 */
+	public List<MethodEdgeCount> getHotMethods() {
+		return hotMethods;
+	}
+
+	/**
+	 * Serializes this snapshot into a JSON object
+	 *
+	 * @return The JSON representation of this snapshot
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"timestamp\":").append(timestamp);
+		sb.append(",\"elapsedMillis\":").append(elapsedMillis);
+		sb.append(",\"propagatedEdges\":").append(propagatedEdges);
+		sb.append(",\"edgesPerSecond\":").append(String.format(Locale.ROOT, "%.1f", edgesPerSecond));
+		sb.append(",\"queueDepth\":").append(queueDepth);
+		sb.append(",\"flowFunctions\":{");
+		boolean first = true;
+		for (Map.Entry<FlowFunctionType, Long> entry : flowFunctionCounts.entrySet()) {
+			if (!first)
+				sb.append(',');
+			sb.append('"').append(entry.getKey().name()).append("\":").append(entry.getValue());
+			first = false;
+		}
+		sb.append('}');
+		sb.append(",\"flowFunctionCache\":{\"hits\":").append(flowFunctionCacheHits);
+		sb.append(",\"misses\":").append(flowFunctionCacheMisses).append('}');
+		sb.append(",\"memoryManagerReuseCount\":").append(memoryManagerReuseCount);
+		sb.append(",\"hotMethods\":[");
+		first = true;
+		for (MethodEdgeCount method : hotMethods) {
+			if (!first)
+				sb.append(',');
+			sb.append("{\"method\":");
+			appendJsonString(sb, method.getSignature());
+			sb.append(",\"edges\":").append(method.getEdges()).append('}');
+			first = false;
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+
+	private static void appendJsonString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			default:
+				if (c < 0x20)
+					sb.append(String.format("\\u%04x", (int) c));
+				else
+					sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d edges (%.1f/s), queue depth %d, flow function cache hit rate %.2f",
+				propagatedEdges, edgesPerSecond, queueDepth, getFlowFunctionCacheHitRate());
+	}
+
+}
@@ -30,6 +30,7 @@ import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.handlers.TaintPropagationHandler;
 import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
+import soot.jimple.infoflow.metrics.SolverMetrics;
 import soot.jimple.infoflow.nativeCallHandler.INativeCallHandler;
 import soot.jimple.infoflow.problems.rules.IPropagationRuleManagerFactory;
 import soot.jimple.infoflow.problems.rules.PropagationRuleManager;
@@ -62,6 +63,7 @@ public abstract class AbstractInfoflowProblem
 	protected IInfoflowSolver solver = null;
 
 	protected TaintPropagationHandler taintPropagationHandler = null;
+	protected SolverMetrics metrics = null;
 
 	private MyConcurrentHashMap<Unit, Set<Unit>> activationUnitsToCallSites = new MyConcurrentHashMap<Unit, Set<Unit>>();
 
@@ -228,6 +230,17 @@ public abstract class AbstractInfoflowProblem
 		this.taintPropagationHandler = handler;
 	}
 
+	/**
+	 * Sets the object in which the applications of flow functions shall be
+	 * recorded
+	 * 
+	 * @param metrics The metrics object, or <code>null</code> to disable metrics
+	 *                collection
+	 */
+	public void setSolverMetrics(SolverMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	@Override
 	public Abstraction createZeroValue() {
 		if (zeroValue == null)
@@ -269,6 +282,8 @@ public abstract class AbstractInfoflowProblem
 	 */
 	protected Set<Abstraction> notifyOutFlowHandlers(Unit stmt, Abstraction d1, Abstraction incoming,
 			Set<Abstraction> outgoing, FlowFunctionType functionType) {
+		if (metrics != null)
+			metrics.recordFlowFunction(functionType);
 		if (taintPropagationHandler != null && outgoing != null && !outgoing.isEmpty())
 			outgoing = taintPropagationHandler.notifyFlowOut(stmt, d1, incoming, outgoing, manager, functionType);
 		return outgoing;
@@ -8,6 +8,8 @@ import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.CanonicalOrder;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.infoflow.util.SystemClassHandler;
 
@@ -39,6 +41,7 @@ public class TaintPropagationResults {
 	protected final MyConcurrentHashMap<AbstractionAtSink, Abstraction> results = new MyConcurrentHashMap<AbstractionAtSink, Abstraction>();
 
 	protected final Set<OnTaintPropagationResultAdded> resultAddedHandlers = new HashSet<>();
+	private volatile boolean deferredAbort = false;
 
 	/**
 	 * Creates a new instance of the TaintPropagationResults class
@@ -61,6 +64,28 @@ public class TaintPropagationResults {
 				manager.getICFG().getMethodOf(resultAbs.getSinkStmt()).getDeclaringClass().getName()))
 			return true;
 
+		// In deterministic mode, results are only recorded at the end of the current
+		// epoch
+		DeterministicExecutor executor = DeterministicExecutor.getCurrentExecutor();
+		if (executor != null) {
+			final AbstractionAtSink deferredAbs = resultAbs;
+			CanonicalOrder order = manager.getCanonicalOrder();
+			executor.defer(
+					CanonicalOrder.combine(order.fingerprint(resultAbs.getSinkStmt()),
+							order.fingerprint(resultAbs.getAbstraction())),
+					() -> deferredAbort |= !recordResult(deferredAbs));
+			return !deferredAbort;
+		}
+		return recordResult(resultAbs);
+	}
+
+	/**
+	 * Records a new result of the data flow analysis and notifies the handlers
+	 * 
+	 * @param resultAbs The abstraction at the sink instruction
+	 * @return True if the data flow analysis shall continue, otherwise false
+	 */
+	private boolean recordResult(AbstractionAtSink resultAbs) {
 		// Construct the abstraction at the sink
 		Abstraction abs = resultAbs.getAbstraction();
 		abs = abs.deriveNewAbstraction(abs.getAccessPath(), resultAbs.getSinkStmt());
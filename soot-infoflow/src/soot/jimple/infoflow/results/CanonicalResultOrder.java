@@ -0,0 +1,130 @@
+package soot.jimple.infoflow.results;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Orders data flow results by their textual representation, i.e., by the
+ * methods, statements, access paths and taint paths that are written out when
+ * the results are reported. This order is the same in every analysis run,
+ * regardless of the order in which the results were found.
+ */
+public class CanonicalResultOrder {
+
+	private final IInfoflowCFG icfg;
+
+	/**
+	 * Creates a new instance of the {@link CanonicalResultOrder} class
+	 *
+	 * @param icfg The interprocedural control flow graph that is used to find the
+	 *             methods of the statements. May be <code>null</code>, in which
+	 *             case results are only ordered by their statements.
+	 */
+	public CanonicalResultOrder(IInfoflowCFG icfg) {
+		this.icfg = icfg;
+	}
+
+	/**
+	 * Sorts the given sinks into the canonical order
+	 *
+	 * @param sinks The sinks to sort
+	 * @return The sinks in the canonical order
+	 */
+	public List<ResultSinkInfo> sortSinks(Collection<ResultSinkInfo> sinks) {
+		return sort(sinks);
+	}
+
+	/**
+	 * Sorts the given sources into the canonical order. Sources that only differ in
+	 * their taint paths are ordered by their taint paths.
+	 *
+	 * @param sources The sources to sort
+	 * @return The sources in the canonical order
+	 */
+	public List<ResultSourceInfo> sortSources(Collection<ResultSourceInfo> sources) {
+		return sort(sources);
+	}
+
+	/**
+	 * Sorts the given data flow results into the canonical order, i.e., by sink
+	 * first and by source second
+	 *
+	 * @param results The results to sort
+	 * @return The results in the canonical order
+	 */
+	public List<DataFlowResult> sortResults(Collection<DataFlowResult> results) {
+		final Map<DataFlowResult, String> keys = new IdentityHashMap<>();
+		for (DataFlowResult result : results)
+			keys.put(result, getKey(result.getSink()) + "\n" + getKey(result.getSource()));
+		List<DataFlowResult> sorted = new ArrayList<>(results);
+		sorted.sort(Comparator.comparing(keys::get));
+		return sorted;
+	}
+
+	private <T extends AbstractResultSourceSinkInfo> List<T> sort(Collection<T> infos) {
+		final Map<T, String> keys = new IdentityHashMap<>();
+		for (T info : infos)
+			keys.put(info, getKey(info));
+		List<T> sorted = new ArrayList<>(infos);
+		sorted.sort(Comparator.comparing(keys::get));
+		return sorted;
+	}
+
+	/**
+	 * Gets the textual key by which the given source or sink is ordered
+	 *
+	 * @param info The source or sink
+	 * @return The key of the given source or sink
+	 */
+	private String getKey(AbstractResultSourceSinkInfo info) {
+		StringBuilder sb = new StringBuilder();
+		appendStmt(sb, info.getStmt());
+		sb.append('|');
+		appendAccessPath(sb, info.getAccessPath());
+		if (info.getDefinition() != null && info.getDefinition().getCategory() != null)
+			sb.append('|').append(info.getDefinition().getCategory().getHumanReadableDescription());
+
+		if (info instanceof ResultSourceInfo) {
+			ResultSourceInfo source = (ResultSourceInfo) info;
+			Stmt[] path = source.getPath();
+			AccessPath[] pathAPs = source.getPathAccessPaths();
+			if (path != null) {
+				for (int i = 0; i < path.length; i++) {
+					sb.append('|');
+					appendStmt(sb, path[i]);
+					if (pathAPs != null && i < pathAPs.length) {
+						sb.append('@');
+						appendAccessPath(sb, pathAPs[i]);
+					}
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	private void appendStmt(StringBuilder sb, Stmt stmt) {
+		if (stmt == null)
+			return;
+		if (icfg != null) {
+			SootMethod sm = icfg.getMethodOf(stmt);
+			if (sm != null)
+				sb.append(sm.getSignature()).append(' ');
+		}
+		sb.append(stmt.getJavaSourceStartLineNumber()).append(' ').append(stmt);
+	}
+
+	private static void appendAccessPath(StringBuilder sb, AccessPath ap) {
+		if (ap != null)
+			sb.append(ap);
+	}
+
+}
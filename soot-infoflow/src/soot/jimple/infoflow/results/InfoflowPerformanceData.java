@@ -1,6 +1,11 @@
 package soot.jimple.infoflow.results;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
+
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 
 /**
  * Class that records performance data on a FlowDroid run
@@ -23,6 +28,9 @@ public class InfoflowPerformanceData {
 	private long infoflowPropagationCount = -1;
 	private long aliasPropagationCount = -1;
 
+	private final Set<MemoryPressureStep> memoryPressureSteps = Collections
+			.synchronizedSet(EnumSet.noneOf(MemoryPressureStep.class));
+
 	public InfoflowPerformanceData() {
 		//
 	}
@@ -190,6 +198,7 @@ public class InfoflowPerformanceData {
 			else
 				this.sinkCount += performanceData.sinkCount;
 		}
+		this.memoryPressureSteps.addAll(performanceData.getMemoryPressureSteps());
 	}
 
 	/**
@@ -302,6 +311,31 @@ public class InfoflowPerformanceData {
 		this.aliasPropagationCount = aliasPropagationCount;
 	}
 
+	/**
+	 * Records that the solvers had to apply the given step to reduce their memory
+	 * consumption, i.e., that the results may be less precise than they would
+	 * have been with more memory
+	 * 
+	 * @param step The step that was applied
+	 */
+	public void addMemoryPressureStep(MemoryPressureStep step) {
+		this.memoryPressureSteps.add(step);
+	}
+
+	/**
+	 * Gets the steps that the solvers had to apply to reduce their memory
+	 * consumption
+	 * 
+	 * @return The steps that were applied due to memory pressure
+	 */
+	public Set<MemoryPressureStep> getMemoryPressureSteps() {
+		Set<MemoryPressureStep> steps = EnumSet.noneOf(MemoryPressureStep.class);
+		synchronized (memoryPressureSteps) {
+			steps.addAll(memoryPressureSteps);
+		}
+		return steps;
+	}
+
 	public long getInfoflowPropagationCount() {
 		return this.infoflowPropagationCount;
 	}
@@ -326,6 +360,8 @@ public class InfoflowPerformanceData {
 			sb.append(String.format("Max Memory Consumption: %d MB\n", maxMemoryConsumption));
 		if (edgePropagationCount > 0)
 			sb.append(String.format("Edge Propagation Count: %d\n", edgePropagationCount));
+		if (!memoryPressureSteps.isEmpty())
+			sb.append(String.format("Memory Pressure Steps: %s\n", getMemoryPressureSteps()));
 
 		return sb.toString();
 	}
@@ -333,8 +369,8 @@ public class InfoflowPerformanceData {
 	@Override
 	public int hashCode() {
 		return Objects.hash(aliasPropagationCount, callgraphConstructionSeconds, edgePropagationCount,
-				infoflowPropagationCount, maxMemoryConsumption, pathReconstructionSeconds, sinkCount, sourceCount,
-				taintPropagationSeconds, totalRuntimeSeconds);
+				infoflowPropagationCount, maxMemoryConsumption, getMemoryPressureSteps(), pathReconstructionSeconds,
+				sinkCount, sourceCount, taintPropagationSeconds, totalRuntimeSeconds);
 	}
 
 	@Override
@@ -351,6 +387,7 @@ public class InfoflowPerformanceData {
 				&& edgePropagationCount == other.edgePropagationCount
 				&& infoflowPropagationCount == other.infoflowPropagationCount
 				&& maxMemoryConsumption == other.maxMemoryConsumption
+				&& getMemoryPressureSteps().equals(other.getMemoryPressureSteps())
 				&& pathReconstructionSeconds == other.pathReconstructionSeconds && sinkCount == other.sinkCount
 				&& sourceCount == other.sourceCount && taintPropagationSeconds == other.taintPropagationSeconds
 				&& totalRuntimeSeconds == other.totalRuntimeSeconds;
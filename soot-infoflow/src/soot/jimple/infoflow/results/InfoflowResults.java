@@ -29,6 +29,7 @@ import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
 import soot.util.ConcurrentHashMultiMap;
 import soot.util.MultiMap;
@@ -322,6 +323,23 @@ public class InfoflowResults {
 		return set;
 	}
 
+	/**
+	 * Gets the data flow results in a list that is ordered by the textual
+	 * representation of the sinks and sources. This order is the same in every
+	 * analysis run.
+	 *
+	 * @param icfg The interprocedural control flow graph that is used to find the
+	 *             methods of the statements, or <code>null</code> to only order by
+	 *             statements
+	 * @return The data flow results in canonical order
+	 */
+	public List<DataFlowResult> getResultsInCanonicalOrder(IInfoflowCFG icfg) {
+		Set<DataFlowResult> resultSet = getResultSet();
+		if (resultSet == null)
+			return Collections.emptyList();
+		return new CanonicalResultOrder(icfg).sortResults(resultSet);
+	}
+
 	/**
 	 * Checks whether there is a path between the given source and sink.
 	 *
@@ -424,9 +442,10 @@ public class InfoflowResults {
 		if (this.results == null)
 			return;
 
-		for (ResultSinkInfo sink : this.results.keySet()) {
+		CanonicalResultOrder order = new CanonicalResultOrder(null);
+		for (ResultSinkInfo sink : order.sortSinks(this.results.keySet())) {
 			logger.info("Found a flow to sink {}, from the following sources:", sink);
-			for (ResultSourceInfo source : this.results.get(sink)) {
+			for (ResultSourceInfo source : order.sortSources(this.results.get(sink))) {
 				logger.info("\t- {}", source.getStmt());
 				if (source.getPath() != null)
 					logger.info("\t\ton Path {}", Arrays.toString(source.getPath()));
@@ -444,9 +463,10 @@ public class InfoflowResults {
 		if (this.results == null)
 			return;
 
-		for (ResultSinkInfo sink : this.results.keySet()) {
+		CanonicalResultOrder order = new CanonicalResultOrder(null);
+		for (ResultSinkInfo sink : order.sortSinks(this.results.keySet())) {
 			wr.write("Found a flow to sink " + sink + ", from the following sources:\n");
-			for (ResultSourceInfo source : this.results.get(sink)) {
+			for (ResultSourceInfo source : order.sortSources(this.results.get(sink))) {
 				wr.write("\t- " + source.getStmt() + "\n");
 				if (source.getPath() != null)
 					wr.write("\t\ton Path " + Arrays.toString(source.getPath()) + "\n");
@@ -0,0 +1,38 @@
+package soot.jimple.infoflow.results.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import soot.jimple.infoflow.results.DataFlowResult;
+
+/**
+ * Common interface for all targets to which data flow results can be streamed
+ * while the analysis is still running. Simple callbacks can be implemented as
+ * lambdas.
+ */
+public interface IResultStreamWriter extends Closeable {
+
+	/**
+	 * Writes out a single data flow result
+	 *
+	 * @param result The data flow result to write out
+	 * @throws IOException Thrown if the result cannot be written
+	 */
+	public void write(DataFlowResult result) throws IOException;
+
+	/**
+	 * Makes sure that all results written so far have reached the target. This
+	 * method is called whenever there are no more pending results.
+	 *
+	 * @throws IOException Thrown if the results cannot be flushed
+	 */
+	public default void flush() throws IOException {
+		//
+	}
+
+	@Override
+	public default void close() throws IOException {
+		//
+	}
+
+}
@@ -0,0 +1,193 @@
+package soot.jimple.infoflow.results.stream;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.results.AbstractResultSourceSinkInfo;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+
+/**
+ * Writes data flow results as newline-delimited JSON, i.e., one JSON object per
+ * line and data flow
+ */
+public class NDJsonResultWriter implements IResultStreamWriter {
+
+	/**
+	 * The target name that denotes the standard output
+	 */
+	public static final String STDOUT = "-";
+
+	private final Writer writer;
+	private final IInfoflowCFG icfg;
+	private final boolean closeWriter;
+	private boolean writePaths = true;
+
+	/**
+	 * Creates a new instance of the {@link NDJsonResultWriter} class
+	 *
+	 * @param writer The writer to which to write the results. The writer is closed
+	 *               together with this object.
+	 * @param icfg   The interprocedural control flow graph for looking up the
+	 *               methods of the statements, or <code>null</code> to omit the
+	 *               methods
+	 */
+	public NDJsonResultWriter(Writer writer, IInfoflowCFG icfg) {
+		this(writer, icfg, true);
+	}
+
+	private NDJsonResultWriter(Writer writer, IInfoflowCFG icfg, boolean closeWriter) {
+		this.writer = writer;
+		this.icfg = icfg;
+		this.closeWriter = closeWriter;
+	}
+
+	/**
+	 * Creates a writer for the given target
+	 *
+	 * @param target The name of the file to write, or {@link #STDOUT} to write to
+	 *               the standard output
+	 * @param icfg   The interprocedural control flow graph for looking up the
+	 *               methods of the statements, or <code>null</code> to omit the
+	 *               methods
+	 * @return The new writer
+	 * @throws IOException Thrown if the target file cannot be opened
+	 */
+	public static NDJsonResultWriter forTarget(String target, IInfoflowCFG icfg) throws IOException {
+		if (STDOUT.equals(target))
+			return new NDJsonResultWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), icfg, false);
+		return new NDJsonResultWriter(
+				new BufferedWriter(new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8)), icfg,
+				true);
+	}
+
+	/**
+	 * Sets whether the taint propagation paths shall be written out if they are
+	 * available
+	 *
+	 * @param writePaths True to write out the taint propagation paths, otherwise
+	 *                   false
+	 */
+	public void setWritePaths(boolean writePaths) {
+		this.writePaths = writePaths;
+	}
+
+	@Override
+	public void write(DataFlowResult result) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"source\":");
+		appendSourceSinkInfo(sb, result.getSource());
+		if (writePaths && result.getSource().getPath() != null)
+			appendPath(sb, result.getSource());
+		sb.append("},\"sink\":");
+		appendSourceSinkInfo(sb, result.getSink());
+		sb.append("}}\n");
+		writer.write(sb.toString());
+	}
+
+	/**
+	 * Appends the properties of the given source or sink. The JSON object is left
+	 * open, so that the caller can add more properties.
+	 *
+	 * @param sb   The string builder to which to append the data
+	 * @param info The source or sink to append
+	 */
+	private void appendSourceSinkInfo(StringBuilder sb, AbstractResultSourceSinkInfo info) {
+		sb.append('{');
+		boolean hasStmt = info.getStmt() != null;
+		if (hasStmt) {
+			sb.append("\"statement\":");
+			appendJsonString(sb, info.getStmt().toString());
+			sb.append(",\"line\":").append(info.getStmt().getJavaSourceStartLineNumber());
+			appendMethod(sb, info.getStmt());
+		}
+		ISourceSinkDefinition definition = info.getDefinition();
+		if (definition != null && definition.getCategory() != null) {
+			sb.append(hasStmt ? "," : "").append("\"category\":");
+			appendJsonString(sb, definition.getCategory().getHumanReadableDescription());
+			hasStmt = true;
+		}
+		sb.append(hasStmt ? "," : "").append("\"accessPath\":");
+		appendAccessPath(sb, info.getAccessPath());
+	}
+
+	private void appendPath(StringBuilder sb, ResultSourceInfo source) {
+		Stmt[] path = source.getPath();
+		AccessPath[] pathAccessPaths = source.getPathAccessPaths();
+		sb.append(",\"path\":[");
+		for (int i = 0; i < path.length; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append("{\"statement\":");
+			appendJsonString(sb, path[i].toString());
+			appendMethod(sb, path[i]);
+			if (pathAccessPaths != null && i < pathAccessPaths.length) {
+				sb.append(",\"accessPath\":");
+				appendAccessPath(sb, pathAccessPaths[i]);
+			}
+			sb.append('}');
+		}
+		sb.append(']');
+	}
+
+	private void appendMethod(StringBuilder sb, Stmt stmt) {
+		if (icfg == null)
+			return;
+		SootMethod method = icfg.getMethodOf(stmt);
+		if (method != null) {
+			sb.append(",\"method\":");
+			appendJsonString(sb, method.getSignature());
+		}
+	}
+
+	private static void appendAccessPath(StringBuilder sb, AccessPath ap) {
+		if (ap == null)
+			sb.append("null");
+		else
+			appendJsonString(sb, ap.toString());
+	}
+
+	private static void appendJsonString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			default:
+				if (c < 0x20)
+					sb.append(String.format("\\u%04x", (int) c));
+				else
+					sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closeWriter)
+			writer.close();
+		else
+			writer.flush();
+	}
+
+}
@@ -0,0 +1,208 @@
+package soot.jimple.infoflow.results.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler2;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.util.ThreadUtils;
+
+/**
+ * Handler that streams the data flow results to an {@link IResultStreamWriter}
+ * as soon as they are available. The results are handed to a dedicated writer
+ * thread through a bounded queue. If the queue is full, the analysis thread that
+ * reports the result is blocked until the writer has caught up, so a slow
+ * target slows down the analysis instead of filling up the memory.
+ *
+ * The handler must be used with incremental result reporting. Otherwise, the
+ * results only become available at the end of the analysis.
+ */
+public class StreamingResultsHandler implements ResultsAvailableHandler2, Closeable {
+
+	/**
+	 * The default number of results that may be pending before the analysis is
+	 * blocked
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final long BLOCKING_CHECK_INTERVAL = 100;
+
+	private static final DataFlowResult END_OF_STREAM = new DataFlowResult(null, null);
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final IResultStreamWriter writer;
+	private final BlockingQueue<DataFlowResult> queue;
+	private final Thread writerThread;
+
+	private final AtomicLong writtenResults = new AtomicLong();
+	private final AtomicLong blockedNanos = new AtomicLong();
+	private volatile IOException failure = null;
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new instance of the {@link StreamingResultsHandler} class with the
+	 * default capacity
+	 *
+	 * @param writer The writer to which to stream the results
+	 */
+	public StreamingResultsHandler(IResultStreamWriter writer) {
+		this(writer, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new instance of the {@link StreamingResultsHandler} class
+	 *
+	 * @param writer   The writer to which to stream the results
+	 * @param capacity The maximum number of results that may be pending before
+	 *                 the analysis is blocked
+	 */
+	public StreamingResultsHandler(IResultStreamWriter writer, int capacity) {
+		this.writer = writer;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.writerThread = ThreadUtils.createGenericThread(this::writeResults, "FlowDroid Result Stream", true);
+		this.writerThread.start();
+	}
+
+	/**
+	 * Takes the results from the queue and writes them out until the end of the
+	 * stream is reached
+	 */
+	private void writeResults() {
+		while (true) {
+			DataFlowResult result;
+			try {
+				result = queue.take();
+			} catch (InterruptedException e) {
+				// We only stop at the end of the stream
+				continue;
+			}
+			if (result == END_OF_STREAM)
+				break;
+
+			// After a failure, we only drain the queue, so that no analysis thread
+			// remains blocked
+			if (failure != null)
+				continue;
+			try {
+				writer.write(result);
+				writtenResults.incrementAndGet();
+				if (queue.isEmpty())
+					writer.flush();
+			} catch (IOException | RuntimeException e) {
+				logger.error("Could not write data flow result, aborting the analysis", e);
+				failure = e instanceof IOException ? (IOException) e : new IOException(e);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * This method blocks while the queue of pending results is full.
+	 *
+	 * @return True if the data flow analysis shall continue, false if the stream
+	 *         has failed or has already been closed
+	 */
+	@Override
+	public boolean onSingleResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+		if (closed || failure != null)
+			return false;
+
+		DataFlowResult result = new DataFlowResult(source, sink);
+		if (!queue.offer(result)) {
+			// Wait for the writer to catch up, but do not wait forever if the stream
+			// is closed in the meantime
+			long beforeBlocking = System.nanoTime();
+			try {
+				while (!queue.offer(result, BLOCKING_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+					if (closed)
+						return false;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} finally {
+				blockedNanos.addAndGet(System.nanoTime() - beforeBlocking);
+			}
+		}
+		return failure == null;
+	}
+
+	@Override
+	public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+		try {
+			close();
+		} catch (IOException e) {
+			logger.error("Could not close the result stream", e);
+		}
+	}
+
+	/**
+	 * Writes out all pending results and closes the underlying writer. Calling
+	 * this method more than once has no effect.
+	 *
+	 * @throws IOException Thrown if a result could not be written, or if the
+	 *                     writer could not be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+
+		boolean interrupted = false;
+		boolean endOfStream = false;
+		while (true) {
+			try {
+				if (!endOfStream) {
+					queue.put(END_OF_STREAM);
+					endOfStream = true;
+				}
+				writerThread.join();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		writer.close();
+		logger.info("Streamed {} data flow results, analysis was blocked for {} ms", writtenResults.get(),
+				getBlockedMillis());
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Gets the number of results that have been written out so far
+	 *
+	 * @return The number of results that have been written out
+	 */
+	public long getWrittenResultCount() {
+		return writtenResults.get();
+	}
+
+	/**
+	 * Gets the total time for which analysis threads were blocked because the
+	 * queue of pending results was full
+	 *
+	 * @return The total blocking time in milliseconds
+	 */
+	public long getBlockedMillis() {
+		return blockedNanos.get() / 1000000;
+	}
+
+}
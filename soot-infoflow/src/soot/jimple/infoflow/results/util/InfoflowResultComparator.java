@@ -4,6 +4,8 @@ import java.io.IOException;
 
 import javax.xml.stream.XMLStreamException;
 
+import soot.jimple.infoflow.results.xml.BinaryResultsReader;
+import soot.jimple.infoflow.results.xml.BinaryResultsWriter;
 import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
 import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
 
@@ -41,9 +43,56 @@ public class InfoflowResultComparator {
 		return results1.equals(results2);
 	}
 	
+	/**
+	 * Computes the difference between the data flow results in two given files.
+	 * The files may be XML result files, binary result files, or fingerprint
+	 * files.
+	 * @param oldFile The full path and file name of the results of the old
+	 * analysis run
+	 * @param newFile The full path and file name of the results of the new
+	 * analysis run
+	 * @return The difference between the two analysis runs
+	 * @throws XMLStreamException Thrown if one of the XML files is
+	 * syntactically invalid
+	 * @throws IOException Thrown if one of the two files cannot be opened
+	 */
+	public ResultDiff diff(String oldFile, String newFile)
+			throws XMLStreamException, IOException {
+		// Fingerprint files can be diffed without loading them
+		if (oldFile.endsWith(ResultDiff.FILE_EXTENSION)
+				&& newFile.endsWith(ResultDiff.FILE_EXTENSION))
+			return ResultDiff.diff(oldFile, newFile);
+		return ResultDiff.diff(readFingerprints(oldFile), readFingerprints(newFile));
+	}
+	
+	/**
+	 * Reads the fingerprints of the data flow results in the given file
+	 * @param file The full path and file name of an XML result file, a binary
+	 * result file, or a fingerprint file
+	 * @return The sorted fingerprints of the data flows in the given file
+	 * @throws XMLStreamException Thrown if the XML file is syntactically invalid
+	 * @throws IOException Thrown if the file cannot be opened
+	 */
+	public long[] readFingerprints(String file)
+			throws XMLStreamException, IOException {
+		if (file.endsWith(ResultDiff.FILE_EXTENSION))
+			return ResultDiff.readFingerprints(file);
+		ResultFingerprinter fingerprinter = new ResultFingerprinter();
+		if (file.endsWith(BinaryResultsWriter.FILE_EXTENSION)) {
+			try (BinaryResultsReader rdr = new BinaryResultsReader(file)) {
+				return fingerprinter.fingerprints(rdr);
+			}
+		}
+		return fingerprinter.fingerprints(new InfoflowResultsReader().readResults(file));
+	}
+	
 	public static void main(String[] args) throws XMLStreamException, IOException {
+		if (args.length == 3 && args[0].equals("-diff")) {
+			System.out.println(InfoflowResultComparator.v().diff(args[1], args[2]));
+			return;
+		}
 		if (args.length != 2) {
-			System.err.println("Usage: InfoflowResultComparator <file1> <file2>");
+			System.err.println("Usage: InfoflowResultComparator [-diff] <file1> <file2>");
 			return;
 		}
 		
@@ -0,0 +1,419 @@
+package soot.jimple.infoflow.results.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.xml.BinaryResultsReader;
+import soot.jimple.infoflow.results.xml.SerializedSinkInfo;
+import soot.jimple.infoflow.results.xml.SerializedSourceInfo;
+import soot.util.HashMultiMap;
+import soot.util.MultiMap;
+
+/**
+ * The difference between the data flow results of two analysis runs. The diff
+ * is computed on the fingerprints of the data flows (see
+ * {@link ResultFingerprinter}) and classifies each data flow as new, fixed, or
+ * unchanged. Only the fingerprints of the new and the fixed data flows are
+ * kept, so that the memory required for a diff depends on the size of the
+ * change and not on the size of the results.
+ *
+ * Fingerprints can be stored in fingerprint files. A fingerprint file consists
+ * of a header with a magic number, a format version and the number of
+ * fingerprints, followed by the sorted fingerprints. Two fingerprint files can
+ * be diffed without loading them into memory.
+ */
+public class ResultDiff {
+
+	/**
+	 * The file extension for fingerprint files
+	 */
+	public static final String FILE_EXTENSION = ".fdfp";
+
+	/**
+	 * The magic number ("FDFP") at the start of every fingerprint file
+	 */
+	private static final int MAGIC = 0x46444650;
+
+	/**
+	 * The version of the fingerprint file format
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	private final long[] newFlows;
+	private final long[] fixedFlows;
+	private final int unchangedCount;
+
+	private ResultDiff(long[] newFlows, long[] fixedFlows, int unchangedCount) {
+		this.newFlows = newFlows;
+		this.fixedFlows = fixedFlows;
+		this.unchangedCount = unchangedCount;
+	}
+
+	/**
+	 * Computes the difference between two sets of fingerprints
+	 *
+	 * @param oldFingerprints The sorted fingerprints of the old analysis run
+	 * @param newFingerprints The sorted fingerprints of the new analysis run
+	 * @return The difference between the two analysis runs
+	 */
+	public static ResultDiff diff(long[] oldFingerprints, long[] newFingerprints) {
+		try {
+			return diff(new ArrayFingerprintSource(oldFingerprints), new ArrayFingerprintSource(newFingerprints));
+		} catch (IOException e) {
+			// Cannot happen for in-memory data
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Computes the difference between two fingerprint files. The files are
+	 * streamed, i.e., only the new and the fixed data flows are kept in memory.
+	 *
+	 * @param oldFile The fingerprint file of the old analysis run
+	 * @param newFile The fingerprint file of the new analysis run
+	 * @return The difference between the two analysis runs
+	 * @throws IOException Thrown if one of the files cannot be read or is no
+	 *                     valid fingerprint file
+	 */
+	public static ResultDiff diff(String oldFile, String newFile) throws IOException {
+		try (StreamFingerprintSource oldSource = new StreamFingerprintSource(oldFile);
+				StreamFingerprintSource newSource = new StreamFingerprintSource(newFile)) {
+			return diff(oldSource, newSource);
+		}
+	}
+
+	private static ResultDiff diff(FingerprintSource oldSource, FingerprintSource newSource) throws IOException {
+		LongList newFlows = new LongList();
+		LongList fixedFlows = new LongList();
+		int unchanged = 0;
+
+		// Both sources are sorted, so we can merge them
+		boolean hasOld = oldSource.hasNext();
+		boolean hasNew = newSource.hasNext();
+		long oldFp = hasOld ? oldSource.next() : 0;
+		long newFp = hasNew ? newSource.next() : 0;
+		while (hasOld && hasNew) {
+			if (oldFp == newFp) {
+				unchanged++;
+				hasOld = oldSource.hasNext();
+				if (hasOld)
+					oldFp = oldSource.next();
+				hasNew = newSource.hasNext();
+				if (hasNew)
+					newFp = newSource.next();
+			} else if (oldFp < newFp) {
+				fixedFlows.add(oldFp);
+				hasOld = oldSource.hasNext();
+				if (hasOld)
+					oldFp = oldSource.next();
+			} else {
+				newFlows.add(newFp);
+				hasNew = newSource.hasNext();
+				if (hasNew)
+					newFp = newSource.next();
+			}
+		}
+		while (hasOld) {
+			fixedFlows.add(oldFp);
+			hasOld = oldSource.hasNext();
+			if (hasOld)
+				oldFp = oldSource.next();
+		}
+		while (hasNew) {
+			newFlows.add(newFp);
+			hasNew = newSource.hasNext();
+			if (hasNew)
+				newFp = newSource.next();
+		}
+		return new ResultDiff(newFlows.toArray(), fixedFlows.toArray(), unchanged);
+	}
+
+	/**
+	 * Writes the given fingerprints into a fingerprint file
+	 *
+	 * @param fingerprints The fingerprints to write. The fingerprints need not be
+	 *                     sorted, duplicates are removed.
+	 * @param fileName     The target file
+	 * @throws IOException Thrown if the file cannot be written
+	 */
+	public static void writeFingerprints(long[] fingerprints, String fileName) throws IOException {
+		long[] sorted = fingerprints.clone();
+		Arrays.sort(sorted);
+		int count = 0;
+		for (int i = 0; i < sorted.length; i++)
+			if (i == 0 || sorted[i] != sorted[i - 1])
+				sorted[count++] = sorted[i];
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(count);
+			for (int i = 0; i < count; i++)
+				out.writeLong(sorted[i]);
+		}
+	}
+
+	/**
+	 * Reads the fingerprints from the given fingerprint file
+	 *
+	 * @param fileName The fingerprint file
+	 * @return The sorted fingerprints from the given file
+	 * @throws IOException Thrown if the file cannot be read or is no valid
+	 *                     fingerprint file
+	 */
+	public static long[] readFingerprints(String fileName) throws IOException {
+		try (StreamFingerprintSource source = new StreamFingerprintSource(fileName)) {
+			long[] fingerprints = new long[source.remaining];
+			for (int i = 0; i < fingerprints.length; i++)
+				fingerprints[i] = source.next();
+			return fingerprints;
+		}
+	}
+
+	/**
+	 * Gets the fingerprints of the data flows that only exist in the new analysis
+	 * run
+	 *
+	 * @return The sorted fingerprints of the new data flows
+	 */
+	public long[] getNewFlows() {
+		return newFlows;
+	}
+
+	/**
+	 * Gets the fingerprints of the data flows that only exist in the old analysis
+	 * run
+	 *
+	 * @return The sorted fingerprints of the fixed data flows
+	 */
+	public long[] getFixedFlows() {
+		return fixedFlows;
+	}
+
+	/**
+	 * Gets the number of data flows that exist in both analysis runs
+	 *
+	 * @return The number of unchanged data flows
+	 */
+	public int getUnchangedCount() {
+		return unchangedCount;
+	}
+
+	/**
+	 * Gets whether the two analysis runs have the same data flows
+	 *
+	 * @return True if there are neither new nor fixed data flows, otherwise false
+	 */
+	public boolean isEmpty() {
+		return newFlows.length == 0 && fixedFlows.length == 0;
+	}
+
+	/**
+	 * Checks whether the data flow with the given fingerprint is new
+	 *
+	 * @param fingerprint The fingerprint of the data flow
+	 * @return True if the data flow only exists in the new analysis run,
+	 *         otherwise false
+	 */
+	public boolean isNew(long fingerprint) {
+		return Arrays.binarySearch(newFlows, fingerprint) >= 0;
+	}
+
+	/**
+	 * Checks whether the data flow with the given fingerprint is fixed
+	 *
+	 * @param fingerprint The fingerprint of the data flow
+	 * @return True if the data flow only exists in the old analysis run,
+	 *         otherwise false
+	 */
+	public boolean isFixed(long fingerprint) {
+		return Arrays.binarySearch(fixedFlows, fingerprint) >= 0;
+	}
+
+	/**
+	 * Gets the new data flows from the results of the new analysis run
+	 *
+	 * @param results       The results of the new analysis run
+	 * @param fingerprinter The fingerprinter with which the diff was computed
+	 * @return The data flows from the given results that are new
+	 */
+	public Set<DataFlowResult> getNewFlows(InfoflowResults results, ResultFingerprinter fingerprinter) {
+		return selectFlows(results, fingerprinter, newFlows);
+	}
+
+	/**
+	 * Gets the fixed data flows from the results of the old analysis run
+	 *
+	 * @param results       The results of the old analysis run
+	 * @param fingerprinter The fingerprinter with which the diff was computed
+	 * @return The data flows from the given results that are fixed
+	 */
+	public Set<DataFlowResult> getFixedFlows(InfoflowResults results, ResultFingerprinter fingerprinter) {
+		return selectFlows(results, fingerprinter, fixedFlows);
+	}
+
+	/**
+	 * Reads the new data flows from the binary result file of the new analysis
+	 * run
+	 *
+	 * @param reader        The reader for the binary result file of the new
+	 *                      analysis run
+	 * @param fingerprinter The fingerprinter with which the diff was computed
+	 * @return The data flows from the given result file that are new
+	 */
+	public MultiMap<SerializedSinkInfo, SerializedSourceInfo> getNewFlows(BinaryResultsReader reader,
+			ResultFingerprinter fingerprinter) {
+		return selectFlows(reader, fingerprinter, newFlows);
+	}
+
+	/**
+	 * Reads the fixed data flows from the binary result file of the old analysis
+	 * run
+	 *
+	 * @param reader        The reader for the binary result file of the old
+	 *                      analysis run
+	 * @param fingerprinter The fingerprinter with which the diff was computed
+	 * @return The data flows from the given result file that are fixed
+	 */
+	public MultiMap<SerializedSinkInfo, SerializedSourceInfo> getFixedFlows(BinaryResultsReader reader,
+			ResultFingerprinter fingerprinter) {
+		return selectFlows(reader, fingerprinter, fixedFlows);
+	}
+
+	private static Set<DataFlowResult> selectFlows(InfoflowResults results, ResultFingerprinter fingerprinter,
+			long[] fingerprints) {
+		Set<DataFlowResult> selected = new HashSet<>();
+		if (fingerprints.length == 0 || results == null || results.isEmpty())
+			return selected;
+		for (DataFlowResult result : results.getResultSet())
+			if (Arrays.binarySearch(fingerprints, fingerprinter.fingerprint(result)) >= 0)
+				selected.add(result);
+		return selected;
+	}
+
+	private static MultiMap<SerializedSinkInfo, SerializedSourceInfo> selectFlows(BinaryResultsReader reader,
+			ResultFingerprinter fingerprinter, long[] fingerprints) {
+		MultiMap<SerializedSinkInfo, SerializedSourceInfo> selected = new HashMultiMap<>();
+		if (fingerprints.length == 0)
+			return selected;
+		for (SerializedSinkInfo sink : reader.getSinks())
+			for (SerializedSourceInfo source : reader.readFlowsIntoSink(sink))
+				if (Arrays.binarySearch(fingerprints, fingerprinter.fingerprint(source, sink)) >= 0)
+					selected.put(sink, source);
+		return selected;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d new, %d fixed, %d unchanged data flows", newFlows.length, fixedFlows.length,
+				unchangedCount);
+	}
+
+	/**
+	 * Common interface for sorted sequences of fingerprints
+	 */
+	private interface FingerprintSource {
+
+		boolean hasNext();
+
+		long next() throws IOException;
+
+	}
+
+	/**
+	 * Sorted fingerprints in an array
+	 */
+	private static class ArrayFingerprintSource implements FingerprintSource {
+
+		private final long[] fingerprints;
+		private int idx = 0;
+
+		public ArrayFingerprintSource(long[] fingerprints) {
+			this.fingerprints = fingerprints;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return idx < fingerprints.length;
+		}
+
+		@Override
+		public long next() {
+			return fingerprints[idx++];
+		}
+
+	}
+
+	/**
+	 * Sorted fingerprints that are read from a fingerprint file
+	 */
+	private static class StreamFingerprintSource implements FingerprintSource, AutoCloseable {
+
+		private final DataInputStream in;
+		private int remaining;
+
+		public StreamFingerprintSource(String fileName) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+			try {
+				if (in.readInt() != MAGIC)
+					throw new IOException(String.format("%s is no fingerprint file", fileName));
+				int version = in.readInt();
+				if (version != FORMAT_VERSION)
+					throw new IOException(
+							String.format("Unsupported version %d of fingerprint file %s", version, fileName));
+				this.remaining = in.readInt();
+			} catch (IOException e) {
+				in.close();
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public long next() throws IOException {
+			remaining--;
+			return in.readLong();
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+	}
+
+	/**
+	 * Growable list of primitive long values
+	 */
+	private static class LongList {
+
+		private long[] data = new long[16];
+		private int size = 0;
+
+		public void add(long value) {
+			if (size == data.length)
+				data = Arrays.copyOf(data, size * 2);
+			data[size++] = value;
+		}
+
+		public long[] toArray() {
+			return Arrays.copyOf(data, size);
+		}
+
+	}
+
+}
@@ -0,0 +1,258 @@
+package soot.jimple.infoflow.results.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.results.AbstractResultSourceSinkInfo;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.xml.BinaryResultsReader;
+import soot.jimple.infoflow.results.xml.SerializedAccessPath;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.results.xml.SerializedSinkInfo;
+import soot.jimple.infoflow.results.xml.SerializedSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Class for computing stable fingerprints of data flow results. A fingerprint
+ * only depends on the parts of a data flow that survive a rebuild of the
+ * target app, i.e., the methods that contain the source and the sink, the
+ * methods and fields referenced by the source and sink statements, and the
+ * access paths without the names of the local variables. Line numbers, local
+ * variable names and propagation paths do not affect the fingerprint.
+ *
+ * Live results and serialized results of the same data flow receive the same
+ * fingerprint as long as the serialized results contain the methods of the
+ * statements.
+ */
+public class ResultFingerprinter {
+
+	/**
+	 * Pattern for method and field signatures in Jimple statements
+	 */
+	private static final Pattern SIGNATURE_PATTERN = Pattern.compile("<[^<>\\s][^<>]*: [^<>]+>");
+
+	/**
+	 * Pattern for the names of Jimple locals
+	 */
+	private static final Pattern LOCAL_PATTERN = Pattern.compile("\\$?\\b[a-z]{1,2}\\d+\\b");
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final IInfoflowCFG icfg;
+
+	/**
+	 * Creates a new fingerprinter for serialized results
+	 */
+	public ResultFingerprinter() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new fingerprinter
+	 *
+	 * @param icfg The interprocedural control flow graph that is used for finding
+	 *             the methods of the source and sink statements in live results.
+	 *             If this parameter is null, the fingerprints of live results do
+	 *             not match the fingerprints of serialized results that contain
+	 *             methods.
+	 */
+	public ResultFingerprinter(IInfoflowCFG icfg) {
+		this.icfg = icfg;
+	}
+
+	/**
+	 * Computes the fingerprint of the given data flow result
+	 *
+	 * @param result The data flow result
+	 * @return The fingerprint of the given data flow result
+	 */
+	public long fingerprint(DataFlowResult result) {
+		return hash(getCanonicalForm(result));
+	}
+
+	/**
+	 * Computes the fingerprint of the data flow from the given source to the given
+	 * sink
+	 *
+	 * @param source The serialized source
+	 * @param sink   The serialized sink
+	 * @return The fingerprint of the data flow from the given source to the given
+	 *         sink
+	 */
+	public long fingerprint(SerializedSourceInfo source, SerializedSinkInfo sink) {
+		return hash(getCanonicalForm(source, sink));
+	}
+
+	/**
+	 * Computes the fingerprints of all data flows in the given results
+	 *
+	 * @param results The data flow results
+	 * @return The sorted fingerprints of all data flows without duplicates
+	 */
+	public long[] fingerprints(InfoflowResults results) {
+		if (results == null || results.isEmpty())
+			return new long[0];
+
+		long[] fingerprints = new long[results.size()];
+		int idx = 0;
+		for (DataFlowResult result : results.getResultSet()) {
+			if (idx == fingerprints.length)
+				fingerprints = Arrays.copyOf(fingerprints, fingerprints.length * 2);
+			fingerprints[idx++] = fingerprint(result);
+		}
+		return sortUnique(fingerprints, idx);
+	}
+
+	/**
+	 * Computes the fingerprints of all data flows in the given serialized results
+	 *
+	 * @param results The serialized data flow results
+	 * @return The sorted fingerprints of all data flows without duplicates
+	 */
+	public long[] fingerprints(SerializedInfoflowResults results) {
+		long[] fingerprints = new long[results.getResultCount()];
+		int idx = 0;
+		for (SerializedSinkInfo sink : results.getResults().keySet())
+			for (SerializedSourceInfo source : results.getResults().get(sink))
+				fingerprints[idx++] = fingerprint(source, sink);
+		return sortUnique(fingerprints, idx);
+	}
+
+	/**
+	 * Computes the fingerprints of all data flows in the given binary result
+	 * file. The file is read one sink at a time.
+	 *
+	 * @param reader The reader for the binary result file
+	 * @return The sorted fingerprints of all data flows without duplicates
+	 */
+	public long[] fingerprints(BinaryResultsReader reader) {
+		long[] fingerprints = new long[reader.getResultCount()];
+		int idx = 0;
+		for (SerializedSinkInfo sink : reader.getSinks())
+			for (SerializedSourceInfo source : reader.readFlowsIntoSink(sink))
+				fingerprints[idx++] = fingerprint(source, sink);
+		return sortUnique(fingerprints, idx);
+	}
+
+	/**
+	 * Gets the canonical form of the given data flow result from which the
+	 * fingerprint is computed
+	 *
+	 * @param result The data flow result
+	 * @return The canonical form of the given data flow result
+	 */
+	public String getCanonicalForm(DataFlowResult result) {
+		StringBuilder sb = new StringBuilder();
+		appendCanonicalForm(sb, result.getSource());
+		sb.append(" -> ");
+		appendCanonicalForm(sb, result.getSink());
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the canonical form of the data flow from the given source to the given
+	 * sink from which the fingerprint is computed
+	 *
+	 * @param source The serialized source
+	 * @param sink   The serialized sink
+	 * @return The canonical form of the data flow
+	 */
+	public String getCanonicalForm(SerializedSourceInfo source, SerializedSinkInfo sink) {
+		StringBuilder sb = new StringBuilder();
+		appendCanonicalForm(sb, source.getMethod(), source.getStatement(), source.getAccessPath());
+		sb.append(" -> ");
+		appendCanonicalForm(sb, sink.getMethod(), sink.getStatement(), sink.getAccessPath());
+		return sb.toString();
+	}
+
+	private void appendCanonicalForm(StringBuilder sb, AbstractResultSourceSinkInfo info) {
+		Stmt stmt = info.getStmt();
+		String method = null;
+		if (icfg != null && stmt != null) {
+			SootMethod sm = icfg.getMethodOf(stmt);
+			if (sm != null)
+				method = sm.getSignature();
+		}
+		appendMethodAndStatement(sb, method, stmt == null ? null : stmt.toString());
+
+		AccessPath ap = info.getAccessPath();
+		if (ap == null || ap.getBaseType() == null)
+			sb.append('-');
+		else
+			sb.append(ap.getBaseType().toString());
+		if (ap != null && ap.getFragments() != null)
+			for (AccessPathFragment fragment : ap.getFragments())
+				sb.append('.').append(fragment.getField().toString());
+	}
+
+	private void appendCanonicalForm(StringBuilder sb, String method, String statement, SerializedAccessPath ap) {
+		appendMethodAndStatement(sb, method, statement);
+
+		if (ap == null || ap.getBaseType() == null)
+			sb.append('-');
+		else
+			sb.append(ap.getBaseType());
+		if (ap != null && ap.getFields() != null)
+			for (String field : ap.getFields())
+				sb.append('.').append(field);
+	}
+
+	private void appendMethodAndStatement(StringBuilder sb, String method, String statement) {
+		sb.append(method == null || method.isEmpty() ? "-" : method);
+		sb.append(" | ");
+		sb.append(normalizeStatement(statement));
+		sb.append(" | ");
+	}
+
+	/**
+	 * Normalizes the given Jimple statement. If the statement references methods
+	 * or fields, the normalized statement consists of their signatures. Otherwise,
+	 * the names of all locals are removed from the statement.
+	 *
+	 * @param statement The statement to normalize
+	 * @return The normalized statement
+	 */
+	static String normalizeStatement(String statement) {
+		if (statement == null || statement.isEmpty())
+			return "-";
+
+		Matcher matcher = SIGNATURE_PATTERN.matcher(statement);
+		StringBuilder sb = null;
+		while (matcher.find()) {
+			if (sb == null)
+				sb = new StringBuilder();
+			else
+				sb.append(',');
+			sb.append(matcher.group());
+		}
+		if (sb != null)
+			return sb.toString();
+		return LOCAL_PATTERN.matcher(statement).replaceAll("_");
+	}
+
+	private static long hash(String canonicalForm) {
+		return HASH_FUNCTION.hashString(canonicalForm, StandardCharsets.UTF_8).asLong();
+	}
+
+	private static long[] sortUnique(long[] fingerprints, int length) {
+		if (length == 0)
+			return new long[0];
+		Arrays.sort(fingerprints, 0, length);
+		int unique = 1;
+		for (int i = 1; i < length; i++)
+			if (fingerprints[i] != fingerprints[unique - 1])
+				fingerprints[unique++] = fingerprints[i];
+		return unique == fingerprints.length ? fingerprints : Arrays.copyOf(fingerprints, unique);
+	}
+
+}
@@ -0,0 +1,62 @@
+package soot.jimple.infoflow.results.xml;
+
+/**
+ * Constants for the compact binary format for data flow results.
+ *
+ * A file starts with a header that consists of the magic number and the
+ * version of the binary format. The header is followed by the source records,
+ * which are written as the results arrive. Each source record is encoded with
+ * variable-length integers and references the string and statement tables.
+ * After the records, the file contains the string table, the statement table,
+ * the sink index, and the performance data. A fixed-size trailer at the end of
+ * the file contains the offsets of these sections.
+ *
+ * The string table and the statement table consist of fixed-width entries, so
+ * that a reader can access single entries without decoding the whole table.
+ * The sink index lists the offsets of all source records for each sink.
+ */
+class BinaryResultsFormat {
+
+	/**
+	 * The file extension for binary result files
+	 */
+	public static final String FILE_EXTENSION = ".fdrb";
+
+	/**
+	 * The magic number ("FDRB") at the start and the end of every binary result
+	 * file
+	 */
+	public static final int MAGIC = 0x46445242;
+
+	/**
+	 * The version of the binary format
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The size of the header in bytes: the magic number and the format version
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * The size of the trailer in bytes: the offsets of the string table, the
+	 * statement table, the sink index and the performance data, the file format
+	 * version of the results, and the magic number
+	 */
+	public static final int TRAILER_SIZE = 4 * 8 + 4 + 4;
+
+	/**
+	 * Reference that denotes a <code>null</code> value. All other references
+	 * are one larger than the index of the respective table entry.
+	 */
+	public static final int NULL_REF = 0;
+
+	public static final int AP_NULL = 0x01;
+	public static final int AP_TAINT_SUB_FIELDS = 0x02;
+	public static final int AP_HAS_FIELDS = 0x04;
+	public static final int AP_HAS_TYPES = 0x08;
+
+	private BinaryResultsFormat() {
+	}
+
+}
@@ -0,0 +1,370 @@
+package soot.jimple.infoflow.results.xml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+
+/**
+ * Reads data flow results in the compact binary format described in
+ * {@link BinaryResultsFormat}. The file is mapped into memory. Opening the file
+ * only loads the sink index; the strings, statements, and source records are
+ * decoded on demand. Clients can thus look up the data flows into a single sink
+ * without loading the whole file.
+ *
+ * Files larger than 2 GB are not supported.
+ */
+public class BinaryResultsReader implements Closeable {
+
+	private final RandomAccessFile file;
+	private final MappedByteBuffer buffer;
+
+	private final int fileFormatVersion;
+	private final long performanceDataOffset;
+
+	private final int stringCount;
+	private final int stringOffsetsStart;
+	private final int stringDataStart;
+	private final String[] stringCache;
+
+	private final int statementCount;
+	private final int statementTableStart;
+
+	private final Map<SerializedSinkInfo, long[]> sinkIndex = new LinkedHashMap<>();
+	private final Map<String, List<SerializedSinkInfo>> sinksByStatement = new HashMap<>();
+
+	/**
+	 * Opens the given binary result file
+	 *
+	 * @param fileName The name of the file to open
+	 * @throws IOException Thrown if the file cannot be read or is not a valid
+	 *                     binary result file
+	 */
+	public BinaryResultsReader(String fileName) throws IOException {
+		this.file = new RandomAccessFile(fileName, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("Binary result files larger than 2 GB are not supported");
+			if (size < BinaryResultsFormat.HEADER_SIZE + BinaryResultsFormat.TRAILER_SIZE)
+				throw new IOException("File is too small to be a binary result file");
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			// Check the header and the trailer
+			if (buffer.getInt(0) != BinaryResultsFormat.MAGIC
+					|| buffer.getInt((int) size - 4) != BinaryResultsFormat.MAGIC)
+				throw new IOException("Not a binary result file");
+			int formatVersion = buffer.getInt(4);
+			if (formatVersion != BinaryResultsFormat.FORMAT_VERSION)
+				throw new IOException(String.format("Unsupported binary result format version %d", formatVersion));
+
+			int trailer = (int) size - BinaryResultsFormat.TRAILER_SIZE;
+			int stringTableOffset = checkOffset(buffer.getLong(trailer), size);
+			this.statementTableStart = checkOffset(buffer.getLong(trailer + 8), size) + 4;
+			int sinkIndexOffset = checkOffset(buffer.getLong(trailer + 16), size);
+			this.performanceDataOffset = buffer.getLong(trailer + 24);
+			this.fileFormatVersion = buffer.getInt(trailer + 32);
+
+			this.stringCount = buffer.getInt(stringTableOffset);
+			this.stringOffsetsStart = stringTableOffset + 4;
+			this.stringDataStart = stringOffsetsStart + (stringCount + 1) * 4;
+			this.stringCache = new String[stringCount];
+			this.statementCount = buffer.getInt(statementTableStart - 4);
+
+			readSinkIndex(sinkIndexOffset);
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	private static int checkOffset(long offset, long size) throws IOException {
+		if (offset < BinaryResultsFormat.HEADER_SIZE || offset >= size)
+			throw new IOException("Invalid section offset in binary result file");
+		return (int) offset;
+	}
+
+	private void readSinkIndex(int offset) {
+		ByteBuffer in = positionedBuffer(offset);
+		int sinkCount = readVarInt(in);
+		for (int i = 0; i < sinkCount; i++) {
+			int stmtRef = readVarInt(in);
+			SerializedAccessPath ap = readAccessPath(in);
+			SerializedSinkInfo sink = new SerializedSinkInfo(ap, getStatement(stmtRef), getMethod(stmtRef));
+
+			int recordCount = readVarInt(in);
+			long[] offsets = new long[recordCount];
+			long lastOffset = 0;
+			for (int r = 0; r < recordCount; r++) {
+				lastOffset += readVarLong(in);
+				offsets[r] = lastOffset;
+			}
+			sinkIndex.put(sink, offsets);
+			sinksByStatement.computeIfAbsent(sink.getStatement(), s -> new ArrayList<>()).add(sink);
+		}
+	}
+
+	/**
+	 * Gets the format version of the results stored in this file
+	 *
+	 * @return The format version of the results stored in this file
+	 */
+	public int getFileFormatVersion() {
+		return fileFormatVersion;
+	}
+
+	/**
+	 * Gets all sinks for which this file contains data flows
+	 *
+	 * @return The sinks for which this file contains data flows
+	 */
+	public Collection<SerializedSinkInfo> getSinks() {
+		return Collections.unmodifiableSet(sinkIndex.keySet());
+	}
+
+	/**
+	 * Gets the number of data flows in this file
+	 *
+	 * @return The number of data flows in this file
+	 */
+	public int getResultCount() {
+		int cnt = 0;
+		for (long[] offsets : sinkIndex.values())
+			cnt += offsets.length;
+		return cnt;
+	}
+
+	/**
+	 * Gets the sinks at the given statement
+	 *
+	 * @param statement The statement of the sink as it was written out
+	 * @return The sinks at the given statement, or an empty list if there are
+	 *         none
+	 */
+	public List<SerializedSinkInfo> getSinksAtStatement(String statement) {
+		List<SerializedSinkInfo> sinks = sinksByStatement.get(statement);
+		return sinks == null ? Collections.emptyList() : Collections.unmodifiableList(sinks);
+	}
+
+	/**
+	 * Reads the sources of all data flows into the given sink
+	 *
+	 * @param sink The sink
+	 * @return The sources from which data flows into the given sink, or an empty
+	 *         set if there are none
+	 */
+	public Set<SerializedSourceInfo> readFlowsIntoSink(SerializedSinkInfo sink) {
+		long[] offsets = sinkIndex.get(sink);
+		if (offsets == null)
+			return Collections.emptySet();
+
+		Set<SerializedSourceInfo> sources = new HashSet<>(offsets.length);
+		for (long offset : offsets)
+			sources.add(readSource((int) offset));
+		return sources;
+	}
+
+	/**
+	 * Reads all data flows into the sinks at the given statement
+	 *
+	 * @param statement The statement of the sink as it was written out
+	 * @return The data flows into the sinks at the given statement
+	 */
+	public SerializedInfoflowResults readFlowsIntoSink(String statement) {
+		SerializedInfoflowResults results = createResults();
+		for (SerializedSinkInfo sink : getSinksAtStatement(statement))
+			for (SerializedSourceInfo source : readFlowsIntoSink(sink))
+				results.addResult(source, sink);
+		return results;
+	}
+
+	/**
+	 * Reads the complete file into a data object
+	 *
+	 * @return The data flow results stored in this file
+	 */
+	public SerializedInfoflowResults readAll() {
+		SerializedInfoflowResults results = createResults();
+		for (SerializedSinkInfo sink : sinkIndex.keySet())
+			for (SerializedSourceInfo source : readFlowsIntoSink(sink))
+				results.addResult(source, sink);
+		readPerformanceData(results);
+		return results;
+	}
+
+	/**
+	 * Reads the given binary result file into a data object
+	 *
+	 * @param fileName The name of the file to read
+	 * @return The data flow results stored in the given file
+	 * @throws IOException Thrown if the file cannot be read or is not a valid
+	 *                     binary result file
+	 */
+	public static SerializedInfoflowResults readResults(String fileName) throws IOException {
+		try (BinaryResultsReader reader = new BinaryResultsReader(fileName)) {
+			return reader.readAll();
+		}
+	}
+
+	private SerializedInfoflowResults createResults() {
+		SerializedInfoflowResults results = new SerializedInfoflowResults();
+		results.setFileFormatVersion(fileFormatVersion);
+		return results;
+	}
+
+	private void readPerformanceData(SerializedInfoflowResults results) {
+		if (performanceDataOffset < 0)
+			return;
+
+		ByteBuffer in = positionedBuffer((int) performanceDataOffset);
+		InfoflowPerformanceData perfData = results.getOrCreatePerformanceData();
+		perfData.setCallgraphConstructionSeconds((int) readZigZag(in));
+		perfData.setTaintPropagationSeconds((int) readZigZag(in));
+		perfData.setPathReconstructionSeconds((int) readZigZag(in));
+		perfData.setTotalRuntimeSeconds((int) readZigZag(in));
+		perfData.setMaxMemoryConsumption((int) readZigZag(in));
+		long edgePropagationCount = readZigZag(in);
+		if (edgePropagationCount >= 0)
+			perfData.addEdgePropagationCount(edgePropagationCount);
+		perfData.setSourceCount((int) readZigZag(in));
+		perfData.setSinkCount((int) readZigZag(in));
+		perfData.setInfoflowPropagationCount(readZigZag(in));
+		perfData.setAliasPropagationCount(readZigZag(in));
+		int steps = readVarInt(in);
+		for (MemoryPressureStep step : MemoryPressureStep.values())
+			if ((steps & (1 << step.ordinal())) != 0)
+				perfData.addMemoryPressureStep(step);
+	}
+
+	private SerializedSourceInfo readSource(int offset) {
+		ByteBuffer in = positionedBuffer(offset);
+		int stmtRef = readVarInt(in);
+		SerializedAccessPath ap = readAccessPath(in);
+		int pathLength = readVarInt(in);
+		List<SerializedPathElement> path = null;
+		if (pathLength > 0) {
+			path = new ArrayList<>(pathLength - 1);
+			for (int i = 0; i < pathLength - 1; i++) {
+				int elementStmtRef = readVarInt(in);
+				SerializedAccessPath elementAP = readAccessPath(in);
+				path.add(new SerializedPathElement(elementAP, getStatement(elementStmtRef), getMethod(elementStmtRef)));
+			}
+		}
+		return new SerializedSourceInfo(ap, getStatement(stmtRef), getMethod(stmtRef), path);
+	}
+
+	private SerializedAccessPath readAccessPath(ByteBuffer in) {
+		int flags = in.get() & 0xFF;
+		if ((flags & BinaryResultsFormat.AP_NULL) != 0)
+			return null;
+
+		String base = getString(readVarInt(in));
+		String baseType = getString(readVarInt(in));
+		String[] fields = (flags & BinaryResultsFormat.AP_HAS_FIELDS) != 0 ? readStringArray(in) : null;
+		String[] types = (flags & BinaryResultsFormat.AP_HAS_TYPES) != 0 ? readStringArray(in) : null;
+		return new SerializedAccessPath(base, baseType, (flags & BinaryResultsFormat.AP_TAINT_SUB_FIELDS) != 0,
+				fields, types);
+	}
+
+	private String[] readStringArray(ByteBuffer in) {
+		String[] array = new String[readVarInt(in)];
+		for (int i = 0; i < array.length; i++)
+			array[i] = getString(readVarInt(in));
+		return array;
+	}
+
+	private String getStatement(int stmtRef) {
+		return getString(getStatementEntry(stmtRef, 0));
+	}
+
+	private String getMethod(int stmtRef) {
+		return getString(getStatementEntry(stmtRef, 1));
+	}
+
+	private int getStatementEntry(int stmtRef, int column) {
+		if (stmtRef < 0 || stmtRef >= statementCount)
+			throw new IllegalStateException("Invalid statement reference in binary result file");
+		return buffer.getInt(statementTableStart + stmtRef * 8 + column * 4);
+	}
+
+	private String getString(int ref) {
+		if (ref == BinaryResultsFormat.NULL_REF)
+			return null;
+		int id = ref - 1;
+		if (id >= stringCount)
+			throw new IllegalStateException("Invalid string reference in binary result file");
+
+		// Benign race: at worst, two threads decode the same string
+		String s = stringCache[id];
+		if (s == null) {
+			int start = buffer.getInt(stringOffsetsStart + id * 4);
+			int end = buffer.getInt(stringOffsetsStart + (id + 1) * 4);
+			byte[] bytes = new byte[end - start];
+			ByteBuffer in = positionedBuffer(stringDataStart + start);
+			in.get(bytes);
+			s = new String(bytes, StandardCharsets.UTF_8);
+			stringCache[id] = s;
+		}
+		return s;
+	}
+
+	/**
+	 * Creates a view on the mapped file that starts at the given offset. Each
+	 * view has its own position, so that multiple threads can read from the same
+	 * file.
+	 */
+	private ByteBuffer positionedBuffer(int offset) {
+		ByteBuffer in = buffer.duplicate();
+		in.position(offset);
+		return in;
+	}
+
+	private static int readVarInt(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IllegalStateException("Malformed variable-length integer in binary result file");
+	}
+
+	private static long readVarLong(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			long b = in.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IllegalStateException("Malformed variable-length integer in binary result file");
+	}
+
+	private static long readZigZag(ByteBuffer in) {
+		long value = readVarLong(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+}
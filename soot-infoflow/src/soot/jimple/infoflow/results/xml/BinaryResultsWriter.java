@@ -0,0 +1,418 @@
+package soot.jimple.infoflow.results.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.stream.IResultStreamWriter;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Writes data flow results in the compact binary format described in
+ * {@link BinaryResultsFormat}. The results are written out as they arrive, only
+ * the string table, the statement table, and the sink index are kept in
+ * memory until the writer is closed.
+ *
+ * The writer is not thread-safe. When it is used for streaming results while
+ * the analysis is running, wrap it into a
+ * {@link soot.jimple.infoflow.results.stream.StreamingResultsHandler}.
+ */
+public class BinaryResultsWriter implements IResultStreamWriter {
+
+	/**
+	 * The file extension for binary result files
+	 */
+	public static final String FILE_EXTENSION = BinaryResultsFormat.FILE_EXTENSION;
+
+	/**
+	 * An entry in the sink index
+	 */
+	private static class SinkEntry {
+
+		private final int statementRef;
+		private final SerializedAccessPath accessPath;
+		private long[] recordOffsets = new long[4];
+		private int recordCount = 0;
+
+		public SinkEntry(int statementRef, SerializedAccessPath accessPath) {
+			this.statementRef = statementRef;
+			this.accessPath = accessPath;
+		}
+
+		private void addRecord(long offset) {
+			if (recordCount == recordOffsets.length)
+				recordOffsets = Arrays.copyOf(recordOffsets, recordCount * 2);
+			recordOffsets[recordCount++] = offset;
+		}
+
+	}
+
+	private final OutputStream out;
+	private final IInfoflowCFG icfg;
+	private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+	private long position = 0;
+
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final List<String> stringTable = new ArrayList<>();
+	private final Map<List<String>, Integer> statements = new HashMap<>();
+	private final List<int[]> statementTable = new ArrayList<>();
+	private final Map<SerializedSinkInfo, SinkEntry> sinks = new LinkedHashMap<>();
+
+	private int fileFormatVersion = InfoflowResultsSerializer.FILE_FORMAT_VERSION;
+	private InfoflowPerformanceData performanceData = null;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new instance of the {@link BinaryResultsWriter} class
+	 *
+	 * @param out  The stream to which to write the results. The stream is closed
+	 *             together with this writer.
+	 * @param icfg The interprocedural control flow graph for looking up the
+	 *             methods of the statements in {@link DataFlowResult} objects, or
+	 *             <code>null</code> to omit the methods
+	 * @throws IOException Thrown if the header cannot be written
+	 */
+	public BinaryResultsWriter(OutputStream out, IInfoflowCFG icfg) throws IOException {
+		this.out = out;
+		this.icfg = icfg;
+		writeInt(BinaryResultsFormat.MAGIC);
+		writeInt(BinaryResultsFormat.FORMAT_VERSION);
+	}
+
+	/**
+	 * Creates a new instance of the {@link BinaryResultsWriter} class that writes
+	 * to the given file
+	 *
+	 * @param fileName The name of the file to write
+	 * @param icfg     The interprocedural control flow graph for looking up the
+	 *                 methods of the statements in {@link DataFlowResult}
+	 *                 objects, or <code>null</code> to omit the methods
+	 * @throws IOException Thrown if the file cannot be opened
+	 */
+	public BinaryResultsWriter(String fileName, IInfoflowCFG icfg) throws IOException {
+		this(new BufferedOutputStream(new FileOutputStream(fileName)), icfg);
+	}
+
+	/**
+	 * Writes the given results into the given file
+	 *
+	 * @param results  The results to write
+	 * @param fileName The name of the file to write
+	 * @throws IOException Thrown if the file cannot be written
+	 */
+	public static void write(SerializedInfoflowResults results, String fileName) throws IOException {
+		try (BinaryResultsWriter writer = new BinaryResultsWriter(fileName, null)) {
+			writer.setFileFormatVersion(results.getFileFormatVersion());
+			writer.setPerformanceData(results.getPerformanceData());
+			for (SerializedSinkInfo sink : results.getResults().keySet())
+				for (SerializedSourceInfo source : results.getResults().get(sink))
+					writer.write(sink, source);
+		}
+	}
+
+	/**
+	 * Sets the format version of the results that is recorded in the file
+	 *
+	 * @param fileFormatVersion The format version of the results
+	 */
+	public void setFileFormatVersion(int fileFormatVersion) {
+		this.fileFormatVersion = fileFormatVersion;
+	}
+
+	/**
+	 * Sets the performance data that is written out when the writer is closed
+	 *
+	 * @param performanceData The performance data to write out, or
+	 *                        <code>null</code> for none
+	 */
+	public void setPerformanceData(InfoflowPerformanceData performanceData) {
+		this.performanceData = performanceData;
+	}
+
+	@Override
+	public void write(DataFlowResult result) throws IOException {
+		ResultSinkInfo sink = result.getSink();
+		ResultSourceInfo source = result.getSource();
+
+		List<SerializedPathElement> path = null;
+		if (source.getPath() != null) {
+			Stmt[] pathStmts = source.getPath();
+			AccessPath[] pathAPs = source.getPathAccessPaths();
+			path = new ArrayList<>(pathStmts.length);
+			for (int i = 0; i < pathStmts.length; i++)
+				path.add(new SerializedPathElement(
+						toSerializedAccessPath(pathAPs == null || i >= pathAPs.length ? null : pathAPs[i]),
+						toString(pathStmts[i]), getMethod(pathStmts[i])));
+		}
+
+		write(new SerializedSinkInfo(toSerializedAccessPath(sink.getAccessPath()), toString(sink.getStmt()),
+				getMethod(sink.getStmt())),
+				new SerializedSourceInfo(toSerializedAccessPath(source.getAccessPath()), toString(source.getStmt()),
+						getMethod(source.getStmt()), path));
+	}
+
+	/**
+	 * Writes out a single data flow
+	 *
+	 * @param sink   The sink at which the data flow arrived
+	 * @param source The source from which the data flow originated
+	 * @throws IOException Thrown if the data flow cannot be written
+	 */
+	public void write(SerializedSinkInfo sink, SerializedSourceInfo source) throws IOException {
+		if (closed)
+			throw new IOException("Writer has already been closed");
+
+		SinkEntry entry = sinks.get(sink);
+		if (entry == null) {
+			entry = new SinkEntry(statementRef(sink.getStatement(), sink.getMethod()), sink.getAccessPath());
+			sinks.put(sink, entry);
+		}
+		entry.addRecord(position);
+
+		recordBuffer.reset();
+		writeVarInt(recordBuffer, statementRef(source.getStatement(), source.getMethod()));
+		writeAccessPath(recordBuffer, source.getAccessPath());
+		List<SerializedPathElement> path = source.getPropagationPath();
+		if (path == null)
+			writeVarInt(recordBuffer, 0);
+		else {
+			writeVarInt(recordBuffer, path.size() + 1);
+			for (SerializedPathElement element : path) {
+				writeVarInt(recordBuffer, statementRef(element.getStatement(), element.getMethod()));
+				writeAccessPath(recordBuffer, element.getAccessPath());
+			}
+		}
+		recordBuffer.writeTo(out);
+		position += recordBuffer.size();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Writes out the tables and the index, and closes the underlying stream
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+
+		try {
+			// The sink index may add new strings, so we must write it out first
+			ByteArrayOutputStream sinkIndex = new ByteArrayOutputStream();
+			writeVarInt(sinkIndex, sinks.size());
+			for (SinkEntry entry : sinks.values()) {
+				writeVarInt(sinkIndex, entry.statementRef);
+				writeAccessPath(sinkIndex, entry.accessPath);
+				writeVarInt(sinkIndex, entry.recordCount);
+				long lastOffset = 0;
+				for (int i = 0; i < entry.recordCount; i++) {
+					writeVarLong(sinkIndex, entry.recordOffsets[i] - lastOffset);
+					lastOffset = entry.recordOffsets[i];
+				}
+			}
+			ByteArrayOutputStream perfData = writePerformanceData();
+
+			final long stringTableOffset = position;
+			writeStringTable();
+			final long statementTableOffset = position;
+			writeInt(statementTable.size());
+			for (int[] stmt : statementTable) {
+				writeInt(stmt[0]);
+				writeInt(stmt[1]);
+			}
+			final long sinkIndexOffset = position;
+			sinkIndex.writeTo(out);
+			position += sinkIndex.size();
+			long perfDataOffset = -1;
+			if (perfData != null) {
+				perfDataOffset = position;
+				perfData.writeTo(out);
+				position += perfData.size();
+			}
+
+			// Write the trailer
+			writeLong(stringTableOffset);
+			writeLong(statementTableOffset);
+			writeLong(sinkIndexOffset);
+			writeLong(perfDataOffset);
+			writeInt(fileFormatVersion);
+			writeInt(BinaryResultsFormat.MAGIC);
+			out.flush();
+		} finally {
+			out.close();
+		}
+	}
+
+	private void writeStringTable() throws IOException {
+		List<byte[]> encoded = new ArrayList<>(stringTable.size());
+		for (String s : stringTable)
+			encoded.add(s.getBytes(StandardCharsets.UTF_8));
+
+		// Fixed-width offsets relative to the start of the string data
+		writeInt(stringTable.size());
+		int offset = 0;
+		for (byte[] b : encoded) {
+			writeInt(offset);
+			offset += b.length;
+		}
+		writeInt(offset);
+		for (byte[] b : encoded) {
+			out.write(b);
+			position += b.length;
+		}
+	}
+
+	private ByteArrayOutputStream writePerformanceData() {
+		if (performanceData == null)
+			return null;
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		writeVarLong(bos, zigZag(performanceData.getCallgraphConstructionSeconds()));
+		writeVarLong(bos, zigZag(performanceData.getTaintPropagationSeconds()));
+		writeVarLong(bos, zigZag(performanceData.getPathReconstructionSeconds()));
+		writeVarLong(bos, zigZag(performanceData.getTotalRuntimeSeconds()));
+		writeVarLong(bos, zigZag(performanceData.getMaxMemoryConsumption()));
+		writeVarLong(bos, zigZag(performanceData.getEdgePropagationCount()));
+		writeVarLong(bos, zigZag(performanceData.getSourceCount()));
+		writeVarLong(bos, zigZag(performanceData.getSinkCount()));
+		writeVarLong(bos, zigZag(performanceData.getInfoflowPropagationCount()));
+		writeVarLong(bos, zigZag(performanceData.getAliasPropagationCount()));
+		int steps = 0;
+		for (MemoryPressureStep step : performanceData.getMemoryPressureSteps())
+			steps |= 1 << step.ordinal();
+		writeVarInt(bos, steps);
+		return bos;
+	}
+
+	private int stringRef(String s) {
+		if (s == null)
+			return BinaryResultsFormat.NULL_REF;
+		Integer id = strings.get(s);
+		if (id == null) {
+			id = stringTable.size();
+			stringTable.add(s);
+			strings.put(s, id);
+		}
+		return id + 1;
+	}
+
+	private int statementRef(String statement, String method) {
+		List<String> key = Arrays.asList(statement, method);
+		Integer id = statements.get(key);
+		if (id == null) {
+			id = statementTable.size();
+			statementTable.add(new int[] { stringRef(statement), stringRef(method) });
+			statements.put(key, id);
+		}
+		return id;
+	}
+
+	private void writeAccessPath(ByteArrayOutputStream bos, SerializedAccessPath ap) {
+		if (ap == null) {
+			bos.write(BinaryResultsFormat.AP_NULL);
+			return;
+		}
+
+		int flags = 0;
+		if (ap.getTaintSubFields())
+			flags |= BinaryResultsFormat.AP_TAINT_SUB_FIELDS;
+		if (ap.getFields() != null)
+			flags |= BinaryResultsFormat.AP_HAS_FIELDS;
+		if (ap.getTypes() != null)
+			flags |= BinaryResultsFormat.AP_HAS_TYPES;
+		bos.write(flags);
+		writeVarInt(bos, stringRef(ap.getBase()));
+		writeVarInt(bos, stringRef(ap.getBaseType()));
+		writeStringArray(bos, ap.getFields());
+		writeStringArray(bos, ap.getTypes());
+	}
+
+	private void writeStringArray(ByteArrayOutputStream bos, String[] array) {
+		if (array == null)
+			return;
+		writeVarInt(bos, array.length);
+		for (String s : array)
+			writeVarInt(bos, stringRef(s));
+	}
+
+	private SerializedAccessPath toSerializedAccessPath(AccessPath ap) {
+		if (ap == null)
+			return null;
+		String[] fields = new String[ap.getFragmentCount()];
+		String[] types = new String[ap.getFragmentCount()];
+		for (int i = 0; i < ap.getFragmentCount(); i++) {
+			AccessPathFragment fragment = ap.getFragments()[i];
+			fields[i] = fragment.getField().toString();
+			types[i] = fragment.getFieldType().toString();
+		}
+		return new SerializedAccessPath(toString(ap.getPlainValue()), toString(ap.getBaseType()),
+				ap.getTaintSubFields(), fields, types);
+	}
+
+	private String getMethod(Stmt stmt) {
+		if (icfg == null || stmt == null)
+			return null;
+		SootMethod method = icfg.getMethodOf(stmt);
+		return method == null ? null : method.getSignature();
+	}
+
+	private static String toString(Object o) {
+		return o == null ? null : o.toString();
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	static void writeVarInt(ByteArrayOutputStream bos, int value) {
+		while ((value & ~0x7F) != 0) {
+			bos.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		bos.write(value);
+	}
+
+	static void writeVarLong(ByteArrayOutputStream bos, long value) {
+		while ((value & ~0x7FL) != 0) {
+			bos.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		bos.write((int) value);
+	}
+
+	private void writeInt(int value) throws IOException {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+		position += 4;
+	}
+
+	private void writeLong(long value) throws IOException {
+		writeInt((int) (value >>> 32));
+		writeInt((int) value);
+	}
+
+}
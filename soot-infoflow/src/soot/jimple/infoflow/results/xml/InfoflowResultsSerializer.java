@@ -12,6 +12,7 @@ import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.results.CanonicalResultOrder;
 import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.results.ResultSinkInfo;
@@ -171,13 +172,16 @@ public class InfoflowResultsSerializer {
 	 * @throws XMLStreamException Thrown if the XML data cannot be written
 	 */
 	protected void writeDataFlows(InfoflowResults results, XMLStreamWriter writer) throws XMLStreamException {
-		for (ResultSinkInfo sink : results.getResults().keySet()) {
+		// We write the results in a canonical order, so that the output of different
+		// analysis runs can be compared
+		CanonicalResultOrder order = new CanonicalResultOrder(icfg);
+		for (ResultSinkInfo sink : order.sortSinks(results.getResults().keySet())) {
 			writer.writeStartElement(XmlConstants.Tags.result);
 			writeSinkInfo(sink, writer);
 
 			// Write out the sources
 			writer.writeStartElement(XmlConstants.Tags.sources);
-			for (ResultSourceInfo src : results.getResults().get(sink))
+			for (ResultSourceInfo src : order.sortSources(results.getResults().get(sink)))
 				writeSourceInfo(src, writer);
 			writer.writeEndElement();
 
@@ -6,6 +6,7 @@ import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.metrics.SolverMetrics;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 
@@ -134,4 +135,14 @@ public interface IInfoflowSolver {
 	 */
 	public void terminate();
 
+	/**
+	 * Sets the object in which the solver shall record live metrics about its
+	 * progress. Solvers that do not support metrics collection ignore this call.
+	 * 
+	 * @param metrics The metrics object, or <code>null</code> to disable metrics
+	 *                collection
+	 */
+	public default void setSolverMetrics(SolverMetrics metrics) {
+	}
+
 }
\ No newline at end of file
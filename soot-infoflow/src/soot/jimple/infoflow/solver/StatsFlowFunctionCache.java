@@ -0,0 +1,132 @@
+package soot.jimple.infoflow.solver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import heros.FlowFunction;
+import heros.FlowFunctionCache;
+import heros.FlowFunctions;
+
+/**
+ * Flow function cache that can count its hits and misses. Counting is disabled
+ * by default and only costs a single check per lookup then. The cache builder
+ * does not need to record statistics.
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ * @param <M> The type of objects used to represent methods
+ */
+public class StatsFlowFunctionCache<N, D, M> extends FlowFunctionCache<N, D, M> {
+
+	/**
+	 * Flow functions that count how often the cache had to compute a flow function
+	 */
+	private static class CountingFlowFunctions<N, D, M> implements FlowFunctions<N, D, M> {
+
+		private final FlowFunctions<N, D, M> delegate;
+		private volatile boolean recordStats = false;
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+
+		public CountingFlowFunctions(FlowFunctions<N, D, M> delegate) {
+			this.delegate = delegate;
+		}
+
+		private void recordMiss() {
+			if (recordStats)
+				misses.increment();
+		}
+
+		@Override
+		public FlowFunction<D> getNormalFlowFunction(N curr, N succ) {
+			recordMiss();
+			return delegate.getNormalFlowFunction(curr, succ);
+		}
+
+		@Override
+		public FlowFunction<D> getCallFlowFunction(N callStmt, M destinationMethod) {
+			recordMiss();
+			return delegate.getCallFlowFunction(callStmt, destinationMethod);
+		}
+
+		@Override
+		public FlowFunction<D> getReturnFlowFunction(N callSite, M calleeMethod, N exitStmt, N returnSite) {
+			recordMiss();
+			return delegate.getReturnFlowFunction(callSite, calleeMethod, exitStmt, returnSite);
+		}
+
+		@Override
+		public FlowFunction<D> getCallToReturnFlowFunction(N callSite, N returnSite) {
+			recordMiss();
+			return delegate.getCallToReturnFlowFunction(callSite, returnSite);
+		}
+
+	}
+
+	private final CountingFlowFunctions<N, D, M> counter;
+
+	public StatsFlowFunctionCache(FlowFunctions<N, D, M> delegate,
+			@SuppressWarnings("rawtypes") CacheBuilder builder) {
+		this(new CountingFlowFunctions<>(delegate), builder);
+	}
+
+	private StatsFlowFunctionCache(CountingFlowFunctions<N, D, M> counter,
+			@SuppressWarnings("rawtypes") CacheBuilder builder) {
+		super(counter, builder);
+		this.counter = counter;
+	}
+
+	/**
+	 * Sets whether this cache shall count its hits and misses
+	 *
+	 * @param recordStats True if this cache shall count its hits and misses,
+	 *                    otherwise false
+	 */
+	public void setRecordStats(boolean recordStats) {
+		counter.recordStats = recordStats;
+	}
+
+	private void recordRequest() {
+		if (counter.recordStats)
+			counter.requests.increment();
+	}
+
+	@Override
+	public FlowFunction<D> getNormalFlowFunction(N curr, N succ) {
+		recordRequest();
+		return super.getNormalFlowFunction(curr, succ);
+	}
+
+	@Override
+	public FlowFunction<D> getCallFlowFunction(N callStmt, M destinationMethod) {
+		recordRequest();
+		return super.getCallFlowFunction(callStmt, destinationMethod);
+	}
+
+	@Override
+	public FlowFunction<D> getReturnFlowFunction(N callSite, M calleeMethod, N exitStmt, N returnSite) {
+		recordRequest();
+		return super.getReturnFlowFunction(callSite, calleeMethod, exitStmt, returnSite);
+	}
+
+	@Override
+	public FlowFunction<D> getCallToReturnFlowFunction(N callSite, N returnSite) {
+		recordRequest();
+		return super.getCallToReturnFlowFunction(callSite, returnSite);
+	}
+
+	/**
+	 * Gets the combined statistics of the caches for all types of flow functions.
+	 * Only the lookups that happened while counting was enabled are included.
+	 *
+	 * @return The statistics of this flow function cache
+	 */
+	public CacheStats stats() {
+		long misses = counter.misses.sum();
+		long hits = Math.max(0, counter.requests.sum() - misses);
+		return new CacheStats(hits, misses, misses, 0, 0, 0);
+	}
+
+}
@@ -0,0 +1,379 @@
+package soot.jimple.infoflow.solver.executors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that processes its tasks in epochs to obtain the same results in
+ * every run, regardless of the thread scheduling. All tasks of an epoch run in
+ * parallel. While they are running, the tasks must not modify shared state
+ * directly. Instead, they hand their updates to {@link #defer(long, Runnable)}.
+ * Once all tasks of the epoch have completed, the deferred updates are applied
+ * by a single thread in a canonical order, i.e., ordered by the index of the
+ * task that created them, a client-supplied fingerprint and the order in which
+ * the task created them. New tasks that are scheduled while applying the
+ * updates form the next epoch in the order in which they were scheduled.
+ *
+ * The epochs are driven by the thread that calls {@link #awaitCompletion()}.
+ * Tasks that are submitted before are only collected, but not executed.
+ *
+ * Note that the fingerprints must not depend on identity hash codes or other
+ * run-specific values. Updates with equal fingerprints that are created by the
+ * same task are applied in the order in which the task created them.
+ */
+public class DeterministicExecutor extends InterruptableExecutor {
+
+	/**
+	 * The number of tasks that a worker claims at once when processing an epoch
+	 */
+	private static final int BLOCK_SIZE = 16;
+
+	/**
+	 * The canonical order in which deferred updates are applied
+	 */
+	private static final Comparator<DeferredUpdate> UPDATE_ORDER = new Comparator<DeferredUpdate>() {
+
+		@Override
+		public int compare(DeferredUpdate o1, DeferredUpdate o2) {
+			int r = Integer.compare(o1.taskIndex, o2.taskIndex);
+			if (r != 0)
+				return r;
+			r = Long.compare(o1.fingerprint, o2.fingerprint);
+			if (r != 0)
+				return r;
+			return Integer.compare(o1.sequence, o2.sequence);
+		}
+
+	};
+
+	/**
+	 * The task that is currently running on this thread
+	 */
+	private static final ThreadLocal<TaskContext> currentTask = new ThreadLocal<>();
+
+	private final int numThreads;
+	private final Object lock = new Object();
+
+	/**
+	 * The tasks for the next epoch in the order in which they were scheduled
+	 */
+	private List<Runnable> nextTasks = new ArrayList<>();
+
+	/**
+	 * The updates that were deferred outside of a task, e.g., by the thread that
+	 * submitted the initial tasks
+	 */
+	private List<DeferredUpdate> externalUpdates = new ArrayList<>();
+
+	private volatile List<Runnable> currentEpoch = null;
+	private final AtomicInteger epochCursor = new AtomicInteger();
+	private volatile Thread committingThread = null;
+	private volatile long epochCount = 0;
+	private final List<Runnable> epochListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * An update that was deferred until the end of the current epoch
+	 */
+	private static class DeferredUpdate {
+
+		private final int taskIndex;
+		private final long fingerprint;
+		private final int sequence;
+		private final Runnable update;
+
+		DeferredUpdate(int taskIndex, long fingerprint, int sequence, Runnable update) {
+			this.taskIndex = taskIndex;
+			this.fingerprint = fingerprint;
+			this.sequence = sequence;
+			this.update = update;
+		}
+
+	}
+
+	/**
+	 * The context of a task that is running as part of an epoch
+	 */
+	private class TaskContext {
+
+		private final List<DeferredUpdate> updates;
+		private int taskIndex;
+		private int sequence;
+
+		TaskContext(List<DeferredUpdate> updates) {
+			this.updates = updates;
+		}
+
+		private DeterministicExecutor getExecutor() {
+			return DeterministicExecutor.this;
+		}
+
+	}
+
+	/**
+	 * Worker that processes blocks of tasks from the current epoch until the
+	 * epoch is exhausted
+	 */
+	private class EpochWorker implements Runnable {
+
+		private final List<Runnable> tasks;
+		private final TaskContext context;
+
+		EpochWorker(List<Runnable> tasks, List<DeferredUpdate> updates) {
+			this.tasks = tasks;
+			this.context = new TaskContext(updates);
+		}
+
+		@Override
+		public void run() {
+			currentTask.set(context);
+			try {
+				int start;
+				while (!interrupted && (start = epochCursor.getAndAdd(BLOCK_SIZE)) < tasks.size()) {
+					int end = Math.min(start + BLOCK_SIZE, tasks.size());
+					for (int i = start; i < end && !interrupted; i++) {
+						context.taskIndex = i;
+						context.sequence = 0;
+						tasks.get(i).run();
+					}
+				}
+			} finally {
+				currentTask.remove();
+			}
+		}
+
+	}
+
+	/**
+	 * Creates a new instance of the {@link DeterministicExecutor} class
+	 *
+	 * @param numThreads The number of threads that process the tasks of an epoch
+	 */
+	public DeterministicExecutor(int numThreads) {
+		super(Math.max(1, numThreads), Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	/**
+	 * Gets the deterministic executor that runs the task on the current thread
+	 *
+	 * @return The executor that runs the task on the current thread, or
+	 *         <code>null</code> if the current thread does not run a task of a
+	 *         deterministic executor
+	 */
+	public static DeterministicExecutor getCurrentExecutor() {
+		TaskContext context = currentTask.get();
+		return context == null ? null : context.getExecutor();
+	}
+
+	/**
+	 * Gets whether the current thread is applying the deferred updates of this
+	 * executor. Updates must be applied directly in this case.
+	 *
+	 * @return True if the current thread is applying the deferred updates,
+	 *         otherwise false
+	 */
+	public boolean isCommitting() {
+		return committingThread == Thread.currentThread();
+	}
+
+	/**
+	 * Defers the given update until the end of the current epoch
+	 *
+	 * @param fingerprint A run-independent fingerprint of the update that defines
+	 *                    its position in the canonical order
+	 * @param update      The update to apply
+	 */
+	public void defer(long fingerprint, Runnable update) {
+		TaskContext context = currentTask.get();
+		if (context != null && context.getExecutor() == this)
+			context.updates.add(new DeferredUpdate(context.taskIndex, fingerprint, context.sequence++, update));
+		else {
+			synchronized (lock) {
+				externalUpdates.add(new DeferredUpdate(-1, fingerprint, externalUpdates.size(), update));
+			}
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		// If the executor was terminated, it must be reset explicitly
+		if (this.terminated) {
+			logger.warn("Executor has terminated. Call reset() before submitting new tasks.");
+			return;
+		}
+
+		// Discard all submitted tasks if the executor has been interrupted
+		if (this.interrupted)
+			return;
+
+		// Tasks that are spawned by other tasks are scheduled for the next epoch in the
+		// canonical order
+		TaskContext context = currentTask.get();
+		if (context != null && context.getExecutor() == this)
+			defer(0, () -> enqueue(command));
+		else
+			enqueue(command);
+	}
+
+	/**
+	 * Adds the given task to the next epoch
+	 *
+	 * @param command The task to add
+	 */
+	private void enqueue(Runnable command) {
+		synchronized (lock) {
+			nextTasks.add(command);
+		}
+	}
+
+	@Override
+	public void awaitCompletion() throws InterruptedException {
+		awaitCompletion(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		// If we already know that we're done, there's no need to wait
+		if (terminated)
+			return;
+
+		final long deadline = unit.toNanos(timeout) == Long.MAX_VALUE ? Long.MAX_VALUE
+				: System.nanoTime() + unit.toNanos(timeout);
+		try {
+			while (!interrupted && exception == null) {
+				final List<Runnable> tasks;
+				final List<DeferredUpdate> updates;
+				synchronized (lock) {
+					if (nextTasks.isEmpty() && externalUpdates.isEmpty())
+						break;
+					tasks = nextTasks;
+					updates = externalUpdates;
+					nextTasks = new ArrayList<>();
+					externalUpdates = new ArrayList<>();
+				}
+
+				runEpoch(tasks, updates);
+				if (deadline != Long.MAX_VALUE && System.nanoTime() >= deadline)
+					break;
+			}
+		} finally {
+			currentEpoch = null;
+			if (interrupted) {
+				synchronized (lock) {
+					nextTasks.clear();
+					externalUpdates.clear();
+				}
+			}
+		}
+		terminated = true;
+	}
+
+	/**
+	 * Runs a single epoch, i.e., runs the given tasks in parallel and then applies
+	 * all deferred updates in the canonical order
+	 *
+	 * @param tasks   The tasks of the epoch
+	 * @param updates The list to which the deferred updates shall be added. This
+	 *                list may already contain updates that were deferred outside of
+	 *                a task.
+	 * @throws InterruptedException Thrown if the current thread was interrupted
+	 *                              while waiting for the tasks of the epoch
+	 */
+	private void runEpoch(List<Runnable> tasks, List<DeferredUpdate> updates) throws InterruptedException {
+		epochCount++;
+		if (!tasks.isEmpty()) {
+			currentEpoch = tasks;
+			epochCursor.set(0);
+
+			// Small epochs are not worth the overhead of handing them over to the workers
+			int numWorkers = Math.min(numThreads, (tasks.size() + BLOCK_SIZE - 1) / BLOCK_SIZE);
+			if (numWorkers <= 1) {
+				try {
+					new EpochWorker(tasks, updates).run();
+				} catch (RuntimeException | Error ex) {
+					exception = ex;
+					logger.error("Worker thread execution failed: " + ex.getMessage(), ex);
+					return;
+				}
+			} else {
+				List<List<DeferredUpdate>> workerUpdates = new ArrayList<>(numWorkers);
+				for (int i = 0; i < numWorkers; i++) {
+					List<DeferredUpdate> list = new ArrayList<>();
+					workerUpdates.add(list);
+					super.execute(new EpochWorker(tasks, list));
+				}
+				numRunningTasks.awaitZero();
+				for (List<DeferredUpdate> list : workerUpdates)
+					updates.addAll(list);
+			}
+			currentEpoch = null;
+		}
+		if (interrupted || exception != null)
+			return;
+
+		// Apply the updates in the canonical order. New tasks go to the next epoch.
+		updates.sort(UPDATE_ORDER);
+		committingThread = Thread.currentThread();
+		try {
+			for (DeferredUpdate update : updates) {
+				if (interrupted)
+					break;
+				update.update.run();
+			}
+		} finally {
+			committingThread = null;
+		}
+
+		// Notify the listeners that the epoch is complete
+		for (Runnable listener : epochListeners)
+			listener.run();
+	}
+
+	@Override
+	public boolean isFinished() {
+		if (terminated)
+			return true;
+		synchronized (lock) {
+			return currentEpoch == null && committingThread == null && nextTasks.isEmpty()
+					&& externalUpdates.isEmpty();
+		}
+	}
+
+	@Override
+	public long getPendingTaskCount() {
+		long pending;
+		synchronized (lock) {
+			pending = nextTasks.size();
+		}
+		List<Runnable> epoch = currentEpoch;
+		if (epoch != null)
+			pending += Math.max(0, epoch.size() - epochCursor.get());
+		return pending;
+	}
+
+	/**
+	 * Adds a listener that is notified whenever an epoch has been completed, i.e.,
+	 * after its deferred updates have been applied and before the next epoch
+	 * starts. The listener runs on the thread that drives the epochs.
+	 *
+	 * @param listener The listener to add
+	 */
+	public void addEpochListener(Runnable listener) {
+		epochListeners.add(listener);
+	}
+
+	/**
+	 * Gets the number of epochs that this executor has processed so far
+	 *
+	 * @return The number of epochs
+	 */
+	public long getEpochCount() {
+		return epochCount;
+	}
+
+}
@@ -0,0 +1,20 @@
+package soot.jimple.infoflow.solver.executors;
+
+/**
+ * Common interface for all classes that can process work items that have been
+ * scheduled on a {@link WorkStealingExecutor}. This allows clients to submit
+ * plain data objects instead of wrapping every single item into a new
+ * {@link Runnable}.
+ * 
+ * @param <T> The type of work items
+ */
+public interface IWorkItemProcessor<T> {
+
+	/**
+	 * Processes the given work item
+	 * 
+	 * @param item The work item to process
+	 */
+	public void processWorkItem(T item);
+
+}
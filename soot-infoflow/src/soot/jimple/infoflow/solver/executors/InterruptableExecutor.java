@@ -14,8 +14,8 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 
 	protected static final Logger logger = LoggerFactory.getLogger(InterruptableExecutor.class);
 
-	private boolean interrupted = false;
-	private boolean terminated = false;
+	protected boolean interrupted = false;
+	protected boolean terminated = false;
 
 	public InterruptableExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
 			BlockingQueue<Runnable> workQueue) {
@@ -104,4 +104,15 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 		return terminated || super.isTerminated();
 	}
 
+	/**
+	 * Gets the number of tasks that have been submitted to this executor, but
+	 * that have not been completed yet. This value is only an estimate, because
+	 * tasks may be submitted and completed concurrently.
+	 * 
+	 * @return The number of pending or running tasks
+	 */
+	public long getPendingTaskCount() {
+		return getQueue().size() + getActiveCount();
+	}
+
 }
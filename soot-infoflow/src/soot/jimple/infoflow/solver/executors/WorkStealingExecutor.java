@@ -0,0 +1,558 @@
+package soot.jimple.infoflow.solver.executors;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executor that keeps one work deque per worker thread instead of a single
+ * shared work queue. Workers push the tasks they create onto their own deque
+ * and pop them in LIFO order. Idle workers steal batches of tasks from the
+ * other end of the deques of their peers. Termination is detected by comparing
+ * per-worker submission and completion counters, so there is no global atomic
+ * counter that is touched for every task.
+ * 
+ * Clients can either submit {@link Runnable} objects through
+ * {@link #execute(Runnable)} or submit plain work items together with an
+ * {@link IWorkItemProcessor} through
+ * {@link #execute(IWorkItemProcessor, Object)}. The latter avoids allocating a
+ * new task object for each work item. Work items can also be bound to a
+ * preferred worker through {@link #execute(IWorkItemProcessor, Object, int)}.
+ * 
+ * Note that this executor does not implement set semantics, i.e., equal tasks
+ * may be scheduled more than once.
+ */
+public class WorkStealingExecutor extends InterruptableExecutor {
+
+	/**
+	 * The maximum number of work items that an idle worker steals from a peer at
+	 * once
+	 */
+	private static final int MAX_STEAL_BATCH = 64;
+
+	/**
+	 * The time for which a thread waiting for completion sleeps before it checks
+	 * for termination again
+	 */
+	private static final long AWAIT_POLL_MILLIS = 10;
+
+	/**
+	 * Processor that is used for plain {@link Runnable} tasks
+	 */
+	private static final IWorkItemProcessor<Runnable> RUNNABLE_PROCESSOR = new IWorkItemProcessor<Runnable>() {
+
+		@Override
+		public void processWorkItem(Runnable item) {
+			item.run();
+		}
+
+	};
+
+	private final int numWorkers;
+	private final Worker[] workers;
+	private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+
+	private final AtomicLong externalSubmissions = new AtomicLong();
+	private final AtomicLong discardedTasks = new AtomicLong();
+	private final AtomicInteger idleWorkers = new AtomicInteger();
+	private final AtomicInteger liveWorkers = new AtomicInteger();
+	private final Object completionMonitor = new Object();
+
+	private volatile boolean started = false;
+	private volatile boolean shutdown = false;
+	private volatile boolean cancelled = false;
+	private volatile Throwable exception = null;
+
+	/**
+	 * Creates a new instance of the {@link WorkStealingExecutor} class
+	 * 
+	 * @param numWorkers The number of worker threads
+	 */
+	public WorkStealingExecutor(int numWorkers) {
+		super(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		this.numWorkers = Math.max(1, numWorkers);
+		this.workers = new Worker[this.numWorkers];
+		for (int i = 0; i < this.numWorkers; i++)
+			this.workers[i] = new Worker(i);
+	}
+
+	/**
+	 * Starts the worker threads if they have not been started yet
+	 */
+	private void ensureStarted() {
+		if (started)
+			return;
+		synchronized (this) {
+			if (started || shutdown)
+				return;
+			for (Worker worker : workers) {
+				Thread thread = getThreadFactory().newThread(worker);
+				thread.setDaemon(true);
+				worker.thread = thread;
+				liveWorkers.incrementAndGet();
+				thread.start();
+			}
+			started = true;
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		execute(RUNNABLE_PROCESSOR, command);
+	}
+
+	/**
+	 * Schedules the given work item for processing by the given processor
+	 * 
+	 * @param processor The processor that shall handle the work item
+	 * @param item      The work item to schedule
+	 */
+	public <T> void execute(IWorkItemProcessor<T> processor, T item) {
+		// If the executor was terminated, it must be reset explicitly
+		if (this.terminated) {
+			logger.warn("Executor has terminated. Call reset() before submitting new tasks.");
+			return;
+		}
+
+		// Discard all submitted tasks if the executor has been interrupted
+		if (this.interrupted || this.cancelled || this.shutdown)
+			return;
+		ensureStarted();
+
+		// Tasks that are spawned by our own workers go to the local deque, all other
+		// tasks are distributed randomly. We must count the task before we publish it,
+		// because otherwise another worker might complete it before it was counted.
+		Worker worker = currentWorker.get();
+		if (worker != null) {
+			worker.submitted++;
+			worker.deque.push(processor, item);
+		} else {
+			externalSubmissions.incrementAndGet();
+			workers[ThreadLocalRandom.current().nextInt(numWorkers)].deque.push(processor, item);
+		}
+
+		// Wake up an idle worker to take care of the new work
+		if (idleWorkers.get() > 0)
+			wakeUpIdleWorker();
+	}
+
+	/**
+	 * Schedules the given work item for processing by the given processor. Work
+	 * items with the same affinity value are preferably handled by the same worker,
+	 * which improves the locality of the data that is accessed when processing
+	 * them. Idle workers may nevertheless steal such work items.
+	 * 
+	 * @param processor The processor that shall handle the work item
+	 * @param item      The work item to schedule
+	 * @param affinity  The affinity value that determines the preferred worker
+	 */
+	public <T> void execute(IWorkItemProcessor<T> processor, T item, int affinity) {
+		// If the executor was terminated, it must be reset explicitly
+		if (this.terminated) {
+			logger.warn("Executor has terminated. Call reset() before submitting new tasks.");
+			return;
+		}
+
+		// Discard all submitted tasks if the executor has been interrupted
+		if (this.interrupted || this.cancelled || this.shutdown)
+			return;
+		ensureStarted();
+
+		// The task is counted by the submitting thread, regardless of which deque it
+		// is pushed onto
+		Worker target = workers[(affinity & Integer.MAX_VALUE) % numWorkers];
+		Worker worker = currentWorker.get();
+		if (worker != null)
+			worker.submitted++;
+		else
+			externalSubmissions.incrementAndGet();
+		target.deque.push(processor, item);
+
+		// Make sure that the preferred worker picks up the new task
+		if (target != worker && target.idle)
+			LockSupport.unpark(target.thread);
+		else if (idleWorkers.get() > 0)
+			wakeUpIdleWorker();
+	}
+
+	/**
+	 * Wakes up a single idle worker, if there is one
+	 */
+	private void wakeUpIdleWorker() {
+		for (Worker worker : workers) {
+			if (worker.idle) {
+				LockSupport.unpark(worker.thread);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether all tasks that have ever been submitted to this executor have
+	 * been completed. All completion counters are read before all submission
+	 * counters. Since both counters are monotonic and a task is always counted as
+	 * submitted before it is counted as completed, equal sums imply that there was
+	 * a point in time at which no task was pending or running.
+	 * 
+	 * @return True if there are no more pending or running tasks, otherwise false
+	 */
+	private boolean isQuiescent() {
+		long completed = discardedTasks.get();
+		for (Worker worker : workers)
+			completed += worker.completed;
+
+		long submitted = externalSubmissions.get();
+		for (Worker worker : workers)
+			submitted += worker.submitted;
+		return completed == submitted;
+	}
+
+	/**
+	 * Notifies threads that are waiting for the completion of this executor
+	 */
+	private void signalCompletionCheck() {
+		synchronized (completionMonitor) {
+			completionMonitor.notifyAll();
+		}
+	}
+
+	@Override
+	public void awaitCompletion() throws InterruptedException {
+		awaitCompletion(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		// If we already know that we're done, there's no need to wait
+		if (terminated)
+			return;
+
+		final long deadline = unit.toNanos(timeout) == Long.MAX_VALUE ? Long.MAX_VALUE
+				: System.nanoTime() + unit.toNanos(timeout);
+		synchronized (completionMonitor) {
+			while (!interrupted && !cancelled && !isQuiescent()) {
+				if (deadline != Long.MAX_VALUE && System.nanoTime() >= deadline)
+					return;
+				completionMonitor.wait(AWAIT_POLL_MILLIS);
+			}
+		}
+		terminated = true;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return terminated || cancelled || isQuiescent();
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.cancelled = false;
+		this.exception = null;
+	}
+
+	@Override
+	public void interrupt() {
+		// Make sure that no new tasks are spawned
+		this.interrupted = true;
+
+		// Get rid of the cancelled tasks
+		for (Worker worker : workers)
+			discardedTasks.addAndGet(worker.deque.clear());
+
+		// Signal to the blocking threads that we are done
+		signalCompletionCheck();
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		for (Worker worker : workers) {
+			if (worker.thread != null)
+				LockSupport.unpark(worker.thread);
+		}
+		super.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.cancelled = true;
+		shutdown();
+		for (Worker worker : workers)
+			discardedTasks.addAndGet(worker.deque.clear());
+		signalCompletionCheck();
+		return super.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminating() {
+		return shutdown && liveWorkers.get() > 0;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return terminated || (shutdown && liveWorkers.get() == 0);
+	}
+
+	@Override
+	public int getActiveCount() {
+		if (!started || liveWorkers.get() == 0)
+			return 0;
+		return Math.max(0, liveWorkers.get() - idleWorkers.get());
+	}
+
+	@Override
+	public Throwable getException() {
+		return exception;
+	}
+
+	@Override
+	public long getPendingTaskCount() {
+		long completed = discardedTasks.get();
+		for (Worker worker : workers)
+			completed += worker.completed;
+
+		long submitted = externalSubmissions.get();
+		for (Worker worker : workers)
+			submitted += worker.submitted;
+		return Math.max(0, submitted - completed);
+	}
+
+	/**
+	 * A single worker thread with its own work deque
+	 */
+	private class Worker implements Runnable {
+
+		private final int index;
+		private final WorkDeque deque = new WorkDeque();
+		private final Object[] stealBuffer = new Object[2 * MAX_STEAL_BATCH];
+
+		private Thread thread;
+		private volatile boolean idle = false;
+
+		/**
+		 * The number of tasks submitted by this worker. Only written by the worker
+		 * thread itself.
+		 */
+		private volatile long submitted = 0;
+
+		/**
+		 * The number of tasks completed by this worker. Only written by the worker
+		 * thread itself.
+		 */
+		private volatile long completed = 0;
+
+		private IWorkItemProcessor<Object> currentProcessor;
+		private Object currentItem;
+
+		public Worker(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public void run() {
+			currentWorker.set(this);
+			try {
+				while (!shutdown && !cancelled) {
+					if (deque.pollLocal(this) || steal()) {
+						runCurrentTask();
+						continue;
+					}
+
+					// We have nothing to do. Register as idle, but re-check for work to avoid
+					// missing a wake-up call. Submitters publish their task before they look for
+					// idle workers, so either we see the new task here or the submitter sees us
+					// and unparks us.
+					idle = true;
+					idleWorkers.incrementAndGet();
+					try {
+						if (hasPendingWork())
+							continue;
+						signalCompletionCheck();
+						if (!shutdown && !cancelled)
+							LockSupport.park(this);
+					} finally {
+						idleWorkers.decrementAndGet();
+						idle = false;
+					}
+				}
+			} finally {
+				currentWorker.remove();
+				liveWorkers.decrementAndGet();
+				signalCompletionCheck();
+			}
+		}
+
+		/**
+		 * Runs the task that has been taken from a deque
+		 */
+		private void runCurrentTask() {
+			IWorkItemProcessor<Object> processor = currentProcessor;
+			Object item = currentItem;
+			currentProcessor = null;
+			currentItem = null;
+			try {
+				if (!interrupted)
+					processor.processWorkItem(item);
+			} catch (Throwable t) {
+				exception = t;
+				logger.error("Worker thread execution failed: " + t.getMessage(), t);
+				interrupt();
+			} finally {
+				completed++;
+			}
+		}
+
+		/**
+		 * Steals a batch of work items from a peer and moves them to our own deque
+		 * 
+		 * @return True if at least one work item has been stolen and the first one has
+		 *         been made the current task, otherwise false
+		 */
+		private boolean steal() {
+			int offset = numWorkers <= 1 ? 0 : ThreadLocalRandom.current().nextInt(numWorkers);
+			for (int i = 0; i < numWorkers; i++) {
+				Worker victim = workers[(offset + i) % numWorkers];
+				if (victim == this)
+					continue;
+				int stolen = victim.deque.stealInto(stealBuffer);
+				if (stolen > 0) {
+					// Keep the first stolen item for ourselves and push the rest onto our own
+					// deque where others can steal it again
+					if (stolen > 1)
+						deque.pushAll(stealBuffer, 1, stolen);
+					setCurrent(stealBuffer[0], stealBuffer[1]);
+					for (int j = 0; j < 2 * stolen; j++)
+						stealBuffer[j] = null;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void setCurrent(Object processor, Object item) {
+			this.currentProcessor = (IWorkItemProcessor<Object>) processor;
+			this.currentItem = item;
+		}
+
+		/**
+		 * Checks whether any deque still contains work
+		 * 
+		 * @return True if there is work left in any deque, otherwise false
+		 */
+		private boolean hasPendingWork() {
+			for (Worker worker : workers)
+				if (!worker.deque.isEmpty())
+					return true;
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "Worker " + index;
+		}
+
+	}
+
+	/**
+	 * Double-ended queue that stores pairs of processors and work items in a
+	 * circular array. The owner works on the tail, thieves take from the head.
+	 * Since only the owner and the occasional thief access a deque, the monitor of
+	 * the deque is hardly ever contended.
+	 */
+	private static class WorkDeque {
+
+		private Object[] buffer = new Object[64];
+		private int head = 0;
+		private int size = 0;
+		private volatile boolean empty = true;
+
+		public synchronized void push(Object processor, Object item) {
+			ensureCapacity(size + 1);
+			int idx = (head + 2 * size) % buffer.length;
+			buffer[idx] = processor;
+			buffer[idx + 1] = item;
+			size++;
+			empty = false;
+		}
+
+		public synchronized void pushAll(Object[] pairs, int from, int to) {
+			ensureCapacity(size + to - from);
+			for (int i = from; i < to; i++) {
+				int idx = (head + 2 * size) % buffer.length;
+				buffer[idx] = pairs[2 * i];
+				buffer[idx + 1] = pairs[2 * i + 1];
+				size++;
+			}
+			empty = size == 0;
+		}
+
+		public synchronized boolean pollLocal(Worker worker) {
+			if (size == 0)
+				return false;
+			size--;
+			int idx = (head + 2 * size) % buffer.length;
+			worker.setCurrent(buffer[idx], buffer[idx + 1]);
+			buffer[idx] = null;
+			buffer[idx + 1] = null;
+			empty = size == 0;
+			return true;
+		}
+
+		public synchronized int stealInto(Object[] target) {
+			if (size == 0)
+				return 0;
+
+			// Take half of the work, but at least one item
+			int count = Math.min(Math.max(1, size / 2), target.length / 2);
+			for (int i = 0; i < count; i++) {
+				target[2 * i] = buffer[head];
+				target[2 * i + 1] = buffer[head + 1];
+				buffer[head] = null;
+				buffer[head + 1] = null;
+				head = (head + 2) % buffer.length;
+			}
+			size -= count;
+			empty = size == 0;
+			return count;
+		}
+
+		public synchronized int clear() {
+			int oldSize = size;
+			for (int i = 0; i < buffer.length; i++)
+				buffer[i] = null;
+			head = 0;
+			size = 0;
+			empty = true;
+			return oldSize;
+		}
+
+		public boolean isEmpty() {
+			return empty;
+		}
+
+		private void ensureCapacity(int requiredPairs) {
+			if (2 * requiredPairs <= buffer.length)
+				return;
+
+			// Copy the elements over in order, starting at index zero
+			Object[] newBuffer = new Object[Math.max(buffer.length * 2, 2 * requiredPairs)];
+			for (int i = 0; i < 2 * size; i++)
+				newBuffer[i] = buffer[(head + i) % buffer.length];
+			buffer = newBuffer;
+			head = 0;
+		}
+
+	}
+
+}
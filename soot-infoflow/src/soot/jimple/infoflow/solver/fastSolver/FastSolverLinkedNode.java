@@ -15,6 +15,22 @@ public interface FastSolverLinkedNode<D, N> extends Cloneable {
 	 */
 	public boolean addNeighbor(D originalAbstraction);
 
+	/**
+	 * Links this node to a neighbor node unless this node already has the given
+	 * maximum number of neighbors. Implementations that are accessed concurrently
+	 * should perform the size check and the insertion atomically.
+	 * 
+	 * @param originalAbstraction The neighbor node to add
+	 * @param maxNeighbors        The maximum number of neighbors, or -1 for no
+	 *                            limit
+	 * @return True if the neighbor was added, false if it was rejected
+	 */
+	public default boolean addNeighbor(D originalAbstraction, int maxNeighbors) {
+		if (maxNeighbors >= 0 && getNeighborCount() >= maxNeighbors)
+			return false;
+		return addNeighbor(originalAbstraction);
+	}
+
 	/**
 	 * Gets the number of neighbors already registered with this abstraction
 	 * 
@@ -22,6 +38,11 @@ public interface FastSolverLinkedNode<D, N> extends Cloneable {
 	 */
 	public int getNeighborCount();
 
+	/**
+	 * Removes all neighbors from this node to free memory
+	 */
+	public void clearNeighbors();
+
 	/**
 	 * Explicitly sets the predecessor of this node.
 	 * 
@@ -59,4 +80,20 @@ public interface FastSolverLinkedNode<D, N> extends Cloneable {
 	 */
 	public int getPathLength();
 
+	/**
+	 * Gets the dense index that the solver tables have assigned to this node
+	 * 
+	 * @return The dense index of this node together with the generation of the
+	 *         indexer that assigned it, or -1 if no index has been assigned yet
+	 */
+	public long getDenseIndex();
+
+	/**
+	 * Sets the dense index that the solver tables have assigned to this node
+	 * 
+	 * @param denseIndex The dense index of this node together with the generation
+	 *                   of the indexer that assigned it
+	 */
+	public void setDenseIndex(long denseIndex);
+
 }
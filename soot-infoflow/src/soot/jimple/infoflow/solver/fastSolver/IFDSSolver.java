@@ -13,9 +13,11 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.fastSolver;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -32,7 +34,6 @@ import com.google.common.cache.CacheBuilder;
 
 import heros.DontSynchronize;
 import heros.FlowFunction;
-import heros.FlowFunctionCache;
 import heros.FlowFunctions;
 import heros.IFDSTabulationProblem;
 import heros.SynchronizedBy;
@@ -44,10 +45,16 @@ import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.metrics.SolverMetrics;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
+import soot.jimple.infoflow.solver.StatsFlowFunctionCache;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
+import soot.jimple.infoflow.solver.executors.IWorkItemProcessor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 
@@ -81,6 +88,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@SynchronizedBy("thread safe data structure, consistent locking when used")
 	protected MyConcurrentHashMap<PathEdge<N, D>, D> jumpFunctions = new MyConcurrentHashMap<PathEdge<N, D>, D>();
 
+	@SynchronizedBy("thread safe data structures")
+	protected IndexedSolverTables<N, D> indexedTables = null;
+
 	@SynchronizedBy("thread safe data structure, only modified internally")
 	protected final I icfg;
 
@@ -107,20 +117,23 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected final D zeroValue;
 
 	@DontSynchronize("readOnly")
-	protected final FlowFunctionCache<N, D, SootMethod> ffCache;
+	protected final StatsFlowFunctionCache<N, D, SootMethod> ffCache;
 
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
-	@DontSynchronize("readOnly")
-	protected PredecessorShorteningMode shorteningMode = PredecessorShorteningMode.NeverShorten;
+	@DontSynchronize("only changed under memory pressure")
+	protected volatile PredecessorShorteningMode shorteningMode = PredecessorShorteningMode.NeverShorten;
 
-	@DontSynchronize("readOnly")
-	private int maxJoinPointAbstractions = -1;
+	@DontSynchronize("only changed under memory pressure")
+	private volatile int maxJoinPointAbstractions = -1;
 
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
 
+	@DontSynchronize("readOnly")
+	protected SolverMetrics metrics = null;
+
 	protected boolean solverId;
 
 	private Set<IMemoryBoundedSolverStatusNotification> notificationListeners = new HashSet<>();
@@ -129,6 +142,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	private int maxCalleesPerCallSite = 75;
 	private int maxAbstractionPathLength = 100;
 
+	@DontSynchronize("stateless")
+	protected final IWorkItemProcessor<PathEdge<N, D>> edgeProcessor = new IWorkItemProcessor<PathEdge<N, D>>() {
+
+		@Override
+		public void processWorkItem(PathEdge<N, D> edge) {
+			processPathEdge(edge);
+		}
+
+	};
+
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
 	 * functions. The solver must then be started by calling {@link #solve()}.
@@ -157,7 +180,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 				? new ZeroedFlowFunctions<N, D, SootMethod>(tabulationProblem.flowFunctions(), zeroValue)
 				: tabulationProblem.flowFunctions();
 		if (flowFunctionCacheBuilder != null) {
-			ffCache = new FlowFunctionCache<N, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
+			ffCache = new StatsFlowFunctionCache<N, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
 			flowFunctions = ffCache;
 		} else {
 			ffCache = null;
@@ -201,7 +224,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 			N startPoint = seed.getKey();
 			for (D val : seed.getValue())
 				propagate(zeroValue, startPoint, val, null, false);
-			addFunction(new PathEdge<N, D>(zeroValue, startPoint, zeroValue));
+
+			// In deterministic mode, the seeds are only propagated at the end of the
+			// current epoch, so we must not register the zero edge before
+			final PathEdge<N, D> zeroEdge = new PathEdge<N, D>(zeroValue, startPoint, zeroValue);
+			if (mustDeferTableUpdates())
+				((DeterministicExecutor) executor).defer(getEdgeFingerprint(zeroValue, startPoint, zeroValue),
+						() -> addFunction(zeroEdge));
+			else
+				addFunction(zeroEdge);
 		}
 	}
 
@@ -261,8 +292,26 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (killFlag != null || executor.isTerminating() || executor.isTerminated())
 			return;
 
-		executor.execute(new PathEdgeProcessingTask(edge, solverId));
+		// Executors that support plain work items do not need a new task object for
+		// each edge
+		if (executor instanceof WorkStealingExecutor)
+			((WorkStealingExecutor) executor).execute(edgeProcessor, edge);
+		else
+			executor.execute(new PathEdgeProcessingTask(edge, solverId));
+		onEdgeScheduled(edge);
+	}
+
+	/**
+	 * Updates the propagation count and the metrics after an edge has been
+	 * scheduled. Subclasses that schedule edges on their own must call this
+	 * method for every edge.
+	 * 
+	 * @param edge The edge that has been scheduled
+	 */
+	protected void onEdgeScheduled(PathEdge<N, D> edge) {
 		propagationCount++;
+		if (metrics != null)
+			metrics.recordEdge(icfg.getMethodOf(edge.getTarget()));
 	}
 
 	/**
@@ -306,19 +355,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 								if (d3 == null)
 									continue;
 
-								// for each callee's start point(s)
-								for (N sP : startPointsOf) {
-									// create initial self-loop
-									propagate(d3, sP, d3, n, false); // line 15
-								}
-
-								// register the fact that <sp,d3> has an incoming edge from
-								// <n,d2>
-								// line 15.1 of Naeem/Lhotak/Rodriguez
-								if (!addIncoming(sCalledProcN, d3, n, d1, d2))
-									continue;
-
-								applyEndSummaryOnCall(d1, n, d2, returnSiteNs, sCalledProcN, d3);
+								// In deterministic mode, the callee tables are only updated at the end of
+								// the current epoch
+								if (mustDeferTableUpdates()) {
+									final D d3f = d3;
+									((DeterministicExecutor) executor).defer(getEdgeFingerprint(d2, n, d3),
+											() -> processCallee(d1, n, d2, returnSiteNs, sCalledProcN, startPointsOf,
+													d3f));
+								} else
+									processCallee(d1, n, d2, returnSiteNs, sCalledProcN, startPointsOf, d3);
 							}
 						}
 					}
@@ -343,6 +388,40 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 	}
 
+	/**
+	 * Registers the incoming edge for a callee-side abstraction that has been
+	 * created by a call flow function, starts the analysis of the callee and
+	 * applies the existing end summaries of the callee
+	 * 
+	 * @param d1            The abstraction at the caller's start node
+	 * @param n             The call site
+	 * @param d2            The abstraction at the call site
+	 * @param returnSiteNs  The return sites of the call site
+	 * @param sCalledProcN  The callee
+	 * @param startPointsOf The start points of the callee
+	 * @param d3            The callee-side abstraction
+	 */
+	private void processCallee(D d1, N n, D d2, Collection<N> returnSiteNs, SootMethod sCalledProcN,
+			Collection<N> startPointsOf, D d3) {
+		// If the summaries of the callee are already known from an earlier
+		// analysis run, we do not need to analyze the callee again
+		if (!loadCachedEndSummaries(sCalledProcN, d3)) {
+			// for each callee's start point(s)
+			for (N sP : startPointsOf) {
+				// create initial self-loop
+				propagate(d3, sP, d3, n, false); // line 15
+			}
+		}
+
+		// register the fact that <sp,d3> has an incoming edge from
+		// <n,d2>
+		// line 15.1 of Naeem/Lhotak/Rodriguez
+		if (!addIncoming(sCalledProcN, d3, n, d1, d2))
+			return;
+
+		applyEndSummaryOnCall(d1, n, d2, returnSiteNs, sCalledProcN, d3);
+	}
+
 	/**
 	 * Callback to notify derived classes that an end summary has been applied
 	 * 
@@ -353,61 +432,98 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected void onEndSummaryApplied(N n, SootMethod sCalledProc, D d3) {
 	}
 
+	/**
+	 * Callback that allows derived classes to supply the end summaries of a callee
+	 * from an external source, e.g., a cache that was filled by an earlier analysis
+	 * run. If the summaries are supplied, the callee is not analyzed for the given
+	 * incoming abstraction.
+	 * 
+	 * @param callee The callee
+	 * @param d3     The callee-side incoming taint abstraction
+	 * @return True if the end summaries for the given callee and abstraction have
+	 *         been registered with this solver, false if the callee must be
+	 *         analyzed
+	 */
+	protected boolean loadCachedEndSummaries(SootMethod callee, D d3) {
+		return false;
+	}
+
 	protected void applyEndSummaryOnCall(final D d1, final N n, final D d2, Collection<N> returnSiteNs,
 			SootMethod sCalledProcN, D d3) {
 		// line 15.2
 		Set<EndSummary<N, D>> endSumm = endSummary(sCalledProcN, d3);
+		if (endSumm == null || endSumm.isEmpty())
+			return;
+
+		// We must acknowledge the incoming abstraction from the other path
+		for (EndSummary<N, D> entry : endSumm)
+			entry.calleeD1.addNeighbor(d3);
 
+		// The end summaries may change before the flow functions are computed
+		final Collection<EndSummary<N, D>> summaries = isCommitting() ? new ArrayList<>(endSumm) : endSumm;
+		runInParallelPhase(() -> applyEndSummaries(d1, n, d2, returnSiteNs, sCalledProcN, d3, summaries));
+	}
+
+	/**
+	 * Computes the return flow functions for the given end summaries of a callee
+	 * and propagates the results to the return sites in the caller
+	 * 
+	 * @param d1           The abstraction at the caller's start node
+	 * @param n            The call site
+	 * @param d2           The abstraction at the call site
+	 * @param returnSiteNs The return sites of the call site
+	 * @param sCalledProcN The callee
+	 * @param d3           The callee-side incoming abstraction
+	 * @param endSumm      The end summaries of the callee for the incoming
+	 *                     abstraction
+	 */
+	private void applyEndSummaries(final D d1, final N n, final D d2, Collection<N> returnSiteNs,
+			SootMethod sCalledProcN, D d3, Collection<EndSummary<N, D>> endSumm) {
 		// still line 15.2 of Naeem/Lhotak/Rodriguez
 		// for each already-queried exit value <eP,d4> reachable
 		// from <sP,d3>, create new caller-side jump functions to
 		// the return sites because we have observed a potentially
 		// new incoming edge into <sP,d3>
-		if (endSumm != null && !endSumm.isEmpty()) {
-			for (EndSummary<N, D> entry : endSumm) {
-				N eP = entry.eP;
-				D d4 = entry.d4;
-
-				// We must acknowledge the incoming abstraction from the other path
-				entry.calleeD1.addNeighbor(d3);
-
-				// for each return site
-				for (N retSiteN : returnSiteNs) {
-					// compute return-flow function
-					FlowFunction<D> retFunction = flowFunctions.getReturnFlowFunction(n, sCalledProcN, eP, retSiteN);
-					Set<D> retFlowRes = computeReturnFlowFunction(retFunction, d3, d4, n, Collections.singleton(d1));
-					if (retFlowRes != null && !retFlowRes.isEmpty()) {
-						// for each target value of the function
-						for (D d5 : retFlowRes) {
-							if (memoryManager != null)
-								d5 = memoryManager.handleGeneratedMemoryObject(d4, d5);
-
-							// If we have not changed anything in
-							// the callee, we do not need the facts from
-							// there. Even if we change something:
-							// If we don't need the concrete path,
-							// we can skip the callee in the predecessor
-							// chain
-							D d5p = d5;
-							switch (shorteningMode) {
-							case AlwaysShorten:
-								if (d5p != d2) {
-									d5p = d5p.clone();
-									d5p.setPredecessor(d2);
-								}
-								break;
-							case ShortenIfEqual:
-								if (d5.equals(d2))
-									d5p = d2;
-								break;
+		for (EndSummary<N, D> entry : endSumm) {
+			N eP = entry.eP;
+			D d4 = entry.d4;
+
+			// for each return site
+			for (N retSiteN : returnSiteNs) {
+				// compute return-flow function
+				FlowFunction<D> retFunction = flowFunctions.getReturnFlowFunction(n, sCalledProcN, eP, retSiteN);
+				Set<D> retFlowRes = computeReturnFlowFunction(retFunction, d3, d4, n, Collections.singleton(d1));
+				if (retFlowRes != null && !retFlowRes.isEmpty()) {
+					// for each target value of the function
+					for (D d5 : retFlowRes) {
+						if (memoryManager != null)
+							d5 = memoryManager.handleGeneratedMemoryObject(d4, d5);
+
+						// If we have not changed anything in
+						// the callee, we do not need the facts from
+						// there. Even if we change something:
+						// If we don't need the concrete path,
+						// we can skip the callee in the predecessor
+						// chain
+						D d5p = d5;
+						switch (shorteningMode) {
+						case AlwaysShorten:
+							if (d5p != d2) {
+								d5p = d5p.clone();
+								d5p.setPredecessor(d2);
 							}
-							propagate(d1, retSiteN, d5p, n, false);
+							break;
+						case ShortenIfEqual:
+							if (d5.equals(d2))
+								d5p = d2;
+							break;
 						}
+						propagate(d1, retSiteN, d5p, n, false);
 					}
 				}
 			}
-			onEndSummaryApplied(n, sCalledProcN, d3);
 		}
+		onEndSummaryApplied(n, sCalledProcN, d3);
 	}
 
 	/**
@@ -458,6 +574,29 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 			return;
 		Map<N, Map<D, D>> inc = incoming(d1, methodThatNeedsSummary);
 
+		// The incoming edges may change before the flow functions are computed
+		if (inc != null && isCommitting()) {
+			Map<N, Map<D, D>> incCopy = new LinkedHashMap<>();
+			for (Entry<N, Map<D, D>> entry : inc.entrySet())
+				incCopy.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+			inc = incCopy;
+		}
+		final Map<N, Map<D, D>> callers = inc;
+		runInParallelPhase(() -> applyIncoming(methodThatNeedsSummary, d1, n, d2, callers));
+	}
+
+	/**
+	 * Computes the return flow functions for an end summary of a method and
+	 * propagates the results to the return sites of the given incoming calls
+	 * 
+	 * @param methodThatNeedsSummary The method that has been summarized
+	 * @param d1                     The abstraction at the method's start node
+	 * @param n                      The exit node
+	 * @param d2                     The abstraction at the exit node
+	 * @param inc                    The incoming calls to the method for the given
+	 *                               start abstraction
+	 */
+	private void applyIncoming(SootMethod methodThatNeedsSummary, D d1, N n, D d2, Map<N, Map<D, D>> inc) {
 		// for each incoming call edge already processed
 		// (see processCall(..))
 		if (inc != null && !inc.isEmpty())
@@ -622,6 +761,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected void propagate(D sourceVal, N target, D targetVal,
 			/* deliberately exposed to clients */ N relatedCallSite,
 			/* deliberately exposed to clients */ boolean isUnbalancedReturn) {
+		// In deterministic mode, new edges are only added at the end of the current
+		// epoch
+		if (mustDeferTableUpdates()) {
+			final D d1 = sourceVal;
+			final D d2 = targetVal;
+			((DeterministicExecutor) executor).defer(getEdgeFingerprint(d1, target, d2),
+					() -> propagate(d1, target, d2, relatedCallSite, isUnbalancedReturn));
+			return;
+		}
+
 		// Let the memory manager run
 		if (memoryManager != null) {
 			sourceVal = memoryManager.handleMemoryObject(sourceVal);
@@ -634,11 +783,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (maxAbstractionPathLength >= 0 && targetVal.getPathLength() > maxAbstractionPathLength)
 			return;
 
-		D activeVal = targetVal.getActiveCopy();
- 		PathEdge<N, D> activeEdge = new PathEdge<>(sourceVal, target, activeVal);
-		
-		final PathEdge<N, D> edge = new PathEdge<>(sourceVal, target, targetVal);
-		final D existingVal = addFunction(edge);
+		// In indexed mode, we only need a path edge object if we have to schedule it
+		final PathEdge<N, D> edge;
+		final D existingVal;
+		if (indexedTables != null) {
+			existingVal = indexedTables.addJumpFunction(sourceVal, target, targetVal);
+			edge = existingVal == null ? new PathEdge<>(sourceVal, target, targetVal) : null;
+		} else {
+			edge = new PathEdge<>(sourceVal, target, targetVal);
+			existingVal = addFunction(edge);
+		}
 		if (existingVal != null) {
 			if (existingVal != targetVal) {
 				// Check whether we need to retain this abstraction
@@ -648,36 +802,90 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 				else
 					isEssential = memoryManager.isEssentialJoinPoint(targetVal, relatedCallSite);
 
-				if (maxJoinPointAbstractions < 0 || existingVal.getNeighborCount() < maxJoinPointAbstractions
-						|| isEssential) {
-					existingVal.addNeighbor(targetVal);
-				}
+				// Essential join points are never subject to the neighbor limit
+				existingVal.addNeighbor(targetVal, isEssential ? -1 : maxJoinPointAbstractions);
 			}
 		} else {
 			scheduleEdgeProcessing(edge);
 		}
 	}
 
+	/**
+	 * Checks whether updates to the tables of this solver must be deferred. This is
+	 * the case if the solver runs on a {@link DeterministicExecutor} and the
+	 * current thread is not applying the deferred updates of the current epoch.
+	 * 
+	 * @return True if updates to the solver tables must be deferred, otherwise
+	 *         false
+	 */
+	protected boolean mustDeferTableUpdates() {
+		return executor instanceof DeterministicExecutor && !((DeterministicExecutor) executor).isCommitting();
+	}
+
+	/**
+	 * Checks whether the current thread is applying the deferred updates of the
+	 * current epoch of a {@link DeterministicExecutor}
+	 * 
+	 * @return True if the solver tables are currently being updated at the end of
+	 *         an epoch, otherwise false
+	 */
+	protected boolean isCommitting() {
+		return executor instanceof DeterministicExecutor && ((DeterministicExecutor) executor).isCommitting();
+	}
+
+	/**
+	 * Runs the given computation of flow functions. While the deferred updates of
+	 * an epoch are applied, this would block all other threads. The computation is
+	 * then postponed to the next epoch, in which it runs in parallel with the other
+	 * tasks.
+	 * 
+	 * @param computation The computation to run
+	 */
+	protected void runInParallelPhase(Runnable computation) {
+		if (isCommitting())
+			executor.execute(computation);
+		else
+			computation.run();
+	}
+
+	/**
+	 * Computes a fingerprint of the given edge that is the same in every analysis
+	 * run. The fingerprint defines the order in which deferred updates are applied
+	 * in deterministic mode.
+	 * 
+	 * @param d1     The abstraction at the start point of the method
+	 * @param target The target statement of the edge
+	 * @param d2     The abstraction at the target statement
+	 * @return The fingerprint of the given edge
+	 */
+	protected long getEdgeFingerprint(D d1, N target, D d2) {
+		return 0;
+	}
+
 	/**
 	 * Records a jump function. The source statement is implicit.
 	 * 
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<N, D> edge) {
+		if (indexedTables != null)
+			return indexedTables.addJumpFunction(edge.factAtSource(), edge.getTarget(), edge.factAtTarget());
 		return jumpFunctions.putIfAbsent(edge, edge.factAtTarget());
 	}
 
 	protected Set<EndSummary<N, D>> endSummary(SootMethod m, D d3) {
-		Map<EndSummary<N, D>, EndSummary<N, D>> map = endSummary.get(new Pair<>(m, d3));
+		Map<EndSummary<N, D>, EndSummary<N, D>> map = indexedTables != null ? indexedTables.getEndSummaries(m, d3)
+				: endSummary.get(new Pair<>(m, d3));
 		return map == null ? null : map.keySet();
 	}
 
-	private boolean addEndSummary(SootMethod m, D d1, N eP, D d2) {
+	protected boolean addEndSummary(SootMethod m, D d1, N eP, D d2) {
 		if (d1 == zeroValue)
 			return true;
 
-		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = endSummary.putIfAbsentElseGet(new Pair<>(m, d1),
-				() -> new ConcurrentHashMap<>());
+		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = indexedTables != null
+				? indexedTables.getOrCreateEndSummaries(m, d1)
+				: endSummary.putIfAbsentElseGet(new Pair<>(m, d1), () -> new ConcurrentHashMap<>());
 		EndSummary<N, D> newSummary = new EndSummary<>(eP, d2, d1);
 		EndSummary<N, D> existingSummary = summaries.putIfAbsent(newSummary, newSummary);
 		if (existingSummary != null) {
@@ -687,14 +895,31 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		return true;
 	}
 
+	/**
+	 * Calls the given consumer for all end summaries that this solver has computed
+	 * 
+	 * @param consumer The consumer to call for each end summary
+	 */
+	public void forEachEndSummary(Consumer<EndSummary<N, D>> consumer) {
+		if (indexedTables != null)
+			indexedTables.forEachEndSummary(consumer);
+		else {
+			for (Map<EndSummary<N, D>, EndSummary<N, D>> summaries : endSummary.values())
+				summaries.keySet().forEach(consumer);
+		}
+	}
+
 	protected Map<N, Map<D, D>> incoming(D d1, SootMethod m) {
+		if (indexedTables != null)
+			return indexedTables.getIncoming(m, d1);
 		Map<N, Map<D, D>> map = incoming.get(new Pair<SootMethod, D>(m, d1));
 		return map;
 	}
 
 	protected boolean addIncoming(SootMethod m, D d3, N n, D d1, D d2) {
-		MyConcurrentHashMap<N, Map<D, D>> summaries = incoming.putIfAbsentElseGet(new Pair<SootMethod, D>(m, d3),
-				() -> new MyConcurrentHashMap<N, Map<D, D>>());
+		MyConcurrentHashMap<N, Map<D, D>> summaries = indexedTables != null ? indexedTables.getOrCreateIncoming(m, d3)
+				: incoming.putIfAbsentElseGet(new Pair<SootMethod, D>(m, d3),
+						() -> new MyConcurrentHashMap<N, Map<D, D>>());
 		Map<D, D> set = summaries.putIfAbsentElseGet(n, () -> new ConcurrentHashMap<D, D>());
 		return set.put(d1, d2) == null;
 	}
@@ -736,6 +961,33 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 	}
 
+	/**
+	 * Processes a single edge that has been taken from the worklist
+	 * 
+	 * @param edge The edge to process
+	 */
+	private void processPathEdge(PathEdge<N, D> edge) {
+		final N target = edge.getTarget();
+		if (icfg.isCallStmt(target)) {
+			processCall(edge);
+		} else {
+			// note that some statements, such as "throw" may be
+			// both an exit statement and a "normal" statement
+			if (icfg.isExitStmt(target)) {
+				// In deterministic mode, the end summaries are only updated at the end of the
+				// current epoch
+				if (mustDeferTableUpdates())
+					((DeterministicExecutor) executor).defer(
+							getEdgeFingerprint(edge.factAtSource(), target, edge.factAtTarget()),
+							() -> processExit(edge));
+				else
+					processExit(edge);
+			}
+			if (!icfg.getSuccsOf(target).isEmpty())
+				processNormalFlow(edge);
+		}
+	}
+
 	private class PathEdgeProcessingTask implements Runnable {
 
 		private final PathEdge<N, D> edge;
@@ -747,17 +999,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 
 		public void run() {
-			final N target = edge.getTarget();
-			if (icfg.isCallStmt(target)) {
-				processCall(edge);
-			} else {
-				// note that some statements, such as "throw" may be
-				// both an exit statement and a "normal" statement
-				if (icfg.isExitStmt(target))
-					processExit(edge);
-				if (!icfg.getSuccsOf(target).isEmpty())
-					processNormalFlow(edge);
-			}
+			processPathEdge(edge);
 		}
 
 		@Override
@@ -813,6 +1055,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxJoinPointAbstractions = maxJoinPointAbstractions;
 	}
 
+	/**
+	 * Sets whether the solver shall store its jump functions, end summaries, and
+	 * incoming edges in tables that are keyed by dense integer IDs of units,
+	 * methods, and abstractions instead of in maps that are keyed by edge objects.
+	 * This reduces the memory footprint and avoids allocating temporary key objects
+	 * for every lookup. This setting must be changed before the solver is started.
+	 * 
+	 * @param useIndexedTables True to use the indexed tables, false to use the
+	 *                         object-keyed maps
+	 */
+	public void setUseIndexedTables(boolean useIndexedTables) {
+		if (useIndexedTables) {
+			if (this.indexedTables == null)
+				this.indexedTables = new IndexedSolverTables<>();
+		} else
+			this.indexedTables = null;
+	}
+
 	/**
 	 * Sets the memory manager that shall be used to manage the abstractions
 	 * 
@@ -832,6 +1092,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		return this.memoryManager;
 	}
 
+	/**
+	 * Sets the object in which this solver shall record live metrics about its
+	 * progress
+	 * 
+	 * @param metrics The metrics object, or <code>null</code> to disable metrics
+	 *                collection
+	 */
+	public void setSolverMetrics(SolverMetrics metrics) {
+		this.metrics = metrics;
+		if (ffCache != null)
+			ffCache.setRecordStats(metrics != null);
+		if (metrics != null) {
+			metrics.addQueueDepthSource(() -> executor == null ? 0 : executor.getPendingTaskCount());
+			if (ffCache != null)
+				metrics.addFlowFunctionCacheSource(ffCache::stats);
+		}
+	}
+
 	@Override
 	public void forceTerminate(ISolverTerminationReason reason) {
 		this.killFlag = reason;
@@ -839,6 +1117,26 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.executor.shutdown();
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		switch (step) {
+		case ShortenPredecessors:
+			this.shorteningMode = PredecessorShorteningMode.AlwaysShorten;
+			return true;
+		case DropNeighbors:
+			// Only essential join points may still record neighbors from now on
+			this.maxJoinPointAbstractions = 0;
+			if (indexedTables != null)
+				indexedTables.forEachJumpFunctionTarget(d -> d.clearNeighbors());
+			else
+				jumpFunctions.values().forEach(d -> d.clearNeighbors());
+			forEachEndSummary(s -> s.calleeD1.clearNeighbors());
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	@Override
 	public boolean isTerminated() {
 		return killFlag != null || this.executor.isFinished();
@@ -0,0 +1,185 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.collect.ConcurrentDenseIndexer;
+import soot.jimple.infoflow.collect.ConcurrentLongPairMap;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+import soot.jimple.infoflow.solver.EndSummary;
+
+/**
+ * Storage for the jump functions, end summaries, and incoming edges of the
+ * {@link IFDSSolver} that is based on dense integer IDs for units, methods, and
+ * abstractions. The jump function (d1, n, d2) is stored under a pair of
+ * primitive keys, so no path edge objects need to be created for lookups.
+ * Likewise, end summaries and incoming edges are keyed by the IDs of the method
+ * and the abstraction instead of by pair objects. The index of an abstraction
+ * is stored inside the abstraction, so that the abstraction only needs to be
+ * hashed once when it is first seen.
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public class IndexedSolverTables<N, D extends FastSolverLinkedNode<D, N>> {
+
+	private final ConcurrentDenseIndexer<N> units = new ConcurrentDenseIndexer<>();
+	private final ConcurrentDenseIndexer<SootMethod> methods = new ConcurrentDenseIndexer<>();
+	private final ConcurrentDenseIndexer<D> facts = new ConcurrentDenseIndexer<>();
+
+	private final ConcurrentLongPairMap<D> jumpFunctions = new ConcurrentLongPairMap<>();
+	private final ConcurrentLongPairMap<Map<EndSummary<N, D>, EndSummary<N, D>>> endSummaries = new ConcurrentLongPairMap<>();
+	private final ConcurrentLongPairMap<MyConcurrentHashMap<N, Map<D, D>>> incoming = new ConcurrentLongPairMap<>();
+
+	/**
+	 * Gets the index of the given abstraction, and creates a new one if the
+	 * abstraction has not been indexed yet
+	 *
+	 * @param d The abstraction
+	 * @return The index of the given abstraction
+	 */
+	private int getOrCreateFactIndex(D d) {
+		final int generation = facts.getGeneration();
+		final long denseIndex = d.getDenseIndex();
+		if (denseIndex >= 0 && (int) (denseIndex >>> 32) == generation)
+			return (int) denseIndex;
+
+		// Equal abstractions must share the same index
+		int idx = facts.getOrCreateIndex(d);
+		d.setDenseIndex(((long) generation << 32) | idx);
+		return idx;
+	}
+
+	/**
+	 * Gets the index of the given abstraction without creating a new one
+	 *
+	 * @param d The abstraction
+	 * @return The index of the given abstraction, or -1 if the abstraction has
+	 *         not been indexed yet
+	 */
+	private int getFactIndex(D d) {
+		final int generation = facts.getGeneration();
+		final long denseIndex = d.getDenseIndex();
+		if (denseIndex >= 0 && (int) (denseIndex >>> 32) == generation)
+			return (int) denseIndex;
+
+		int idx = facts.getIndex(d);
+		if (idx >= 0)
+			d.setDenseIndex(((long) generation << 32) | idx);
+		return idx;
+	}
+
+	/**
+	 * Records a jump function if it does not exist yet
+	 *
+	 * @param d1 The abstraction at the start point of the method
+	 * @param n  The target statement of the jump function
+	 * @param d2 The abstraction at the target statement
+	 * @return The abstraction that was already registered for the given jump
+	 *         function, or <code>null</code> if the jump function is new
+	 */
+	public D addJumpFunction(D d1, N n, D d2) {
+		long k1 = ConcurrentLongPairMap.pack(getOrCreateFactIndex(d1), units.getOrCreateIndex(n));
+		return jumpFunctions.putIfAbsent(k1, getOrCreateFactIndex(d2), d2);
+	}
+
+	/**
+	 * Calls the given consumer for the target abstractions of all jump functions
+	 * in these tables
+	 *
+	 * @param consumer The consumer to call for each target abstraction
+	 */
+	public void forEachJumpFunctionTarget(Consumer<D> consumer) {
+		jumpFunctions.forEachValue(consumer);
+	}
+
+	/**
+	 * Gets the end summaries for the given method and incoming abstraction
+	 *
+	 * @param m  The method
+	 * @param d1 The abstraction at the start point of the method
+	 * @return The end summaries for the given method and abstraction, or
+	 *         <code>null</code> if there are none
+	 */
+	public Map<EndSummary<N, D>, EndSummary<N, D>> getEndSummaries(SootMethod m, D d1) {
+		int methodIdx = methods.getIndex(m);
+		int factIdx = getFactIndex(d1);
+		if (methodIdx < 0 || factIdx < 0)
+			return null;
+		return endSummaries.get(ConcurrentLongPairMap.pack(methodIdx, factIdx), 0);
+	}
+
+	/**
+	 * Gets the end summaries for the given method and incoming abstraction, and
+	 * creates a new empty set of summaries if there are none yet
+	 *
+	 * @param m  The method
+	 * @param d1 The abstraction at the start point of the method
+	 * @return The end summaries for the given method and abstraction
+	 */
+	public Map<EndSummary<N, D>, EndSummary<N, D>> getOrCreateEndSummaries(SootMethod m, D d1) {
+		long key = ConcurrentLongPairMap.pack(methods.getOrCreateIndex(m), getOrCreateFactIndex(d1));
+		return endSummaries.putIfAbsentElseGet(key, 0, () -> new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Calls the given consumer for all end summaries in these tables
+	 *
+	 * @param consumer The consumer to call for each end summary
+	 */
+	public void forEachEndSummary(Consumer<EndSummary<N, D>> consumer) {
+		endSummaries.forEachValue(summaries -> summaries.keySet().forEach(consumer));
+	}
+
+	/**
+	 * Gets the incoming edges for the given method and callee-side abstraction
+	 *
+	 * @param m  The method
+	 * @param d3 The abstraction at the start point of the method
+	 * @return The incoming edges, or <code>null</code> if there are none
+	 */
+	public Map<N, Map<D, D>> getIncoming(SootMethod m, D d3) {
+		int methodIdx = methods.getIndex(m);
+		int factIdx = getFactIndex(d3);
+		if (methodIdx < 0 || factIdx < 0)
+			return null;
+		return incoming.get(ConcurrentLongPairMap.pack(methodIdx, factIdx), 0);
+	}
+
+	/**
+	 * Gets the incoming edges for the given method and callee-side abstraction,
+	 * and creates a new empty map of incoming edges if there are none yet
+	 *
+	 * @param m  The method
+	 * @param d3 The abstraction at the start point of the method
+	 * @return The incoming edges
+	 */
+	public MyConcurrentHashMap<N, Map<D, D>> getOrCreateIncoming(SootMethod m, D d3) {
+		long key = ConcurrentLongPairMap.pack(methods.getOrCreateIndex(m), getOrCreateFactIndex(d3));
+		return incoming.putIfAbsentElseGet(key, 0, () -> new MyConcurrentHashMap<>());
+	}
+
+	/**
+	 * Gets the number of jump functions in this table
+	 *
+	 * @return The number of jump functions in this table
+	 */
+	public int getJumpFunctionCount() {
+		return jumpFunctions.size();
+	}
+
+	/**
+	 * Removes all data from these tables
+	 */
+	public void clear() {
+		jumpFunctions.clear();
+		endSummaries.clear();
+		incoming.clear();
+		units.clear();
+		methods.clear();
+		facts.clear();
+	}
+
+}
@@ -20,16 +20,19 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.IFollowReturnsPastSeedsHandler;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.SolverPeerGroup;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.functions.SolverCallFlowFunction;
 import soot.jimple.infoflow.solver.functions.SolverCallToReturnFlowFunction;
 import soot.jimple.infoflow.solver.functions.SolverNormalFlowFunction;
 import soot.jimple.infoflow.solver.functions.SolverReturnFlowFunction;
+import soot.jimple.infoflow.solver.summaryCache.PersistentSummaryCache;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 
 /**
@@ -43,6 +46,7 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 
 	private IFollowReturnsPastSeedsHandler followReturnsPastSeedsHandler = null;
 	private final AbstractInfoflowProblem problem;
+	private PersistentSummaryCache summaryCache = null;
 
 	public InfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor) {
 		super(problem);
@@ -51,6 +55,20 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		problem.setSolver(this);
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		if (step == MemoryPressureStep.ReduceAccessPathLength) {
+			if (!problem.getManager().getAccessPathFactory().reduceAccessPathLength())
+				return false;
+
+			// Memoized alias queries may yield access paths beyond the new limit
+			if (problem.getManager().getAliasing() != null)
+				problem.getManager().getAliasing().clearQueryCache();
+			return true;
+		}
+		return super.relieveMemoryPressure(step);
+	}
+
 	@Override
 	protected InterruptableExecutor getExecutor() {
 		return executor;
@@ -65,6 +83,12 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 	@Override
 	public void injectContext(IInfoflowSolver otherSolver, SootMethod callee, Abstraction d3, Unit callSite,
 			Abstraction d2, Abstraction d1) {
+		if (mustDeferTableUpdates()) {
+			((DeterministicExecutor) executor).defer(getEdgeFingerprint(d2, callSite, d3),
+					() -> injectContext(otherSolver, callee, d3, callSite, d2, d1));
+			return;
+		}
+
 		if (!addIncoming(callee, d3, callSite, d1, d2))
 			return;
 
@@ -72,6 +96,11 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		applyEndSummaryOnCall(d1, callSite, d2, returnSiteNs, callee, d3);
 	}
 
+	@Override
+	protected long getEdgeFingerprint(Abstraction d1, Unit target, Abstraction d2) {
+		return problem.getManager().getCanonicalOrder().fingerprint(d1, target, d2);
+	}
+
 	@Override
 	protected Set<Abstraction> computeReturnFlowFunction(FlowFunction<Abstraction> retFunction, Abstraction d1,
 			Abstraction d2, Unit callSite, Collection<Abstraction> callerSideDs) {
@@ -114,6 +143,8 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		this.jumpFunctions = new MyConcurrentHashMap<PathEdge<Unit, Abstraction>, Abstraction>();
 		this.incoming.clear();
 		this.endSummary.clear();
+		if (this.indexedTables != null)
+			this.indexedTables.clear();
 		if (this.ffCache != null)
 			this.ffCache.invalidate();
 	}
@@ -123,6 +154,30 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		return super.endSummary(m, d3);
 	}
 
+	@Override
+	protected boolean loadCachedEndSummaries(SootMethod callee, Abstraction d3) {
+		if (summaryCache == null)
+			return false;
+
+		Collection<EndSummary<Unit, Abstraction>> summaries = summaryCache.getSummaries(callee, d3);
+		if (summaries == null)
+			return false;
+		for (EndSummary<Unit, Abstraction> summary : summaries)
+			addEndSummary(callee, d3, summary.eP, summary.d4);
+		return true;
+	}
+
+	/**
+	 * Sets the cache from which this solver shall take the end summaries of
+	 * library methods that have been computed by an earlier analysis run
+	 * 
+	 * @param summaryCache The persistent summary cache, or <code>null</code> to
+	 *                     always analyze all callees
+	 */
+	public void setSummaryCache(PersistentSummaryCache summaryCache) {
+		this.summaryCache = summaryCache;
+	}
+
 	@Override
 	protected void processExit(PathEdge<Unit, Abstraction> edge) {
 		super.processExit(edge);
@@ -136,7 +191,7 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 			final Map<Unit, Map<Abstraction, Abstraction>> inc = incoming(d1, methodThatNeedsSummary);
 
 			if (inc == null || inc.isEmpty())
-				followReturnsPastSeedsHandler.handleFollowReturnsPastSeeds(d1, u, d2);
+				runInParallelPhase(() -> followReturnsPastSeedsHandler.handleFollowReturnsPastSeeds(d1, u, d2));
 		}
 	}
 
@@ -30,7 +30,6 @@ import com.google.common.cache.CacheBuilder;
 
 import heros.DontSynchronize;
 import heros.FlowFunction;
-import heros.FlowFunctionCache;
 import heros.FlowFunctions;
 import heros.IFDSTabulationProblem;
 import heros.SynchronizedBy;
@@ -43,8 +42,11 @@ import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.metrics.SolverMetrics;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
+import soot.jimple.infoflow.solver.StatsFlowFunctionCache;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
@@ -107,20 +109,23 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 	protected final D zeroValue;
 
 	@DontSynchronize("readOnly")
-	protected final FlowFunctionCache<Unit, D, SootMethod> ffCache;
+	protected final StatsFlowFunctionCache<Unit, D, SootMethod> ffCache;
 
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
-	@DontSynchronize("readOnly")
-	protected PredecessorShorteningMode shorteningMode = PredecessorShorteningMode.NeverShorten;
+	@DontSynchronize("only changed under memory pressure")
+	protected volatile PredecessorShorteningMode shorteningMode = PredecessorShorteningMode.NeverShorten;
 
-	@DontSynchronize("readOnly")
-	private int maxJoinPointAbstractions = -1;
+	@DontSynchronize("only changed under memory pressure")
+	private volatile int maxJoinPointAbstractions = -1;
 
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
 
+	@DontSynchronize("readOnly")
+	protected SolverMetrics metrics = null;
+
 	private boolean solverId = true;
 
 	private Set<IMemoryBoundedSolverStatusNotification> notificationListeners = new HashSet<>();
@@ -157,7 +162,7 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 				? new ZeroedFlowFunctions<Unit, D, SootMethod>(tabulationProblem.flowFunctions(), zeroValue)
 				: tabulationProblem.flowFunctions();
 		if (flowFunctionCacheBuilder != null) {
-			ffCache = new FlowFunctionCache<Unit, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
+			ffCache = new StatsFlowFunctionCache<Unit, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
 			flowFunctions = ffCache;
 		} else {
 			ffCache = null;
@@ -274,6 +279,8 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 
 		executor.execute(new PathEdgeProcessingTask(edge, getSolverId()));
 		propagationCount++;
+		if (metrics != null)
+			metrics.recordEdge(edge.getTarget());
 	}
 
 	/**
@@ -665,9 +672,8 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 			else
 				isEssential = memoryManager.isEssentialJoinPoint(targetVal, (N) relatedCallSite);
 
-			if (maxJoinPointAbstractions < 0 || existingVal.getNeighborCount() < maxJoinPointAbstractions
-					|| isEssential)
-				existingVal.addNeighbor(targetVal);
+			// Essential join points are never subject to the neighbor limit
+			existingVal.addNeighbor(targetVal, isEssential ? -1 : maxJoinPointAbstractions);
 		} else if (schedule) {
 			scheduleEdgeProcessing(edge);
 		}
@@ -823,6 +829,24 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 		return this.memoryManager;
 	}
 
+	/**
+	 * Sets the object in which this solver shall record live metrics about its
+	 * progress
+	 * 
+	 * @param metrics The metrics object, or <code>null</code> to disable metrics
+	 *                collection
+	 */
+	public void setSolverMetrics(SolverMetrics metrics) {
+		this.metrics = metrics;
+		if (ffCache != null)
+			ffCache.setRecordStats(metrics != null);
+		if (metrics != null) {
+			metrics.addQueueDepthSource(() -> executor == null ? 0 : executor.getPendingTaskCount());
+			if (ffCache != null)
+				metrics.addFlowFunctionCacheSource(ffCache::stats);
+		}
+	}
+
 	@Override
 	public void forceTerminate(ISolverTerminationReason reason) {
 		this.killFlag = reason;
@@ -830,6 +854,21 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 		this.executor.shutdown();
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		switch (step) {
+		case ShortenPredecessors:
+			this.shorteningMode = PredecessorShorteningMode.AlwaysShorten;
+			return true;
+		case DropNeighbors:
+			// Only essential join points may still record neighbors from now on
+			this.maxJoinPointAbstractions = 0;
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	@Override
 	public boolean isTerminated() {
 		return killFlag != null || this.executor.isFinished();
@@ -20,6 +20,7 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.IFollowReturnsPastSeedsHandler;
@@ -51,6 +52,20 @@ public class InfoflowSolver extends FlowInsensitiveSolver<Unit, Abstraction, BiD
 		problem.setSolver(this);
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		if (step == MemoryPressureStep.ReduceAccessPathLength) {
+			if (!problem.getManager().getAccessPathFactory().reduceAccessPathLength())
+				return false;
+
+			// Memoized alias queries may yield access paths beyond the new limit
+			if (problem.getManager().getAliasing() != null)
+				problem.getManager().getAliasing().clearQueryCache();
+			return true;
+		}
+		return super.relieveMemoryPressure(step);
+	}
+
 	@Override
 	protected InterruptableExecutor getExecutor() {
 		return executor;
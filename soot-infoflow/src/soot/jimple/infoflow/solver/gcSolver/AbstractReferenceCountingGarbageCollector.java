@@ -148,6 +148,8 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 						tempMethods++;
 						if (validateEdges)
 							oldEdges.addAll(oldFunctions);
+						if (oldFunctions != null)
+							onMethodRemoved(sm, oldFunctions);
 					}
 				}
 				onAfterRemoveEdges(tempMethods);
@@ -162,6 +164,16 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 	protected void onBeforeRemoveEdges() {
 	}
 
+	/**
+	 * Method that is called after the jump functions of a method have been
+	 * removed
+	 * 
+	 * @param method    The method whose jump functions have been removed
+	 * @param functions The jump functions that have been removed
+	 */
+	protected void onMethodRemoved(SootMethod method, Set<PathEdge<N, D>> functions) {
+	}
+
 	/**
 	 * Method that is called after the last edge has been removed from the jump
 	 * functions
@@ -32,7 +32,6 @@ import com.google.common.cache.CacheBuilder;
 
 import heros.DontSynchronize;
 import heros.FlowFunction;
-import heros.FlowFunctionCache;
 import heros.FlowFunctions;
 import heros.IFDSTabulationProblem;
 import heros.SynchronizedBy;
@@ -44,11 +43,16 @@ import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.metrics.SolverMetrics;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.SolverPeerGroup;
+import soot.jimple.infoflow.solver.StatsFlowFunctionCache;
+import soot.jimple.infoflow.solver.executors.IWorkItemProcessor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
@@ -113,20 +117,23 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected final D zeroValue;
 
 	@DontSynchronize("readOnly")
-	protected final FlowFunctionCache<N, D, SootMethod> ffCache;
+	protected final StatsFlowFunctionCache<N, D, SootMethod> ffCache;
 
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
-	@DontSynchronize("readOnly")
-	protected PredecessorShorteningMode shorteningMode = PredecessorShorteningMode.NeverShorten;
+	@DontSynchronize("only changed under memory pressure")
+	protected volatile PredecessorShorteningMode shorteningMode = PredecessorShorteningMode.NeverShorten;
 
-	@DontSynchronize("readOnly")
-	private int maxJoinPointAbstractions = -1;
+	@DontSynchronize("only changed under memory pressure")
+	private volatile int maxJoinPointAbstractions = -1;
 
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
 
+	@DontSynchronize("readOnly")
+	protected SolverMetrics metrics = null;
+
 	protected boolean solverId;
 
 	private Set<IMemoryBoundedSolverStatusNotification> notificationListeners = new HashSet<>();
@@ -135,6 +142,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	private int maxCalleesPerCallSite = 75;
 	private int maxAbstractionPathLength = 100;
 
+	@DontSynchronize("stateless")
+	private final IWorkItemProcessor<PathEdge<N, D>> edgeProcessor = new IWorkItemProcessor<PathEdge<N, D>>() {
+
+		@Override
+		public void processWorkItem(PathEdge<N, D> edge) {
+			processPathEdge(edge);
+		}
+
+	};
+
 	protected SolverPeerGroup solverPeerGroup;
 
 	/**
@@ -165,7 +182,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 				? new ZeroedFlowFunctions<N, D, SootMethod>(tabulationProblem.flowFunctions(), zeroValue)
 				: tabulationProblem.flowFunctions();
 		if (flowFunctionCacheBuilder != null) {
-			ffCache = new FlowFunctionCache<N, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
+			ffCache = new StatsFlowFunctionCache<N, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
 			flowFunctions = ffCache;
 		} else {
 			ffCache = null;
@@ -293,8 +310,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 			return;
 
 		garbageCollector.notifyEdgeSchedule(edge);
-		executor.execute(new PathEdgeProcessingTask(edge, solverId));
+		// Executors that support plain work items do not need a new task object for
+		// each edge
+		if (executor instanceof WorkStealingExecutor)
+			((WorkStealingExecutor) executor).execute(edgeProcessor, edge);
+		else
+			executor.execute(new PathEdgeProcessingTask(edge, solverId));
 		propagationCount++;
+		if (metrics != null)
+			metrics.recordEdge(icfg.getMethodOf(edge.getTarget()));
 		garbageCollector.gc();
 	}
 
@@ -674,10 +698,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 				else
 					isEssential = memoryManager.isEssentialJoinPoint(targetVal, relatedCallSite);
 
-				if (maxJoinPointAbstractions < 0 || existingVal.getNeighborCount() < maxJoinPointAbstractions
-						|| isEssential) {
-					existingVal.addNeighbor(targetVal);
-				}
+				// Essential join points are never subject to the neighbor limit
+				existingVal.addNeighbor(targetVal, isEssential ? -1 : maxJoinPointAbstractions);
 			}
 		} else
 			scheduleEdgeProcessing(edge);
@@ -689,7 +711,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<N, D> edge) {
-		PathEdge<N, D> oldEdge = jumpFunctions.putIfAbsent(icfg.getMethodOf(edge.getTarget()), edge);
+		final SootMethod method = icfg.getMethodOf(edge.getTarget());
+		final IGarbageCollector<N, D> gc = garbageCollector;
+		if (gc != null)
+			gc.notifyMethodAccess(method);
+		PathEdge<N, D> oldEdge = jumpFunctions.putIfAbsent(method, edge);
 		return oldEdge == null ? null : oldEdge.factAtTarget();
 	}
 
@@ -820,6 +846,25 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 	}
 
+	/**
+	 * Processes a single edge that has been taken from the worklist
+	 * 
+	 * @param edge The edge to process
+	 */
+	private void processPathEdge(PathEdge<N, D> edge) {
+		if (icfg.isCallStmt(edge.getTarget())) {
+			processCall(edge);
+		} else {
+			// note that some statements, such as "throw" may be
+			// both an exit statement and a "normal" statement
+			if (icfg.isExitStmt(edge.getTarget()))
+				processExit(edge);
+			if (!icfg.getSuccsOf(edge.getTarget()).isEmpty())
+				processNormalFlow(edge);
+		}
+		garbageCollector.notifyTaskProcessed(edge);
+	}
+
 	private class PathEdgeProcessingTask implements Runnable {
 
 		private final PathEdge<N, D> edge;
@@ -831,17 +876,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 
 		public void run() {
-			if (icfg.isCallStmt(edge.getTarget())) {
-				processCall(edge);
-			} else {
-				// note that some statements, such as "throw" may be
-				// both an exit statement and a "normal" statement
-				if (icfg.isExitStmt(edge.getTarget()))
-					processExit(edge);
-				if (!icfg.getSuccsOf(edge.getTarget()).isEmpty())
-					processNormalFlow(edge);
-			}
-			garbageCollector.notifyTaskProcessed(edge);
+			processPathEdge(edge);
 		}
 
 		@Override
@@ -916,6 +951,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		return this.memoryManager;
 	}
 
+	/**
+	 * Sets the object in which this solver shall record live metrics about its
+	 * progress
+	 * 
+	 * @param metrics The metrics object, or <code>null</code> to disable metrics
+	 *                collection
+	 */
+	public void setSolverMetrics(SolverMetrics metrics) {
+		this.metrics = metrics;
+		if (ffCache != null)
+			ffCache.setRecordStats(metrics != null);
+		if (metrics != null) {
+			metrics.addQueueDepthSource(() -> executor == null ? 0 : executor.getPendingTaskCount());
+			if (ffCache != null)
+				metrics.addFlowFunctionCacheSource(ffCache::stats);
+		}
+	}
+
 	@Override
 	public void forceTerminate(ISolverTerminationReason reason) {
 		this.killFlag = reason;
@@ -923,6 +976,21 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.executor.shutdown();
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		switch (step) {
+		case ShortenPredecessors:
+			this.shorteningMode = PredecessorShorteningMode.AlwaysShorten;
+			return true;
+		case DropNeighbors:
+			// Only essential join points may still record neighbors from now on
+			this.maxJoinPointAbstractions = 0;
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	@Override
 	public boolean isTerminated() {
 		return killFlag != null || this.executor.isFinished();
@@ -1,6 +1,7 @@
 package soot.jimple.infoflow.solver.gcSolver;
 
 import heros.solver.PathEdge;
+import soot.SootMethod;
 
 /**
  * Common interface for all garbage collector implementations oin the solver
@@ -25,6 +26,16 @@ public interface IGarbageCollector<N, D> {
 	 */
 	public void notifyTaskProcessed(PathEdge<N, D> edge);
 
+	/**
+	 * Notifies the garbage collector that the solver is about to access the jump
+	 * functions of the given method. Garbage collectors that move jump functions
+	 * out of the heap must restore them before this method returns.
+	 * 
+	 * @param method The method whose jump functions are accessed
+	 */
+	public default void notifyMethodAccess(SootMethod method) {
+	}
+
 	/**
 	 * Performs the garbage collection
 	 */
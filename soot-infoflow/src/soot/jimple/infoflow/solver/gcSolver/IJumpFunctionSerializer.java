@@ -0,0 +1,37 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import heros.solver.PathEdge;
+
+/**
+ * Interface for converting jump functions into a binary representation, so that
+ * they can be evicted from the heap and restored later on
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public interface IJumpFunctionSerializer<N, D> {
+
+	/**
+	 * Writes the given jump function to the given output
+	 *
+	 * @param edge The jump function to write
+	 * @param out  The output to write to
+	 * @throws IOException Thrown if the jump function cannot be written
+	 */
+	public void write(PathEdge<N, D> edge, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a jump function from the given input
+	 *
+	 * @param in The input to read from
+	 * @return The jump function, or <code>null</code> if the jump function cannot
+	 *         be restored in the current state of the analysis
+	 * @throws IOException Thrown if the jump function cannot be read
+	 */
+	public PathEdge<N, D> read(DataInput in) throws IOException;
+
+}
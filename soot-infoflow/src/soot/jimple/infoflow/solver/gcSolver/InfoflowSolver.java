@@ -10,6 +10,8 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.gcSolver;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
 
@@ -18,6 +20,8 @@ import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AbstractionJumpFunctionSerializer;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.IFollowReturnsPastSeedsHandler;
@@ -41,6 +45,7 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 
 	private IFollowReturnsPastSeedsHandler followReturnsPastSeedsHandler = null;
 	private final AbstractInfoflowProblem problem;
+	private File spillDirectory = null;
 
 	public InfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor) {
 		super(problem);
@@ -49,6 +54,49 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		problem.setSolver(this);
 	}
 
+	@Override
+	public boolean relieveMemoryPressure(MemoryPressureStep step) {
+		if (step == MemoryPressureStep.ReduceAccessPathLength) {
+			if (!problem.getManager().getAccessPathFactory().reduceAccessPathLength())
+				return false;
+
+			// Memoized alias queries may yield access paths beyond the new limit
+			if (problem.getManager().getAliasing() != null)
+				problem.getManager().getAliasing().clearQueryCache();
+			return true;
+		}
+		return super.relieveMemoryPressure(step);
+	}
+
+	@Override
+	protected IGarbageCollector<Unit, Abstraction> createGarbageCollector() {
+		if (garbageCollector != null || spillDirectory == null)
+			return super.createGarbageCollector();
+
+		try {
+			SpillingGarbageCollector<Unit, Abstraction> gc = new SpillingGarbageCollector<>(icfg, jumpFunctions,
+					new AbstractionJumpFunctionSerializer(zeroValue), new MappedSpillFile(spillDirectory));
+			GCSolverPeerGroup gcSolverGroup = (GCSolverPeerGroup) solverPeerGroup;
+			gc.setPeerGroup(gcSolverGroup.getGCPeerGroup());
+			return garbageCollector = gc;
+		} catch (IOException e) {
+			logger.error("Could not create the spill file, jump functions will be discarded instead", e);
+			return super.createGarbageCollector();
+		}
+	}
+
+	/**
+	 * Sets the directory in which the garbage collector shall create a
+	 * memory-mapped file to which it evicts the jump functions of methods that are
+	 * currently not needed, instead of discarding them
+	 * 
+	 * @param spillDirectory The directory for the spill file, or <code>null</code>
+	 *                       to discard evicted jump functions
+	 */
+	public void setSpillDirectory(File spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
 	@Override
 	protected InterruptableExecutor getExecutor() {
 		return executor;
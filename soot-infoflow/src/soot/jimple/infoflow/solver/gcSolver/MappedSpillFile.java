@@ -0,0 +1,168 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only temporary file that is mapped into memory in fixed-size
+ * segments. The operating system decides which parts of the file are kept in
+ * physical memory, so the data in this file does not count towards the heap of
+ * the JVM. The file is deleted when it is closed.
+ */
+public class MappedSpillFile implements Closeable {
+
+	/**
+	 * Handle for a block of data that has been written to the spill file
+	 */
+	public static class Record {
+
+		private final int segment;
+		private final int offset;
+		private final int length;
+
+		private Record(int segment, int offset, int length) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * Gets the length of the data in this record
+		 *
+		 * @return The length of the data in bytes
+		 */
+		public int getLength() {
+			return length;
+		}
+
+	}
+
+	private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private final File file;
+	private final RandomAccessFile randomAccessFile;
+	private final FileChannel channel;
+	private final int segmentSize;
+
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+	private MappedByteBuffer currentSegment = null;
+	private long mappedSize = 0;
+	private long dataSize = 0;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new spill file in the given directory
+	 *
+	 * @param directory The directory in which to create the file, or
+	 *                  <code>null</code> to use the default temporary directory
+	 * @throws IOException Thrown if the file cannot be created
+	 */
+	public MappedSpillFile(File directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Creates a new spill file in the given directory
+	 *
+	 * @param directory   The directory in which to create the file, or
+	 *                    <code>null</code> to use the default temporary directory
+	 * @param segmentSize The number of bytes to map into memory at once
+	 * @throws IOException Thrown if the file cannot be created
+	 */
+	public MappedSpillFile(File directory, int segmentSize) throws IOException {
+		if (directory != null && !directory.exists() && !directory.mkdirs())
+			throw new IOException(String.format("Could not create spill directory %s", directory));
+		this.file = File.createTempFile("flowdroid-", ".spill", directory);
+		this.file.deleteOnExit();
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		this.channel = randomAccessFile.getChannel();
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Appends the given data to this file
+	 *
+	 * @param data The data to append
+	 * @return The handle with which the data can be read back
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	public synchronized Record append(byte[] data) throws IOException {
+		if (closed)
+			throw new IOException("The spill file has already been closed");
+
+		// Map a new segment if the data does not fit into the current one
+		if (currentSegment == null || currentSegment.remaining() < data.length) {
+			int size = Math.max(segmentSize, data.length);
+			currentSegment = channel.map(MapMode.READ_WRITE, mappedSize, size);
+			mappedSize += size;
+			segments.add(currentSegment);
+		}
+
+		int offset = currentSegment.position();
+		currentSegment.put(data);
+		dataSize += data.length;
+		return new Record(segments.size() - 1, offset, data.length);
+	}
+
+	/**
+	 * Reads the data of the given record back from this file
+	 *
+	 * @param record The handle that was returned when the data was written
+	 * @return The data of the given record
+	 * @throws IOException Thrown if the data cannot be read
+	 */
+	public synchronized byte[] read(Record record) throws IOException {
+		if (closed)
+			throw new IOException("The spill file has already been closed");
+
+		ByteBuffer buffer = segments.get(record.segment).duplicate();
+		buffer.position(record.offset);
+		byte[] data = new byte[record.length];
+		buffer.get(data);
+		return data;
+	}
+
+	/**
+	 * Gets the number of bytes that have been written to this file
+	 *
+	 * @return The number of bytes that have been written to this file
+	 */
+	public synchronized long getDataSize() {
+		return dataSize;
+	}
+
+	/**
+	 * Gets the file on disk that backs this spill file
+	 *
+	 * @return The file on disk
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		segments.clear();
+		currentSegment = null;
+		try {
+			channel.close();
+			randomAccessFile.close();
+		} finally {
+			// The mapping may prevent the deletion on some platforms until the buffers
+			// have been garbage-collected, in which case we rely on deleteOnExit()
+			file.delete();
+		}
+	}
+
+}
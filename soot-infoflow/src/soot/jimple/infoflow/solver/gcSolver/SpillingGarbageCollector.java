@@ -0,0 +1,200 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+import soot.util.ConcurrentHashMultiMap;
+
+/**
+ * Garbage collector that evicts the jump functions of methods without active
+ * dependencies to a memory-mapped file instead of discarding them. When the
+ * solver accesses the jump functions of such a method again, they are restored
+ * from the file, so that the solver does not need to re-propagate edges it has
+ * already processed. The heap consumption of the jump functions is thus bounded
+ * by the working set of the solver rather than by all reachable methods.
+ *
+ * The solver adds facts that arrive at an existing jump function as neighbors
+ * of the fact in the table. A copy that is read back from disk is not
+ * referenced by any fact that the solver has derived from the original, so
+ * neighbors added to the copy would never be seen during path reconstruction.
+ * The collector therefore keeps weak references to the original facts at the
+ * targets of the spilled jump functions. A jump function is only restored if
+ * its original target fact is still alive, and the original is put back into
+ * the table. If the original has been collected, no derived fact can reach it
+ * anymore, and the jump function is dropped, so that the solver propagates it
+ * again when it arrives.
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public class SpillingGarbageCollector<N, D> extends ThreadedGarbageCollector<N, D> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpillingGarbageCollector.class);
+
+	private final IJumpFunctionSerializer<N, D> serializer;
+	private final MappedSpillFile spillFile;
+	private final ConcurrentMap<SootMethod, List<SpilledEdges<D>>> spilledMethods = new ConcurrentHashMap<>();
+
+	private final AtomicInteger spilledEdges = new AtomicInteger();
+	private final AtomicInteger restoredEdges = new AtomicInteger();
+	private final AtomicInteger droppedEdges = new AtomicInteger();
+	private volatile boolean terminated = false;
+
+	public SpillingGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
+			ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions, IJumpFunctionSerializer<N, D> serializer,
+			MappedSpillFile spillFile) {
+		super(icfg, jumpFunctions);
+		this.serializer = serializer;
+		this.spillFile = spillFile;
+	}
+
+	@Override
+	protected void onMethodRemoved(SootMethod method, Set<PathEdge<N, D>> functions) {
+		// The collector thread is already running while the constructor is still
+		// executing, and may finish its last cycle after the solver has terminated.
+		// Edges that we cannot spill are simply dropped as in a normal garbage
+		// collector.
+		if (spillFile == null || serializer == null || terminated)
+			return;
+
+		List<PathEdge<N, D>> edges = new ArrayList<>(functions);
+		if (edges.isEmpty())
+			return;
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bos);
+			out.writeInt(edges.size());
+			for (PathEdge<N, D> edge : edges)
+				serializer.write(edge, out);
+			out.flush();
+
+			// Remember the original facts in the same order as in the file
+			List<WeakReference<D>> targetFacts = new ArrayList<>(edges.size());
+			for (PathEdge<N, D> edge : edges)
+				targetFacts.add(new WeakReference<>(edge.factAtTarget()));
+
+			SpilledEdges<D> spilled = new SpilledEdges<>(spillFile.append(bos.toByteArray()), targetFacts);
+			spilledMethods.compute(method, (m, records) -> {
+				if (records == null)
+					records = new ArrayList<>(1);
+				records.add(spilled);
+				return records;
+			});
+			spilledEdges.addAndGet(edges.size());
+		} catch (IOException e) {
+			logger.warn(String.format("Could not spill jump functions of method %s", method), e);
+		}
+	}
+
+	@Override
+	public void notifyMethodAccess(SootMethod method) {
+		if (spilledMethods.isEmpty())
+			return;
+
+		// Only one thread restores the jump functions. Others may concurrently
+		// re-add edges that have not been restored yet, which only leads to redundant
+		// propagations.
+		List<SpilledEdges<D>> records = spilledMethods.remove(method);
+		if (records == null)
+			return;
+		for (SpilledEdges<D> record : records) {
+			try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(spillFile.read(record.record)))) {
+				int edgeCount = in.readInt();
+				for (int i = 0; i < edgeCount; i++) {
+					PathEdge<N, D> edge = serializer.read(in);
+					if (edge == null)
+						continue;
+
+					// Neighbors must be added to the original fact, not to a copy
+					D original = record.targetFacts.get(i).get();
+					if (original == null) {
+						droppedEdges.incrementAndGet();
+						continue;
+					}
+					edge = new PathEdge<>(edge.factAtSource(), edge.getTarget(), original);
+					if (jumpFunctions.put(method, edge))
+						restoredEdges.incrementAndGet();
+				}
+			} catch (IOException e) {
+				logger.warn(String.format("Could not restore jump functions of method %s", method), e);
+			}
+		}
+	}
+
+	@Override
+	public void notifySolverTerminated() {
+		terminated = true;
+		super.notifySolverTerminated();
+		logger.info("Spilled {} jump functions ({} bytes) to disk, restored {} and dropped {} of them",
+				spilledEdges.get(), spillFile.getDataSize(), restoredEdges.get(), droppedEdges.get());
+		spilledMethods.clear();
+		try {
+			spillFile.close();
+		} catch (IOException e) {
+			logger.warn("Could not close the jump function spill file", e);
+		}
+	}
+
+	/**
+	 * Gets the number of jump functions that have been written to disk
+	 *
+	 * @return The number of jump functions that have been written to disk
+	 */
+	public int getSpilledEdges() {
+		return spilledEdges.get();
+	}
+
+	/**
+	 * Gets the number of jump functions that have been restored from disk
+	 *
+	 * @return The number of jump functions that have been restored from disk
+	 */
+	public int getRestoredEdges() {
+		return restoredEdges.get();
+	}
+
+	/**
+	 * Gets the number of spilled jump functions that have not been restored,
+	 * because their original target facts had already been collected
+	 *
+	 * @return The number of spilled jump functions that have been dropped
+	 */
+	public int getDroppedEdges() {
+		return droppedEdges.get();
+	}
+
+	/**
+	 * The jump functions of a method that have been written to the spill file in
+	 * one go
+	 *
+	 * @param <D> The type of data-flow facts
+	 */
+	private static class SpilledEdges<D> {
+
+		private final MappedSpillFile.Record record;
+		private final List<WeakReference<D>> targetFacts;
+
+		public SpilledEdges(MappedSpillFile.Record record, List<WeakReference<D>> targetFacts) {
+			this.record = record;
+			this.targetFacts = targetFacts;
+		}
+
+	}
+
+}
@@ -14,6 +14,8 @@ import soot.jimple.infoflow.data.FlowDroidMemoryManager.PathDataErasureMode;
  */
 public class DefaultMemoryManagerFactory implements IMemoryManagerFactory {
 
+	private final MemoryManagerStatistics statistics = new MemoryManagerStatistics();
+
 	/**
 	 * Constructs a new instance of the AccessPathManager class
 	 */
@@ -23,7 +25,12 @@ public class DefaultMemoryManagerFactory implements IMemoryManagerFactory {
 	@Override
 	public IMemoryManager<Abstraction, Unit> getMemoryManager(boolean tracingEnabled,
 			PathDataErasureMode erasePathData) {
-		return new FlowDroidMemoryManager(tracingEnabled, erasePathData);
+		return new FlowDroidMemoryManager(tracingEnabled, erasePathData, statistics);
+	}
+
+	@Override
+	public MemoryManagerStatistics getStatistics() {
+		return statistics;
 	}
 
 }
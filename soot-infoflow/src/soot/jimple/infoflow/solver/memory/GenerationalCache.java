@@ -0,0 +1,137 @@
+package soot.jimple.infoflow.solver.memory;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplication cache with two generations. New entries are added to the young
+ * generation. Once the young generation is full, it becomes the old
+ * generation. Entries from the old generation that are requested again are
+ * promoted back into the young generation, all others are evicted on the next
+ * generation change. The cache therefore never holds more than twice its
+ * generation capacity, and entries that are no longer used age out.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ */
+public class GenerationalCache<K, V> {
+
+	/**
+	 * Rough estimate of the heap space taken by a single cache entry, including
+	 * the hash table node and the key wrapper
+	 */
+	public static final int ESTIMATED_ENTRY_SIZE = 128;
+
+	private final int generationCapacity;
+	private final MemoryManagerStatistics statistics;
+
+	private volatile ConcurrentHashMap<K, V> young = new ConcurrentHashMap<>();
+	private volatile ConcurrentHashMap<K, V> old = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new generational cache
+	 *
+	 * @param generationCapacity The maximum number of entries per generation, or
+	 *                           -1 for an unbounded cache
+	 * @param statistics         The object in which to record cache hits, misses
+	 *                           and evictions
+	 */
+	public GenerationalCache(int generationCapacity, MemoryManagerStatistics statistics) {
+		this.generationCapacity = generationCapacity;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Computes the capacity of a single generation such that both generations
+	 * together occupy at most the given fraction of the maximum heap size
+	 *
+	 * @param heapFraction The fraction of the maximum heap size that the cache may
+	 *                     occupy
+	 * @return The maximum number of entries per generation, or -1 if the cache
+	 *         shall be unbounded
+	 */
+	public static int getGenerationCapacity(double heapFraction) {
+		if (heapFraction <= 0)
+			return -1;
+		long bytes = (long) (Runtime.getRuntime().maxMemory() * Math.min(heapFraction, 1.0d));
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes / ESTIMATED_ENTRY_SIZE / 2));
+	}
+
+	/**
+	 * Adds the given value to the cache unless an entry for the given key already
+	 * exists
+	 *
+	 * @param key   The key
+	 * @param value The value to cache
+	 * @return The existing value for the given key, or <code>null</code> if the
+	 *         given value has been added to the cache
+	 */
+	public V putIfAbsent(K key, V value) {
+		final ConcurrentHashMap<K, V> y = young;
+		V existing = y.get(key);
+		if (existing != null) {
+			statistics.recordHit();
+			return existing;
+		}
+
+		// If the entry has survived in the old generation, we promote it
+		V aged = old.remove(key);
+		existing = y.putIfAbsent(key, aged == null ? value : aged);
+		if (existing != null) {
+			statistics.recordHit();
+			return existing;
+		}
+		if (aged != null) {
+			statistics.recordHit();
+			return aged;
+		}
+
+		statistics.recordMiss();
+		if (generationCapacity >= 0 && y.size() >= generationCapacity)
+			startNewGeneration(y);
+		return null;
+	}
+
+	/**
+	 * Starts a new generation. All entries in the old generation that were not
+	 * reused since the last generation change are evicted. Unbounded caches do not
+	 * age, i.e., this method has no effect on them.
+	 */
+	public void startNewGeneration() {
+		if (generationCapacity >= 0)
+			startNewGeneration(young);
+	}
+
+	/**
+	 * Starts a new generation if the given map is still the young generation
+	 *
+	 * @param expectedYoung The young generation that shall be retired
+	 */
+	private synchronized void startNewGeneration(ConcurrentHashMap<K, V> expectedYoung) {
+		// Another thread may have been faster
+		if (young != expectedYoung)
+			return;
+
+		statistics.recordEvictions(old.size());
+		old = expectedYoung;
+		young = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Removes all entries from this cache
+	 */
+	public synchronized void clear() {
+		statistics.recordEvictions(young.size() + old.size());
+		young = new ConcurrentHashMap<>();
+		old = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the number of entries in this cache
+	 *
+	 * @return The number of entries in both generations of this cache
+	 */
+	public int size() {
+		return young.size() + old.size();
+	}
+
+}
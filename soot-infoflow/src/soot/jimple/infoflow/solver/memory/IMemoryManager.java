@@ -38,5 +38,14 @@ public interface IMemoryManager<D, N> {
 	 * false
 	 */
 	public boolean isEssentialJoinPoint(D abs, N relatedCallSite);
-	
+
+	/**
+	 * Notifies the memory manager that the solver has entered a new phase, e.g.,
+	 * a new epoch or a new step of memory back-pressure. Objects that the memory
+	 * manager has cached in earlier phases and that were not reused since may be
+	 * released.
+	 */
+	public default void startNewGeneration() {
+	}
+
 }
@@ -22,4 +22,16 @@ public interface IMemoryManagerFactory {
 	public IMemoryManager<Abstraction, Unit> getMemoryManager(
 			boolean tracingEnabled, PathDataErasureMode erasePathData);
 
+	/**
+	 * Gets the statistics about the caches of the memory managers created by this
+	 * factory
+	 * 
+	 * @return The cache hits, misses and evictions of the memory managers created
+	 *         by this factory, or <code>null</code> if this factory does not
+	 *         collect statistics
+	 */
+	public default MemoryManagerStatistics getStatistics() {
+		return null;
+	}
+
 }
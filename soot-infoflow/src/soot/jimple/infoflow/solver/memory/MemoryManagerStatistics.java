@@ -0,0 +1,72 @@
+package soot.jimple.infoflow.solver.memory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the caches of a memory manager. The counters can be updated
+ * concurrently by all solver threads.
+ */
+public class MemoryManagerStatistics {
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Records that an object was found in the cache
+	 */
+	public void recordHit() {
+		hits.increment();
+	}
+
+	/**
+	 * Records that an object was not found in the cache and has been added to it
+	 */
+	public void recordMiss() {
+		misses.increment();
+	}
+
+	/**
+	 * Records that objects were removed from the cache
+	 *
+	 * @param count The number of objects that were removed from the cache
+	 */
+	public void recordEvictions(long count) {
+		if (count > 0)
+			evictions.add(count);
+	}
+
+	/**
+	 * Gets the number of cache lookups that found an existing object
+	 *
+	 * @return The number of cache hits
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of cache lookups that did not find an existing object
+	 *
+	 * @return The number of cache misses
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of objects that were removed from the cache, either because
+	 * they were not reused within a generation or because the cache was cleared
+	 *
+	 * @return The number of evicted cache entries
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d hits, %d misses, %d evictions", getHitCount(), getMissCount(), getEvictionCount());
+	}
+
+}
@@ -0,0 +1,103 @@
+package soot.jimple.infoflow.solver.shardedSolver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.EndSummary;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
+
+/**
+ * Variant of the context- and flow-sensitive solver that keeps the incoming
+ * edges and end summaries of each callee in a dedicated {@link MethodShard}
+ * instead of in global maps keyed by method/abstraction pairs. Frequently
+ * called methods thus no longer serialize the workers on shared map segments.
+ * 
+ * If the solver runs on a {@link WorkStealingExecutor}, edges are scheduled
+ * with the affinity of their method, so that edges inside the same method tend
+ * to be processed by the same worker.
+ */
+public class InfoflowSolver extends soot.jimple.infoflow.solver.fastSolver.InfoflowSolver {
+
+	private final ShardedSolverState<Unit, Abstraction> shards = new ShardedSolverState<>();
+
+	public InfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor) {
+		super(problem, executor);
+	}
+
+	@Override
+	protected void scheduleEdgeProcessing(PathEdge<Unit, Abstraction> edge) {
+		if (executor instanceof WorkStealingExecutor) {
+			// If the executor has been killed, there is little point
+			// in submitting new tasks
+			if (isKilled() || executor.isTerminating() || executor.isTerminated())
+				return;
+
+			MethodShard<Unit, Abstraction> shard = shards.getOrCreateShard(icfg.getMethodOf(edge.getTarget()));
+			((WorkStealingExecutor) executor).execute(edgeProcessor, edge, shard.getAffinity());
+			onEdgeScheduled(edge);
+		} else
+			super.scheduleEdgeProcessing(edge);
+	}
+
+	@Override
+	public Set<EndSummary<Unit, Abstraction>> endSummary(SootMethod m, Abstraction d3) {
+		MethodShard<Unit, Abstraction> shard = shards.getShard(m);
+		if (shard == null)
+			return null;
+		Map<EndSummary<Unit, Abstraction>, EndSummary<Unit, Abstraction>> map = shard.getEndSummaries(d3);
+		return map == null ? null : map.keySet();
+	}
+
+	@Override
+	protected boolean addEndSummary(SootMethod m, Abstraction d1, Unit eP, Abstraction d2) {
+		if (d1 == zeroValue)
+			return true;
+
+		Map<EndSummary<Unit, Abstraction>, EndSummary<Unit, Abstraction>> summaries = shards.getOrCreateShard(m)
+				.getOrCreateEndSummaries(d1);
+		EndSummary<Unit, Abstraction> newSummary = new EndSummary<>(eP, d2, d1);
+		EndSummary<Unit, Abstraction> existingSummary = summaries.putIfAbsent(newSummary, newSummary);
+		if (existingSummary != null) {
+			existingSummary.calleeD1.addNeighbor(d2);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void forEachEndSummary(Consumer<EndSummary<Unit, Abstraction>> consumer) {
+		for (MethodShard<Unit, Abstraction> shard : shards.getShards())
+			shard.forEachEndSummary(consumer);
+	}
+
+	@Override
+	protected Map<Unit, Map<Abstraction, Abstraction>> incoming(Abstraction d1, SootMethod m) {
+		MethodShard<Unit, Abstraction> shard = shards.getShard(m);
+		return shard == null ? null : shard.getIncoming(d1);
+	}
+
+	@Override
+	protected boolean addIncoming(SootMethod m, Abstraction d3, Unit n, Abstraction d1, Abstraction d2) {
+		MyConcurrentHashMap<Unit, Map<Abstraction, Abstraction>> summaries = shards.getOrCreateShard(m)
+				.getOrCreateIncoming(d3);
+		Map<Abstraction, Abstraction> set = summaries.putIfAbsentElseGet(n,
+				() -> new ConcurrentHashMap<Abstraction, Abstraction>());
+		return set.put(d1, d2) == null;
+	}
+
+	@Override
+	public void cleanup() {
+		super.cleanup();
+		this.shards.clear();
+	}
+
+}
@@ -0,0 +1,108 @@
+package soot.jimple.infoflow.solver.shardedSolver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+import soot.jimple.infoflow.solver.EndSummary;
+import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
+
+/**
+ * The part of the solver state that belongs to a single callee method. Since
+ * the incoming edges and end summaries of each method are kept in their own
+ * maps, threads that work on different methods never touch the same data
+ * structure, and no key objects need to be created for combining the method
+ * with the abstraction.
+ * 
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public class MethodShard<N, D extends FastSolverLinkedNode<D, N>> {
+
+	private final SootMethod method;
+	private final int affinity;
+
+	private final MyConcurrentHashMap<D, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummaries = new MyConcurrentHashMap<>();
+	private final MyConcurrentHashMap<D, MyConcurrentHashMap<N, Map<D, D>>> incoming = new MyConcurrentHashMap<>();
+
+	MethodShard(SootMethod method, int affinity) {
+		this.method = method;
+		this.affinity = affinity;
+	}
+
+	/**
+	 * Gets the end summaries for the given incoming abstraction
+	 * 
+	 * @param d1 The abstraction at the start point of the method
+	 * @return The end summaries for the given abstraction, or <code>null</code> if
+	 *         there are none
+	 */
+	public Map<EndSummary<N, D>, EndSummary<N, D>> getEndSummaries(D d1) {
+		return endSummaries.get(d1);
+	}
+
+	/**
+	 * Gets the end summaries for the given incoming abstraction, and creates a new
+	 * empty set of summaries if there are none yet
+	 * 
+	 * @param d1 The abstraction at the start point of the method
+	 * @return The end summaries for the given abstraction
+	 */
+	public Map<EndSummary<N, D>, EndSummary<N, D>> getOrCreateEndSummaries(D d1) {
+		return endSummaries.putIfAbsentElseGet(d1, () -> new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Calls the given consumer for all end summaries in this shard
+	 * 
+	 * @param consumer The consumer to call for each end summary
+	 */
+	public void forEachEndSummary(Consumer<EndSummary<N, D>> consumer) {
+		for (Map<EndSummary<N, D>, EndSummary<N, D>> summaries : endSummaries.values())
+			summaries.keySet().forEach(consumer);
+	}
+
+	/**
+	 * Gets the incoming edges for the given callee-side abstraction
+	 * 
+	 * @param d3 The abstraction at the start point of the method
+	 * @return The incoming edges, or <code>null</code> if there are none
+	 */
+	public Map<N, Map<D, D>> getIncoming(D d3) {
+		return incoming.get(d3);
+	}
+
+	/**
+	 * Gets the incoming edges for the given callee-side abstraction, and creates a
+	 * new empty map of incoming edges if there are none yet
+	 * 
+	 * @param d3 The abstraction at the start point of the method
+	 * @return The incoming edges
+	 */
+	public MyConcurrentHashMap<N, Map<D, D>> getOrCreateIncoming(D d3) {
+		return incoming.putIfAbsentElseGet(d3, () -> new MyConcurrentHashMap<>());
+	}
+
+	/**
+	 * Gets the method to which this shard belongs
+	 * 
+	 * @return The method to which this shard belongs
+	 */
+	public SootMethod getMethod() {
+		return method;
+	}
+
+	/**
+	 * Gets the affinity value of this shard. Edges inside the same method share
+	 * the same affinity value, so that the executor can prefer the same worker for
+	 * them.
+	 * 
+	 * @return The affinity value of this shard
+	 */
+	public int getAffinity() {
+		return affinity;
+	}
+
+}
@@ -0,0 +1,77 @@
+package soot.jimple.infoflow.solver.shardedSolver;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
+
+/**
+ * Registry of the {@link MethodShard} objects of a solver. Each method receives
+ * its shard on first use. Afterwards, the registry is only read, which does not
+ * require any locking.
+ * 
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public class ShardedSolverState<N, D extends FastSolverLinkedNode<D, N>> {
+
+	private final ConcurrentMap<SootMethod, MethodShard<N, D>> shards = new ConcurrentHashMap<>();
+	private final AtomicInteger nextAffinity = new AtomicInteger();
+
+	/**
+	 * Gets the shard for the given method if it exists
+	 * 
+	 * @param m The method for which to get the shard
+	 * @return The shard for the given method, or <code>null</code> if the method
+	 *         has no shard yet
+	 */
+	public MethodShard<N, D> getShard(SootMethod m) {
+		return shards.get(m);
+	}
+
+	/**
+	 * Gets the shard for the given method, and creates a new one if the method has
+	 * no shard yet
+	 * 
+	 * @param m The method for which to get the shard
+	 * @return The shard for the given method
+	 */
+	public MethodShard<N, D> getOrCreateShard(SootMethod m) {
+		MethodShard<N, D> shard = shards.get(m);
+		if (shard != null)
+			return shard;
+
+		// Affinity values are handed out in ascending order, so that the methods are
+		// evenly distributed across the workers
+		return shards.computeIfAbsent(m, k -> new MethodShard<>(k, nextAffinity.getAndIncrement()));
+	}
+
+	/**
+	 * Gets all shards in this registry
+	 * 
+	 * @return All shards in this registry
+	 */
+	public Collection<MethodShard<N, D>> getShards() {
+		return shards.values();
+	}
+
+	/**
+	 * Gets the number of shards in this registry
+	 * 
+	 * @return The number of shards in this registry
+	 */
+	public int size() {
+		return shards.size();
+	}
+
+	/**
+	 * Removes all shards from this registry
+	 */
+	public void clear() {
+		shards.clear();
+	}
+
+}
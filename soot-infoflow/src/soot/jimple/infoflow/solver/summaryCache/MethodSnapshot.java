@@ -0,0 +1,136 @@
+package soot.jimple.infoflow.solver.summaryCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of the body hashes of all application methods at the time of an
+ * analysis run. Comparing the snapshot of the current run with the one of the
+ * previous run yields the methods that have changed in between.
+ */
+public class MethodSnapshot {
+
+	private static final int FILE_MAGIC = 0x46445348;
+	private static final int FILE_VERSION = 1;
+
+	private final Map<String, String> bodyHashes;
+
+	/**
+	 * Creates a new, empty snapshot
+	 */
+	public MethodSnapshot() {
+		this(new HashMap<>());
+	}
+
+	private MethodSnapshot(Map<String, String> bodyHashes) {
+		this.bodyHashes = bodyHashes;
+	}
+
+	/**
+	 * Records the body hash of the given method
+	 *
+	 * @param signature The signature of the method
+	 * @param bodyHash  The hash of the method body
+	 */
+	public void addMethod(String signature, String bodyHash) {
+		bodyHashes.put(signature, bodyHash);
+	}
+
+	/**
+	 * Gets the number of methods in this snapshot
+	 *
+	 * @return The number of methods in this snapshot
+	 */
+	public int size() {
+		return bodyHashes.size();
+	}
+
+	/**
+	 * Gets the signatures of all methods that have been added, removed, or changed
+	 * in this snapshot with respect to the given previous snapshot
+	 *
+	 * @param previous The snapshot of the previous run
+	 * @return The signatures of the changed methods
+	 */
+	public Set<String> getChangedMethods(MethodSnapshot previous) {
+		Set<String> changed = new HashSet<>();
+		for (Map.Entry<String, String> entry : bodyHashes.entrySet()) {
+			if (!entry.getValue().equals(previous.bodyHashes.get(entry.getKey())))
+				changed.add(entry.getKey());
+		}
+		for (String signature : previous.bodyHashes.keySet()) {
+			if (!bodyHashes.containsKey(signature))
+				changed.add(signature);
+		}
+		return changed;
+	}
+
+	/**
+	 * Writes this snapshot to the given file
+	 *
+	 * @param file The file to write to
+	 * @throws IOException Thrown if the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+		File tempFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(FILE_VERSION);
+				out.writeInt(bodyHashes.size());
+				for (Map.Entry<String, String> entry : bodyHashes.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeUTF(entry.getValue());
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	/**
+	 * Reads a snapshot from the given file
+	 *
+	 * @param file The file to read
+	 * @return The snapshot, or <code>null</code> if the given file does not exist
+	 *         or has an incompatible version
+	 * @throws IOException Thrown if the file cannot be read or is corrupt
+	 */
+	public static MethodSnapshot read(File file) throws IOException {
+		if (!file.exists())
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FILE_MAGIC)
+				throw new IOException("Not a method snapshot file");
+			if (in.readInt() != FILE_VERSION)
+				return null;
+
+			int methodCount = in.readInt();
+			Map<String, String> bodyHashes = new HashMap<>(methodCount);
+			for (int i = 0; i < methodCount; i++)
+				bodyHashes.put(in.readUTF(), in.readUTF());
+			return new MethodSnapshot(bodyHashes);
+		}
+	}
+
+}
@@ -0,0 +1,753 @@
+package soot.jimple.infoflow.solver.summaryCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Body;
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.AccessPathConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.solver.EndSummary;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.infoflow.sourcesSinks.manager.SourceInfo;
+import soot.jimple.infoflow.taintWrappers.ICacheableTaintWrapper;
+import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
+import soot.jimple.infoflow.util.SystemClassHandler;
+
+/**
+ * Cache that persists the end summaries of library methods in a directory on
+ * disk, so that later analysis runs can re-use them instead of analyzing the
+ * same library code again. In incremental mode, the summaries of application
+ * methods are persisted as well, so that a new version of the same application
+ * only needs to be analyzed where it has changed. Every method has its own file in the cache
+ * directory. Inside this file, the summaries are keyed by
+ * <ul>
+ * <li>a fingerprint over the data flow configuration, the rules of the taint
+ * wrapper, and the bodies of the method and all of its transitive callees
+ * including their sources and sinks, and</li>
+ * <li>the shape of the incoming abstraction, i.e., its access path.</li>
+ * </ul>
+ *
+ * Summaries are only persisted if they are self-contained, i.e., if analyzing
+ * the method does not have any effect beyond the returned abstractions. This
+ * excludes methods that transitively reach a sink, methods from which the alias
+ * analysis escaped into the callers, and abstractions that carry context such
+ * as activation units or implicit flow information. Since the callee is not
+ * analyzed when its summaries are loaded from the cache, the propagation paths
+ * of the respective abstractions skip over the callee.
+ */
+public class PersistentSummaryCache {
+
+	private static final int FILE_MAGIC = 0x46445343;
+	private static final int FILE_VERSION = 1;
+	private static final String FILE_EXTENSION = ".summaries";
+	private static final String SNAPSHOT_FILE = "methods.snapshot";
+
+	private static final Logger logger = LoggerFactory.getLogger(PersistentSummaryCache.class);
+
+	private final File directory;
+	private final InfoflowManager manager;
+	private final String configurationKey;
+
+	private final MyConcurrentHashMap<SootMethod, String> bodyHashes = new MyConcurrentHashMap<>();
+	private final MyConcurrentHashMap<SootMethod, String> fingerprints = new MyConcurrentHashMap<>();
+	private final MyConcurrentHashMap<SootMethod, Set<SootMethod>> transitiveCallees = new MyConcurrentHashMap<>();
+	private final MyConcurrentHashMap<SootMethod, CachedMethod> loadedMethods = new MyConcurrentHashMap<>();
+
+	private final AtomicInteger cacheHits = new AtomicInteger();
+
+	private boolean includeApplicationMethods = false;
+
+	/**
+	 * The summaries of a single method that have been loaded from disk
+	 */
+	private static class CachedMethod {
+
+		private final Map<SerializedAccessPath, List<StoredSummary>> summaries;
+		private final Unit[] units;
+
+		public CachedMethod(Map<SerializedAccessPath, List<StoredSummary>> summaries, Unit[] units) {
+			this.summaries = summaries;
+			this.units = units;
+		}
+
+	}
+
+	/**
+	 * A single end summary in its persistent form
+	 */
+	private static class StoredSummary {
+
+		private final int exitIndex;
+		private final SerializedAccessPath accessPath;
+
+		public StoredSummary(int exitIndex, SerializedAccessPath accessPath) {
+			this.exitIndex = exitIndex;
+			this.accessPath = accessPath;
+		}
+
+	}
+
+	/**
+	 * Key for the entries inside a single cache file
+	 */
+	private static class EntryKey {
+
+		private final String fingerprint;
+		private final SerializedAccessPath incoming;
+
+		public EntryKey(String fingerprint, SerializedAccessPath incoming) {
+			this.fingerprint = fingerprint;
+			this.incoming = incoming;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(fingerprint, incoming);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			EntryKey other = (EntryKey) obj;
+			return Objects.equals(fingerprint, other.fingerprint) && Objects.equals(incoming, other.incoming);
+		}
+
+	}
+
+	/**
+	 * Creates a new instance of the {@link PersistentSummaryCache} class
+	 *
+	 * @param directory The directory in which to store the summaries
+	 * @param manager   The data flow manager
+	 */
+	public PersistentSummaryCache(File directory, InfoflowManager manager) {
+		this.directory = directory;
+		this.manager = manager;
+		this.configurationKey = computeConfigurationKey(manager);
+	}
+
+	/**
+	 * Computes a stable textual representation of all settings that influence the
+	 * end summaries
+	 *
+	 * @param manager The data flow manager
+	 * @return The configuration key
+	 */
+	private static String computeConfigurationKey(InfoflowManager manager) {
+		if (!isSupported(manager))
+			throw new IllegalArgumentException("The taint wrapper does not support the summary cache");
+
+		final InfoflowConfiguration config = manager.getConfig();
+		final AccessPathConfiguration apConfig = config.getAccessPathConfiguration();
+		final SolverConfiguration solverConfig = config.getSolverConfiguration();
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("v").append(FILE_VERSION);
+		sb.append(";direction=").append(config.getDataFlowDirection());
+		sb.append(";aliasing=").append(config.getAliasingAlgorithm());
+		sb.append(";flowSensitiveAliasing=").append(config.getFlowSensitiveAliasing());
+		sb.append(";implicitFlows=").append(config.getImplicitFlowMode());
+		sb.append(";staticFields=").append(config.getStaticFieldTrackingMode());
+		sb.append(";exceptions=").append(config.getEnableExceptionTracking());
+		sb.append(";arrays=").append(config.getEnableArrayTracking());
+		sb.append(";arraySize=").append(config.getEnableArraySizeTainting());
+		sb.append(";typeChecking=").append(config.getEnableTypeChecking());
+		sb.append(";reflection=").append(config.getEnableReflection());
+		sb.append(";ignoreSystemFlows=").append(config.getIgnoreFlowsInSystemPackages());
+		sb.append(";apLength=").append(apConfig.getAccessPathLength());
+		sb.append(";recursiveAPs=").append(apConfig.getUseRecursiveAccessPaths());
+		sb.append(";thisChainReduction=").append(apConfig.getUseThisChainReduction());
+		sb.append(";sameFieldReduction=").append(apConfig.getUseSameFieldReduction());
+		sb.append(";maxCallees=").append(solverConfig.getMaxCalleesPerCallSite());
+		sb.append(";maxPathLength=").append(solverConfig.getMaxAbstractionPathLength());
+		sb.append(";taintWrapper=").append(getTaintWrapperKey(manager.getTaintWrapper()));
+		return sb.toString();
+	}
+
+	/**
+	 * Gets a stable textual representation of the rules of the given taint
+	 * wrapper
+	 *
+	 * @param taintWrapper The taint wrapper
+	 * @return The key of the given taint wrapper, or <code>null</code> if the
+	 *         taint wrapper cannot describe its configuration
+	 */
+	public static String getTaintWrapperKey(ITaintPropagationWrapper taintWrapper) {
+		if (taintWrapper == null)
+			return "none";
+		if (!(taintWrapper instanceof ICacheableTaintWrapper))
+			return null;
+		String key = ((ICacheableTaintWrapper) taintWrapper).getConfigurationKey();
+		if (key == null)
+			return null;
+
+		// The rules can be large, and the key is part of every fingerprint
+		return taintWrapper.getClass().getName() + "#" + hash(key);
+	}
+
+	/**
+	 * Checks whether summaries can be cached for the given data flow manager. This
+	 * requires that the taint wrapper, if there is one, can describe its rules.
+	 *
+	 * @param manager The data flow manager
+	 * @return True if summaries can be cached with the given manager, false
+	 *         otherwise
+	 */
+	public static boolean isSupported(InfoflowManager manager) {
+		return getTaintWrapperKey(manager.getTaintWrapper()) != null;
+	}
+
+	/**
+	 * Gets the end summaries of the given callee for the given incoming
+	 * abstraction from the cache
+	 *
+	 * @param callee The callee
+	 * @param d3     The abstraction at the start point of the callee
+	 * @return The end summaries, or <code>null</code> if the cache does not
+	 *         contain summaries for the given callee and abstraction
+	 */
+	public Collection<EndSummary<Unit, Abstraction>> getSummaries(SootMethod callee, Abstraction d3) {
+		if (!isCacheableMethod(callee) || !callee.hasActiveBody() || !isCacheableAbstraction(d3))
+			return null;
+		SerializedAccessPath incoming = SerializedAccessPath.fromAccessPath(d3.getAccessPath());
+		if (incoming == null)
+			return null;
+
+		CachedMethod cachedMethod = loadedMethods.putIfAbsentElseGet(callee, () -> loadMethod(callee));
+		List<StoredSummary> storedSummaries = cachedMethod.summaries.get(incoming);
+		if (storedSummaries == null)
+			return null;
+
+		// Re-create the summaries inside the current analysis run. If anything is
+		// inconsistent, we analyze the callee normally.
+		final Body body = callee.getActiveBody();
+		List<EndSummary<Unit, Abstraction>> summaries = new ArrayList<>(storedSummaries.size());
+		for (StoredSummary storedSummary : storedSummaries) {
+			if (storedSummary.exitIndex < 0 || storedSummary.exitIndex >= cachedMethod.units.length)
+				return null;
+			Unit eP = cachedMethod.units[storedSummary.exitIndex];
+			AccessPath ap = storedSummary.accessPath.toAccessPath(body, manager.getAccessPathFactory());
+			if (ap == null)
+				return null;
+			Abstraction d4 = d3.deriveNewAbstraction(ap, (Stmt) eP);
+			if (d4 == null)
+				return null;
+			summaries.add(new EndSummary<>(eP, d4, d3));
+		}
+		cacheHits.incrementAndGet();
+		return summaries;
+	}
+
+	/**
+	 * Loads the summaries of the given method from disk
+	 *
+	 * @param method The method for which to load the summaries
+	 * @return The summaries of the given method that match the current
+	 *         fingerprint of the method
+	 */
+	private CachedMethod loadMethod(SootMethod method) {
+		final File file = getFileForMethod(method);
+		if (!file.exists())
+			return new CachedMethod(new HashMap<>(), null);
+
+		final String fingerprint = getFingerprint(method);
+		Map<SerializedAccessPath, List<StoredSummary>> summaries = new HashMap<>();
+		try {
+			for (Map.Entry<EntryKey, List<StoredSummary>> entry : readFile(file, method).entrySet()) {
+				if (entry.getKey().fingerprint.equals(fingerprint))
+					summaries.put(entry.getKey().incoming, entry.getValue());
+			}
+		} catch (IOException e) {
+			logger.warn(String.format("Could not read summary cache file %s", file), e);
+			return new CachedMethod(new HashMap<>(), null);
+		}
+
+		Unit[] units = summaries.isEmpty() ? null : method.getActiveBody().getUnits().toArray(new Unit[0]);
+		return new CachedMethod(summaries, units);
+	}
+
+	/**
+	 * Writes the self-contained end summaries of all cacheable methods that the
+	 * given solver has computed to the cache
+	 *
+	 * @param forwardSolver  The solver whose summaries shall be persisted
+	 * @param backwardSolver The alias solver that ran together with the given
+	 *                       solver, or <code>null</code> if there was none
+	 * @param results        The abstractions that have reached a sink
+	 * @return The number of methods for which summaries have been written
+	 */
+	public int storeSummaries(InfoflowSolver forwardSolver, IInfoflowSolver backwardSolver,
+			Set<AbstractionAtSink> results) {
+		final IInfoflowCFG icfg = manager.getICFG();
+
+		// The alias analysis may have escaped from a method into its callers. We
+		// cannot capture such effects in a summary.
+		final Set<SootMethod> aliasEscapes = new HashSet<>();
+		if (backwardSolver != null) {
+			if (!(backwardSolver instanceof InfoflowSolver)) {
+				logger.warn("Summaries can only be persisted with a context- and flow-sensitive alias solver");
+				return 0;
+			}
+			((InfoflowSolver) backwardSolver).forEachEndSummary(s -> aliasEscapes.add(icfg.getMethodOf(s.eP)));
+		}
+
+		// Methods that contain a sink must always be analyzed
+		final Set<SootMethod> sinkMethods = new HashSet<>();
+		if (results != null)
+			for (AbstractionAtSink abs : results)
+				sinkMethods.add(icfg.getMethodOf(abs.getSinkStmt()));
+
+		// Group the summaries by method and incoming abstraction
+		final Map<SootMethod, Map<Abstraction, List<EndSummary<Unit, Abstraction>>>> summariesByMethod = new HashMap<>();
+		forwardSolver.forEachEndSummary(s -> {
+			SootMethod method = icfg.getMethodOf(s.eP);
+			if (method != null && isCacheableMethod(method) && method.hasActiveBody() && !aliasEscapes.contains(method))
+				summariesByMethod.computeIfAbsent(method, k -> new HashMap<>())
+						.computeIfAbsent(s.calleeD1, k -> new ArrayList<>()).add(s);
+		});
+
+		if (!directory.exists() && !directory.mkdirs()) {
+			logger.error("Could not create summary cache directory {}", directory);
+			return 0;
+		}
+
+		int methodCount = 0;
+		for (Map.Entry<SootMethod, Map<Abstraction, List<EndSummary<Unit, Abstraction>>>> entry : summariesByMethod
+				.entrySet()) {
+			final SootMethod method = entry.getKey();
+			final Set<SootMethod> closure = getTransitiveCallees(method);
+			if (closure.stream().anyMatch(sinkMethods::contains))
+				continue;
+
+			final String fingerprint = getFingerprint(method);
+			final Map<Unit, Integer> unitIndices = new HashMap<>();
+			for (Unit u : method.getActiveBody().getUnits())
+				unitIndices.put(u, unitIndices.size());
+
+			Map<EntryKey, List<StoredSummary>> newEntries = new LinkedHashMap<>();
+			for (Map.Entry<Abstraction, List<EndSummary<Unit, Abstraction>>> d1Entry : entry.getValue().entrySet()) {
+				List<StoredSummary> storedSummaries = toStoredSummaries(d1Entry.getKey(), d1Entry.getValue(),
+						unitIndices);
+				if (storedSummaries != null)
+					newEntries.put(new EntryKey(fingerprint,
+							SerializedAccessPath.fromAccessPath(d1Entry.getKey().getAccessPath())), storedSummaries);
+			}
+			if (newEntries.isEmpty())
+				continue;
+
+			try {
+				writeMethod(method, newEntries);
+				methodCount++;
+			} catch (IOException e) {
+				logger.error(String.format("Could not write summaries for method %s", method.getSignature()), e);
+			}
+		}
+
+		logger.info("Persisted summaries for {} methods, re-used cached summaries {} times", methodCount,
+				cacheHits.get());
+		return methodCount;
+	}
+
+	/**
+	 * Converts the end summaries for the given incoming abstraction into their
+	 * persistent form
+	 *
+	 * @param d1          The abstraction at the start point of the method
+	 * @param summaries   The end summaries to convert
+	 * @param unitIndices A mapping from the units of the method to their indices
+	 * @return The persistent summaries, or <code>null</code> if at least one of
+	 *         the summaries cannot be persisted
+	 */
+	private List<StoredSummary> toStoredSummaries(Abstraction d1, List<EndSummary<Unit, Abstraction>> summaries,
+			Map<Unit, Integer> unitIndices) {
+		if (!isCacheableAbstraction(d1) || SerializedAccessPath.fromAccessPath(d1.getAccessPath()) == null)
+			return null;
+
+		// We must not persist partial summaries, since they would lead to missed flows
+		List<StoredSummary> storedSummaries = new ArrayList<>(summaries.size());
+		for (EndSummary<Unit, Abstraction> summary : summaries) {
+			if (!isCacheableAbstraction(summary.d4))
+				return null;
+			Integer idx = unitIndices.get(summary.eP);
+			SerializedAccessPath ap = SerializedAccessPath.fromAccessPath(summary.d4.getAccessPath());
+			if (idx == null || ap == null)
+				return null;
+			storedSummaries.add(new StoredSummary(idx, ap));
+		}
+		return storedSummaries;
+	}
+
+	/**
+	 * Merges the given entries into the cache file of the given method
+	 *
+	 * @param method     The method for which to write the summaries
+	 * @param newEntries The new entries that shall replace existing entries with
+	 *                   the same key
+	 * @throws IOException Thrown if the cache file cannot be written
+	 */
+	private void writeMethod(SootMethod method, Map<EntryKey, List<StoredSummary>> newEntries) throws IOException {
+		final File file = getFileForMethod(method);
+		Map<EntryKey, List<StoredSummary>> entries = new LinkedHashMap<>();
+		if (file.exists()) {
+			try {
+				entries.putAll(readFile(file, method));
+			} catch (IOException e) {
+				logger.warn(String.format("Replacing corrupt summary cache file %s", file), e);
+			}
+		}
+		entries.putAll(newEntries);
+
+		// Write to a temporary file first, so that concurrent readers never see
+		// partial data
+		File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(FILE_VERSION);
+				out.writeUTF(method.getSignature());
+				out.writeInt(entries.size());
+				for (Map.Entry<EntryKey, List<StoredSummary>> entry : entries.entrySet()) {
+					out.writeUTF(entry.getKey().fingerprint);
+					entry.getKey().incoming.write(out);
+					out.writeInt(entry.getValue().size());
+					for (StoredSummary summary : entry.getValue()) {
+						out.writeInt(summary.exitIndex);
+						summary.accessPath.write(out);
+					}
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	/**
+	 * Reads all entries from the given cache file
+	 *
+	 * @param file   The file to read
+	 * @param method The method to which the file belongs
+	 * @return The entries in the given file
+	 * @throws IOException Thrown if the file cannot be read or is corrupt
+	 */
+	private Map<EntryKey, List<StoredSummary>> readFile(File file, SootMethod method) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FILE_MAGIC)
+				throw new IOException("Not a summary cache file");
+			if (in.readInt() != FILE_VERSION)
+				return new LinkedHashMap<>();
+
+			// Different methods may be stored under the same file name in case of a hash
+			// collision
+			if (!in.readUTF().equals(method.getSignature()))
+				return new LinkedHashMap<>();
+
+			int entryCount = in.readInt();
+			Map<EntryKey, List<StoredSummary>> entries = new LinkedHashMap<>();
+			for (int i = 0; i < entryCount; i++) {
+				String fingerprint = in.readUTF();
+				SerializedAccessPath incoming = SerializedAccessPath.read(in);
+				int summaryCount = in.readInt();
+				List<StoredSummary> summaries = new ArrayList<>(summaryCount);
+				for (int j = 0; j < summaryCount; j++) {
+					int exitIndex = in.readInt();
+					summaries.add(new StoredSummary(exitIndex, SerializedAccessPath.read(in)));
+				}
+				entries.put(new EntryKey(fingerprint, incoming), summaries);
+			}
+			return entries;
+		}
+	}
+
+	/**
+	 * Gets the cache file for the given method
+	 *
+	 * @param method The method
+	 * @return The file in which the summaries of the given method are stored
+	 */
+	private File getFileForMethod(SootMethod method) {
+		return getFileForSignature(method.getSignature());
+	}
+
+	/**
+	 * Gets the cache file for the method with the given signature
+	 *
+	 * @param signature The method signature
+	 * @return The file in which the summaries of the method are stored
+	 */
+	private File getFileForSignature(String signature) {
+		return new File(directory, hash(signature).substring(0, 40) + FILE_EXTENSION);
+	}
+
+	/**
+	 * Gets the fingerprint of the given method. The fingerprint covers the current
+	 * configuration and the bodies of the method and all of its transitive
+	 * callees, since a change in any callee can change the summary of the method.
+	 *
+	 * @param method The method for which to compute the fingerprint
+	 * @return The fingerprint of the given method
+	 */
+	private String getFingerprint(SootMethod method) {
+		return fingerprints.putIfAbsentElseGet(method, () -> {
+			// Sort the callees to obtain a stable order across runs
+			Map<String, String> calleeHashes = new TreeMap<>();
+			for (SootMethod callee : getTransitiveCallees(method))
+				calleeHashes.put(callee.getSignature(), getBodyHash(callee));
+
+			StringBuilder sb = new StringBuilder(configurationKey);
+			for (Map.Entry<String, String> entry : calleeHashes.entrySet())
+				sb.append('\n').append(entry.getKey()).append('=').append(entry.getValue());
+			return hash(sb.toString());
+		});
+	}
+
+	/**
+	 * Gets the hash of the body of the given method. Statements that are sources
+	 * or sinks are marked, so that the hash changes when the source or sink
+	 * definitions change.
+	 *
+	 * @param method The method
+	 * @return The hash of the body of the given method
+	 */
+	private String getBodyHash(SootMethod method) {
+		return bodyHashes.putIfAbsentElseGet(method, () -> {
+			if (!method.hasActiveBody())
+				return "<no body>";
+
+			StringBuilder sb = new StringBuilder();
+			Body body = method.getActiveBody();
+			for (Local l : body.getLocals())
+				sb.append(l.getName()).append(':').append(l.getType()).append('\n');
+			final ISourceSinkManager sourceSinkManager = manager.getSourceSinkManager();
+			for (Unit u : body.getUnits()) {
+				sb.append(u);
+				if (sourceSinkManager != null && u instanceof Stmt) {
+					Stmt stmt = (Stmt) u;
+					SourceInfo sourceInfo = sourceSinkManager.getSourceInfo(stmt, manager);
+					if (sourceInfo != null) {
+						// Sort the access paths to obtain a stable order across runs
+						Set<String> aps = new TreeSet<>();
+						for (AccessPath ap : sourceInfo.getAccessPaths())
+							aps.add(String.valueOf(ap));
+						sb.append(" @source").append(aps);
+					}
+					if (sourceSinkManager.getSinkInfo(stmt, manager, null) != null)
+						sb.append(" @sink");
+				}
+				sb.append('\n');
+			}
+			return hash(sb.toString());
+		});
+	}
+
+	/**
+	 * Gets the set of transitive callees of the given method, including the
+	 * method itself
+	 *
+	 * @param method The method for which to get the callees
+	 * @return The set of transitive callees of the given method
+	 */
+	private Set<SootMethod> getTransitiveCallees(SootMethod method) {
+		return transitiveCallees.putIfAbsentElseGet(method, () -> computeTransitiveCallees(method));
+	}
+
+	/**
+	 * Computes the set of transitive callees of the given method, including the
+	 * method itself
+	 *
+	 * @param method The method for which to compute callees
+	 * @return The set of transitive callees of the given method
+	 */
+	private Set<SootMethod> computeTransitiveCallees(SootMethod method) {
+		final IInfoflowCFG icfg = manager.getICFG();
+		Set<SootMethod> callees = new HashSet<>();
+		List<SootMethod> workList = new ArrayList<>();
+		callees.add(method);
+		workList.add(method);
+
+		while (!workList.isEmpty()) {
+			SootMethod sm = workList.remove(workList.size() - 1);
+			if (sm.isConcrete() && sm.hasActiveBody()) {
+				for (Unit callSite : icfg.getCallsFromWithin(sm)) {
+					for (SootMethod callee : icfg.getCalleesOfCallAt(callSite)) {
+						if (callees.add(callee))
+							workList.add(callee);
+					}
+				}
+			}
+		}
+		return callees;
+	}
+
+	/**
+	 * Checks whether the summaries of the given method may be persisted. These are
+	 * library methods and, in incremental mode, also application methods.
+	 *
+	 * @param method The method to check
+	 * @return True if the summaries of the given method may be persisted, otherwise
+	 *         false
+	 */
+	private boolean isCacheableMethod(SootMethod method) {
+		return includeApplicationMethods || !method.getDeclaringClass().isApplicationClass()
+				|| SystemClassHandler.v().isClassInSystemPackage(method.getDeclaringClass());
+	}
+
+	/**
+	 * Checks whether the given abstraction is free of any context that cannot be
+	 * persisted
+	 *
+	 * @param abs The abstraction to check
+	 * @return True if the given abstraction can be persisted, otherwise false
+	 */
+	private boolean isCacheableAbstraction(Abstraction abs) {
+		return abs.isAbstractionActive() && !abs.isImplicit() && !abs.getExceptionThrown()
+				&& !abs.dependsOnCutAP() && abs.getTurnUnit() == null && abs.getDominator() == null
+				&& abs.getTopPostdominator() == null && !abs.getAccessPath().isEmpty();
+	}
+
+	/**
+	 * Sets whether the summaries of application methods shall be persisted as
+	 * well. This is used for incremental analysis, where a new version of the same
+	 * application is analyzed again.
+	 *
+	 * @param includeApplicationMethods True to persist the summaries of
+	 *                                  application methods, false to only persist
+	 *                                  the summaries of library methods
+	 */
+	public void setIncludeApplicationMethods(boolean includeApplicationMethods) {
+		this.includeApplicationMethods = includeApplicationMethods;
+	}
+
+	/**
+	 * Compares the bodies of the application methods with the snapshot of the
+	 * previous run and replaces the snapshot with the current state. The cached
+	 * summaries of all changed methods are removed. Summaries of methods that
+	 * transitively call a changed method do not match the fingerprint of the
+	 * current run anymore and are thus not re-used either.
+	 *
+	 * @return The signatures of the methods that have been added, removed, or
+	 *         changed since the previous run, or <code>null</code> if there is no
+	 *         snapshot of a previous run
+	 */
+	public Set<String> updateSnapshot() {
+		MethodSnapshot current = new MethodSnapshot();
+		for (SootClass sc : Scene.v().getApplicationClasses()) {
+			for (SootMethod sm : sc.getMethods()) {
+				if (sm.hasActiveBody())
+					current.addMethod(sm.getSignature(), getBodyHash(sm));
+			}
+		}
+
+		if (!directory.exists() && !directory.mkdirs()) {
+			logger.error("Could not create summary cache directory {}", directory);
+			return null;
+		}
+
+		final File snapshotFile = new File(directory, SNAPSHOT_FILE);
+		MethodSnapshot previous = null;
+		try {
+			previous = MethodSnapshot.read(snapshotFile);
+		} catch (IOException e) {
+			logger.warn(String.format("Could not read method snapshot %s", snapshotFile), e);
+		}
+
+		Set<String> changedMethods = null;
+		if (previous != null) {
+			changedMethods = current.getChangedMethods(previous);
+			for (String signature : changedMethods) {
+				File file = getFileForSignature(signature);
+				if (file.exists() && !file.delete())
+					logger.warn("Could not delete stale summary cache file {}", file);
+			}
+			logger.info("{} of {} application methods have changed since the previous run", changedMethods.size(),
+					current.size());
+		}
+
+		try {
+			current.write(snapshotFile);
+		} catch (IOException e) {
+			logger.error(String.format("Could not write method snapshot %s", snapshotFile), e);
+		}
+		return changedMethods;
+	}
+
+	/**
+	 * Gets the number of times summaries have been loaded from the cache
+	 *
+	 * @return The number of cache hits
+	 */
+	public int getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * Computes the SHA-256 hash of the given string
+	 *
+	 * @param data The string to hash
+	 * @return The hash as a hexadecimal string
+	 */
+	private static String hash(String data) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder(2 * hash.length);
+			for (byte b : hash)
+				sb.append(String.format("%02x", b));
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not supported", e);
+		}
+	}
+
+}
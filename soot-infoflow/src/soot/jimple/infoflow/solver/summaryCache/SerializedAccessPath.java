@@ -0,0 +1,242 @@
+package soot.jimple.infoflow.solver.summaryCache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import soot.Body;
+import soot.Local;
+import soot.Scene;
+import soot.SootField;
+import soot.Type;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.data.AccessPathFragment;
+
+/**
+ * Symbolic representation of an access path that does not reference any Soot
+ * objects. Locals are identified by their names inside the method body, fields
+ * by their signatures, and types by their names. This allows an access path to
+ * be written to disk and to be re-created inside a later analysis run.
+ */
+public class SerializedAccessPath {
+
+	private final String baseLocal;
+	private final String baseType;
+	private final String[] fields;
+	private final String[] fieldTypes;
+	private final boolean taintSubFields;
+	private final ArrayTaintType arrayTaintType;
+	private final boolean canHaveImmutableAliases;
+
+	private int hashCode = 0;
+
+	private SerializedAccessPath(String baseLocal, String baseType, String[] fields, String[] fieldTypes,
+			boolean taintSubFields, ArrayTaintType arrayTaintType, boolean canHaveImmutableAliases) {
+		this.baseLocal = baseLocal;
+		this.baseType = baseType;
+		this.fields = fields;
+		this.fieldTypes = fieldTypes;
+		this.taintSubFields = taintSubFields;
+		this.arrayTaintType = arrayTaintType;
+		this.canHaveImmutableAliases = canHaveImmutableAliases;
+	}
+
+	/**
+	 * Creates a symbolic representation of the given access path
+	 * 
+	 * @param ap The access path to convert
+	 * @return The symbolic representation of the given access path, or
+	 *         <code>null</code> if the access path cannot be represented
+	 *         symbolically
+	 */
+	public static SerializedAccessPath fromAccessPath(AccessPath ap) {
+		// Approximations cannot be re-created faithfully
+		if (ap == null || ap.isEmpty() || ap.isCutOffApproximation())
+			return null;
+
+		final Local plainValue = ap.getPlainValue();
+		final AccessPathFragment[] fragments = ap.getFragments();
+		String[] fields = new String[fragments == null ? 0 : fragments.length];
+		String[] fieldTypes = new String[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			AccessPathFragment fragment = fragments[i];
+			if (fragment.getContext() != null)
+				return null;
+			fields[i] = fragment.getField().getSignature();
+			fieldTypes[i] = fragment.getFieldType() == null ? null : fragment.getFieldType().toString();
+		}
+
+		return new SerializedAccessPath(plainValue == null ? null : plainValue.getName(),
+				ap.getBaseType() == null ? null : ap.getBaseType().toString(), fields, fieldTypes,
+				ap.getTaintSubFields(), ap.getArrayTaintType(), ap.getCanHaveImmutableAliases());
+	}
+
+	/**
+	 * Re-creates the access path inside the given method body
+	 * 
+	 * @param body    The body of the method in which the access path is valid
+	 * @param factory The factory for creating access paths
+	 * @return The access path, or <code>null</code> if the access path could not be
+	 *         re-created, e.g., because a local or a field does not exist
+	 */
+	public AccessPath toAccessPath(Body body, AccessPathFactory factory) {
+		Local local = null;
+		if (baseLocal != null) {
+			for (Local l : body.getLocals()) {
+				if (l.getName().equals(baseLocal)) {
+					local = l;
+					break;
+				}
+			}
+			if (local == null)
+				return null;
+		}
+
+		Type type = null;
+		if (baseType != null) {
+			type = Scene.v().getTypeUnsafe(baseType);
+			if (type == null)
+				return null;
+		}
+
+		AccessPathFragment[] fragments = null;
+		if (fields.length > 0) {
+			fragments = new AccessPathFragment[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				SootField field = Scene.v().grabField(fields[i]);
+				if (field == null)
+					return null;
+				Type fieldType = null;
+				if (fieldTypes[i] != null) {
+					fieldType = Scene.v().getTypeUnsafe(fieldTypes[i]);
+					if (fieldType == null)
+						return null;
+				}
+				fragments[i] = new AccessPathFragment(field, fieldType);
+			}
+		}
+
+		// The access path has already been reduced when it was originally created
+		return factory.createAccessPath(local, type, fragments, taintSubFields, false, false, arrayTaintType,
+				canHaveImmutableAliases);
+	}
+
+	/**
+	 * Writes this access path to the given stream
+	 * 
+	 * @param out The stream to write to
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		writeNullableString(out, baseLocal);
+		writeNullableString(out, baseType);
+		out.writeInt(fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			out.writeUTF(fields[i]);
+			writeNullableString(out, fieldTypes[i]);
+		}
+		out.writeBoolean(taintSubFields);
+		out.writeByte(arrayTaintType.ordinal());
+		out.writeBoolean(canHaveImmutableAliases);
+	}
+
+	/**
+	 * Reads an access path from the given stream
+	 * 
+	 * @param in The stream to read from
+	 * @return The access path that has been read
+	 * @throws IOException Thrown if the data cannot be read
+	 */
+	public static SerializedAccessPath read(DataInputStream in) throws IOException {
+		String baseLocal = readNullableString(in);
+		String baseType = readNullableString(in);
+		int fieldCount = in.readInt();
+		String[] fields = new String[fieldCount];
+		String[] fieldTypes = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			fields[i] = in.readUTF();
+			fieldTypes[i] = readNullableString(in);
+		}
+		boolean taintSubFields = in.readBoolean();
+		int arrayTaintType = in.readByte();
+		if (arrayTaintType < 0 || arrayTaintType >= ArrayTaintType.values().length)
+			throw new IOException("Invalid array taint type: " + arrayTaintType);
+		boolean canHaveImmutableAliases = in.readBoolean();
+		return new SerializedAccessPath(baseLocal, baseType, fields, fieldTypes, taintSubFields,
+				ArrayTaintType.values()[arrayTaintType], canHaveImmutableAliases);
+	}
+
+	private static void writeNullableString(DataOutputStream out, String str) throws IOException {
+		out.writeBoolean(str != null);
+		if (str != null)
+			out.writeUTF(str);
+	}
+
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(baseLocal == null ? "<static>" : baseLocal);
+		sb.append("(").append(baseType).append(")");
+		for (int i = 0; i < fields.length; i++)
+			sb.append(" ").append(fields[i]).append("(").append(fieldTypes[i]).append(")");
+		if (taintSubFields)
+			sb.append(" *");
+		sb.append(" ").append(arrayTaintType);
+		if (canHaveImmutableAliases)
+			sb.append(" immutable");
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		if (hashCode != 0)
+			return hashCode;
+
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((arrayTaintType == null) ? 0 : arrayTaintType.hashCode());
+		result = prime * result + ((baseLocal == null) ? 0 : baseLocal.hashCode());
+		result = prime * result + ((baseType == null) ? 0 : baseType.hashCode());
+		result = prime * result + (canHaveImmutableAliases ? 1231 : 1237);
+		result = prime * result + Arrays.hashCode(fieldTypes);
+		result = prime * result + Arrays.hashCode(fields);
+		result = prime * result + (taintSubFields ? 1231 : 1237);
+		this.hashCode = result;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SerializedAccessPath other = (SerializedAccessPath) obj;
+		if (arrayTaintType != other.arrayTaintType)
+			return false;
+		if (!Objects.equals(baseLocal, other.baseLocal))
+			return false;
+		if (!Objects.equals(baseType, other.baseType))
+			return false;
+		if (canHaveImmutableAliases != other.canHaveImmutableAliases)
+			return false;
+		if (!Arrays.equals(fieldTypes, other.fieldTypes))
+			return false;
+		if (!Arrays.equals(fields, other.fields))
+			return false;
+		if (taintSubFields != other.taintSubFields)
+			return false;
+		return true;
+	}
+
+}
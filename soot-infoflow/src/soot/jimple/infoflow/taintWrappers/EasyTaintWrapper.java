@@ -24,6 +24,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,7 +57,8 @@ import soot.jimple.infoflow.util.SystemClassHandler;
  * @author Christian Fritz, Steven Arzt
  *
  */
-public class EasyTaintWrapper extends AbstractTaintWrapper implements IReversibleTaintWrapper, Cloneable {
+public class EasyTaintWrapper extends AbstractTaintWrapper
+		implements IReversibleTaintWrapper, ICacheableTaintWrapper, Cloneable {
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 	private final Map<String, Set<String>> classList;
 	private final Map<String, Set<String>> excludeList;
@@ -742,4 +745,30 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements IReversibl
 		return null;
 	}
 
+	@Override
+	public String getConfigurationKey() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("classes=").append(toSortedString(classList));
+		sb.append(";excludes=").append(toSortedString(excludeList));
+		sb.append(";kills=").append(toSortedString(killList));
+		sb.append(";includes=").append(new TreeSet<>(includeList));
+		sb.append(";aggressive=").append(aggressiveMode);
+		sb.append(";equalsHashCode=").append(alwaysModelEqualsHashCode);
+		return sb.toString();
+	}
+
+	/**
+	 * Converts the given map into a string that does not depend on the iteration
+	 * order of the map and its values
+	 * 
+	 * @param map The map to convert
+	 * @return The string representation of the given map
+	 */
+	private static String toSortedString(Map<String, Set<String>> map) {
+		Map<String, Set<String>> sorted = new TreeMap<>();
+		for (Map.Entry<String, Set<String>> entry : map.entrySet())
+			sorted.put(entry.getKey(), new TreeSet<>(entry.getValue()));
+		return sorted.toString();
+	}
+
 }
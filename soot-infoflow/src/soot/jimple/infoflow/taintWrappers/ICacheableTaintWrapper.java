@@ -0,0 +1,21 @@
+package soot.jimple.infoflow.taintWrappers;
+
+/**
+ * Taint wrapper that can describe its configuration in a stable way, so that
+ * data flow summaries that were computed with this taint wrapper can be re-used
+ * in later analysis runs. Summaries that were computed with a taint wrapper
+ * that does not implement this interface are not persisted.
+ */
+public interface ICacheableTaintWrapper extends ITaintPropagationWrapper {
+
+	/**
+	 * Gets a key that describes all rules and settings of this taint wrapper. The
+	 * key must be the same in every analysis run with the same configuration, and
+	 * must change whenever a rule or setting changes.
+	 *
+	 * @return The configuration key of this taint wrapper, or <code>null</code> if
+	 *         the configuration cannot be described
+	 */
+	public String getConfigurationKey();
+
+}
@@ -29,7 +29,7 @@ import soot.jimple.infoflow.data.AccessPath;
  * @author Steven Arzt
  *
  */
-public class IdentityTaintWrapper extends AbstractTaintWrapper {
+public class IdentityTaintWrapper extends AbstractTaintWrapper implements ICacheableTaintWrapper {
 
 	@Override
 	public Set<AccessPath> getTaintsForMethodInternal(Stmt stmt, AccessPath taintedPath) {
@@ -108,4 +108,9 @@ public class IdentityTaintWrapper extends AbstractTaintWrapper {
 		return null;
 	}
 
+	@Override
+	public String getConfigurationKey() {
+		return "identity";
+	}
+
 }
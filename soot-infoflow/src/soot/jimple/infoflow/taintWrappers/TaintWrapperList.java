@@ -29,7 +29,7 @@ import soot.jimple.infoflow.data.Abstraction;
  * 
  * @author Steven Arzt
  */
-public class TaintWrapperList implements IReversibleTaintWrapper {
+public class TaintWrapperList implements IReversibleTaintWrapper, ICacheableTaintWrapper {
 
 	private List<ITaintPropagationWrapper> wrappers = new ArrayList<>();
 	private AtomicInteger hits = new AtomicInteger();
@@ -128,4 +128,19 @@ public class TaintWrapperList implements IReversibleTaintWrapper {
 		return null;
 	}
 
+	@Override
+	public String getConfigurationKey() {
+		StringBuilder sb = new StringBuilder();
+		for (ITaintPropagationWrapper w : wrappers) {
+			String key = w instanceof ICacheableTaintWrapper ? ((ICacheableTaintWrapper) w).getConfigurationKey()
+					: null;
+			if (key == null)
+				return null;
+			if (sb.length() > 0)
+				sb.append(',');
+			sb.append(w.getClass().getName()).append('{').append(key).append('}');
+		}
+		return sb.toString();
+	}
+
 }
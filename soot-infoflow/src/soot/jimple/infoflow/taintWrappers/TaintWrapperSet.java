@@ -10,7 +10,10 @@
  ******************************************************************************/
 package soot.jimple.infoflow.taintWrappers;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,7 +29,7 @@ import soot.jimple.infoflow.data.Abstraction;
  * 
  * @author Steven Arzt
  */
-public class TaintWrapperSet implements IReversibleTaintWrapper {
+public class TaintWrapperSet implements IReversibleTaintWrapper, ICacheableTaintWrapper {
 
 	private Set<ITaintPropagationWrapper> wrappers = new HashSet<>();
 	private AtomicInteger hits = new AtomicInteger();
@@ -124,4 +127,19 @@ public class TaintWrapperSet implements IReversibleTaintWrapper {
 		return resList;
 	}
 
+	@Override
+	public String getConfigurationKey() {
+		// The order of the wrappers in the set does not matter
+		List<String> keys = new ArrayList<>(wrappers.size());
+		for (ITaintPropagationWrapper w : wrappers) {
+			String key = w instanceof ICacheableTaintWrapper ? ((ICacheableTaintWrapper) w).getConfigurationKey()
+					: null;
+			if (key == null)
+				return null;
+			keys.add(w.getClass().getName() + "{" + key + "}");
+		}
+		Collections.sort(keys);
+		return String.join(",", keys);
+	}
+
 }
@@ -3,9 +3,16 @@ package soot.jimple.infoflow.threading;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
 
 /**
  * Default implementation of a factory for thread pool executors
@@ -15,6 +22,8 @@ import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
  */
 public class DefaultExecutorFactory implements IExecutorFactory {
 
+	private static final Logger logger = LoggerFactory.getLogger(DefaultExecutorFactory.class);
+
 	public DefaultExecutorFactory() {
 		//
 	}
@@ -22,6 +31,20 @@ public class DefaultExecutorFactory implements IExecutorFactory {
 	@Override
 	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
 			InfoflowConfiguration config) {
+		// The work-stealing executor is only used for the data flow solvers, which
+		// deduplicate their edges on their own
+		ExecutorType executorType = config.getSolverConfiguration().getExecutorType();
+		if (allowSetSemantics && executorType == ExecutorType.WorkStealing) {
+			return new WorkStealingExecutor(
+					config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads));
+		} else if (allowSetSemantics && executorType == ExecutorType.Deterministic) {
+			DataFlowSolver solver = config.getSolverConfiguration().getDataFlowSolver();
+			if (solver == DataFlowSolver.ContextFlowSensitive || solver == DataFlowSolver.MethodSharded)
+				return new DeterministicExecutor(
+						config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads));
+			logger.warn("The {} solver does not support deterministic execution, using a thread pool instead",
+					solver);
+		}
 		if (allowSetSemantics) {
 			return new SetPoolExecutor(
 					config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads),
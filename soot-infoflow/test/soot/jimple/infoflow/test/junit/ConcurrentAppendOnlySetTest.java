@@ -0,0 +1,111 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import gnu.trove.strategy.HashingStrategy;
+import soot.jimple.infoflow.collect.ConcurrentAppendOnlySet;
+
+public class ConcurrentAppendOnlySetTest {
+
+	/**
+	 * Considers two integers equal if they have the same value modulo 1000
+	 */
+	private static final HashingStrategy<Integer> MOD_STRATEGY = new HashingStrategy<Integer>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int computeHashCode(Integer object) {
+			return object % 1000;
+		}
+
+		@Override
+		public boolean equals(Integer o1, Integer o2) {
+			return o1 % 1000 == o2 % 1000;
+		}
+
+	};
+
+	@Test
+	public void testAddAndIterate() {
+		ConcurrentAppendOnlySet<Integer> set = new ConcurrentAppendOnlySet<>(MOD_STRATEGY);
+		assertTrue(set.isEmpty());
+		for (int i = 0; i < 100; i++)
+			assertTrue(set.add(i));
+		assertFalse(set.add(1042));
+		assertEquals(100, set.size());
+		assertTrue(set.contains(2001));
+		assertFalse(set.contains(100));
+
+		int expected = 0;
+		for (int i : set)
+			assertEquals(expected++, i);
+		assertEquals(100, expected);
+	}
+
+	@Test
+	public void testBoundedAdd() {
+		ConcurrentAppendOnlySet<Integer> set = new ConcurrentAppendOnlySet<>(MOD_STRATEGY);
+		for (int i = 0; i < 20; i++)
+			set.add(i, null, 10);
+		assertEquals(10, set.size());
+
+		// Unbounded additions are still possible
+		assertTrue(set.add(20, null, -1));
+		assertFalse(set.add(21, null, 10));
+		assertEquals(11, set.size());
+	}
+
+	@Test
+	public void testDuplicateCheck() {
+		ConcurrentAppendOnlySet<Integer> set = new ConcurrentAppendOnlySet<>(MOD_STRATEGY);
+		assertTrue(set.add(2, (a, b) -> a % 2 == b % 2, -1));
+		assertFalse(set.add(4, (a, b) -> a % 2 == b % 2, -1));
+		assertTrue(set.add(3, (a, b) -> a % 2 == b % 2, -1));
+		assertEquals(2, set.size());
+	}
+
+	@Test(timeout = 60000)
+	public void testConcurrentAddAndIterate() throws InterruptedException {
+		final ConcurrentAppendOnlySet<Integer> set = new ConcurrentAppendOnlySet<>(MOD_STRATEGY);
+		final AtomicInteger added = new AtomicInteger();
+		final AtomicInteger failures = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			final int offset = t * 1000;
+			threads[t] = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int i = 0; i < 1000; i++) {
+						if (set.add(offset + i, null, 500))
+							added.incrementAndGet();
+
+						// Iterating while other threads add must be safe
+						Set<Integer> seen = new HashSet<>();
+						for (int j : set)
+							if (!seen.add(j % 1000))
+								failures.incrementAndGet();
+					}
+				}
+
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(0, failures.get());
+		assertEquals(500, added.get());
+		assertEquals(500, set.size());
+	}
+
+}
@@ -0,0 +1,60 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.collect.ConcurrentLongPairMap;
+
+public class ConcurrentLongPairMapTest {
+
+	@Test
+	public void testPutAndGet() {
+		ConcurrentLongPairMap<String> map = new ConcurrentLongPairMap<>(4);
+		for (int i = 0; i < 10000; i++)
+			assertNull(map.putIfAbsent(ConcurrentLongPairMap.pack(i, -i), i % 7, "v" + i));
+		assertEquals(10000, map.size());
+
+		for (int i = 0; i < 10000; i++) {
+			assertEquals("v" + i, map.get(ConcurrentLongPairMap.pack(i, -i), i % 7));
+			assertEquals("v" + i, map.putIfAbsent(ConcurrentLongPairMap.pack(i, -i), i % 7, "other"));
+		}
+		assertNull(map.get(ConcurrentLongPairMap.pack(1, -1), 2));
+		assertEquals("x", map.putIfAbsentElseGet(42, 42, () -> "x"));
+		assertEquals("x", map.putIfAbsentElseGet(42, 42, () -> "y"));
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(ConcurrentLongPairMap.pack(5, -5), 5));
+	}
+
+	@Test(timeout = 60000)
+	public void testConcurrentInsertion() throws InterruptedException {
+		final ConcurrentLongPairMap<Integer> map = new ConcurrentLongPairMap<>();
+		final AtomicInteger added = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int i = 0; i < 50000; i++)
+						if (map.putIfAbsent(i, i * 31L, i) == null)
+							added.incrementAndGet();
+				}
+
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(50000, added.get());
+		assertEquals(50000, map.size());
+	}
+
+}
@@ -0,0 +1,62 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.collect.Interner;
+
+import soot.jimple.infoflow.collect.ConsList;
+
+public class ConsListTest {
+
+	@Test
+	public void test() {
+		ConsList<Integer> l1 = ConsList.push(ConsList.push(ConsList.push(null, 1), 2), 3);
+		assertEquals(3, l1.size());
+		assertEquals(3, (int) l1.head());
+		assertEquals(1, (int) l1.last());
+		assertEquals(Arrays.asList(3, 2, 1), l1.toList());
+
+		// Extending a list does not change the original list
+		ConsList<Integer> l2 = ConsList.push(l1, 4);
+		assertEquals(4, l2.size());
+		assertEquals(3, l1.size());
+		assertSame(l1, l2.tail());
+
+		ConsList<Integer> cmp = ConsList.push(ConsList.push(ConsList.push(null, 1), 2), 3);
+		assertEquals(cmp, l1);
+		assertEquals(cmp.hashCode(), l1.hashCode());
+		assertNotEquals(l1, l2);
+		assertNotEquals(l1, ConsList.push(ConsList.push(ConsList.push(null, 3), 2), 1));
+
+		assertNull(ConsList.push(null, 1).tail());
+		assertEquals(0, ConsList.size(null));
+	}
+
+	@Test
+	public void testIdentity() {
+		Integer i = new Integer(1000);
+		ConsList<Integer> l1 = ConsList.push(ConsList.push(null, i), 2);
+		assertTrue(l1.containsIdentical(i));
+		assertFalse(l1.containsIdentical(new Integer(1000)));
+	}
+
+	@Test
+	public void testInterning() {
+		Interner<ConsList<String>> interner = ConsList.newInterner();
+		ConsList<String> l1 = ConsList.push(ConsList.push(null, "a", interner), "b", interner);
+		ConsList<String> l2 = ConsList.push(ConsList.push(null, "a", interner), "b", interner);
+		assertSame(l1, l2);
+		assertSame(l1.tail(), l2.tail());
+		assertNotEquals(l1, ConsList.push(l1.tail(), "c", interner));
+	}
+
+}
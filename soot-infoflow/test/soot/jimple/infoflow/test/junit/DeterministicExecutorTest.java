@@ -0,0 +1,117 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.executors.DeterministicExecutor;
+
+public class DeterministicExecutorTest {
+
+	@Test(timeout = 60000)
+	public void testCanonicalUpdateOrder() throws InterruptedException {
+		List<String> firstOrder = null;
+		for (int run = 0; run < 5; run++) {
+			DeterministicExecutor executor = new DeterministicExecutor(4);
+			List<String> applied = Collections.synchronizedList(new ArrayList<>());
+			for (int i = 0; i < 100; i++) {
+				final int task = i;
+				executor.execute(() -> {
+					// Defer the updates in an order that does not match their fingerprints
+					for (int j = 3; j >= 0; j--) {
+						final int update = j;
+						executor.defer(update, () -> applied.add(task + "." + update));
+					}
+				});
+			}
+			executor.awaitCompletion();
+			executor.shutdown();
+
+			// The updates are ordered by task and fingerprint
+			assertEquals(400, applied.size());
+			assertEquals("0.0", applied.get(0));
+			assertEquals("0.3", applied.get(3));
+			assertEquals("99.3", applied.get(399));
+			if (firstOrder == null)
+				firstOrder = new ArrayList<>(applied);
+			else
+				assertEquals(firstOrder, applied);
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testUpdatesAreCommittedSerially() throws InterruptedException {
+		DeterministicExecutor executor = new DeterministicExecutor(4);
+		AtomicInteger tasksInCommit = new AtomicInteger();
+		AtomicInteger updatesOutsideCommit = new AtomicInteger();
+		AtomicInteger updates = new AtomicInteger();
+		for (int i = 0; i < 100; i++) {
+			executor.execute(() -> {
+				if (executor.isCommitting())
+					tasksInCommit.incrementAndGet();
+				executor.defer(0, () -> {
+					if (!executor.isCommitting())
+						updatesOutsideCommit.incrementAndGet();
+					updates.incrementAndGet();
+				});
+			});
+		}
+		executor.awaitCompletion();
+		executor.shutdown();
+
+		assertEquals(100, updates.get());
+		assertEquals(0, tasksInCommit.get());
+		assertEquals(0, updatesOutsideCommit.get());
+		assertFalse(executor.isCommitting());
+	}
+
+	@Test(timeout = 60000)
+	public void testTasksFromCommitRunInNextEpoch() throws InterruptedException {
+		DeterministicExecutor executor = new DeterministicExecutor(4);
+		List<String> log = Collections.synchronizedList(new ArrayList<>());
+		executor.execute(() -> executor.defer(0, () -> {
+			log.add("commit");
+
+			// Work that is scheduled while committing must not run on the committing
+			// thread
+			executor.execute(() -> log.add(executor.isCommitting() ? "child in commit" : "child"));
+			log.add("commit done");
+		}));
+		executor.awaitCompletion();
+		executor.shutdown();
+
+		assertEquals(3, log.size());
+		assertEquals("commit", log.get(0));
+		assertEquals("commit done", log.get(1));
+		assertEquals("child", log.get(2));
+		assertEquals(2, executor.getEpochCount());
+	}
+
+	@Test(timeout = 60000)
+	public void testEpochListener() throws InterruptedException {
+		DeterministicExecutor executor = new DeterministicExecutor(2);
+		List<String> log = Collections.synchronizedList(new ArrayList<>());
+		executor.addEpochListener(() -> log.add("epoch"));
+		executor.execute(() -> executor.defer(0, () -> {
+			log.add("update");
+			executor.execute(() -> executor.defer(0, () -> log.add("child update")));
+		}));
+		executor.awaitCompletion();
+		executor.shutdown();
+
+		// The listener runs after the updates of each epoch have been applied
+		assertEquals(4, log.size());
+		assertEquals("update", log.get(0));
+		assertEquals("epoch", log.get(1));
+		assertEquals("child update", log.get(2));
+		assertEquals("epoch", log.get(3));
+		assertEquals(2, executor.getEpochCount());
+	}
+
+}
@@ -0,0 +1,85 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.memory.GenerationalCache;
+import soot.jimple.infoflow.solver.memory.MemoryManagerStatistics;
+
+public class GenerationalCacheTest {
+
+	@Test
+	public void testDeduplication() {
+		MemoryManagerStatistics stats = new MemoryManagerStatistics();
+		GenerationalCache<String, String> cache = new GenerationalCache<>(-1, stats);
+		String first = new String("a");
+		assertNull(cache.putIfAbsent(first, first));
+		assertTrue(first == cache.putIfAbsent(new String("a"), new String("a")));
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(0, stats.getEvictionCount());
+	}
+
+	@Test
+	public void testAging() {
+		MemoryManagerStatistics stats = new MemoryManagerStatistics();
+		GenerationalCache<Integer, Integer> cache = new GenerationalCache<>(10, stats);
+		for (int i = 0; i < 10; i++)
+			cache.putIfAbsent(i, i);
+
+		// The first generation is full and has become the old one. Entry 0 is reused
+		// and thus promoted.
+		assertEquals(Integer.valueOf(0), cache.putIfAbsent(0, 0));
+		for (int i = 10; i < 19; i++)
+			cache.putIfAbsent(i, i);
+
+		// The second generation change evicts the nine entries that were not reused
+		assertEquals(9, stats.getEvictionCount());
+		assertEquals(Integer.valueOf(0), cache.putIfAbsent(0, 0));
+		assertNull(cache.putIfAbsent(1, 1));
+		assertTrue(cache.size() <= 20);
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertNull(cache.putIfAbsent(0, 0));
+	}
+
+	@Test
+	public void testExplicitGenerationChange() {
+		MemoryManagerStatistics stats = new MemoryManagerStatistics();
+		GenerationalCache<Integer, Integer> cache = new GenerationalCache<>(100, stats);
+		for (int i = 0; i < 5; i++)
+			cache.putIfAbsent(i, i);
+
+		// Only the entry that was reused after the first phase survives the second one
+		cache.startNewGeneration();
+		assertEquals(Integer.valueOf(0), cache.putIfAbsent(0, 0));
+		cache.startNewGeneration();
+		assertEquals(4, stats.getEvictionCount());
+		assertEquals(1, cache.size());
+		assertEquals(Integer.valueOf(0), cache.putIfAbsent(0, 0));
+	}
+
+	@Test
+	public void testUnboundedCacheDoesNotAge() {
+		MemoryManagerStatistics stats = new MemoryManagerStatistics();
+		GenerationalCache<Integer, Integer> cache = new GenerationalCache<>(-1, stats);
+		cache.putIfAbsent(0, 0);
+		cache.startNewGeneration();
+		cache.startNewGeneration();
+		assertEquals(0, stats.getEvictionCount());
+		assertEquals(Integer.valueOf(0), cache.putIfAbsent(0, 0));
+	}
+
+	@Test
+	public void testHeapBudget() {
+		assertEquals(-1, GenerationalCache.getGenerationCapacity(0));
+		int capacity = GenerationalCache.getGenerationCapacity(0.1);
+		assertTrue(capacity > 0);
+		assertTrue((long) capacity * GenerationalCache.ESTIMATED_ENTRY_SIZE * 2 <= Runtime.getRuntime().maxMemory());
+	}
+
+}
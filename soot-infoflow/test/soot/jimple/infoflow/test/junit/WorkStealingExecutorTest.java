@@ -0,0 +1,96 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.executors.IWorkItemProcessor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
+
+public class WorkStealingExecutorTest {
+
+	private static final int TREE_DEPTH = 16;
+
+	@Test(timeout = 60000)
+	public void testCompletion() throws InterruptedException {
+		for (int round = 0; round < 20; round++) {
+			final WorkStealingExecutor executor = new WorkStealingExecutor(8);
+			final AtomicLong processed = new AtomicLong();
+			executor.execute(new IWorkItemProcessor<Integer>() {
+
+				@Override
+				public void processWorkItem(Integer depth) {
+					processed.incrementAndGet();
+					if (depth < TREE_DEPTH) {
+						executor.execute(this, depth + 1);
+						executor.execute(this, depth + 1);
+					}
+				}
+
+			}, 0);
+			executor.awaitCompletion();
+			assertEquals((1L << (TREE_DEPTH + 1)) - 1, processed.get());
+			assertTrue(executor.isFinished());
+
+			executor.shutdown();
+			while (!executor.isTerminated())
+				Thread.sleep(10);
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testException() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(4);
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				throw new RuntimeException("Expected failure");
+			}
+
+		});
+		executor.awaitCompletion();
+		assertNotNull(executor.getException());
+		executor.shutdown();
+	}
+
+	@Test(timeout = 60000)
+	public void testReset() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(4);
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				throw new RuntimeException("Expected failure");
+			}
+
+		});
+		executor.awaitCompletion();
+		assertNotNull(executor.getException());
+
+		// The failure of the previous run must not leak into the next one
+		executor.reset();
+		assertNull(executor.getException());
+		final AtomicLong processed = new AtomicLong();
+		for (int i = 0; i < 100; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					processed.incrementAndGet();
+				}
+
+			});
+		}
+		executor.awaitCompletion();
+		assertEquals(100, processed.get());
+		assertNull(executor.getException());
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,68 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowDirection;
+import soot.jimple.infoflow.InfoflowConfiguration.ImplicitFlowMode;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.Abstraction.EqualityTier;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the equality tiers of taint abstractions
+ */
+public class AbstractionEqualityTests extends JUnitTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+	@Test
+	public void equalityTierSelectionTest() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		assertEquals(EqualityTier.NoImplicitFlows, Abstraction.getEqualityTier(config));
+
+		config.setFlowSensitiveAliasing(false);
+		config.setEnableExceptionTracking(false);
+		assertEquals(EqualityTier.AccessPathAndSource, Abstraction.getEqualityTier(config));
+
+		config.setImplicitFlowMode(ImplicitFlowMode.AllImplicitFlows);
+		assertEquals(EqualityTier.Full, Abstraction.getEqualityTier(config));
+
+		config.setImplicitFlowMode(ImplicitFlowMode.NoImplicitFlows);
+		config.setDataFlowDirection(DataFlowDirection.Backwards);
+		assertEquals(EqualityTier.Full, Abstraction.getEqualityTier(config));
+	}
+
+	@Test(timeout = 300000)
+	public void accessPathAndSourceTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setFlowSensitiveAliasing(false);
+		infoflow.getConfig().setEnableExceptionTracking(false);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.MapTestCode: void writeReadPos0Test()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void fullEqualityTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setSpecializedAbstractionEquality(false);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+	}
+
+}
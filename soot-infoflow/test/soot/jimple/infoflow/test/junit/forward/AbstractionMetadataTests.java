@@ -0,0 +1,142 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.RefType;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
+
+/**
+ * Tests for the rarely used abstraction data that is kept in a lazily
+ * allocated side object
+ */
+public class AbstractionMetadataTests {
+
+	private AccessPath ap;
+	private Stmt stmt;
+
+	@Before
+	public void setUp() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		Abstraction.initialize(config);
+		ap = new AccessPathFactory(config).createAccessPath(Jimple.v().newLocal("l", RefType.v("java.lang.String")),
+				true);
+		stmt = Jimple.v().newNopStmt();
+	}
+
+	private Abstraction createAbstraction() {
+		return new Abstraction(null, ap, stmt, null, false, false);
+	}
+
+	private static boolean hasMetadata(Abstraction abs) throws ReflectiveOperationException {
+		Field field = Abstraction.class.getDeclaredField("metadata");
+		field.setAccessible(true);
+		return field.get(abs) != null;
+	}
+
+	@Test
+	public void noMetadataTest() throws ReflectiveOperationException {
+		Abstraction abs = createAbstraction();
+		assertTrue(abs.isAbstractionActive());
+		assertNull(abs.getActivationUnit());
+		assertNull(abs.getTurnUnit());
+		assertNull(abs.getDominator());
+		assertNull(abs.getTopPostdominator());
+
+		// Active abstractions without implicit-flow context never allocate the
+		// side object
+		assertFalse(hasMetadata(abs));
+		Abstraction derived = abs.deriveNewAbstraction(ap, null);
+		assertNotSame(abs, derived);
+		assertFalse(hasMetadata(derived));
+		assertFalse(hasMetadata(abs.clone()));
+	}
+
+	@Test
+	public void activationUnitTest() throws ReflectiveOperationException {
+		Abstraction abs = createAbstraction();
+		Abstraction inactive = abs.deriveInactiveAbstraction(stmt);
+		assertFalse(inactive.isAbstractionActive());
+		assertSame(stmt, inactive.getActivationUnit());
+		assertNotEquals(abs, inactive);
+
+		// The activation unit is inherited by derived abstractions
+		assertSame(stmt, inactive.deriveNewAbstraction(ap, null).getActivationUnit());
+
+		// Reactivating the abstraction releases the side object again
+		Abstraction active = inactive.getActiveCopy();
+		assertTrue(active.isAbstractionActive());
+		assertNull(active.getActivationUnit());
+		assertFalse(hasMetadata(active));
+		assertSame(stmt, inactive.getActivationUnit());
+	}
+
+	@Test
+	public void releaseMetadataTest() throws ReflectiveOperationException {
+		Abstraction abs = createAbstraction();
+		abs.setTurnUnit(stmt);
+		assertTrue(hasMetadata(abs));
+		abs.setTurnUnit(null);
+		assertFalse(hasMetadata(abs));
+
+		// Removing the last field also releases the side object
+		Abstraction withDominator = abs.deriveNewAbstractionWithDominator(stmt);
+		assertTrue(withDominator.isDominator(stmt));
+		Abstraction withoutDominator = withDominator.removeDominator(stmt);
+		assertNull(withoutDominator.getDominator());
+		assertFalse(hasMetadata(withoutDominator));
+		assertEquals(abs.deriveNewAbstraction(ap, null), withoutDominator);
+		assertEquals(abs.deriveNewAbstraction(ap, null).hashCode(), withoutDominator.hashCode());
+	}
+
+	@Test
+	public void postdominatorCopyTest() {
+		UnitContainer outer = new UnitContainer(Jimple.v().newNopStmt());
+		UnitContainer inner = new UnitContainer(Jimple.v().newNopStmt());
+		Abstraction outerAbs = createAbstraction().deriveConditionalAbstractionEnter(outer, stmt);
+		Abstraction innerAbs = outerAbs.deriveConditionalAbstractionEnter(inner, stmt);
+		assertEquals(outer, outerAbs.getTopPostdominator());
+		assertEquals(inner, innerAbs.getTopPostdominator());
+
+		// Derived abstractions get their own copy of the postdominator list
+		Abstraction left = innerAbs.dropTopPostdominator();
+		assertEquals(outer, left.getTopPostdominator());
+		assertEquals(inner, innerAbs.getTopPostdominator());
+		assertEquals(outer, outerAbs.getTopPostdominator());
+	}
+
+	@Test
+	public void pathFlagsTest() throws ReflectiveOperationException {
+		Abstraction flagged = createAbstraction().deriveNewAbstraction(ap, null);
+		assertTrue(flagged.registerPathFlag(0, 4));
+		assertFalse(flagged.registerPathFlag(0, 4));
+
+		// Growing the flag set keeps the flags that have already been set
+		assertTrue(flagged.registerPathFlag(5, 8));
+		assertFalse(flagged.registerPathFlag(0, 8));
+
+		// Path flags do not influence equality and are not inherited
+		assertEquals(createAbstraction().deriveNewAbstraction(ap, null), flagged);
+		Abstraction derived = flagged.deriveNewAbstraction(ap, stmt);
+		assertNotSame(flagged, derived);
+		assertFalse(hasMetadata(derived));
+		assertTrue(derived.registerPathFlag(0, 4));
+	}
+
+}
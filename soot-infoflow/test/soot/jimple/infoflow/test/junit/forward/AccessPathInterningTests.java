@@ -0,0 +1,164 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathArena;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for interning access paths when they are created
+ */
+public class AccessPathInterningTests extends JUnitTests {
+
+	private AccessPathFactory apFactory;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+					AbstractInfoflowProblem problem) {
+				apFactory = problem.getManager().getAccessPathFactory();
+				return super.createDataFlowSolver(executor, problem);
+			}
+
+		};
+	}
+
+	/**
+	 * Runs a small analysis, so that the scene is set up and the access path
+	 * factory of the analysis is available
+	 */
+	private void initScene() {
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.HeapTestCode: void methodTest0()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		negativeCheckInfoflow(infoflow);
+	}
+
+	private static void collectGarbage(WeakReference<?> probe) {
+		for (int i = 0; i < 50 && probe.get() != null; i++)
+			System.gc();
+	}
+
+	@Test(timeout = 300000)
+	public void internedAccessPathsTest() {
+		initScene();
+		AccessPathArena arena = apFactory.getArena();
+
+		SootClass sc = Scene.v().getSootClass("soot.jimple.infoflow.test.HeapTestCode$A");
+		SootField fieldB = sc.getFieldByName("b");
+		Local a1 = Jimple.v().newLocal("a1", sc.getType());
+		Local a2 = Jimple.v().newLocal("a2", sc.getType());
+
+		// Structurally equal access paths share one instance
+		AccessPath ap1 = apFactory.createAccessPath(a1, new SootField[] { fieldB }, true);
+		AccessPath ap2 = apFactory.createAccessPath(a1, new SootField[] { fieldB }, true);
+		assertSame(ap1, ap2);
+		assertTrue(arena.isCanonical(ap1));
+
+		// Access paths that differ are still different
+		AccessPath ap3 = apFactory.createAccessPath(a1, new SootField[] { fieldB }, false);
+		assertNotSame(ap1, ap3);
+		assertTrue(!ap1.equals(ap3));
+
+		// Non-interned copies are still equal to the canonical instance
+		AccessPath clone = ap1.clone();
+		assertNotSame(ap1, clone);
+		assertEquals(ap1, clone);
+		assertEquals(clone, ap1);
+
+		// Derived access paths are cached per parent
+		AccessPath base = apFactory.createAccessPath(a1, true);
+		AccessPath appended = apFactory.appendFields(base, new AccessPathFragment[] { ap1.getFirstFragment() },
+				true);
+		assertSame(ap1, appended);
+		assertSame(appended, apFactory.appendFields(base, ap1.getFragments(), true));
+		AccessPath copied = apFactory.copyWithNewValue(ap1, a2);
+		assertSame(copied, apFactory.copyWithNewValue(ap1, a2));
+		assertSame(ap1.getFirstFragment(), copied.getFirstFragment());
+		assertTrue(arena.getDerivationCount() > 0);
+
+		// Reducing the access path length invalidates the cached derivations
+		apFactory.reduceAccessPathLength();
+		assertEquals(0, arena.getDerivationCount());
+	}
+
+	@Test(timeout = 300000)
+	public void unusedAccessPathsCollectedTest() {
+		initScene();
+		AccessPathArena arena = apFactory.getArena();
+
+		SootClass sc = Scene.v().getSootClass("soot.jimple.infoflow.test.HeapTestCode$A");
+		SootField fieldB = sc.getFieldByName("b");
+		Local a1 = Jimple.v().newLocal("a1", sc.getType());
+		Local a2 = Jimple.v().newLocal("a2", sc.getType());
+
+		AccessPath ap = apFactory.createAccessPath(a1, new SootField[] { fieldB }, true);
+		AccessPath copied = apFactory.copyWithNewValue(ap, a2);
+		assertTrue(arena.isCanonical(ap));
+		assertTrue(arena.isCanonical(copied));
+		WeakReference<AccessPath> apProbe = new WeakReference<>(ap);
+		WeakReference<AccessPath> copyProbe = new WeakReference<>(copied);
+		ap = null;
+		copied = null;
+
+		// The derivation cache must not keep unused access paths alive
+		collectGarbage(copyProbe);
+		assertNull(copyProbe.get());
+
+		// Once the derivations are gone, the parent is only held by the arena
+		arena.clearDerivations();
+		collectGarbage(apProbe);
+		assertNull(apProbe.get());
+
+		// An equal access path becomes the new canonical instance
+		AccessPath newAP = apFactory.createAccessPath(a1, new SootField[] { fieldB }, true);
+		assertTrue(arena.isCanonical(newAP));
+		assertSame(newAP, apFactory.createAccessPath(a1, new SootField[] { fieldB }, true));
+	}
+
+	@Test(timeout = 300000)
+	public void interningDisabledTest() {
+		initScene();
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		config.getAccessPathConfiguration().setUseAccessPathInterning(false);
+		AccessPathFactory factory = new AccessPathFactory(config);
+		assertNull(factory.getArena());
+
+		SootClass sc = Scene.v().getSootClass("soot.jimple.infoflow.test.OtherTestCode");
+		Local l = Jimple.v().newLocal("l", sc.getType());
+		AccessPath ap1 = factory.createAccessPath(l, true);
+		AccessPath ap2 = factory.createAccessPath(l, true);
+		assertNotSame(ap1, ap2);
+		assertEquals(ap1, ap2);
+	}
+
+}
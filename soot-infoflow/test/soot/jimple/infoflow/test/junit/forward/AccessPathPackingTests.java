@@ -0,0 +1,85 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the packed encoding of short access paths
+ */
+public class AccessPathPackingTests extends JUnitTests {
+
+	private AccessPathFactory apFactory;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+					AbstractInfoflowProblem problem) {
+				apFactory = problem.getManager().getAccessPathFactory();
+				return super.createDataFlowSolver(executor, problem);
+			}
+
+		};
+	}
+
+	@Test(timeout = 300000)
+	public void packedAccessPathsTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getAccessPathConfiguration().setUseAccessPathInterning(false);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+
+		SootClass sc = Scene.v().getSootClass("soot.jimple.infoflow.test.HeapTestCode$A");
+		SootField fieldB = sc.getFieldByName("b");
+		Local a1 = Jimple.v().newLocal("a1", sc.getType());
+		Local a2 = Jimple.v().newLocal("a2", sc.getType());
+
+		// Short access paths with declared types are packed
+		AccessPath base = apFactory.createAccessPath(a1, true);
+		AccessPath ap1 = apFactory.createAccessPath(a1, new SootField[] { fieldB }, true);
+		AccessPath ap2 = apFactory.createAccessPath(a1, new SootField[] { fieldB }, true);
+		assertTrue(base.isPacked());
+		assertTrue(ap1.isPacked());
+		assertNotSame(ap1, ap2);
+		assertEquals(ap1, ap2);
+		assertEquals(ap1.hashCode(), ap2.hashCode());
+		assertEquals(ap1, ap1.clone());
+
+		// The packed comparison still distinguishes bases and fields
+		assertNotEquals(ap1, apFactory.createAccessPath(a2, new SootField[] { fieldB }, true));
+		assertNotEquals(ap1, base);
+
+		// Entailment works on the packed encoding as well
+		assertTrue(base.entails(ap1));
+		assertTrue(ap1.entails(ap2));
+		assertFalse(ap1.entails(apFactory.createAccessPath(a2, new SootField[] { fieldB }, true)));
+	}
+
+}
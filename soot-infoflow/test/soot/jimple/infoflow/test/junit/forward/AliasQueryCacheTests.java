@@ -0,0 +1,86 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.cache.CacheStats;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.aliasing.Aliasing;
+import soot.jimple.infoflow.aliasing.IAliasingStrategy;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the memoized alias queries and the precomputed must-alias analyses
+ */
+public class AliasQueryCacheTests extends JUnitTests {
+
+	private Aliasing aliasing;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected Aliasing createAliasController(IAliasingStrategy aliasingStrategy) {
+				aliasing = super.createAliasController(aliasingStrategy);
+				return aliasing;
+			}
+
+		};
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String epoint) {
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void cachedAliasQueriesTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setPrecomputeMustAliases(true);
+		infoflow.getConfig().setAliasQueryCacheSize(100000);
+		infoflow.getConfig().getAccessPathConfiguration().setAccessPathLength(3);
+		infoflow.getConfig().setInspectSources(false);
+		infoflow.getConfig().setInspectSinks(false);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>");
+		checkInfoflow(infoflow, 2);
+
+		CacheStats stats = aliasing.getQueryCacheStats();
+		assertNotNull(stats);
+		assertTrue(stats.requestCount() > 0);
+		assertTrue(stats.hitCount() > 0);
+	}
+
+	@Test(timeout = 300000)
+	public void recursiveBaseTest() {
+		// Whether a field reference matches a recursive base depends on the bases
+		// registered so far, so these queries must not be answered from the cache
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setAliasQueryCacheSize(100000);
+		infoflow.getConfig().setInspectSources(false);
+		infoflow.getConfig().setInspectSinks(false);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void staticAccessPathTest()>");
+		checkInfoflow(infoflow, 1);
+		assertNotNull(aliasing.getQueryCacheStats());
+	}
+
+	@Test(timeout = 300000)
+	public void uncachedAliasQueriesTest() {
+		// Alias queries are not memoized by default
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+		assertNull(aliasing.getQueryCacheStats());
+	}
+
+}
@@ -0,0 +1,84 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.Unit;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.aliasing.AliasRequestBatcher;
+import soot.jimple.infoflow.aliasing.FlowSensitiveAliasStrategy;
+import soot.jimple.infoflow.aliasing.IAliasingStrategy;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the batching of alias requests to the backward solver
+ */
+public class AliasRequestBatchingTests extends JUnitTests {
+
+	private AliasRequestBatcher batcher;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected IAliasingStrategy createAliasAnalysis(ISourceSinkManager sourcesSinks, IInfoflowCFG iCfg,
+					InterruptableExecutor executor, IMemoryManager<Abstraction, Unit> memoryManager) {
+				IAliasingStrategy strategy = super.createAliasAnalysis(sourcesSinks, iCfg, executor, memoryManager);
+				batcher = ((FlowSensitiveAliasStrategy) strategy).getRequestBatcher();
+				return strategy;
+			}
+
+		};
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String epoint) {
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void batchedAliasRequestsTest() {
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+
+		assertNotNull(batcher);
+		assertTrue(batcher.getRequestCount() > 0);
+		assertTrue(batcher.getBatchCount() > 0);
+		assertTrue(batcher.getBatchCount() <= batcher.getRequestCount());
+	}
+
+	@Test(timeout = 300000)
+	public void singleRequestBatchesTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setMaxAliasBatchSize(1);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+		assertNotNull(batcher);
+	}
+
+	@Test(timeout = 300000)
+	public void unbatchedAliasRequestsTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setMaxAliasBatchSize(0);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+		assertNull(batcher);
+	}
+
+}
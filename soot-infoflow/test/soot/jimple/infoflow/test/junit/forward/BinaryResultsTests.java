@@ -0,0 +1,103 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.xml.BinaryResultsReader;
+import soot.jimple.infoflow.results.xml.BinaryResultsWriter;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.results.xml.SerializedSinkInfo;
+import soot.jimple.infoflow.results.xml.SerializedSourceInfo;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the compact binary result format
+ */
+public class BinaryResultsTests extends JUnitTests {
+
+	@Rule
+	public TemporaryFolder resultFolder = new TemporaryFolder();
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String epoint) {
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void xmlRoundTripTest() throws IOException, XMLStreamException {
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+
+		File xmlFile = resultFolder.newFile("results.xml");
+		new InfoflowResultsSerializer(infoflow.getConfig()).serialize(infoflow.getResults(),
+				xmlFile.getAbsolutePath());
+		SerializedInfoflowResults xmlResults = new InfoflowResultsReader().readResults(xmlFile.getAbsolutePath());
+		assertFalse(xmlResults.isEmpty());
+
+		// Convert the results to the binary format and back
+		File binaryFile = resultFolder.newFile("results" + BinaryResultsWriter.FILE_EXTENSION);
+		BinaryResultsWriter.write(xmlResults, binaryFile.getAbsolutePath());
+		assertEquals(xmlResults, BinaryResultsReader.readResults(binaryFile.getAbsolutePath()));
+
+		// Look up single sinks
+		try (BinaryResultsReader reader = new BinaryResultsReader(binaryFile.getAbsolutePath())) {
+			assertEquals(xmlResults.getResultCount(), reader.getResultCount());
+			for (SerializedSinkInfo sink : xmlResults.getResults().keySet()) {
+				assertEquals(xmlResults.getResults().get(sink), reader.readFlowsIntoSink(sink));
+				assertTrue(reader.getSinksAtStatement(sink.getStatement()).contains(sink));
+			}
+			assertTrue(reader.getSinksAtStatement("no such statement").isEmpty());
+		}
+	}
+
+	@Test(timeout = 300000)
+	public void streamBinaryTest() throws IOException {
+		File binaryFile = new File(resultFolder.getRoot(), "stream" + BinaryResultsWriter.FILE_EXTENSION);
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Fast);
+		infoflow.getConfig().getOutputConfiguration().setResultStreamTarget(binaryFile.getAbsolutePath());
+
+		// Keep the streamed results in memory as well to compare them with the file
+		infoflow.getConfig().getOutputConfiguration().setRetainStreamedResults(true);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>");
+		checkInfoflow(infoflow, 1);
+
+		try (BinaryResultsReader reader = new BinaryResultsReader(binaryFile.getAbsolutePath())) {
+			for (ResultSinkInfo sink : infoflow.getResults().getResults().keySet())
+				assertFalse(reader.getSinksAtStatement(sink.getStmt().toString()).isEmpty());
+			SerializedInfoflowResults results = reader.readAll();
+			assertFalse(results.isEmpty());
+			for (SerializedSinkInfo sink : results.getResults().keySet())
+				for (SerializedSourceInfo source : results.getResults().get(sink))
+					assertNotNull(source.getPropagationPath());
+		}
+	}
+
+}
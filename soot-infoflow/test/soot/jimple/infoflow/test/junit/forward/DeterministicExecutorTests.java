@@ -0,0 +1,127 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import heros.FlowFunction;
+import soot.Unit;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the deterministic execution mode of the data flow solver
+ */
+public class DeterministicExecutorTests extends JUnitTests {
+
+	private static final String EPOINT = "<soot.jimple.infoflow.test.OtherTestCode: void multiCallTest()>";
+
+	private final AtomicInteger returnFlowFunctions = new AtomicInteger();
+	private final AtomicInteger flowFunctionsInCommit = new AtomicInteger();
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+					AbstractInfoflowProblem problem, SolverConfiguration solverConfig) {
+				// Record where the solver computes its flow functions
+				return new InfoflowSolver(problem, executor) {
+
+					private void recordFlowFunction() {
+						if (isCommitting())
+							flowFunctionsInCommit.incrementAndGet();
+					}
+
+					@Override
+					protected Set<Abstraction> computeReturnFlowFunction(FlowFunction<Abstraction> retFunction,
+							Abstraction d1, Abstraction d2, Unit callSite, Collection<Abstraction> callerSideDs) {
+						returnFlowFunctions.incrementAndGet();
+						recordFlowFunction();
+						return super.computeReturnFlowFunction(retFunction, d1, d2, callSite, callerSideDs);
+					}
+
+					@Override
+					protected Set<Abstraction> computeNormalFlowFunction(FlowFunction<Abstraction> flowFunction,
+							Abstraction d1, Abstraction d2) {
+						recordFlowFunction();
+						return super.computeNormalFlowFunction(flowFunction, d1, d2);
+					}
+
+					@Override
+					protected Set<Abstraction> computeCallToReturnFlowFunction(
+							FlowFunction<Abstraction> flowFunction, Abstraction d1, Abstraction d2) {
+						recordFlowFunction();
+						return super.computeCallToReturnFlowFunction(flowFunction, d1, d2);
+					}
+
+					@Override
+					protected Set<Abstraction> computeCallFlowFunction(FlowFunction<Abstraction> flowFunction,
+							Abstraction d1, Abstraction d2) {
+						recordFlowFunction();
+						return super.computeCallFlowFunction(flowFunction, d1, d2);
+					}
+
+				};
+			}
+
+		};
+	}
+
+	/**
+	 * Runs the analysis in deterministic mode and returns the results, including
+	 * the taint paths, in their canonical order
+	 */
+	private List<String> runAnalysis() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setExecutorType(ExecutorType.Deterministic);
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(EPOINT), sources, sinks);
+		checkInfoflow(infoflow, 2);
+
+		List<String> results = new ArrayList<>();
+		for (DataFlowResult result : infoflow.getResults().getResultsInCanonicalOrder(null))
+			results.add(result.getSink() + " <- " + result.getSource() + " via "
+					+ Arrays.toString(result.getSource().getPath()));
+		return results;
+	}
+
+	@Test(timeout = 300000)
+	public void flowFunctionsOutsideCommitTest() {
+		runAnalysis();
+
+		// The end summaries are applied at the call sites, but the return flow
+		// functions are not computed while the solver tables are being updated
+		assertTrue(returnFlowFunctions.get() > 0);
+		assertEquals(0, flowFunctionsInCommit.get());
+	}
+
+	@Test(timeout = 300000)
+	public void repeatedRunsTest() {
+		List<String> first = runAnalysis();
+		for (int i = 0; i < 3; i++)
+			assertEquals(first, runAnalysis());
+	}
+
+}
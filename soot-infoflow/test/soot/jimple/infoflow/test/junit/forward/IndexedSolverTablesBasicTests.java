@@ -0,0 +1,18 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+
+/**
+ * Runs the basic tests with the solver tables that are indexed by dense IDs
+ */
+public class IndexedSolverTablesBasicTests extends soot.jimple.infoflow.test.junit.BasicTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow result = new Infoflow("", false, null);
+		result.getConfig().getSolverConfiguration().setIndexedSolverTables(true);
+		return result;
+	}
+
+}
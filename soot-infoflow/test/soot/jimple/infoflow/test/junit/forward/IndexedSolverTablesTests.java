@@ -0,0 +1,182 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import soot.RefType;
+import soot.SootMethod;
+import soot.Unit;
+import soot.VoidType;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.data.SourceContext;
+import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
+import soot.jimple.infoflow.solver.fastSolver.IndexedSolverTables;
+
+/**
+ * Tests for the solver tables that are indexed by dense IDs
+ */
+public class IndexedSolverTablesTests {
+
+	/**
+	 * Simple data flow fact that counts how often it is hashed
+	 */
+	private static class Fact implements FastSolverLinkedNode<Fact, String> {
+
+		private final String name;
+		private long denseIndex = -1;
+		private int hashCount = 0;
+
+		public Fact(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public int hashCode() {
+			hashCount++;
+			return name.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Fact && ((Fact) obj).name.equals(name);
+		}
+
+		@Override
+		public boolean addNeighbor(Fact originalAbstraction) {
+			return false;
+		}
+
+		@Override
+		public int getNeighborCount() {
+			return 0;
+		}
+
+		@Override
+		public void clearNeighbors() {
+		}
+
+		@Override
+		public void setPredecessor(Fact predecessor) {
+		}
+
+		@Override
+		public Fact getPredecessor() {
+			return null;
+		}
+
+		@Override
+		public Fact clone() {
+			return new Fact(name);
+		}
+
+		@Override
+		public Fact getActiveCopy() {
+			return this;
+		}
+
+		@Override
+		public int getPathLength() {
+			return 0;
+		}
+
+		@Override
+		public long getDenseIndex() {
+			return denseIndex;
+		}
+
+		@Override
+		public void setDenseIndex(long denseIndex) {
+			this.denseIndex = denseIndex;
+		}
+
+	}
+
+	private final SootMethod method = new SootMethod("foo", Collections.emptyList(), VoidType.v());
+
+	@Test
+	public void equalFactsTest() {
+		IndexedSolverTables<String, Fact> tables = new IndexedSolverTables<>();
+		Fact d1 = new Fact("d1");
+		Fact d2 = new Fact("d2");
+		assertNull(tables.addJumpFunction(d1, "n", d2));
+
+		// Distinct but equal facts denote the same jump function
+		assertSame(d2, tables.addJumpFunction(new Fact("d1"), "n", new Fact("d2")));
+		assertEquals(1, tables.getJumpFunctionCount());
+		assertSame(tables.getOrCreateEndSummaries(method, d1), tables.getEndSummaries(method, new Fact("d1")));
+	}
+
+	@Test
+	public void storedIndexTest() {
+		IndexedSolverTables<String, Fact> tables = new IndexedSolverTables<>();
+		Fact d1 = new Fact("d1");
+		Fact d2 = new Fact("d2");
+		tables.addJumpFunction(d1, "n1", d2);
+		assertTrue(d1.getDenseIndex() >= 0);
+		assertTrue(d2.getDenseIndex() >= 0);
+
+		// Facts that have already been indexed are not hashed again
+		int hashCount = d1.hashCount;
+		tables.addJumpFunction(d1, "n2", d2);
+		tables.getOrCreateIncoming(method, d1);
+		tables.getIncoming(method, d1);
+		assertEquals(hashCount, d1.hashCount);
+		assertEquals(2, tables.getJumpFunctionCount());
+	}
+
+	@Test
+	public void clearTest() {
+		IndexedSolverTables<String, Fact> tables = new IndexedSolverTables<>();
+		Fact d1 = new Fact("d1");
+		Fact d2 = new Fact("d2");
+		tables.addJumpFunction(d1, "n", d2);
+		tables.clear();
+
+		// The indices from before must not be used anymore
+		Fact d3 = new Fact("d3");
+		assertNull(tables.addJumpFunction(d3, "n", d2));
+		assertNull(tables.addJumpFunction(d1, "n", d2));
+		assertSame(d2, tables.addJumpFunction(new Fact("d1"), "n", new Fact("d2")));
+
+		// Another table assigns its own indices
+		IndexedSolverTables<String, Fact> other = new IndexedSolverTables<>();
+		assertNull(other.addJumpFunction(d1, "n", d2));
+		assertSame(d2, tables.addJumpFunction(d1, "n", d2));
+	}
+
+	@Test
+	public void mutatedAbstractionTest() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		Abstraction.initialize(config);
+		AccessPath ap = new AccessPathFactory(config)
+				.createAccessPath(Jimple.v().newLocal("l", RefType.v("java.lang.String")), true);
+		Stmt stmt = Jimple.v().newNopStmt();
+		Abstraction d1 = new Abstraction(null, ap, stmt, null, false, false);
+		Abstraction d2 = new Abstraction(null, ap, stmt, null, false, false);
+
+		IndexedSolverTables<Unit, Abstraction> tables = new IndexedSolverTables<>();
+		assertNull(tables.addJumpFunction(d1, stmt, d2));
+		Abstraction d3 = new Abstraction(null, ap, stmt, null, false, false);
+		assertSame(d2, tables.addJumpFunction(d3, stmt, d2));
+		assertEquals(d1.getDenseIndex(), d3.getDenseIndex());
+
+		// A changed abstraction is a different fact and must not keep the index of
+		// the old one
+		d3.setSourceContext(new SourceContext(null, ap, Jimple.v().newNopStmt()));
+		assertEquals(-1, d3.getDenseIndex());
+		assertNull(tables.addJumpFunction(d3, stmt, d2));
+		assertEquals(2, tables.getJumpFunctionCount());
+	}
+
+}
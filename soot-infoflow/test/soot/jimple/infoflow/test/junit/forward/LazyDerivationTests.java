@@ -0,0 +1,125 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the lazy derivation of taint abstractions
+ */
+public class LazyDerivationTests extends JUnitTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+	private IInfoflow runAnalysis(String epoint, boolean lazy, PathBuildingAlgorithm pathBuilder) {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setLazyAbstractionDerivation(lazy);
+		infoflow.getConfig().getPathConfiguration().setPathBuildingAlgorithm(pathBuilder);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		return infoflow;
+	}
+
+	/**
+	 * Runs the analysis with and without lazy derivation and checks that both
+	 * runs find the same data flows
+	 */
+	private IInfoflow compareWithEagerDerivation(String epoint, PathBuildingAlgorithm pathBuilder) {
+		IInfoflow eager = runAnalysis(epoint, false, pathBuilder);
+		IInfoflow lazy = runAnalysis(epoint, true, pathBuilder);
+		assertEquals(eager.getResults().numConnections(), lazy.getResults().numConnections());
+		assertEquals(eager.getResults().size(), lazy.getResults().size());
+		return lazy;
+	}
+
+	@Test
+	public void derivationGateTest() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		config.setLazyAbstractionDerivation(true);
+
+		// The default context-sensitive path builder needs the statements
+		assertEquals(PathBuildingAlgorithm.ContextSensitive,
+				config.getPathConfiguration().getPathBuildingAlgorithm());
+		assertFalse(Abstraction.isLazyDerivationEnabled(config));
+
+		config.getPathConfiguration().setPathBuildingAlgorithm(PathBuildingAlgorithm.Recursive);
+		assertFalse(Abstraction.isLazyDerivationEnabled(config));
+
+		config.getPathConfiguration()
+				.setPathBuildingAlgorithm(PathBuildingAlgorithm.ContextInsensitiveSourceFinder);
+		assertTrue(Abstraction.isLazyDerivationEnabled(config));
+
+		// Path reconstruction needs the statements as well
+		config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Fast);
+		assertFalse(Abstraction.isLazyDerivationEnabled(config));
+
+		config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.NoPaths);
+		config.setLazyAbstractionDerivation(false);
+		assertFalse(Abstraction.isLazyDerivationEnabled(config));
+	}
+
+	@Test(timeout = 300000)
+	public void contextSensitivePathBuilderTest() {
+		// The call stacks of the default path builder must not be affected
+		IInfoflow infoflow = compareWithEagerDerivation(
+				"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest1()>",
+				PathBuildingAlgorithm.ContextSensitive);
+		checkInfoflow(infoflow, 1);
+		assertTrue(infoflow.getResults().isPathBetweenMethods(sink, sourceDeviceId));
+		assertFalse(infoflow.getResults().isPathBetweenMethods(sink, sourcePwd));
+	}
+
+	@Test(timeout = 300000)
+	public void contextSensitivePathBuilderTest2() {
+		IInfoflow infoflow = compareWithEagerDerivation(
+				"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest2()>",
+				PathBuildingAlgorithm.ContextSensitive);
+		checkInfoflow(infoflow, 1);
+		assertFalse(infoflow.getResults().isPathBetweenMethods(sink, sourcePwd));
+	}
+
+	@Test(timeout = 300000)
+	public void recursivePathBuilderTest() {
+		// The recursive path builder matches call sites as well
+		IInfoflow infoflow = compareWithEagerDerivation(
+				"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest1()>",
+				PathBuildingAlgorithm.Recursive);
+		checkInfoflow(infoflow, 1);
+		assertFalse(infoflow.getResults().isPathBetweenMethods(sink, sourcePwd));
+	}
+
+	@Test(timeout = 300000)
+	public void sourceFinderAliasTest() {
+		IInfoflow infoflow = compareWithEagerDerivation(
+				"<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>",
+				PathBuildingAlgorithm.ContextInsensitiveSourceFinder);
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void sourceFinderExceptionTest() {
+		IInfoflow infoflow = compareWithEagerDerivation(
+				"<soot.jimple.infoflow.test.ExceptionTestCode: void exceptionControlFlowTest1()>",
+				PathBuildingAlgorithm.ContextInsensitiveSourceFinder);
+		checkInfoflow(infoflow, 1);
+	}
+
+}
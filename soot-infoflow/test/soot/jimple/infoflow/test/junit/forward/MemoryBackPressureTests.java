@@ -0,0 +1,268 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.Unit;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
+import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the individual steps that the solvers take to reduce their memory
+ * consumption under memory pressure
+ */
+public class MemoryBackPressureTests extends JUnitTests {
+
+	private static final String EPOINT = "<soot.jimple.infoflow.test.OtherTestCode: void multiCallTest()>";
+
+	private MemoryPressureStep stepBeforePropagation = null;
+	private boolean dropNeighborsAfterPropagation = false;
+	private int neighborsAfterDrop = -1;
+	private IInfoflowSolver forwardSolver;
+
+	/**
+	 * Solver that only supports the given memory pressure steps
+	 */
+	private static class StepSolver implements IMemoryBoundedSolver {
+
+		private final EnumSet<MemoryPressureStep> supportedSteps;
+
+		public StepSolver(EnumSet<MemoryPressureStep> supportedSteps) {
+			this.supportedSteps = supportedSteps;
+		}
+
+		@Override
+		public void forceTerminate(ISolverTerminationReason reason) {
+		}
+
+		@Override
+		public boolean relieveMemoryPressure(MemoryPressureStep step) {
+			return supportedSteps.contains(step);
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean isKilled() {
+			return false;
+		}
+
+		@Override
+		public ISolverTerminationReason getTerminationReason() {
+			return null;
+		}
+
+		@Override
+		public void reset() {
+		}
+
+		@Override
+		public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
+		}
+
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected void onBeforeTaintPropagation(IInfoflowSolver forwardSolver, IInfoflowSolver backwardSolver) {
+				MemoryBackPressureTests.this.forwardSolver = forwardSolver;
+				if (stepBeforePropagation != null)
+					assertTrue(memoryWatcher.relieveMemoryPressure(stepBeforePropagation));
+			}
+
+			@Override
+			protected void onTaintPropagationCompleted(IInfoflowSolver forwardSolver,
+					IInfoflowSolver backwardSolver) {
+				if (dropNeighborsAfterPropagation) {
+					assertTrue(memoryWatcher.relieveMemoryPressure(MemoryPressureStep.DropNeighbors));
+					AtomicInteger neighbors = new AtomicInteger();
+					((InfoflowSolver) forwardSolver)
+							.forEachEndSummary(s -> neighbors.addAndGet(s.calleeD1.getNeighborCount()));
+					neighborsAfterDrop = neighbors.get();
+				}
+			}
+
+		};
+	}
+
+	private IInfoflow runAnalysis(String epoint) {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(epoint), sources, sinks);
+		return infoflow;
+	}
+
+	@Test
+	public void appliedStepsTest() {
+		InfoflowResults results = new InfoflowResults();
+		results.setPerformanceData(new InfoflowPerformanceData());
+		FlowDroidMemoryWatcher watcher = new FlowDroidMemoryWatcher(results);
+		List<String> generations = new ArrayList<>();
+		watcher.setMemoryManager(new IMemoryManager<String, String>() {
+
+			@Override
+			public String handleMemoryObject(String obj) {
+				return obj;
+			}
+
+			@Override
+			public String handleGeneratedMemoryObject(String input, String output) {
+				return output;
+			}
+
+			@Override
+			public boolean isEssentialJoinPoint(String abs, String relatedCallSite) {
+				return false;
+			}
+
+			@Override
+			public void startNewGeneration() {
+				generations.add("generation");
+			}
+
+		});
+		try {
+			// A step that no solver supports has no effect
+			assertFalse(watcher.relieveMemoryPressure(MemoryPressureStep.ShortenPredecessors));
+			watcher.addSolver(new StepSolver(EnumSet.noneOf(MemoryPressureStep.class)));
+			watcher.addSolver(new StepSolver(EnumSet.of(MemoryPressureStep.DropNeighbors)));
+			assertFalse(watcher.relieveMemoryPressure(MemoryPressureStep.ShortenPredecessors));
+			assertTrue(watcher.relieveMemoryPressure(MemoryPressureStep.DropNeighbors));
+
+			// Only the applied step is recorded, and the caches start a new generation
+			assertEquals(EnumSet.of(MemoryPressureStep.DropNeighbors),
+					results.getPerformanceData().getMemoryPressureSteps());
+			assertEquals(1, generations.size());
+		} finally {
+			watcher.close();
+		}
+	}
+
+	@Test(timeout = 300000)
+	public void shortenPredecessorsTest() {
+		stepBeforePropagation = MemoryPressureStep.ShortenPredecessors;
+		IInfoflow infoflow = runAnalysis(EPOINT);
+		checkInfoflow(infoflow, 2);
+
+		// The abstractions that return from annotate() are connected directly to
+		// the call site, so the paths skip over the nested callee x()
+		List<Unit> calleeUnits = new ArrayList<>(Scene.v()
+				.getMethod("<soot.jimple.infoflow.test.OtherTestCode: java.lang.String x(java.lang.String)>")
+				.getActiveBody().getUnits());
+		for (DataFlowResult result : infoflow.getResults().getResultSet()) {
+			Stmt[] path = result.getSource().getPath();
+			assertNotNull(path);
+			for (Stmt stmt : path)
+				assertFalse(calleeUnits.contains(stmt));
+		}
+		assertTrue(infoflow.getResults().getPerformanceData().getMemoryPressureSteps()
+				.contains(MemoryPressureStep.ShortenPredecessors));
+	}
+
+	@Test(timeout = 300000)
+	public void dropNeighborsTest() {
+		dropNeighborsAfterPropagation = true;
+		IInfoflow infoflow = runAnalysis(EPOINT);
+
+		// The path builder no longer matches call sites, so both flows through the
+		// shared callee are still reported
+		checkInfoflow(infoflow, 2);
+		assertEquals(0, neighborsAfterDrop);
+	}
+
+	private void runHeapAnalysis(IInfoflow infoflow) {
+		infoflow.computeInfoflow(appPath, libPath,
+				Collections.singletonList("<soot.jimple.infoflow.test.HeapTestCode: void methodTest0()>"), sources,
+				sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void reduceAccessPathLengthTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getAccessPathConfiguration().setAccessPathLength(2);
+		runHeapAnalysis(infoflow);
+
+		AccessPathFactory apFactory = forwardSolver.getTabulationProblem().getManager().getAccessPathFactory();
+		SootClass scA = Scene.v().getSootClass("soot.jimple.infoflow.test.HeapTestCode$A");
+		SootClass scB = Scene.v().getSootClass("soot.jimple.infoflow.test.HeapTestCode$B");
+		SootField[] fields = new SootField[] { scB.getFieldByName("attr"), scA.getFieldByName("b") };
+		Local b = Jimple.v().newLocal("b", scB.getType());
+		AccessPath ap = apFactory.createAccessPath(b, fields, false);
+		assertEquals(2, ap.getFragmentCount());
+
+		// New access paths are cut to half of the configured length, but not
+		// dropped
+		assertTrue(((IMemoryBoundedSolver) forwardSolver)
+				.relieveMemoryPressure(MemoryPressureStep.ReduceAccessPathLength));
+		ap = apFactory.createAccessPath(b, fields, false);
+		assertNotNull(ap);
+		assertEquals(1, ap.getFragmentCount());
+		assertTrue(ap.getTaintSubFields());
+
+		// The length can only be reduced once
+		assertFalse(((IMemoryBoundedSolver) forwardSolver)
+				.relieveMemoryPressure(MemoryPressureStep.ReduceAccessPathLength));
+	}
+
+	@Test(timeout = 300000)
+	public void reduceAccessPathLengthWithStaticFieldsTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getAccessPathConfiguration().setAccessPathLength(1);
+		runHeapAnalysis(infoflow);
+
+		// Static field taints need at least one field
+		assertFalse(((IMemoryBoundedSolver) forwardSolver)
+				.relieveMemoryPressure(MemoryPressureStep.ReduceAccessPathLength));
+	}
+
+	@Test(timeout = 300000)
+	public void reduceAccessPathLengthWithoutFieldsTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getAccessPathConfiguration().setAccessPathLength(0);
+		infoflow.getConfig().setStaticFieldTrackingMode(StaticFieldTrackingMode.None);
+		runHeapAnalysis(infoflow);
+
+		// Access paths without fields cannot be reduced any further
+		assertFalse(((IMemoryBoundedSolver) forwardSolver)
+				.relieveMemoryPressure(MemoryPressureStep.ReduceAccessPathLength));
+	}
+
+}
@@ -0,0 +1,24 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
+
+/**
+ * Runs the context sensitivity tests on the method-sharded solver with method
+ * affinity on the work-stealing executor
+ */
+public class MethodShardedContextSensitivityTests extends soot.jimple.infoflow.test.junit.ContextSensitivityTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow result = new Infoflow("", false, null);
+		SolverConfiguration solverConfig = result.getConfig().getSolverConfiguration();
+		solverConfig.setDataFlowSolver(DataFlowSolver.MethodSharded);
+		solverConfig.setExecutorType(ExecutorType.WorkStealing);
+		return result;
+	}
+
+}
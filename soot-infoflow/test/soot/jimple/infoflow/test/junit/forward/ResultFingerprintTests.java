@@ -0,0 +1,113 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.results.util.InfoflowResultComparator;
+import soot.jimple.infoflow.results.util.ResultDiff;
+import soot.jimple.infoflow.results.util.ResultFingerprinter;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the fingerprinting and diffing of data flow results
+ */
+public class ResultFingerprintTests extends JUnitTests {
+
+	@Rule
+	public TemporaryFolder resultFolder = new TemporaryFolder();
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+	/**
+	 * Runs the analysis and writes the results into an XML file
+	 *
+	 * @param epoint   The entry point of the analysis
+	 * @param fileName The name of the XML file
+	 * @return The fingerprints of the live results
+	 */
+	private long[] runAnalysis(String epoint, String fileName) throws IOException, XMLStreamException {
+		IInfoflow infoflow = initInfoflow();
+		List<long[]> fingerprints = new ArrayList<>();
+		File xmlFile = new File(resultFolder.getRoot(), fileName);
+		infoflow.addResultsAvailableHandler((cfg, results) -> {
+			fingerprints.add(new ResultFingerprinter(cfg).fingerprints(results));
+			try {
+				new InfoflowResultsSerializer(cfg, infoflow.getConfig()).serialize(results,
+						xmlFile.getAbsolutePath());
+			} catch (XMLStreamException | IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+
+		assertEquals(1, fingerprints.size());
+		return fingerprints.get(0);
+	}
+
+	@Test(timeout = 300000)
+	public void stableFingerprintTest() throws IOException, XMLStreamException {
+		long[] fp1 = runAnalysis("<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>", "run1.xml");
+		long[] fp2 = runAnalysis("<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>", "run2.xml");
+		assertArrayEquals(fp1, fp2);
+
+		// The serialized results must have the same fingerprints as the live ones
+		String xmlFile = new File(resultFolder.getRoot(), "run1.xml").getAbsolutePath();
+		assertArrayEquals(fp1, new ResultFingerprinter().fingerprints(new InfoflowResultsReader().readResults(xmlFile)));
+
+		ResultDiff diff = InfoflowResultComparator.v().diff(xmlFile,
+				new File(resultFolder.getRoot(), "run2.xml").getAbsolutePath());
+		assertTrue(diff.isEmpty());
+		assertEquals(fp1.length, diff.getUnchangedCount());
+	}
+
+	@Test(timeout = 300000)
+	public void diffTest() throws IOException, XMLStreamException {
+		long[] oldFp = runAnalysis("<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>", "old.xml");
+		long[] newFp = runAnalysis("<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>", "new.xml");
+
+		ResultDiff diff = ResultDiff.diff(oldFp, newFp);
+		assertFalse(diff.isEmpty());
+		assertEquals(oldFp.length, diff.getFixedFlows().length + diff.getUnchangedCount());
+		assertEquals(newFp.length, diff.getNewFlows().length + diff.getUnchangedCount());
+		for (long fp : diff.getNewFlows())
+			assertFalse(diff.isFixed(fp));
+
+		// Diffing the fingerprint files must give the same result
+		File oldFile = resultFolder.newFile("old" + ResultDiff.FILE_EXTENSION);
+		File newFile = resultFolder.newFile("new" + ResultDiff.FILE_EXTENSION);
+		ResultDiff.writeFingerprints(oldFp, oldFile.getAbsolutePath());
+		ResultDiff.writeFingerprints(newFp, newFile.getAbsolutePath());
+		assertArrayEquals(oldFp, ResultDiff.readFingerprints(oldFile.getAbsolutePath()));
+
+		ResultDiff fileDiff = ResultDiff.diff(oldFile.getAbsolutePath(), newFile.getAbsolutePath());
+		assertArrayEquals(diff.getNewFlows(), fileDiff.getNewFlows());
+		assertArrayEquals(diff.getFixedFlows(), fileDiff.getFixedFlows());
+		assertEquals(diff.getUnchangedCount(), fileDiff.getUnchangedCount());
+	}
+
+}
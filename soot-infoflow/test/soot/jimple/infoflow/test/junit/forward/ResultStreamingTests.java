@@ -0,0 +1,101 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.stream.StreamingResultsHandler;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for streaming the data flow results while the analysis is running
+ */
+public class ResultStreamingTests extends JUnitTests {
+
+	@Rule
+	public TemporaryFolder streamFolder = new TemporaryFolder();
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String epoint) {
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void callbackStreamTest() throws IOException {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setIncrementalResultReporting(true);
+
+		// A queue with a single slot makes the analysis wait for the writer
+		Set<DataFlowResult> streamed = ConcurrentHashMap.newKeySet();
+		StreamingResultsHandler handler = new StreamingResultsHandler(streamed::add, 1);
+		infoflow.addResultsAvailableHandler(handler);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+
+		assertFalse(streamed.isEmpty());
+		assertEquals(infoflow.getResults().getResultSet(), streamed);
+		assertEquals(streamed.size(), handler.getWrittenResultCount());
+	}
+
+	/**
+	 * Streams the results of the given entry point to a newline-delimited JSON
+	 * file
+	 */
+	private List<String> runStreamAnalysis(IInfoflow infoflow, String epoint) throws IOException {
+		File streamFile = new File(streamFolder.getRoot(), "results.ndjson");
+		infoflow.getConfig().getOutputConfiguration().setResultStreamTarget(streamFile.getAbsolutePath());
+		runAnalysis(infoflow, epoint);
+
+		List<String> lines = Files.readAllLines(streamFile.toPath(), StandardCharsets.UTF_8);
+		assertFalse(lines.isEmpty());
+		for (String line : lines) {
+			assertTrue(line.startsWith("{\"source\":{"));
+			assertTrue(line.contains("\"sink\":{"));
+			assertTrue(line.endsWith("}}"));
+		}
+		return lines;
+	}
+
+	@Test(timeout = 300000)
+	public void ndjsonFileStreamTest() throws IOException {
+		IInfoflow infoflow = initInfoflow();
+		runStreamAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>");
+
+		// Streamed results are not kept in memory
+		assertTrue(infoflow.getResults().isEmpty());
+	}
+
+	@Test(timeout = 300000)
+	public void retainStreamedResultsTest() throws IOException {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getOutputConfiguration().setRetainStreamedResults(true);
+		List<String> lines = runStreamAnalysis(infoflow,
+				"<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>");
+		checkInfoflow(infoflow, 1);
+		assertTrue(lines.size() >= infoflow.getResults().numConnections());
+	}
+
+}
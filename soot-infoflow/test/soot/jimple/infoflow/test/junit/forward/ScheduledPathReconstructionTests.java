@@ -0,0 +1,118 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.pathBuilders.ContextInsensitivePathBuilder;
+import soot.jimple.infoflow.data.pathBuilders.ContextInsensitiveSourceFinder;
+import soot.jimple.infoflow.data.pathBuilders.DefaultPathBuilderFactory;
+import soot.jimple.infoflow.data.pathBuilders.IAbstractionPathBuilder;
+import soot.jimple.infoflow.data.pathBuilders.ScheduledPathBuilder;
+import soot.jimple.infoflow.memory.reasons.TimeoutReason;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the path reconstruction that is scheduled across all sinks
+ */
+public class ScheduledPathReconstructionTests extends JUnitTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+	private IInfoflow initScheduledInfoflow() {
+		IInfoflow infoflow = initInfoflow();
+		PathConfiguration pathConfig = infoflow.getConfig().getPathConfiguration();
+		pathConfig.setPathReconstructionMode(PathReconstructionMode.Fast);
+		pathConfig.setScheduledPathReconstruction(true);
+		pathConfig.setPathReconstructionBatchSize(1);
+		return infoflow;
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String epoint) {
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void scheduledPathTest() {
+		IInfoflow infoflow = initScheduledInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+		for (DataFlowResult result : infoflow.getResults().getResultSet())
+			assertNotNull(result.getSource().getPath());
+	}
+
+	@Test(timeout = 300000)
+	public void scheduledContextSensitivityTest() {
+		// The connections from the source finder must not replace the results of
+		// the context-sensitive path builder
+		IInfoflow infoflow = initScheduledInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest1()>");
+		checkInfoflow(infoflow, 1);
+		assertTrue(infoflow.getResults().isPathBetweenMethods(sink, sourceDeviceId));
+		assertFalse(infoflow.getResults().isPathBetweenMethods(sink, sourcePwd));
+	}
+
+	@Test(timeout = 300000)
+	public void exhaustedBudgetTest() {
+		// Exhaust the budget right after the source finder has run, so that no batch
+		// can be processed and all connections are reported without a path
+		final List<ScheduledPathBuilder> builders = new ArrayList<>();
+		IInfoflow infoflow = initScheduledInfoflow();
+		infoflow.setPathBuilderFactory(new DefaultPathBuilderFactory(infoflow.getConfig().getPathConfiguration()) {
+
+			@Override
+			public IAbstractionPathBuilder createPathBuilder(InfoflowManager manager,
+					InterruptableExecutor executor) {
+				ScheduledPathBuilder builder = new ScheduledPathBuilder(manager,
+						new ContextInsensitivePathBuilder(manager, executor),
+						new ContextInsensitiveSourceFinder(manager, executor)) {
+
+					@Override
+					protected void findSources(Set<AbstractionAtSink> res) {
+						super.findSources(res);
+						forceTerminate(new TimeoutReason(0, 0));
+					}
+
+				};
+				builders.add(builder);
+				return builder;
+			}
+
+		});
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+		for (DataFlowResult result : infoflow.getResults().getResultSet())
+			assertNull(result.getSource().getPath());
+
+		// The termination must not carry over to the next path reconstruction
+		assertFalse(builders.isEmpty());
+		for (ScheduledPathBuilder builder : builders) {
+			assertNotNull(builder.getTerminationReason());
+			builder.reset();
+			assertNull(builder.getTerminationReason());
+			assertFalse(builder.isKilled());
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import heros.FlowFunction;
+import heros.FlowFunctions;
+import heros.flowfunc.Identity;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
+import soot.jimple.infoflow.metrics.HttpMetricsEndpoint;
+import soot.jimple.infoflow.metrics.ISolverMetricsListener;
+import soot.jimple.infoflow.metrics.SolverMetrics;
+import soot.jimple.infoflow.metrics.SolverMetricsSnapshot;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.StatsFlowFunctionCache;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the live metrics of the data flow solver
+ */
+public class SolverMetricsTests extends JUnitTests {
+
+	private IInfoflowSolver forwardSolver;
+
+	/**
+	 * Listener that is only registered through the Java service loader
+	 */
+	public static class ServiceListener implements ISolverMetricsListener {
+
+		private static final List<SolverMetricsSnapshot> snapshots = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void notifyMetrics(SolverMetricsSnapshot snapshot) {
+			snapshots.add(snapshot);
+		}
+
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+					AbstractInfoflowProblem problem) {
+				forwardSolver = super.createDataFlowSolver(executor, problem);
+				return forwardSolver;
+			}
+
+		};
+	}
+
+	/**
+	 * Runs the analysis with a metrics listener and gets the last snapshot, which
+	 * the reporter creates once the solvers are done
+	 */
+	private SolverMetricsSnapshot runWithMetrics(DataFlowSolver solver, ExecutorType executorType) {
+		List<SolverMetricsSnapshot> snapshots = Collections.synchronizedList(new ArrayList<>());
+		AbstractInfoflow infoflow = (AbstractInfoflow) initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(solver);
+		infoflow.getConfig().getSolverConfiguration().setExecutorType(executorType);
+
+		// The propagation count of the solver is not synchronized
+		infoflow.getConfig().setMaxThreadNum(1);
+		infoflow.addMetricsListener(snapshots::add);
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void multiCallTest()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 2);
+
+		assertFalse(snapshots.isEmpty());
+		return snapshots.get(snapshots.size() - 1);
+	}
+
+	/**
+	 * Checks that the metrics have seen every edge that the solver has scheduled
+	 */
+	private void checkEdgeCounts(SolverMetricsSnapshot snapshot) {
+		assertTrue(forwardSolver.getPropagationCount() > 0);
+		assertEquals(forwardSolver.getPropagationCount(), snapshot.getPropagatedEdges());
+
+		long hotMethodEdges = 0;
+		long previous = Long.MAX_VALUE;
+		for (SolverMetricsSnapshot.MethodEdgeCount method : snapshot.getHotMethods()) {
+			// The hot methods are ordered by decreasing edge count
+			assertTrue(method.getEdges() <= previous);
+			previous = method.getEdges();
+			hotMethodEdges += method.getEdges();
+		}
+		assertTrue(hotMethodEdges > 0);
+		assertTrue(hotMethodEdges <= snapshot.getPropagatedEdges());
+	}
+
+	@Test(timeout = 300000)
+	public void edgeCountTest() {
+		SolverMetricsSnapshot snapshot = runWithMetrics(DataFlowSolver.ContextFlowSensitive, ExecutorType.ThreadPool);
+		checkEdgeCounts(snapshot);
+		assertTrue(snapshot.getFlowFunctionCounts().get(FlowFunctionType.NormalFlowFunction) > 0);
+
+		// Every flow function is computed at most once per key, so there must be
+		// misses, and the solver asks for the same flow functions repeatedly
+		assertTrue(snapshot.getFlowFunctionCacheMisses() > 0);
+		assertTrue(snapshot.getFlowFunctionCacheHits() > 0);
+	}
+
+	@Test(timeout = 300000)
+	public void shardedSolverEdgeCountTest() {
+		// The sharded solver schedules edges on its own when work stealing is used
+		checkEdgeCounts(runWithMetrics(DataFlowSolver.MethodSharded, ExecutorType.WorkStealing));
+	}
+
+	@Test(timeout = 300000)
+	public void serviceListenerTest() throws IOException {
+		// Register the listener in a service file that only the context class loader
+		// can see
+		Path dir = Files.createTempDirectory("metrics");
+		Path services = Files.createDirectories(dir.resolve("META-INF").resolve("services"));
+		Files.write(services.resolve(ISolverMetricsListener.class.getName()),
+				ServiceListener.class.getName().getBytes(StandardCharsets.UTF_8));
+
+		ClassLoader oldLoader = Thread.currentThread().getContextClassLoader();
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, oldLoader)) {
+			Thread.currentThread().setContextClassLoader(loader);
+			ServiceListener.snapshots.clear();
+
+			AbstractInfoflow infoflow = (AbstractInfoflow) initInfoflow();
+			List<String> epoints = new ArrayList<String>();
+			epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void multiCallTest()>");
+			infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+			checkInfoflow(infoflow, 2);
+			assertFalse(ServiceListener.snapshots.isEmpty());
+		} finally {
+			Thread.currentThread().setContextClassLoader(oldLoader);
+		}
+	}
+
+	@Test
+	public void flowFunctionCacheStatsTest() {
+		FlowFunctions<String, String, String> flowFunctions = new FlowFunctions<String, String, String>() {
+
+			@Override
+			public FlowFunction<String> getNormalFlowFunction(String curr, String succ) {
+				return Identity.v();
+			}
+
+			@Override
+			public FlowFunction<String> getCallFlowFunction(String callStmt, String destinationMethod) {
+				return Identity.v();
+			}
+
+			@Override
+			public FlowFunction<String> getReturnFlowFunction(String callSite, String calleeMethod,
+					String exitStmt, String returnSite) {
+				return Identity.v();
+			}
+
+			@Override
+			public FlowFunction<String> getCallToReturnFlowFunction(String callSite, String returnSite) {
+				return Identity.v();
+			}
+
+		};
+		StatsFlowFunctionCache<String, String, String> cache = new StatsFlowFunctionCache<>(flowFunctions,
+				CacheBuilder.newBuilder());
+
+		// Nothing is counted unless metrics are being collected
+		cache.getNormalFlowFunction("a", "b");
+		assertEquals(0, cache.stats().requestCount());
+
+		cache.setRecordStats(true);
+		cache.getNormalFlowFunction("a", "b");
+		cache.getNormalFlowFunction("a", "b");
+		cache.getNormalFlowFunction("b", "c");
+		cache.getCallFlowFunction("a", "m");
+		CacheStats stats = cache.stats();
+		assertEquals(2, stats.hitCount());
+		assertEquals(2, stats.missCount());
+	}
+
+	@Test
+	public void httpEndpointTest() throws IOException {
+		SolverMetrics metrics = new SolverMetrics();
+		metrics.recordEdge(null);
+		metrics.recordEdge(null);
+		metrics.recordFlowFunction(FlowFunctionType.CallFlowFunction);
+
+		HttpMetricsEndpoint endpoint = new HttpMetricsEndpoint(0);
+		try {
+			endpoint.notifyMetrics(metrics.createSnapshot(5));
+
+			URL url = new URL("http://localhost:" + endpoint.getPort() + HttpMetricsEndpoint.CONTEXT_PATH);
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			assertEquals(200, connection.getResponseCode());
+			String json;
+			try (InputStream is = connection.getInputStream()) {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				int len;
+				while ((len = is.read(buffer)) > 0)
+					bos.write(buffer, 0, len);
+				json = new String(bos.toByteArray(), StandardCharsets.UTF_8);
+			}
+			assertTrue(json.contains("\"propagatedEdges\":2"));
+			assertTrue(json.contains("\"CallFlowFunction\":1"));
+		} finally {
+			endpoint.close();
+		}
+	}
+
+	@Test
+	public void snapshotJsonTest() {
+		SolverMetrics metrics = new SolverMetrics();
+		SolverMetricsSnapshot snapshot = metrics.createSnapshot(0);
+		assertNotNull(snapshot.toJson());
+		assertTrue(snapshot.toJson().startsWith("{"));
+		assertTrue(snapshot.toJson().endsWith("}"));
+		assertEquals(-1, snapshot.getMemoryManagerReuseCount());
+	}
+
+}
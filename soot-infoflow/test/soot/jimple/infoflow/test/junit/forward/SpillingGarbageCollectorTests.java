@@ -0,0 +1,216 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.VoidType;
+import soot.jimple.infoflow.solver.gcSolver.IJumpFunctionSerializer;
+import soot.jimple.infoflow.solver.gcSolver.MappedSpillFile;
+import soot.jimple.infoflow.solver.gcSolver.SpillingGarbageCollector;
+import soot.util.ConcurrentHashMultiMap;
+
+/**
+ * Tests for the garbage collector that moves evicted jump functions to disk
+ * instead of discarding them
+ */
+public class SpillingGarbageCollectorTests {
+
+	@Rule
+	public TemporaryFolder spillFolder = new TemporaryFolder();
+
+	/**
+	 * Simple data flow fact with a predecessor and neighbors, similar to an
+	 * abstraction
+	 */
+	private static class Fact {
+
+		private final String name;
+		private final Fact predecessor;
+		private final List<Fact> neighbors = new ArrayList<>();
+
+		public Fact(String name, Fact predecessor) {
+			this.name = name;
+			this.predecessor = predecessor;
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Fact && ((Fact) obj).name.equals(name);
+		}
+
+	}
+
+	/**
+	 * Serializer that only writes the names of the facts, so that restored facts
+	 * have no predecessors
+	 */
+	private static class FactSerializer implements IJumpFunctionSerializer<String, Fact> {
+
+		@Override
+		public void write(PathEdge<String, Fact> edge, DataOutput out) throws IOException {
+			out.writeUTF(edge.factAtSource().name);
+			out.writeUTF(edge.getTarget());
+			out.writeUTF(edge.factAtTarget().name);
+		}
+
+		@Override
+		public PathEdge<String, Fact> read(DataInput in) throws IOException {
+			Fact d1 = new Fact(in.readUTF(), null);
+			String target = in.readUTF();
+			return new PathEdge<>(d1, target, new Fact(in.readUTF(), null));
+		}
+
+	}
+
+	/**
+	 * Garbage collector that allows the test to spill jump functions directly
+	 */
+	private static class TestSpillingGarbageCollector extends SpillingGarbageCollector<String, Fact> {
+
+		public TestSpillingGarbageCollector(ConcurrentHashMultiMap<SootMethod, PathEdge<String, Fact>> jumpFunctions,
+				MappedSpillFile spillFile) {
+			super(null, jumpFunctions, new FactSerializer(), spillFile);
+		}
+
+		public void spill(SootMethod method, PathEdge<String, Fact> edge) {
+			onMethodRemoved(method, Collections.singleton(edge));
+		}
+
+	}
+
+	private final Fact zero = new Fact("zero", null);
+
+	/**
+	 * Collects the roots of all predecessor chains starting at the given fact,
+	 * following the neighbors as the source finder does
+	 */
+	private static Set<String> findSources(Fact fact) {
+		Set<String> sources = new HashSet<>();
+		List<Fact> workList = new ArrayList<>();
+		workList.add(fact);
+		while (!workList.isEmpty()) {
+			Fact cur = workList.remove(workList.size() - 1);
+			workList.addAll(cur.neighbors);
+			if (cur.predecessor == null)
+				sources.add(cur.name);
+			else
+				workList.add(cur.predecessor);
+		}
+		return sources;
+	}
+
+	@Test(timeout = 300000)
+	public void secondSourceTest() throws IOException {
+		ConcurrentHashMultiMap<SootMethod, PathEdge<String, Fact>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		TestSpillingGarbageCollector gc = new TestSpillingGarbageCollector(jumpFunctions,
+				new MappedSpillFile(spillFolder.getRoot()));
+		SootMethod method = new SootMethod("foo", Collections.emptyList(), VoidType.v());
+		try {
+			// The fact in the method is derived from the first source and has already
+			// been propagated to the sink
+			Fact mid = new Fact("x", new Fact("sourceA", null));
+			Fact atSink = new Fact("y", mid);
+			gc.spill(method, new PathEdge<>(zero, "stmt", mid));
+			assertEquals(1, gc.getSpilledEdges());
+
+			// The same fact arrives from a second source. The solver restores the jump
+			// functions and adds the new fact as a neighbor of the existing one.
+			gc.notifyMethodAccess(method);
+			assertEquals(1, gc.getRestoredEdges());
+			Fact fromB = new Fact("x", new Fact("sourceB", null));
+			PathEdge<String, Fact> existing = jumpFunctions.putIfAbsent(method,
+					new PathEdge<>(new Fact("zero", null), "stmt", fromB));
+			assertSame(mid, existing.factAtTarget());
+			existing.factAtTarget().neighbors.add(fromB);
+
+			// Both sources must be reachable from the sink
+			Set<String> sources = findSources(atSink);
+			assertTrue(sources.contains("sourceA"));
+			assertTrue(sources.contains("sourceB"));
+		} finally {
+			gc.notifySolverTerminated();
+		}
+	}
+
+	@Test(timeout = 300000)
+	public void collectedFactTest() throws IOException {
+		ConcurrentHashMultiMap<SootMethod, PathEdge<String, Fact>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		TestSpillingGarbageCollector gc = new TestSpillingGarbageCollector(jumpFunctions,
+				new MappedSpillFile(spillFolder.getRoot()));
+		SootMethod method = new SootMethod("foo", Collections.emptyList(), VoidType.v());
+		try {
+			Fact mid = new Fact("x", new Fact("sourceA", null));
+			WeakReference<Fact> probe = new WeakReference<>(mid);
+			gc.spill(method, new PathEdge<>(zero, "stmt", mid));
+			mid = null;
+
+			for (int i = 0; i < 50 && probe.get() != null; i++)
+				System.gc();
+			assumeTrue(probe.get() == null);
+
+			// A copy without predecessor must not replace a fact that no longer exists,
+			// the solver has to propagate the edge again
+			gc.notifyMethodAccess(method);
+			assertEquals(0, gc.getRestoredEdges());
+			assertEquals(1, gc.getDroppedEdges());
+			Fact fromB = new Fact("x", new Fact("sourceB", null));
+			PathEdge<String, Fact> edge = new PathEdge<>(zero, "stmt", fromB);
+			assertNull(jumpFunctions.putIfAbsent(method, edge));
+			assertEquals(1, jumpFunctions.get(method).size());
+		} finally {
+			gc.notifySolverTerminated();
+		}
+	}
+
+	@Test
+	public void spillFileRoundTripTest() throws IOException {
+		// Use tiny segments so that the records span several mappings
+		MappedSpillFile spillFile = new MappedSpillFile(spillFolder.getRoot(), 16);
+		File file = spillFile.getFile();
+
+		List<byte[]> data = new ArrayList<>();
+		List<MappedSpillFile.Record> records = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			byte[] block = new byte[i * 5];
+			for (int j = 0; j < block.length; j++)
+				block[j] = (byte) (i + j);
+			data.add(block);
+			records.add(spillFile.append(block));
+		}
+
+		for (int i = 0; i < data.size(); i++)
+			assertArrayEquals(data.get(i), spillFile.read(records.get(i)));
+		assertEquals(225, spillFile.getDataSize());
+
+		spillFile.close();
+		assertFalse(file.exists());
+	}
+
+}
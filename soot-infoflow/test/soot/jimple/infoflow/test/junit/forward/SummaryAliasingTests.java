@@ -0,0 +1,88 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.Unit;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.AliasingAlgorithm;
+import soot.jimple.infoflow.aliasing.IAliasingStrategy;
+import soot.jimple.infoflow.aliasing.MethodAliasSummary;
+import soot.jimple.infoflow.aliasing.SummaryBasedAliasStrategy;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the summary-based alias analysis
+ */
+public class SummaryAliasingTests extends JUnitTests {
+
+	private MethodAliasSummary summary;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null) {
+
+			@Override
+			protected IAliasingStrategy createAliasAnalysis(ISourceSinkManager sourcesSinks, IInfoflowCFG iCfg,
+					InterruptableExecutor executor, IMemoryManager<Abstraction, Unit> memoryManager) {
+				IAliasingStrategy strategy = super.createAliasAnalysis(sourcesSinks, iCfg, executor, memoryManager);
+				summary = ((SummaryBasedAliasStrategy) strategy).getSummary(
+						Scene.v().getMethod("<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>"));
+				return strategy;
+			}
+
+		};
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String epoint) {
+		infoflow.getConfig().setAliasingAlgorithm(AliasingAlgorithm.Summary);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(epoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+	}
+
+	@Test(timeout = 300000)
+	public void multiAliasTest() {
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+		checkInfoflow(infoflow, 1);
+
+		assertNotNull(summary);
+		assertTrue(summary.getClassCount() > 0);
+	}
+
+	@Test(timeout = 300000)
+	public void returnAliasTest() {
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void returnAliasTest()>");
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void functionAliasTest() {
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>");
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void recursionTest() {
+		IInfoflow infoflow = initInfoflow();
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.HeapTestCode: void recursionTest()>");
+		checkInfoflow(infoflow, 1);
+	}
+
+}
@@ -0,0 +1,235 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.memory.MemoryPressureStep;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.summaryCache.PersistentSummaryCache;
+import soot.jimple.infoflow.taintWrappers.AbstractTaintWrapper;
+import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
+import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
+import soot.jimple.infoflow.taintWrappers.IdentityTaintWrapper;
+import soot.jimple.infoflow.taintWrappers.TaintWrapperSet;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for re-using the end summaries that have been persisted by an earlier
+ * analysis run
+ */
+public class SummaryCacheTests extends JUnitTests {
+
+	private static final String EPOINT = "<soot.jimple.infoflow.test.OtherTestCode: void multiCallTest()>";
+
+	@Rule
+	public TemporaryFolder cacheFolder = new TemporaryFolder();
+
+	private PersistentSummaryCache summaryCache;
+	private File cacheDirectory;
+	private boolean relieveMemoryPressure = false;
+
+	/**
+	 * Taint wrapper that cannot describe its rules
+	 */
+	private static class OpaqueTaintWrapper extends AbstractTaintWrapper {
+
+		@Override
+		protected boolean isExclusiveInternal(Stmt stmt, AccessPath taintedPath) {
+			return false;
+		}
+
+		@Override
+		public Set<AccessPath> getTaintsForMethodInternal(Stmt stmt, AccessPath taintedPath) {
+			return null;
+		}
+
+		@Override
+		public boolean supportsCallee(SootMethod method) {
+			return false;
+		}
+
+		@Override
+		public boolean supportsCallee(Stmt callSite) {
+			return false;
+		}
+
+		@Override
+		public Set<Abstraction> getAliasesForMethod(Stmt stmt, Abstraction d1, Abstraction taintedPath) {
+			return null;
+		}
+
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow result = new Infoflow("", false, null) {
+
+			@Override
+			protected PersistentSummaryCache createSummaryCache(IInfoflowSolver forwardSolver) {
+				summaryCache = super.createSummaryCache(forwardSolver);
+				return summaryCache;
+			}
+
+			@Override
+			protected void onBeforeTaintPropagation(IInfoflowSolver forwardSolver, IInfoflowSolver backwardSolver) {
+				if (relieveMemoryPressure)
+					assertTrue(memoryWatcher.relieveMemoryPressure(MemoryPressureStep.DropNeighbors));
+			}
+
+		};
+		result.getConfig().getSolverConfiguration().setSummaryCacheDirectory(cacheDirectory.getAbsolutePath());
+
+		// The test code consists of application classes, which are only cached in
+		// incremental mode
+		result.getConfig().getSolverConfiguration().setIncrementalAnalysis(true);
+		return result;
+	}
+
+	/**
+	 * Runs the analysis with the given cache directory
+	 *
+	 * @param cacheDirectory The directory in which to store the summaries
+	 * @param sinks          The sinks to use
+	 * @param taintWrapper   The taint wrapper to use, or <code>null</code> to run
+	 *                       without a taint wrapper
+	 * @return The data flow analysis after it has been run
+	 */
+	private IInfoflow runAnalysis(File cacheDirectory, List<String> sinks, ITaintPropagationWrapper taintWrapper) {
+		this.cacheDirectory = cacheDirectory;
+		this.summaryCache = null;
+		IInfoflow infoflow = initInfoflow();
+		infoflow.setTaintWrapper(taintWrapper);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(EPOINT), sources, sinks);
+		return infoflow;
+	}
+
+	private static EasyTaintWrapper createTaintWrapper(boolean aggressive) throws IOException {
+		EasyTaintWrapper taintWrapper = EasyTaintWrapper.getDefault();
+		taintWrapper.setAggressiveMode(aggressive);
+		return taintWrapper;
+	}
+
+	@Test
+	public void taintWrapperKeyTest() throws IOException {
+		assertEquals("none", PersistentSummaryCache.getTaintWrapperKey(null));
+		assertNotNull(PersistentSummaryCache.getTaintWrapperKey(new IdentityTaintWrapper()));
+		assertNull(PersistentSummaryCache.getTaintWrapperKey(new OpaqueTaintWrapper()));
+
+		// The same rules must always give the same key
+		String key = PersistentSummaryCache.getTaintWrapperKey(createTaintWrapper(false));
+		assertEquals(key, PersistentSummaryCache.getTaintWrapperKey(createTaintWrapper(false)));
+		assertNotEquals(key, PersistentSummaryCache.getTaintWrapperKey(createTaintWrapper(true)));
+
+		// Every single rule is part of the key
+		Map<String, Set<String>> rules = new HashMap<>();
+		rules.put("java.lang.StringBuilder", new HashSet<>(Arrays.asList("java.lang.String toString()")));
+		String ruleKey = PersistentSummaryCache.getTaintWrapperKey(new EasyTaintWrapper(rules));
+		rules.get("java.lang.StringBuilder").add("java.lang.StringBuilder append(java.lang.String)");
+		assertNotEquals(ruleKey, PersistentSummaryCache.getTaintWrapperKey(new EasyTaintWrapper(rules)));
+
+		// A combined taint wrapper is only cacheable if all of its parts are
+		TaintWrapperSet set = new TaintWrapperSet();
+		set.addWrapper(createTaintWrapper(false));
+		set.addWrapper(new IdentityTaintWrapper());
+		assertNotNull(PersistentSummaryCache.getTaintWrapperKey(set));
+		set.addWrapper(new OpaqueTaintWrapper());
+		assertNull(PersistentSummaryCache.getTaintWrapperKey(set));
+	}
+
+	@Test(timeout = 300000)
+	public void sameConfigurationTest() throws IOException {
+		IInfoflow infoflow = runAnalysis(cacheFolder.getRoot(), sinks, null);
+		checkInfoflow(infoflow, 2);
+		assertEquals(0, summaryCache.getCacheHits());
+
+		infoflow = runAnalysis(cacheFolder.getRoot(), sinks, null);
+		checkInfoflow(infoflow, 2);
+		assertTrue(summaryCache.getCacheHits() > 0);
+
+		// Nothing has changed between the two runs
+		Set<String> changedMethods = summaryCache.updateSnapshot();
+		assertNotNull(changedMethods);
+		assertTrue(changedMethods.isEmpty());
+	}
+
+	@Test(timeout = 300000)
+	public void addedSinkTest() throws IOException {
+		IInfoflow infoflow = runAnalysis(cacheFolder.getRoot(), sinks, null);
+		checkInfoflow(infoflow, 2);
+
+		// The helper method that all flows pass through becomes a sink. A cached
+		// summary of its caller would skip over the new sink.
+		final String newSink = "<soot.jimple.infoflow.test.OtherTestCode: java.lang.String x(java.lang.String)>";
+		List<String> newSinks = new ArrayList<>(sinks);
+		newSinks.add(newSink);
+		IInfoflow cached = runAnalysis(cacheFolder.getRoot(), newSinks, null);
+		assertEquals(0, summaryCache.getCacheHits());
+		assertTrue(cached.getResults().containsSinkMethod(newSink));
+
+		IInfoflow fresh = runAnalysis(cacheFolder.newFolder("fresh"), newSinks, null);
+		assertTrue(fresh.getResults().containsSinkMethod(newSink));
+		assertEquals(fresh.getResults().size(), cached.getResults().size());
+		assertEquals(fresh.getResults().numConnections(), cached.getResults().numConnections());
+	}
+
+	@Test(timeout = 300000)
+	public void memoryPressureTest() throws IOException {
+		// Summaries that were computed with reduced precision must not be stored
+		relieveMemoryPressure = true;
+		IInfoflow infoflow = runAnalysis(cacheFolder.getRoot(), sinks, null);
+		assertTrue(infoflow.getResults().getPerformanceData().getMemoryPressureSteps()
+				.contains(MemoryPressureStep.DropNeighbors));
+
+		relieveMemoryPressure = false;
+		infoflow = runAnalysis(cacheFolder.getRoot(), sinks, null);
+		checkInfoflow(infoflow, 2);
+		assertEquals(0, summaryCache.getCacheHits());
+	}
+
+	@Test(timeout = 300000)
+	public void changedTaintWrapperTest() throws IOException {
+		runAnalysis(cacheFolder.getRoot(), sinks, createTaintWrapper(false));
+
+		// The summaries must not be re-used with different taint wrapper rules
+		runAnalysis(cacheFolder.getRoot(), sinks, createTaintWrapper(true));
+		assertEquals(0, summaryCache.getCacheHits());
+
+		runAnalysis(cacheFolder.getRoot(), sinks, createTaintWrapper(true));
+		assertTrue(summaryCache.getCacheHits() > 0);
+	}
+
+	@Test(timeout = 300000)
+	public void unsupportedTaintWrapperTest() throws IOException {
+		IInfoflow infoflow = runAnalysis(cacheFolder.getRoot(), sinks, new OpaqueTaintWrapper());
+		checkInfoflow(infoflow, 2);
+		assertNull(summaryCache);
+		String[] files = cacheFolder.getRoot().list();
+		assertTrue(files == null || files.length == 0);
+	}
+
+}
@@ -0,0 +1,20 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+
+/**
+ * Runs the heap tests, which make heavy use of the alias solver, on the
+ * work-stealing executor
+ */
+public class WorkStealingHeapTests extends soot.jimple.infoflow.test.junit.HeapTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow result = new Infoflow("", false, null);
+		result.getConfig().getSolverConfiguration().setExecutorType(ExecutorType.WorkStealing);
+		return result;
+	}
+
+}